@@ -0,0 +1,68 @@
+package com.filefilter.benchmark;
+
+import com.filefilter.model.FilterConfig;
+import com.filefilter.util.ConfigLoader;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Shared fixtures for the benchmarks
+ */
+final class BenchmarkData {
+
+    /**
+     * Configuration the fixtures are shaped by (override with -Dbenchmark.config=/path/to/config.yaml)
+     */
+    static final String CONFIG = System.getProperty("benchmark.config", "filter-config.yaml");
+
+    /**
+     * Directory for generated files (override with -Dbenchmark.dataDir=/path)
+     */
+    static final Path DATA_DIR = Paths.get(System.getProperty("benchmark.dataDir", "bench-data"));
+
+    static final long SEED = 42L;
+    static final double REJECT_RATIO = 0.5;
+
+    private BenchmarkData() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Load a fresh copy of the benchmark configuration
+     */
+    static FilterConfig loadConfig() {
+        try {
+            return SyntheticDataGenerator.loadConfig(CONFIG);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot load benchmark configuration " + CONFIG, e);
+        }
+    }
+
+    /**
+     * Generate in-memory rows for microbenchmarks
+     */
+    static String[][] rows(FilterConfig config, int count) {
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(config, REJECT_RATIO, SEED);
+        String[][] rows = new String[count][];
+        for (int i = 0; i < count; i++) {
+            rows[i] = generator.nextRow();
+        }
+        return rows;
+    }
+
+    /**
+     * Generate delimited lines (without header) for microbenchmarks
+     */
+    static byte[] delimitedLines(FilterConfig config, int count, String delimiter) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (String[] row : rows(config, count)) {
+            out.writeBytes(String.join(delimiter, row).getBytes(StandardCharsets.UTF_8));
+            out.write('\n');
+        }
+        return out.toByteArray();
+    }
+}
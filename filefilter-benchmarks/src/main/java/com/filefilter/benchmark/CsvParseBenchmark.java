@@ -0,0 +1,87 @@
+package com.filefilter.benchmark;
+
+import com.filefilter.model.FilterConfig;
+import com.filefilter.processor.scanner.CsvRecordScanner;
+import com.filefilter.validator.RowView;
+import com.filefilter.validator.ValidationEngine;
+import com.opencsv.CSVParserBuilder;
+import com.opencsv.CSVReader;
+import com.opencsv.CSVReaderBuilder;
+import com.opencsv.CSVWriter;
+import com.opencsv.ICSVParser;
+import com.opencsv.exceptions.CsvValidationException;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CSV parsing with the reader settings of CsvFileProcessor (no escape character):
+ * OpenCSV readNext versus the native byte scan (CsvRecordScanner)
+ * Both variants validate every record, as CsvFileProcessor does
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CsvParseBenchmark {
+
+    private static final int RECORDS = 4096;
+    private static final Charset CHARSET = StandardCharsets.UTF_8;
+
+    private ValidationEngine engine;
+    private byte[] data;
+
+    @Setup
+    public void setup() throws IOException {
+        FilterConfig config = BenchmarkData.loadConfig();
+        engine = new ValidationEngine(config);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (CSVWriter writer = new CSVWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+            for (String[] row : BenchmarkData.rows(config, RECORDS)) {
+                writer.writeNext(row);
+            }
+        }
+        data = out.toByteArray();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public int readNext() throws IOException, CsvValidationException {
+        try (CSVReader reader = new CSVReaderBuilder(
+                new InputStreamReader(new ByteArrayInputStream(data), StandardCharsets.UTF_8))
+                .withCSVParser(new CSVParserBuilder()
+                        .withSeparator(ICSVParser.DEFAULT_SEPARATOR)
+                        .withQuoteChar(ICSVParser.DEFAULT_QUOTE_CHARACTER)
+                        .withEscapeChar(ICSVParser.NULL_CHARACTER)
+                        .build())
+                .build()) {
+            int valid = 0;
+            String[] row;
+            while ((row = reader.readNext()) != null) {
+                if (engine.validate(row)) {
+                    valid++;
+                }
+            }
+            return valid;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public int nativeScan() throws IOException {
+        CsvRecordScanner scanner = new CsvRecordScanner(data);
+        RowView row = scanner.rowView(CHARSET);
+        int valid = 0;
+        while (scanner.nextRecord()) {
+            if (engine.validate(row)) {
+                valid++;
+            }
+        }
+        return valid;
+    }
+}
@@ -0,0 +1,65 @@
+package com.filefilter.benchmark;
+
+import com.filefilter.factory.FileProcessorFactory;
+import com.filefilter.model.FilterConfig;
+import com.filefilter.model.PipelineConfig;
+import com.filefilter.processor.base.ProcessingResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full FileProcessor.process runs over generated files
+ *
+ * Input files are generated once per shape into benchmark.dataDir and reused by later runs.
+ * Outputs are written to ./output like a regular run.
+ * Excel is not included - an .xlsx sheet holds at most 1,048,576 rows.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EndToEndBenchmark {
+
+    @Param({"1000000", "10000000", "100000000"})
+    public long rows;
+
+    @Param({"CSV", "TXT"})
+    public String fileType;
+
+    /**
+     * sequential, parallel or pipeline
+     */
+    @Param({"sequential", "parallel", "pipeline"})
+    public String mode;
+
+    private final FileProcessorFactory factory = new FileProcessorFactory();
+    private FilterConfig config;
+
+    @Setup
+    public void setup() throws Exception {
+        FilterConfig base = BenchmarkData.loadConfig();
+        base.setFileType(fileType);
+        if ("TXT".equals(fileType)) {
+            base.setDelimiter("|");
+        }
+
+        Path input = BenchmarkData.DATA_DIR.resolve(fileType.toLowerCase() + "_" + rows + "." + fileType.toLowerCase());
+        if (!Files.exists(input)) {
+            new SyntheticDataGenerator(base, BenchmarkData.REJECT_RATIO, BenchmarkData.SEED).generate(input, rows);
+        }
+
+        config = base.withInputFile(input.toAbsolutePath().toString());
+        config.setParallel("parallel".equals(mode));
+        config.setPipeline("pipeline".equals(mode) ? new PipelineConfig() : null);
+    }
+
+    @Benchmark
+    public ProcessingResult process() {
+        return factory.getProcessor(config.getFileType()).process(config);
+    }
+}
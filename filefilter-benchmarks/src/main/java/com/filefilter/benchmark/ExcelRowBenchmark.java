@@ -0,0 +1,44 @@
+package com.filefilter.benchmark;
+
+import com.filefilter.model.FilterConfig;
+import com.filefilter.processor.excel.XlsxSheetReader;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Excel read path: streaming SAX parse plus ExcelRow.toStringArray (the former rowToStringArray)
+ * for every row of a generated workbook
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExcelRowBenchmark {
+
+    private static final int ROWS = 20_000;
+
+    private Path workbook;
+
+    @Setup
+    public void setup() throws Exception {
+        FilterConfig config = BenchmarkData.loadConfig();
+        config.setFileType("EXCEL");
+        workbook = BenchmarkData.DATA_DIR.resolve("excel_" + ROWS + ".xlsx");
+        new SyntheticDataGenerator(config, BenchmarkData.REJECT_RATIO, BenchmarkData.SEED).generate(workbook, ROWS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void toStringArray(Blackhole blackhole) throws Exception {
+        try (OPCPackage inputPackage = OPCPackage.open(workbook.toFile(), PackageAccess.READ)) {
+            XlsxSheetReader.read(inputPackage, row -> blackhole.consume(row.toStringArray()));
+        }
+    }
+}
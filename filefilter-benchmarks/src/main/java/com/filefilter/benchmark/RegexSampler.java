@@ -0,0 +1,256 @@
+package com.filefilter.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+/**
+ * Produces random strings matching a regex, for generating valid synthetic values
+ *
+ * Supports the subset of regex used in validation rules: literals, escapes (\d \w \s and
+ * escaped literals), '.', character classes with ranges, groups with alternation and the
+ * quantifiers ? * + {n} {n,} {n,m}. Anchors are ignored.
+ * Every sample is checked against the pattern, so unsupported constructs are detected
+ * instead of silently producing invalid values.
+ */
+final class RegexSampler {
+
+    private static final String WORD_CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789_";
+    private static final int MAX_EXTRA_REPEATS = 3;
+    private static final int MAX_ATTEMPTS = 20;
+
+    private final String regex;
+    private final Pattern pattern;
+    private final Random random;
+
+    private int pos;
+
+    /**
+     * @param regex Pattern to sample
+     * @param random Random source (not thread-safe - one sampler per thread)
+     */
+    RegexSampler(String regex, Random random) {
+        this.regex = regex;
+        this.pattern = Pattern.compile(regex);
+        this.random = random;
+    }
+
+    /**
+     * Check whether the regex can be sampled
+     */
+    boolean isSupported() {
+        try {
+            return sample() != null;
+        } catch (RuntimeException e) {
+            // Unsupported or malformed construct
+            return false;
+        }
+    }
+
+    /**
+     * @return Random string matching the whole regex, or null if no match was produced
+     * @throws IllegalArgumentException if the regex uses unsupported constructs
+     */
+    String sample() {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            pos = 0;
+            StringBuilder out = new StringBuilder();
+            alternation(out);
+            if (pos != regex.length()) {
+                throw new IllegalArgumentException("Unsupported regex construct at " + pos + ": " + regex);
+            }
+            String value = out.toString();
+            if (pattern.matcher(value).matches()) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * alternation := sequence ('|' sequence)*
+     */
+    private void alternation(StringBuilder out) {
+        List<StringBuilder> branches = new ArrayList<>();
+        StringBuilder branch = new StringBuilder();
+        sequence(branch);
+        branches.add(branch);
+        while (pos < regex.length() && regex.charAt(pos) == '|') {
+            pos++;
+            branch = new StringBuilder();
+            sequence(branch);
+            branches.add(branch);
+        }
+        out.append(branches.get(random.nextInt(branches.size())));
+    }
+
+    /**
+     * sequence := (atom quantifier?)*
+     */
+    private void sequence(StringBuilder out) {
+        while (pos < regex.length()) {
+            char c = regex.charAt(pos);
+            if (c == '|' || c == ')') {
+                return;
+            }
+            if (c == '^' || c == '$') {
+                pos++;
+                continue;
+            }
+
+            int atomStart = pos;
+            skipAtom();
+            int atomEnd = pos;
+            int repeats = quantifier();
+            int afterQuantifier = pos;
+
+            for (int i = 0; i < repeats; i++) {
+                pos = atomStart;
+                atom(out);
+            }
+            pos = Math.max(afterQuantifier, atomEnd);
+        }
+    }
+
+    /**
+     * Emit one occurrence of the atom at pos
+     */
+    private void atom(StringBuilder out) {
+        char c = regex.charAt(pos++);
+        switch (c) {
+            case '\\' -> out.append(escape(regex.charAt(pos++)));
+            case '.' -> out.append(WORD_CHARS.charAt(random.nextInt(WORD_CHARS.length())));
+            case '[' -> out.append(characterClass());
+            case '(' -> {
+                if (regex.startsWith("?:", pos)) {
+                    pos += 2;
+                }
+                alternation(out);
+                expect(')');
+            }
+            case '*', '+', '?', '{' -> throw new IllegalArgumentException("Dangling quantifier in " + regex);
+            default -> out.append(c);
+        }
+    }
+
+    /**
+     * Move pos past the atom at pos without emitting it
+     */
+    private void skipAtom() {
+        int start = pos;
+        atom(new StringBuilder());
+        if (pos <= start) {
+            throw new IllegalArgumentException("Unsupported regex: " + regex);
+        }
+    }
+
+    /**
+     * Parse an optional quantifier
+     *
+     * @return Random number of repetitions within the quantifier bounds (1 without quantifier)
+     */
+    private int quantifier() {
+        if (pos >= regex.length()) {
+            return 1;
+        }
+        char c = regex.charAt(pos);
+        int min;
+        int max;
+
+        switch (c) {
+            case '?' -> {
+                min = 0;
+                max = 1;
+                pos++;
+            }
+            case '*' -> {
+                min = 0;
+                max = MAX_EXTRA_REPEATS;
+                pos++;
+            }
+            case '+' -> {
+                min = 1;
+                max = 1 + MAX_EXTRA_REPEATS;
+                pos++;
+            }
+            case '{' -> {
+                int close = regex.indexOf('}', pos);
+                if (close < 0) {
+                    throw new IllegalArgumentException("Unclosed quantifier in " + regex);
+                }
+                String[] bounds = regex.substring(pos + 1, close).split(",", -1);
+                min = Integer.parseInt(bounds[0].trim());
+                if (bounds.length == 1) {
+                    max = min;
+                } else if (bounds[1].isBlank()) {
+                    max = min + MAX_EXTRA_REPEATS;
+                } else {
+                    max = Integer.parseInt(bounds[1].trim());
+                }
+                pos = close + 1;
+            }
+            default -> {
+                return 1;
+            }
+        }
+
+        // Lazy / possessive suffix does not change the accepted strings
+        if (pos < regex.length() && (regex.charAt(pos) == '?' || regex.charAt(pos) == '+')) {
+            pos++;
+        }
+        return min + random.nextInt(max - min + 1);
+    }
+
+    private char escape(char c) {
+        return switch (c) {
+            case 'd' -> (char) ('0' + random.nextInt(10));
+            case 'w' -> WORD_CHARS.charAt(random.nextInt(WORD_CHARS.length()));
+            case 's' -> ' ';
+            case 't' -> '\t';
+            case 'D', 'W', 'S', 'b', 'B', 'p', 'P' ->
+                    throw new IllegalArgumentException("Unsupported escape \\" + c + " in " + regex);
+            default -> c;
+        };
+    }
+
+    /**
+     * Pick a random character of a [...] class (negated classes are not supported)
+     */
+    private char characterClass() {
+        if (regex.charAt(pos) == '^') {
+            throw new IllegalArgumentException("Negated character class in " + regex);
+        }
+
+        StringBuilder candidates = new StringBuilder();
+        while (regex.charAt(pos) != ']') {
+            char c = regex.charAt(pos++);
+            if (c == '\\') {
+                char e = regex.charAt(pos++);
+                switch (e) {
+                    case 'd' -> candidates.append("0123456789");
+                    case 'w' -> candidates.append(WORD_CHARS);
+                    case 's' -> candidates.append(' ');
+                    default -> candidates.append(e);
+                }
+            } else if (regex.charAt(pos) == '-' && regex.charAt(pos + 1) != ']') {
+                char end = regex.charAt(pos + 1);
+                for (char r = c; r <= end; r++) {
+                    candidates.append(r);
+                }
+                pos += 2;
+            } else {
+                candidates.append(c);
+            }
+        }
+        pos++;
+        return candidates.charAt(random.nextInt(candidates.length()));
+    }
+
+    private void expect(char c) {
+        if (pos >= regex.length() || regex.charAt(pos) != c) {
+            throw new IllegalArgumentException("Expected '" + c + "' at " + pos + " in " + regex);
+        }
+        pos++;
+    }
+}
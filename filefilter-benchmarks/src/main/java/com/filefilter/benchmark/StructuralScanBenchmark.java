@@ -0,0 +1,113 @@
+package com.filefilter.benchmark;
+
+import com.filefilter.model.FilterConfig;
+import com.filefilter.processor.scanner.CsvRecordScanner;
+import com.filefilter.processor.scanner.DelimitedLineScanner;
+import com.opencsv.CSVWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Record and field splitting alone (no validation): scalar loops versus Vector API byte search
+ * Both variants run the same scanners in separate forks, with the vector search disabled
+ * through -Dfilefilter.simd=false in the scalar fork.
+ * Rows are generated from the configuration and padded with filler columns to the average row width.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class StructuralScanBenchmark {
+
+    private static final int ROWS = 4096;
+    private static final int FILLER_WIDTH = 24;
+    private static final byte[] DELIMITER = {'|'};
+
+    /**
+     * Average row width in bytes
+     */
+    @Param({"100", "2048"})
+    public int rowWidth;
+
+    @Param({"TXT", "CSV"})
+    public String fileType;
+
+    private byte[] data;
+
+    @Setup
+    public void setup() throws IOException {
+        FilterConfig config = BenchmarkData.loadConfig();
+        String[][] rows = BenchmarkData.rows(config, ROWS);
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = pad(rows[i], rowWidth);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if ("CSV".equals(fileType)) {
+            try (CSVWriter writer = new CSVWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+                for (String[] row : rows) {
+                    writer.writeNext(row);
+                }
+            }
+        } else {
+            for (String[] row : rows) {
+                out.writeBytes(String.join("|", row).getBytes(StandardCharsets.UTF_8));
+                out.write('\n');
+            }
+        }
+        data = out.toByteArray();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector", "-Dfilefilter.simd=false"})
+    @OperationsPerInvocation(ROWS)
+    public long scalar() throws IOException {
+        return scan();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector"})
+    @OperationsPerInvocation(ROWS)
+    public long vector() throws IOException {
+        return scan();
+    }
+
+    /**
+     * @return Total number of fields (consumed by JMH)
+     */
+    private long scan() throws IOException {
+        long fields = 0;
+        if ("CSV".equals(fileType)) {
+            CsvRecordScanner scanner = new CsvRecordScanner(data);
+            while (scanner.nextRecord()) {
+                fields += scanner.fieldCount();
+            }
+        } else {
+            DelimitedLineScanner scanner = new DelimitedLineScanner(data, DELIMITER);
+            while (scanner.nextLine()) {
+                fields += scanner.fieldCount();
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Append filler columns until the row is about width bytes long
+     */
+    private static String[] pad(String[] row, int width) {
+        int length = String.join("|", row).length();
+        int fillers = Math.max(0, (width - length) / (FILLER_WIDTH + 1));
+        String[] padded = Arrays.copyOf(row, row.length + fillers);
+        for (int i = row.length; i < padded.length; i++) {
+            padded[i] = "filler-" + "x".repeat(FILLER_WIDTH - 7);
+        }
+        return padded;
+    }
+}
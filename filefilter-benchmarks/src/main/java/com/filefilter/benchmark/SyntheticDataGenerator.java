@@ -0,0 +1,286 @@
+package com.filefilter.benchmark;
+
+import com.filefilter.model.FilterConfig;
+import com.filefilter.model.ValidationRule;
+import com.filefilter.util.ConfigLoader;
+import com.opencsv.CSVWriter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.Constructor;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates synthetic input files shaped by a filter configuration
+ *
+ * The configuration drives the file type, delimiter, encoding, number of header lines,
+ * column count and the values of validated columns:
+ * - valueInList columns get a value from the list
+ * - regex columns get a random matching value (see RegexSampler)
+ * - notEmpty columns get a random token
+ * A configurable share of rows breaks one rule (or the column count), so both the
+ * filtered and the rejected path are exercised.
+ *
+ * Usage: SyntheticDataGenerator <config.yaml> <rows> <outputFile> [rejectRatio] [seed]
+ */
+public final class SyntheticDataGenerator {
+
+    /**
+     * Maximum number of rows of an .xlsx sheet
+     */
+    private static final int EXCEL_MAX_ROWS = 1_048_576;
+
+    private static final String TOKEN_CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+    private static final String INVALID_VALUE = "#INVALID#";
+
+    private final FilterConfig config;
+    private final double rejectRatio;
+    private final Random random;
+    private final int columnCount;
+    private final ColumnSpec[] columns;
+    private final List<Integer> ruleColumns = new ArrayList<>();
+
+    /**
+     * Generation rules of one column
+     */
+    private static final class ColumnSpec {
+        boolean notEmpty;
+        List<String> values;
+        RegexSampler sampler;
+
+        boolean hasRule() {
+            return notEmpty || values != null || sampler != null;
+        }
+    }
+
+    /**
+     * @param config Filter configuration describing the file shape
+     * @param rejectRatio Share of rows that fail validation (0.0 - 1.0)
+     * @param seed Random seed, equal seeds produce equal files
+     */
+    public SyntheticDataGenerator(FilterConfig config, double rejectRatio, long seed) {
+        this.config = config;
+        this.rejectRatio = rejectRatio;
+        this.random = new Random(seed);
+
+        int maxRuleColumn = 0;
+        if (config.getValidations() != null) {
+            for (ValidationRule rule : config.getValidations()) {
+                maxRuleColumn = Math.max(maxRuleColumn, rule.getColumn());
+            }
+        }
+        this.columnCount = config.getExpectedTotalColumn() != null
+                ? Math.max(config.getExpectedTotalColumn(), maxRuleColumn)
+                : Math.max(maxRuleColumn, 1);
+
+        this.columns = new ColumnSpec[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            columns[i] = new ColumnSpec();
+        }
+        if (config.getValidations() != null) {
+            for (ValidationRule rule : config.getValidations()) {
+                ColumnSpec spec = columns[rule.getColumn() - 1];
+                spec.notEmpty |= Boolean.TRUE.equals(rule.getNotEmpty());
+                if (rule.getValueInList() != null && !rule.getValueInList().isEmpty()) {
+                    spec.values = rule.getValueInList();
+                }
+                if (rule.getRegex() != null) {
+                    RegexSampler sampler = new RegexSampler(rule.getRegex(), random);
+                    if (!sampler.isSupported()) {
+                        throw new IllegalArgumentException("Cannot generate values for regex: " + rule.getRegex());
+                    }
+                    spec.sampler = sampler;
+                }
+            }
+        }
+        for (int i = 0; i < columnCount; i++) {
+            if (columns[i].hasRule()) {
+                ruleColumns.add(i);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: SyntheticDataGenerator <config.yaml> <rows> <outputFile> [rejectRatio] [seed]");
+            System.exit(1);
+        }
+
+        FilterConfig config = loadConfig(args[0]);
+        long rows = Long.parseLong(args[1]);
+        double rejectRatio = args.length > 3 ? Double.parseDouble(args[3]) : 0.5;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 42L;
+
+        long startTime = System.currentTimeMillis();
+        new SyntheticDataGenerator(config, rejectRatio, seed).generate(Paths.get(args[2]), rows);
+        System.out.printf("Generated %d %s rows in %s (%dms)%n",
+                rows, config.getFileType(), args[2], System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * Load a filter configuration from the file system, or from the classpath as fallback
+     * (e.g. "filter-config.yaml" bundled with the application)
+     */
+    public static FilterConfig loadConfig(String path) throws IOException {
+        Path file = Paths.get(path);
+        if (!Files.isRegularFile(file)) {
+            return ConfigLoader.load(path);
+        }
+
+        try (InputStream input = Files.newInputStream(file)) {
+            Yaml yaml = new Yaml(new Constructor(FilterConfig.class, new LoaderOptions()));
+            return yaml.load(input);
+        }
+    }
+
+    /**
+     * Write a file of the configured type
+     *
+     * @param output Output file (parent directories are created)
+     * @param rows Number of data rows (header lines come on top)
+     */
+    public void generate(Path output, long rows) throws IOException {
+        if (output.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(output.toAbsolutePath().getParent());
+        }
+
+        switch (config.getFileType().toUpperCase()) {
+            case "CSV" -> generateCsv(output, rows);
+            case "TXT" -> generateTxt(output, rows);
+            case "EXCEL" -> generateExcel(output, rows);
+            default -> throw new IllegalArgumentException("Unsupported file type: " + config.getFileType());
+        }
+    }
+
+    /**
+     * Create the next data row (valid or invalid according to the reject ratio)
+     */
+    public String[] nextRow() {
+        String[] row = new String[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            row[i] = validValue(columns[i]);
+        }
+
+        if (random.nextDouble() >= rejectRatio) {
+            return row;
+        }
+
+        // Break one rule, or the column count if there is no rule
+        if (ruleColumns.isEmpty() || (config.getExpectedTotalColumn() != null && random.nextInt(10) == 0)) {
+            String[] shortRow = new String[Math.max(1, columnCount - 1)];
+            System.arraycopy(row, 0, shortRow, 0, shortRow.length);
+            return shortRow;
+        }
+        int column = ruleColumns.get(random.nextInt(ruleColumns.size()));
+        row[column] = invalidValue(columns[column]);
+        return row;
+    }
+
+    /**
+     * Header row: "column1", "column2", ...
+     */
+    public String[] headerRow() {
+        String[] row = new String[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            row[i] = "column" + (i + 1);
+        }
+        return row;
+    }
+
+    private String validValue(ColumnSpec spec) {
+        if (spec.values != null) {
+            return spec.values.get(random.nextInt(spec.values.size()));
+        }
+        if (spec.sampler != null) {
+            return spec.sampler.sample();
+        }
+        return token(4 + random.nextInt(9));
+    }
+
+    private String invalidValue(ColumnSpec spec) {
+        if (spec.notEmpty && (spec.values == null && spec.sampler == null || random.nextBoolean())) {
+            return "";
+        }
+        return INVALID_VALUE;
+    }
+
+    private String token(int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = TOKEN_CHARS.charAt(random.nextInt(TOKEN_CHARS.length()));
+        }
+        return new String(chars);
+    }
+
+    private int headerLines() {
+        return config.getSkipHeaderLines() != null ? config.getSkipHeaderLines() : 0;
+    }
+
+    private Charset charset() {
+        return Charset.forName(config.getEncoding() != null ? config.getEncoding() : "UTF-8");
+    }
+
+    private void generateCsv(Path output, long rows) throws IOException {
+        try (CSVWriter writer = new CSVWriter(new BufferedWriter(
+                new OutputStreamWriter(Files.newOutputStream(output), charset()), 1 << 16))) {
+            for (int i = 0; i < headerLines(); i++) {
+                writer.writeNext(headerRow());
+            }
+            for (long i = 0; i < rows; i++) {
+                writer.writeNext(nextRow());
+            }
+        }
+    }
+
+    private void generateTxt(Path output, long rows) throws IOException {
+        String delimiter = config.getDelimiter() != null ? config.getDelimiter() : ",";
+        try (BufferedWriter writer = new BufferedWriter(
+                new OutputStreamWriter(Files.newOutputStream(output), charset()), 1 << 16)) {
+            for (int i = 0; i < headerLines(); i++) {
+                writer.write(String.join(delimiter, headerRow()));
+                writer.write('\n');
+            }
+            for (long i = 0; i < rows; i++) {
+                writer.write(String.join(delimiter, nextRow()));
+                writer.write('\n');
+            }
+        }
+    }
+
+    private void generateExcel(Path output, long rows) throws IOException {
+        if (rows + headerLines() > EXCEL_MAX_ROWS) {
+            throw new IllegalArgumentException("An .xlsx sheet holds at most " + EXCEL_MAX_ROWS + " rows");
+        }
+
+        SXSSFWorkbook workbook = new SXSSFWorkbook(100);
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(output))) {
+            Sheet sheet = workbook.createSheet("Data");
+            int rowNum = 0;
+            for (int i = 0; i < headerLines(); i++) {
+                writeExcelRow(sheet.createRow(rowNum++), headerRow());
+            }
+            for (long i = 0; i < rows; i++) {
+                writeExcelRow(sheet.createRow(rowNum++), nextRow());
+            }
+            workbook.write(out);
+        } finally {
+            workbook.close();
+        }
+    }
+
+    private static void writeExcelRow(Row row, String[] values) {
+        for (int i = 0; i < values.length; i++) {
+            row.createCell(i).setCellValue(values[i]);
+        }
+    }
+}
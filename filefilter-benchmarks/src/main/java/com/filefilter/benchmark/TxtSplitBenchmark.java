@@ -0,0 +1,77 @@
+package com.filefilter.benchmark;
+
+import com.filefilter.model.FilterConfig;
+import com.filefilter.processor.scanner.DelimitedLineScanner;
+import com.filefilter.validator.RowView;
+import com.filefilter.validator.ValidationEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * TXT split path: byte scan (DelimitedLineScanner) versus decoding and Pattern.split per line
+ * Both variants split and validate every line, as TxtFileProcessor does
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TxtSplitBenchmark {
+
+    private static final int LINES = 4096;
+    private static final Charset CHARSET = StandardCharsets.UTF_8;
+
+    @Param({"|", ","})
+    public String delimiter;
+
+    private ValidationEngine engine;
+    private byte[] data;
+    private byte[] delimiterBytes;
+    private Pattern delimiterPattern;
+
+    @Setup
+    public void setup() {
+        FilterConfig config = BenchmarkData.loadConfig();
+        engine = new ValidationEngine(config);
+        data = BenchmarkData.delimitedLines(config, LINES, delimiter);
+        delimiterBytes = delimiter.getBytes(CHARSET);
+        delimiterPattern = Pattern.compile(Pattern.quote(delimiter));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public int byteScan() throws IOException {
+        DelimitedLineScanner scanner = new DelimitedLineScanner(data, delimiterBytes);
+        RowView row = scanner.rowView(CHARSET);
+        int valid = 0;
+        while (scanner.nextLine()) {
+            if (engine.validate(row)) {
+                valid++;
+            }
+        }
+        return valid;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public int patternSplit() throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(data), CHARSET));
+        int valid = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (engine.validate(delimiterPattern.split(line, -1))) {
+                valid++;
+            }
+        }
+        return valid;
+    }
+}
@@ -0,0 +1,47 @@
+package com.filefilter.benchmark;
+
+import com.filefilter.model.FilterConfig;
+import com.filefilter.validator.ValidationEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ValidationEngine.validate over generated rows
+ * Uses the rule mix of the benchmark configuration (regex, valueInList and notEmpty by default)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidationEngineBenchmark {
+
+    private static final int ROWS = 4096;
+
+    private ValidationEngine engine;
+    private String[][] rows;
+
+    @Setup
+    public void setup() {
+        FilterConfig config = BenchmarkData.loadConfig();
+        engine = new ValidationEngine(config);
+        rows = BenchmarkData.rows(config, ROWS);
+    }
+
+    /**
+     * @return Number of valid rows (consumed by JMH)
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int validate() {
+        int valid = 0;
+        for (String[] row : rows) {
+            if (engine.validate(row)) {
+                valid++;
+            }
+        }
+        return valid;
+    }
+}
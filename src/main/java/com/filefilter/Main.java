@@ -1,10 +1,15 @@
 package com.filefilter;
 
+import com.filefilter.batch.BatchRunner;
 import com.filefilter.model.FilterConfig;
+import com.filefilter.model.RouteConfig;
 import com.filefilter.factory.FileProcessorFactory;
 import com.filefilter.processor.base.FileProcessor;
-import com.filefilter.util.ConfigLoader;
+import com.filefilter.processor.base.ProcessingResult;
+import com.filefilter.service.FilterService;
+import com.filefilter.util.ConfigCache;
 import com.filefilter.util.FileNameUtil;
+import com.filefilter.util.InputFileUtil;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -25,7 +30,7 @@ public static void main(String[] args) {
             // Load configuration
             String configPath = args.length > 0 ? args[0] : DEFAULT_CONFIG;
             log.info("Loading configuration from: {}", configPath);
-            FilterConfig config = ConfigLoader.load(configPath);
+            FilterConfig config = ConfigCache.shared().load(configPath);
 
             // Validate configuration
             validateConfig(config);
@@ -33,12 +38,31 @@ public static void main(String[] args) {
             // Display configuration summary
             displayConfigSummary(config);
 
-            // Create factory and get appropriate processor
-            FileProcessorFactory factory = new FileProcessorFactory();
-            FileProcessor processor = factory.getProcessor(config.getFileType());
-
-            // Process the file (logging handled by BaseProcessor)
-            processor.process(config);
+            if (config.getService() != null) {
+                // Keep running and process files of the watched directory until the JVM is stopped
+                FilterService service = new FilterService(config);
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    try {
+                        service.stop();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }, "service-shutdown"));
+                service.run();
+            } else if (config.getBatch() != null) {
+                // Process all matching files of the directory (logging handled by BatchRunner)
+                ProcessingResult summary = new BatchRunner().run(config);
+                if (!summary.isSuccess()) {
+                    throw new IllegalStateException("One or more files failed in batch mode");
+                }
+            } else {
+                // Create factory and get appropriate processor
+                FileProcessorFactory factory = new FileProcessorFactory();
+                FileProcessor processor = factory.getProcessor(config.getFileType());
+
+                // Process the file (logging handled by BaseProcessor)
+                processor.process(config);
+            }
 
             log.info("=".repeat(60));
             log.info("File Filter Application Completed Successfully");
@@ -57,7 +81,15 @@ public static void main(String[] args) {
      * Validate configuration
      */
     private static void validateConfig(FilterConfig config) {
-        if (config.getInputFile() == null || config.getInputFile().isEmpty()) {
+        if (config.getService() != null) {
+            if (config.getService().getInputDirectory() == null || config.getService().getInputDirectory().isEmpty()) {
+                throw new IllegalArgumentException("Input directory is required in service configuration");
+            }
+        } else if (config.getBatch() != null) {
+            if (config.getBatch().getInputDirectory() == null || config.getBatch().getInputDirectory().isEmpty()) {
+                throw new IllegalArgumentException("Input directory is required in batch configuration");
+            }
+        } else if (config.getInputFile() == null || config.getInputFile().isEmpty()) {
             throw new IllegalArgumentException("Input file is required in configuration");
         }
 
@@ -76,16 +108,27 @@ private static void validateConfig(FilterConfig config) {
     private static void displayConfigSummary(FilterConfig config) {
         log.info("-".repeat(60));
         log.info("Configuration Summary:");
-        log.info("  Input File: sourcefile/{}", config.getInputFile());
+        if (config.getService() != null) {
+            log.info("  Service Input: {}/{}", config.getService().getInputDirectory(), config.getService().getPattern());
+        } else if (config.getBatch() != null) {
+            log.info("  Batch Input: {}/{}", config.getBatch().getInputDirectory(), config.getBatch().getPattern());
+        } else {
+            log.info("  Input File: {}", InputFileUtil.describe(config.getInputFile()));
+        }
         log.info("  File Type: {}", config.getFileType());
         log.info("  Encoding: {}", config.getEncoding());
         log.info("  Skip Header Lines: {}", config.getSkipHeaderLines());
         log.info("  Expected Columns: {}", config.getExpectedTotalColumn() != null ? config.getExpectedTotalColumn() : "No limit");
         log.info("  Validation Rules: {} rule(s)", config.getValidations() != null ? config.getValidations().size() : 0);
-        log.info("  Output File: output/{}", getOutputFileName(config));
-        log.info("  Rejected Data File: {}", config.getOutput().getNeedRejectedData()
-                ? "output/" + getRejectedFileName(config)
-                : "Disabled");
+        if (config.getRoutes() != null && !config.getRoutes().isEmpty()) {
+            log.info("  Routes: {}", config.getRoutes().stream().map(RouteConfig::getName).toList());
+        }
+        if (config.getBatch() == null && config.getService() == null) {
+            log.info("  Output File: output/{}", getOutputFileName(config));
+            log.info("  Rejected Data File: {}", config.getOutput().getNeedRejectedData()
+                    ? "output/" + getRejectedFileName(config)
+                    : "Disabled");
+        }
         log.info("-".repeat(60));
     }
 
@@ -0,0 +1,131 @@
+package com.filefilter.batch;
+
+import com.filefilter.factory.FileProcessorFactory;
+import com.filefilter.model.BatchConfig;
+import com.filefilter.model.FilterConfig;
+import com.filefilter.processor.base.ProcessingResult;
+import com.filefilter.util.ConfigCache;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Batch mode - filters all matching files of a directory in one JVM
+ *
+ * Every file runs on its own virtual thread through the regular FileProcessorFactory
+ * processors, with concurrency bounded by BatchConfig.maxConcurrentFiles.
+ * The validation rules are compiled once for all files (see ConfigCache).
+ * A failing file is logged and counted, the remaining files are still processed.
+ */
+@Slf4j
+public class BatchRunner {
+
+    private final FileProcessorFactory factory = new FileProcessorFactory();
+
+    /**
+     * Process all files matching the batch configuration
+     *
+     * @param config Filter configuration with batch settings (inputFile is ignored)
+     * @return Aggregated result (success=false if at least one file failed)
+     * @throws IOException if the input directory cannot be listed
+     */
+    public ProcessingResult run(FilterConfig config) throws IOException, InterruptedException {
+        long startTime = System.currentTimeMillis();
+        BatchConfig batch = config.getBatch();
+        List<Path> files = listFiles(batch);
+        int permits = batch.getMaxConcurrentFiles() != null && batch.getMaxConcurrentFiles() > 0
+                ? batch.getMaxConcurrentFiles()
+                : BatchConfig.DEFAULT_MAX_CONCURRENT_FILES;
+
+        log.info("Batch mode: {} file(s) in {} matching '{}', max {} concurrent",
+                files.size(), batch.getInputDirectory(), batch.getPattern(), permits);
+
+        Semaphore semaphore = new Semaphore(permits);
+        List<ProcessingResult> results = Collections.synchronizedList(new ArrayList<>());
+        List<String> failedFiles = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger completed = new AtomicInteger();
+
+        // Virtual thread per file, closing the executor waits for all files
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Path file : files) {
+                executor.submit(() -> {
+                    semaphore.acquireUninterruptibly();
+                    try {
+                        FilterConfig fileConfig = config.withInputFile(file.toString());
+                        results.add(factory.getProcessor(config.getFileType()).process(fileConfig));
+                    } catch (Exception e) {
+                        log.error("Failed to process {}: {}", file, e.getMessage());
+                        failedFiles.add(file.toString());
+                    } finally {
+                        semaphore.release();
+                        log.info("Batch progress: {}/{} file(s)", completed.incrementAndGet(), files.size());
+                    }
+                });
+            }
+        }
+
+        ProcessingResult totals = ProcessingResult.builder().build();
+        for (ProcessingResult result : results) {
+            totals = totals.merge(result);
+        }
+
+        ProcessingResult summary = ProcessingResult.builder()
+                .totalRecords(totals.getTotalRecords())
+                .successRecords(totals.getSuccessRecords())
+                .rejectRecords(totals.getRejectRecords())
+                .processingTimeMs(System.currentTimeMillis() - startTime)
+                .success(failedFiles.isEmpty())
+                .build();
+
+        logSummary(files.size(), failedFiles, summary);
+        ConfigCache.shared().logStats();
+        return summary;
+    }
+
+    /**
+     * List regular files of the input directory matching the glob pattern, sorted by name
+     */
+    private static List<Path> listFiles(BatchConfig batch) throws IOException {
+        Path directory = Paths.get(batch.getInputDirectory());
+        String pattern = batch.getPattern() != null ? batch.getPattern() : "*";
+
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, pattern)) {
+            for (Path path : stream) {
+                if (Files.isRegularFile(path)) {
+                    files.add(path);
+                }
+            }
+        }
+        Collections.sort(files);
+        return files;
+    }
+
+    /**
+     * Log aggregated batch statistics
+     */
+    private static void logSummary(int fileCount, List<String> failedFiles, ProcessingResult summary) {
+        log.info("Batch completed in {}ms", summary.getProcessingTimeMs());
+        log.info("Files: {}, succeeded: {}, failed: {}",
+                fileCount, fileCount - failedFiles.size(), failedFiles.size());
+        for (String failedFile : failedFiles) {
+            log.error("Failed file: {}", failedFile);
+        }
+
+        // Overall summary (condensed format)
+        log.info("batch, {}ms, files={}, failedFiles={}, totalRecords={}, successRecord={}, rejectRecord={}, success={}",
+                summary.getProcessingTimeMs(), fileCount, failedFiles.size(), summary.getTotalRecords(),
+                summary.getSuccessRecords(), summary.getRejectRecords(), summary.isSuccess());
+    }
+}
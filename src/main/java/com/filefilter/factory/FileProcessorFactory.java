@@ -23,7 +23,8 @@ public FileProcessorFactory() {
         // Define all processor registrations
         List<ProcessorRegistration> registrations = Arrays.asList(
                 new ProcessorRegistration(new String[]{"CSV"}, CsvFileProcessor::new),
-                new ProcessorRegistration(new String[]{"EXCEL", "XLSX", "XLS"}, ExcelFileProcessor::new),
+                new ProcessorRegistration(new String[]{"EXCEL", "XLSX"}, ExcelFileProcessor::new),
+                new ProcessorRegistration(new String[]{"XLS"}, XlsFileProcessor::new),
                 new ProcessorRegistration(new String[]{"TXT"}, TxtFileProcessor::new)
         );
 
@@ -37,7 +38,7 @@ public FileProcessorFactory() {
     /**
      * Get processor based on file type
      *
-     * @param fileType File type (e.g., "CSV", "EXCEL", "TXT")
+     * @param fileType File type (e.g., "CSV", "EXCEL", "XLS", "TXT")
      * @return Appropriate FileProcessor implementation
      * @throws IllegalArgumentException if file type is not supported
      */
@@ -0,0 +1,24 @@
+package com.filefilter.model;
+
+import lombok.Data;
+
+/**
+ * Configuration for adaptive rule ordering
+ * Checks are reordered by measured cost and failure rate so that rows are rejected as early and cheaply as possible
+ */
+@Data
+public class AdaptiveOrderConfig {
+
+    /**
+     * Number of rows observed before the checks are reordered
+     * Default: 10000
+     */
+    private Integer sampleRows = 10000;
+
+    /**
+     * Keep observing and reorder again after every sampleRows rows (follows drifting data)
+     * If false, the order is fixed after the first sampleRows rows
+     * Default: false
+     */
+    private Boolean continuous = false;
+}
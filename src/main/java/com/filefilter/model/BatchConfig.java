@@ -0,0 +1,31 @@
+package com.filefilter.model;
+
+import lombok.Data;
+
+/**
+ * Configuration for batch mode (many input files per run)
+ */
+@Data
+public class BatchConfig {
+
+    public static final int DEFAULT_MAX_CONCURRENT_FILES = 8;
+
+    /**
+     * Directory containing the input files
+     * Example: "/data/landing"
+     */
+    private String inputDirectory;
+
+    /**
+     * Glob pattern for file names inside inputDirectory
+     * Default: "*" (all files)
+     * Example: "*.csv", "feed_*.{txt,dat}"
+     */
+    private String pattern = "*";
+
+    /**
+     * Maximum number of files processed at the same time
+     * Default: 8
+     */
+    private Integer maxConcurrentFiles = DEFAULT_MAX_CONCURRENT_FILES;
+}
@@ -0,0 +1,19 @@
+package com.filefilter.model;
+
+import lombok.Data;
+
+/**
+ * Configuration for checkpointed, resumable processing of TXT/CSV files
+ * Progress is saved to a sidecar file in the output directory, a restart after a crash
+ * continues from the last checkpoint and appends to the existing outputs
+ */
+@Data
+public class CheckpointConfig {
+
+    /**
+     * Number of data records between checkpoints
+     * Outputs are flushed to disk at every checkpoint, so very small values slow processing down
+     * Default: 1000000
+     */
+    private Integer intervalRecords = 1_000_000;
+}
@@ -0,0 +1,39 @@
+package com.filefilter.model;
+
+import lombok.Data;
+
+/**
+ * Configuration of the output files written for Excel input
+ */
+@Data
+public class ExcelOutputConfig {
+
+    /**
+     * Output format: "XLSX" or "CSV" (case-insensitive)
+     * CSV outputs are named ".csv", hold the cell values as validation sees them (numbers as "1.0",
+     * dates as Date.toString()) and are compressed according to OutputConfig.compression
+     * Default: "XLSX"
+     */
+    private String format = "XLSX";
+
+    /**
+     * Rows per sheet kept in memory before they are flushed to a temporary file
+     * Larger windows need more heap, smaller windows flush more often
+     * Default: 100
+     */
+    private Integer windowSize = 100;
+
+    /**
+     * Whether the temporary sheet files are gzip-compressed (typically 5-10x smaller, slightly more CPU)
+     * Default: true
+     */
+    private Boolean compressTempFiles = true;
+
+    /**
+     * Whether strings are written to a shared strings table instead of inline
+     * Repeated values are stored once, so files with few distinct strings get much smaller,
+     * but the table of distinct strings is held in memory until the workbook is written
+     * Default: false
+     */
+    private Boolean sharedStrings = false;
+}
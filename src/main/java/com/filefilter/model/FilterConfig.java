@@ -1,22 +1,38 @@
 package com.filefilter.model;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.With;
+
 import java.util.List;
 
 /**
  * Main configuration class that maps to filter-config.yaml
  */
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class FilterConfig {
 
     /**
-     * Input file path (relative to resources/sourcefile/)
-     * Example: "SampleData.csv"
+     * Input file path on the file system (absolute or relative to the working directory)
+     * Falls back to a classpath resource under resources/sourcefile/
+     * Example: "/data/landing/SampleData.csv" or "SampleData.csv"
+     * Not used in batch mode (see batch)
      */
+    @With
     private String inputFile;
 
     /**
-     * File type: CSV, EXCEL, TXT (case-insensitive)
+     * Minimum input file size in MB for reading through memory-mapped segments
+     * Set to a negative value to disable memory mapping
+     * Default: 64
+     */
+    private Integer mmapThresholdMb = 64;
+
+    /**
+     * File type: CSV, EXCEL (or XLSX), XLS, TXT (case-insensitive)
      */
     private String fileType;
 
@@ -31,6 +47,67 @@ public class FilterConfig {
      */
     private String encoding = "UTF-8";
 
+    /**
+     * Scan TXT files at byte level instead of decoding and splitting every line
+     * Only referenced columns are decoded and accepted lines are copied as raw bytes
+     * Applies to UTF-8 and ASCII-compatible single-byte encodings, other encodings
+     * automatically use the line-based reader
+     * Default: true
+     */
+    private Boolean byteScan = true;
+
+    /**
+     * CSV parser: OPENCSV or NATIVE (case-insensitive)
+     * NATIVE scans raw bytes, decodes only referenced columns and copies records to the outputs
+     * byte for byte instead of re-quoting them (UTF-8 and ASCII-compatible single-byte encodings,
+     * other encodings use OpenCSV)
+     * Only used when fileType is CSV
+     * Default: OPENCSV
+     */
+    private String csvParser = "OPENCSV";
+
+    /**
+     * Process TXT/CSV files in parallel record-aligned chunks
+     * Output row order is preserved
+     * Default: false
+     */
+    private Boolean parallel = false;
+
+    /**
+     * Number of worker threads for parallel mode
+     * Nullable - if null, the number of available processors is used
+     */
+    private Integer parallelThreads;
+
+    /**
+     * Nominal chunk size in MB for parallel mode
+     * Default: 16
+     */
+    private Integer chunkSizeMb = 16;
+
+    /**
+     * Pipeline mode configuration (reader, validators and writers on separate threads)
+     * Nullable - if null, records are read, validated and written on a single thread
+     * Ignored when parallel mode is active
+     */
+    private PipelineConfig pipeline;
+
+    /**
+     * Checkpointed, resumable processing of TXT/CSV files
+     * Nullable - if null, an interrupted run starts again from the first record
+     * Records are processed sequentially (parallel and pipeline settings are ignored)
+     */
+    private CheckpointConfig checkpoint;
+
+    /**
+     * Incremental mode for append-only TXT/CSV files
+     * Each run only processes the records appended since the previous run and appends them to the outputs,
+     * a truncated or rotated file is processed again from the beginning
+     * Records are processed sequentially (parallel, pipeline and checkpoint settings are ignored)
+     * Default: false
+     */
+    private Boolean incremental = false;
+
     /**
      * Number of header lines to skip
      * Default: 0
@@ -48,8 +125,42 @@ public class FilterConfig {
      */
     private List<ValidationRule> validations;
 
+    /**
+     * Memory budget, spill files and Bloom filter of unique rules (see ValidationRule.unique)
+     * Nullable - if null, default settings are used
+     */
+    private UniqueConfig uniqueKeys;
+
+    /**
+     * Adaptive rule ordering (cheapest, most selective checks first)
+     * Nullable - if null, checks run in configuration order
+     * Does not change which rows are accepted, only how fast rejected rows are found
+     */
+    private AdaptiveOrderConfig adaptiveOrder;
+
+    /**
+     * Multi-way routing: named rule groups, each written to its own output file
+     * Rows are evaluated against every route in the same pass and may match several routes,
+     * independently of the validations above (the filtered and rejected outputs are written as usual)
+     * Records are processed sequentially (parallel, pipeline, checkpoint and incremental settings are ignored)
+     * Nullable - if null, rows only go to the filtered and rejected outputs
+     */
+    private List<RouteConfig> routes;
+
     /**
      * Output configuration
      */
     private OutputConfig output;
+
+    /**
+     * Batch mode configuration
+     * Nullable - if set, all matching files in the directory are processed instead of inputFile
+     */
+    private BatchConfig batch;
+
+    /**
+     * Service mode configuration
+     * Nullable - if set, the JVM keeps running and processes every file dropped into the watched directory
+     */
+    private ServiceConfig service;
 }
@@ -0,0 +1,46 @@
+package com.filefilter.model;
+
+import lombok.Data;
+
+/**
+ * One column of the filtered output (see OutputConfig.columns)
+ * Transforms are applied in this order: trim, substring, upperCase / lowerCase
+ */
+@Data
+public class OutputColumn {
+
+    /**
+     * Source column index (1-based)
+     */
+    private Integer column;
+
+    /**
+     * Remove leading and trailing whitespace (same as String.trim())
+     * Default: false
+     */
+    private Boolean trim = false;
+
+    /**
+     * Convert to upper case (locale-independent)
+     * Default: false
+     */
+    private Boolean upperCase = false;
+
+    /**
+     * Convert to lower case (locale-independent)
+     * Default: false
+     */
+    private Boolean lowerCase = false;
+
+    /**
+     * First character to keep (1-based)
+     * Nullable - if null and substringLength is set, the value is cut from the first character
+     */
+    private Integer substringStart;
+
+    /**
+     * Maximum number of characters to keep
+     * Nullable - if null, everything from substringStart to the end is kept
+     */
+    private Integer substringLength;
+}
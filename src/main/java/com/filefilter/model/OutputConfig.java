@@ -2,6 +2,8 @@
 
 import lombok.Data;
 
+import java.util.List;
+
 /**
  * Configuration for output file settings
  */
@@ -13,4 +15,25 @@ public class OutputConfig {
      * Default: true
      */
     private Boolean needRejectedData = true;
+
+    /**
+     * Compression of TXT/CSV output files: "none", "gzip" or "zstd"
+     * Compressed files get an additional ".gz" / ".zst" extension, compression runs on a background thread
+     * Default: "none"
+     */
+    private String compression = "none";
+
+    /**
+     * Columns of the filtered output, in output order (projection)
+     * A column may be listed more than once, header rows are projected without transforms
+     * The rejected output always keeps the complete records
+     * Nullable - if null, filtered records are written with all columns, unchanged
+     */
+    private List<OutputColumn> columns;
+
+    /**
+     * Output settings for Excel input (format, streaming window, temporary files)
+     * Nullable - if null, XLSX output with default settings is written
+     */
+    private ExcelOutputConfig excel;
 }
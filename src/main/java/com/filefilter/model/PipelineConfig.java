@@ -0,0 +1,29 @@
+package com.filefilter.model;
+
+import lombok.Data;
+
+/**
+ * Configuration for pipeline mode (reader, validators and writers on separate threads)
+ */
+@Data
+public class PipelineConfig {
+
+    /**
+     * Number of validator threads
+     * Nullable - if null, the number of available processors minus 2 (reader and writer threads) is used, at least 1
+     */
+    private Integer validatorThreads;
+
+    /**
+     * Number of records handed between stages at once
+     * Default: 1024
+     */
+    private Integer batchSize = 1024;
+
+    /**
+     * Capacity of each queue between stages, in batches
+     * A full queue blocks the upstream stage (back-pressure)
+     * Default: 64
+     */
+    private Integer queueCapacity = 64;
+}
@@ -0,0 +1,31 @@
+package com.filefilter.model;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Named rule group of multi-way routing (see FilterConfig.routes)
+ * Every row that passes all rules of the route is written to the route's own output file
+ */
+@Data
+public class RouteConfig {
+
+    /**
+     * Route name (letters, digits, '_' and '-'), used in the output file name
+     * Example: "Active" with input "SampleData.csv" → "output/SampleData_Active.csv"
+     */
+    private String name;
+
+    /**
+     * Expected total number of columns
+     * Nullable - if null, no column count check is performed
+     */
+    private Integer expectedTotalColumn;
+
+    /**
+     * Validation rules of the route (AND logic, same rule format as FilterConfig.validations)
+     * Nullable - if null, every row matches the route
+     */
+    private List<ValidationRule> validations;
+}
@@ -0,0 +1,54 @@
+package com.filefilter.model;
+
+import lombok.Data;
+
+/**
+ * Configuration for service mode (long-running JVM that processes files dropped into a directory)
+ */
+@Data
+public class ServiceConfig {
+
+    /**
+     * Directory watched for new input files
+     * Example: "/data/landing"
+     */
+    private String inputDirectory;
+
+    /**
+     * Glob pattern for file names inside inputDirectory
+     * Default: "*" (all files)
+     */
+    private String pattern = "*";
+
+    /**
+     * Directory successfully processed input files are moved to
+     * Nullable - if null, "done" inside inputDirectory is used
+     */
+    private String doneDirectory;
+
+    /**
+     * Directory input files that failed are moved to
+     * Nullable - if null, "failed" inside inputDirectory is used
+     */
+    private String failedDirectory;
+
+    /**
+     * Number of files processed at the same time
+     * Default: 2
+     */
+    private Integer workerThreads = 2;
+
+    /**
+     * Maximum number of files waiting for a worker
+     * When the queue is full, new files are picked up once a worker is free
+     * Default: 100
+     */
+    private Integer queueCapacity = 100;
+
+    /**
+     * Time in milliseconds a new file's size and modification time must stay unchanged before it is processed
+     * Prevents picking up files that are still being copied
+     * Default: 1000
+     */
+    private Integer settleMillis = 1000;
+}
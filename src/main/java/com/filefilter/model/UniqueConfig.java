@@ -0,0 +1,45 @@
+package com.filefilter.model;
+
+import lombok.Data;
+
+/**
+ * Configuration of the key sets of unique rules (ValidationRule.unique)
+ * Every unique rule keeps its own key set with these settings
+ */
+@Data
+public class UniqueConfig {
+
+    /**
+     * Off-heap memory in MB for the keys held in memory, per unique rule (16 bytes per key slot)
+     * When it is full, the keys are sorted and spilled to a run file, so any number of keys fits
+     * Default: 256
+     */
+    private Integer memoryMb = 256;
+
+    /**
+     * Directory for spill files (deleted at the end of the run)
+     * Nullable - if null, the system temporary directory is used
+     */
+    private String spillDirectory;
+
+    /**
+     * Check new keys against a Bloom filter before the spill files
+     * Keys the filter has never seen are accepted without reading spill files - recommended
+     * when keys spill and are mostly unique
+     * Default: false
+     */
+    private Boolean bloomFilter = false;
+
+    /**
+     * Number of keys the Bloom filter is sized for (more keys raise the false positive rate)
+     * The filter takes about 1.5 bytes per expected key at 1% off-heap, in addition to memoryMb
+     * Default: 100000000
+     */
+    private Long expectedKeys = 100_000_000L;
+
+    /**
+     * Target false positive rate of the Bloom filter
+     * Default: 0.01
+     */
+    private Double falsePositiveRate = 0.01;
+}
@@ -5,7 +5,7 @@
 
 /**
  * Represents a single validation rule for a column
- * Supports: notEmpty, valueInList, and regex validation
+ * Supports: notEmpty, valueInList, regex and unique validation
  */
 @Data
 public class ValidationRule {
@@ -27,9 +27,38 @@ public class ValidationRule {
      */
     private List<String> valueInList;
 
+    /**
+     * File with acceptable values for this column (UTF-8, one value per line, empty lines ignored)
+     * Looked up like the input file: file system path first, then classpath resource under sourcefile/
+     * Meant for large whitelists (millions of IDs): values are held in a compact set (numbers as
+     * primitive longs, other values off-heap) instead of a List/HashSet of Strings.
+     * Combined with valueInList if both are set (a value must be in the file or in the list)
+     * Nullable - if null, only valueInList is used
+     */
+    private String valueInListFile;
+
     /**
      * Regex pattern that the column value must match
      * Nullable - if null, no regex check is performed
      */
     private String regex;
+
+    /**
+     * If true, the key of this rule must be unique across the file - the first row with a key is
+     * accepted, later rows with the same key are rejected
+     * The key is the value of column, extended by uniqueWith for composite keys (exact string equality)
+     * Evaluated after all other checks: only rows that pass them register their key
+     * Records are processed sequentially (parallel, pipeline, checkpoint and incremental settings are ignored)
+     * Not supported in routes
+     * Nullable - if null, duplicates are not checked
+     */
+    private Boolean unique;
+
+    /**
+     * Further columns (1-based) of a composite unique key, e.g. column 1 with uniqueWith [2, 5]
+     * checks the combination of columns 1, 2 and 5
+     * Only used when unique is true
+     * Nullable - if null, the key is the value of column alone
+     */
+    private List<Integer> uniqueWith;
 }
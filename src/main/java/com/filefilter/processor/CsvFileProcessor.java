@@ -3,24 +3,60 @@
 import com.filefilter.model.FilterConfig;
 import com.filefilter.processor.base.BaseProcessor;
 import com.filefilter.processor.base.ProcessingResult;
+import com.filefilter.processor.checkpoint.Checkpoint;
+import com.filefilter.processor.checkpoint.CheckpointSession;
+import com.filefilter.processor.checkpoint.IncrementalSession;
+import com.filefilter.processor.pipeline.RecordPipeline;
+import com.filefilter.processor.projection.OutputProjection;
+import com.filefilter.processor.routing.RouteOutputs;
+import com.filefilter.processor.scanner.CsvRecordScanner;
+import com.filefilter.processor.scanner.DelimitedLineScanner;
+import com.filefilter.validator.RouteEngine;
+import com.filefilter.validator.RowView;
 import com.filefilter.validator.ValidationEngine;
 import com.opencsv.CSVReader;
 import com.opencsv.CSVReaderBuilder;
 import com.opencsv.CSVWriter;
 import com.opencsv.ICSVParser;
+import com.opencsv.exceptions.CsvValidationException;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
 
 /**
  * CSV file processor
  * Extends BaseProcessor to inherit automatic logging and exception handling
+ *
+ * Two parsers (see FilterConfig.csvParser):
+ * - OpenCSV (default): parses every field into a String[] and re-serializes written records with CSVWriter
+ * - Native: scans raw bytes (CsvRecordScanner), decodes only the columns rules look at and copies records
+ *   to the outputs byte for byte (used for UTF-8 and ASCII-compatible single-byte encodings)
+ *
+ * With parallel mode enabled, the file is split into record-aligned chunks
+ * (quoted fields containing newlines are respected) and parsed on a worker pool.
+ * With pipeline mode enabled, parsing, validation and writing run on separate threads.
+ * With checkpoint mode enabled, progress is saved periodically and a restart skips the records already processed
+ * (the native parser seeks to the saved byte offset).
+ * With incremental mode enabled, only records appended since the previous run are read.
+ * With output columns configured, accepted records are projected while they are written (see OutputProjection).
+ * With routes configured, every record is also written to the output of each route it matches (sequential only).
  */
 @Slf4j
 public class CsvFileProcessor extends BaseProcessor {
 
+    private static final int BUFFER_SIZE = 65536;
+
+    /**
+     * Record terminator of copied records, same line end as the OpenCSV writer
+     */
+    private static final byte[] LINE_END = CSVWriter.DEFAULT_LINE_END.getBytes(StandardCharsets.US_ASCII);
+
     @Override
     protected String getProcessorName() {
         return "csvParser";
@@ -28,56 +64,251 @@ protected String getProcessorName() {
 
     @Override
     protected ProcessingResult doProcess(FilterConfig config, ValidationEngine validationEngine) throws Exception {
-        // Local variables for thread-safe counter tracking
-        long totalRecords = 0;
-        long successRecords = 0;
-        long rejectRecords = 0;
+        // Create output directory if not exists
+        Files.createDirectories(Paths.get("output"));
 
-        // Get input stream from resources
-        InputStream inputStream = getClass().getClassLoader()
-                .getResourceAsStream("sourcefile/" + config.getInputFile());
+        Charset charset = Charset.forName(config.getEncoding());
+        boolean byteScanSupported = DelimitedLineScanner.isSupported(charset, ",");
+        boolean nativeParser = isNativeParser(config, byteScanSupported);
+        OutputProjection projection = OutputProjection.of(config.getOutput());
+        RouteEngine routeEngine = compileRoutes(config);
 
-        if (inputStream == null) {
-            throw new FileNotFoundException("Input file not found: sourcefile/" + config.getInputFile());
+        // Incremental mode finds record ends at byte level, so it needs an ASCII-compatible encoding
+        if (isIncrementalEnabled(config)) {
+            IncrementalSession session = byteScanSupported ? openIncrementalSession(config, true) : null;
+            if (session != null) {
+                return processIncremental(session, config, validationEngine, charset, nativeParser, projection);
+            }
         }
 
-        // Create output directory if not exists
-        Files.createDirectories(Paths.get("output"));
+        if (isCheckpointEnabled(config)) {
+            CheckpointSession session = openCheckpointSession(config);
+            if (session != null) {
+                return nativeParser
+                        ? processCheckpointedNative(session, config, validationEngine, charset, projection)
+                        : processCheckpointed(session, config, validationEngine, projection);
+            }
+        }
+
+        // Parallel mode needs random access to the file and an ASCII-compatible encoding
+        if (isParallelEnabled(config)) {
+            Path inputPath = findInputFile(config);
+            if (inputPath != null && byteScanSupported && !isCompressedInput(config)) {
+                return processParallel(inputPath, config, validationEngine, charset, nativeParser, projection);
+            }
+            log.info("Parallel mode not available for this input, processing sequentially");
+        }
+
+        // Get input stream (file system path or classpath resource)
+        InputStream inputStream = openInput(config);
+
+        if (nativeParser) {
+            return processNative(inputStream, config, validationEngine, charset, projection, routeEngine);
+        }
 
         // Prepare output file paths (auto-generated from input filename)
         String outputFilePath = getFilteredOutputPath(config);
         String rejectedFilePath = getRejectedOutputPath(config);
+        ProcessingResult result;
 
         // Open CSV reader and writers
-        // Configure reader to NOT treat backslash as escape character (preserve literal backslashes)
-        try (CSVReader reader = new CSVReaderBuilder(new InputStreamReader(inputStream, config.getEncoding()))
-                     .withCSVParser(new com.opencsv.CSVParserBuilder()
-                             .withSeparator(ICSVParser.DEFAULT_SEPARATOR)
-                             .withQuoteChar(ICSVParser.DEFAULT_QUOTE_CHARACTER)
-                             .withEscapeChar(ICSVParser.NULL_CHARACTER)  // No escape character - backslash is literal
-                             .build())
-                     .build();
-             CSVWriter validWriter = new CSVWriter(new FileWriter(outputFilePath),
-                     CSVWriter.DEFAULT_SEPARATOR,
-                     CSVWriter.DEFAULT_QUOTE_CHARACTER,
-                     CSVWriter.DEFAULT_ESCAPE_CHARACTER,
-                     CSVWriter.DEFAULT_LINE_END);
+        try (CSVReader reader = createReader(new InputStreamReader(inputStream, config.getEncoding()));
+             CSVWriter validWriter = createWriter(openOutputWriter(config, outputFilePath));
              CSVWriter rejectedWriter = config.getOutput().getNeedRejectedData()
-                     ? new CSVWriter(new FileWriter(rejectedFilePath),
-                     CSVWriter.DEFAULT_SEPARATOR,
-                     CSVWriter.DEFAULT_QUOTE_CHARACTER,
-                     CSVWriter.DEFAULT_ESCAPE_CHARACTER,
-                     CSVWriter.DEFAULT_LINE_END)
+                     ? createWriter(openOutputWriter(config, rejectedFilePath))
+                     : null;
+             RouteOutputs<CSVWriter> routes = routeEngine != null
+                     ? RouteOutputs.open(routeEngine,
+                             name -> createWriter(openOutputWriter(config, getRouteOutputPath(config, name))))
                      : null) {
 
-            // Skip header lines
-            for (int i = 0; i < config.getSkipHeaderLines(); i++) {
-                String[] headerLine = reader.readNext();
-                if (headerLine != null) {
-                    // Write headers to both output files
-                    validWriter.writeNext(headerLine);
-                    if (rejectedWriter != null) {
-                        rejectedWriter.writeNext(headerLine);
+            result = isPipelineEnabled(config)
+                    ? pipelineRecords(reader, config, validationEngine, projection, validWriter, rejectedWriter)
+                    : copyRecords(reader, config.getSkipHeaderLines(), validationEngine, projection,
+                            validWriter, rejectedWriter, routes);
+
+            log.info("Output written to: {}", outputFilePath);
+            if (rejectedWriter != null) {
+                log.info("Rejected data written to: {}", rejectedFilePath);
+            }
+            if (routes != null) {
+                logRouteOutputs(config, routeEngine);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Native parser - byte scan, accepted and rejected records are copied unchanged
+     */
+    private ProcessingResult processNative(InputStream inputStream, FilterConfig config,
+                                           ValidationEngine validationEngine, Charset charset,
+                                           OutputProjection projection, RouteEngine routeEngine) throws Exception {
+        // Prepare output file paths (auto-generated from input filename)
+        String outputFilePath = getFilteredOutputPath(config);
+        String rejectedFilePath = getRejectedOutputPath(config);
+        ProcessingResult result;
+
+        try (InputStream input = inputStream;
+             OutputStream validOut = openOutput(config, outputFilePath);
+             OutputStream rejectedOut = config.getOutput().getNeedRejectedData()
+                     ? openOutput(config, rejectedFilePath)
+                     : null;
+             RouteOutputs<OutputStream> routes = routeEngine != null
+                     ? openRouteOutputs(config, routeEngine)
+                     : null) {
+
+            CsvRecordScanner scanner = new CsvRecordScanner(input, BUFFER_SIZE);
+            result = isPipelineEnabled(config)
+                    ? pipelineScannedRecords(scanner, config, validationEngine, charset, projection,
+                            validOut, rejectedOut)
+                    : scanRecords(scanner, config.getSkipHeaderLines(), validationEngine, charset, projection,
+                            validOut, rejectedOut, routes);
+
+            log.info("Output written to: {}", outputFilePath);
+            if (rejectedOut != null) {
+                log.info("Rejected data written to: {}", rejectedFilePath);
+            }
+            if (routes != null) {
+                logRouteOutputs(config, routeEngine);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Parallel mode - each chunk is parsed and written to in-memory buffers, outputs written in order
+     */
+    private ProcessingResult processParallel(Path inputPath, FilterConfig config, ValidationEngine validationEngine,
+                                             Charset charset, boolean nativeParser,
+                                             OutputProjection projection) throws Exception {
+        // Prepare output file paths (auto-generated from input filename)
+        String outputFilePath = getFilteredOutputPath(config);
+        String rejectedFilePath = getRejectedOutputPath(config);
+
+        int headerLines = config.getSkipHeaderLines();
+        // Same encoding openOutputWriter uses in sequential mode
+        Charset outputCharset = Charset.defaultCharset();
+        ProcessingResult result;
+
+        try (OutputStream validOut = openOutput(config, outputFilePath);
+             OutputStream rejectedOut = config.getOutput().getNeedRejectedData()
+                     ? openOutput(config, rejectedFilePath)
+                     : null) {
+
+            result = createChunkRunner(config).run(inputPath, headerLines, true,
+                    (data, firstChunk, out) -> {
+                        if (nativeParser) {
+                            return scanRecords(new CsvRecordScanner(data), firstChunk ? headerLines : 0,
+                                    validationEngine, charset, projection, out.filtered(), out.rejected(), null);
+                        }
+                        try (CSVReader reader = createReader(
+                                new InputStreamReader(new ByteArrayInputStream(data), charset));
+                             CSVWriter validWriter = createWriter(
+                                     new OutputStreamWriter(out.filtered(), outputCharset));
+                             CSVWriter rejectedWriter = out.rejected() != null
+                                     ? createWriter(new OutputStreamWriter(out.rejected(), outputCharset))
+                                     : null) {
+                            return copyRecords(reader, firstChunk ? headerLines : 0, validationEngine, projection,
+                                    validWriter, rejectedWriter, null);
+                        }
+                    },
+                    validOut, rejectedOut);
+
+            log.info("Output written to: {}", outputFilePath);
+            if (rejectedOut != null) {
+                log.info("Rejected data written to: {}", rejectedFilePath);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Incremental mode - parse the records appended since the previous run, appended to the outputs
+     */
+    private ProcessingResult processIncremental(IncrementalSession session, FilterConfig config,
+                                                ValidationEngine validationEngine, Charset charset,
+                                                boolean nativeParser, OutputProjection projection) throws Exception {
+        if (nativeParser) {
+            ProcessingResult result;
+            try (session; InputStream input = session.openInput()) {
+                // Header records are only part of the input range in a full run
+                result = scanRecords(new CsvRecordScanner(input, BUFFER_SIZE),
+                        session.isFullRun() ? config.getSkipHeaderLines() : 0, validationEngine, charset,
+                        projection, session.getFilteredOutput(), session.getRejectedOutput(), null);
+                session.complete();
+
+                log.info("Output written to: {}", getFilteredOutputPath(config));
+                if (session.getRejectedOutput() != null) {
+                    log.info("Rejected data written to: {}", getRejectedOutputPath(config));
+                }
+            }
+            return result;
+        }
+
+        // Same encoding openOutputWriter uses in sequential mode
+        Charset outputCharset = Charset.defaultCharset();
+        ProcessingResult result;
+
+        try (session;
+             CSVReader reader = createReader(new InputStreamReader(
+                     new BufferedInputStream(session.openInput(), BUFFER_SIZE), config.getEncoding()));
+             CSVWriter validWriter = createWriter(new OutputStreamWriter(session.getFilteredOutput(), outputCharset));
+             CSVWriter rejectedWriter = session.getRejectedOutput() != null
+                     ? createWriter(new OutputStreamWriter(session.getRejectedOutput(), outputCharset))
+                     : null) {
+
+            // Header records are only part of the input range in a full run
+            result = copyRecords(reader, session.isFullRun() ? config.getSkipHeaderLines() : 0,
+                    validationEngine, projection, validWriter, rejectedWriter, null);
+            flushWriters(validWriter, rejectedWriter);
+            session.complete();
+
+            log.info("Output written to: {}", getFilteredOutputPath(config));
+            if (rejectedWriter != null) {
+                log.info("Rejected data written to: {}", getRejectedOutputPath(config));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Checkpoint mode - sequential processing that saves progress every intervalRecords records
+     * A restart re-parses the records before the checkpoint without validating or writing them
+     * (CSV records may span lines, so there is no cheap byte offset to seek to)
+     */
+    private ProcessingResult processCheckpointed(CheckpointSession session, FilterConfig config,
+                                                 ValidationEngine validationEngine,
+                                                 OutputProjection projection) throws Exception {
+        // Counters continue from the checkpoint
+        Checkpoint resumePoint = session.getResumePoint();
+        long totalRecords = resumePoint != null ? resumePoint.getTotalRecords() : 0;
+        long successRecords = resumePoint != null ? resumePoint.getSuccessRecords() : 0;
+        long rejectRecords = resumePoint != null ? resumePoint.getRejectRecords() : 0;
+
+        // Same encoding openOutputWriter uses in sequential mode
+        Charset outputCharset = Charset.defaultCharset();
+
+        try (session;
+             CSVReader reader = createReader(new InputStreamReader(
+                     new BufferedInputStream(session.openInput(0), BUFFER_SIZE), config.getEncoding()));
+             CSVWriter validWriter = createWriter(new OutputStreamWriter(session.getFilteredOutput(), outputCharset));
+             CSVWriter rejectedWriter = session.getRejectedOutput() != null
+                     ? createWriter(new OutputStreamWriter(session.getRejectedOutput(), outputCharset))
+                     : null) {
+
+            if (resumePoint == null) {
+                copyHeaderRecords(reader, config.getSkipHeaderLines(), projection, validWriter, rejectedWriter, null);
+            } else {
+                // Headers and records before the checkpoint are already in the outputs
+                long skipRecords = config.getSkipHeaderLines() + totalRecords;
+                for (long i = 0; i < skipRecords; i++) {
+                    if (reader.readNext() == null) {
+                        break;
                     }
                 }
             }
@@ -88,7 +319,7 @@ protected ProcessingResult doProcess(FilterConfig config, ValidationEngine valid
                 totalRecords++;
 
                 if (validationEngine.validate(row)) {
-                    validWriter.writeNext(row);
+                    writeFiltered(validWriter, row, projection, false);
                     successRecords++;
                 } else {
                     if (rejectedWriter != null) {
@@ -96,11 +327,19 @@ protected ProcessingResult doProcess(FilterConfig config, ValidationEngine valid
                     }
                     rejectRecords++;
                 }
+
+                if (session.isDue(totalRecords)) {
+                    flushWriters(validWriter, rejectedWriter);
+                    session.save(0, totalRecords, successRecords, rejectRecords);
+                }
             }
 
-            log.info("Output written to: {}", outputFilePath);
+            flushWriters(validWriter, rejectedWriter);
+            session.complete();
+
+            log.info("Output written to: {}", getFilteredOutputPath(config));
             if (rejectedWriter != null) {
-                log.info("Rejected data written to: {}", rejectedFilePath);
+                log.info("Rejected data written to: {}", getRejectedOutputPath(config));
             }
         }
 
@@ -111,4 +350,390 @@ protected ProcessingResult doProcess(FilterConfig config, ValidationEngine valid
                 .rejectRecords(rejectRecords)
                 .build();
     }
+
+    /**
+     * Checkpoint mode with the native parser - saves the byte offset after the last record
+     * and continues from it after a restart (no re-parsing of the records before the checkpoint)
+     */
+    private ProcessingResult processCheckpointedNative(CheckpointSession session, FilterConfig config,
+                                                       ValidationEngine validationEngine, Charset charset,
+                                                       OutputProjection projection) throws Exception {
+        // Counters continue from the checkpoint
+        Checkpoint resumePoint = session.getResumePoint();
+        long startOffset = resumePoint != null ? resumePoint.getInputOffset() : 0;
+        long totalRecords = resumePoint != null ? resumePoint.getTotalRecords() : 0;
+        long successRecords = resumePoint != null ? resumePoint.getSuccessRecords() : 0;
+        long rejectRecords = resumePoint != null ? resumePoint.getRejectRecords() : 0;
+
+        try (session; InputStream input = session.openInput(startOffset)) {
+            OutputStream validOut = session.getFilteredOutput();
+            OutputStream rejectedOut = session.getRejectedOutput();
+
+            CsvRecordScanner scanner = new CsvRecordScanner(input, BUFFER_SIZE);
+            RowView row = scanner.rowView(charset);
+            if (resumePoint == null) {
+                copyHeaderRecords(scanner, config.getSkipHeaderLines(), charset, projection,
+                        validOut, rejectedOut, null);
+            }
+
+            // Process data rows
+            while (scanner.nextRecord()) {
+                totalRecords++;
+
+                if (validationEngine.validate(row)) {
+                    writeFiltered(scanner, charset, projection, false, validOut);
+                    successRecords++;
+                } else {
+                    if (rejectedOut != null) {
+                        writeRecord(scanner, rejectedOut);
+                    }
+                    rejectRecords++;
+                }
+
+                if (session.isDue(totalRecords)) {
+                    session.save(startOffset + scanner.position(), totalRecords, successRecords, rejectRecords);
+                }
+            }
+
+            session.complete();
+
+            log.info("Output written to: {}", getFilteredOutputPath(config));
+            if (rejectedOut != null) {
+                log.info("Rejected data written to: {}", getRejectedOutputPath(config));
+            }
+        }
+
+        // Return immutable result with statistics
+        return ProcessingResult.builder()
+                .totalRecords(totalRecords)
+                .successRecords(successRecords)
+                .rejectRecords(rejectRecords)
+                .build();
+    }
+
+    /**
+     * Flush CSV writers down to the checkpoint session's output streams
+     */
+    private static void flushWriters(CSVWriter validWriter, CSVWriter rejectedWriter) throws IOException {
+        validWriter.flush();
+        if (rejectedWriter != null) {
+            rejectedWriter.flush();
+        }
+    }
+
+    /**
+     * Copy header records and validate all data records of a reader
+     * Used by both sequential and parallel modes
+     *
+     * @param routes Route outputs, nullable
+     * @return Record counters
+     */
+    private static ProcessingResult copyRecords(CSVReader reader, int headerLines, ValidationEngine validationEngine,
+                                                OutputProjection projection,
+                                                CSVWriter validWriter, CSVWriter rejectedWriter,
+                                                RouteOutputs<CSVWriter> routes)
+            throws IOException, CsvValidationException {
+        // Local variables for thread-safe counter tracking
+        long totalRecords = 0;
+        long successRecords = 0;
+        long rejectRecords = 0;
+
+        copyHeaderRecords(reader, headerLines, projection, validWriter, rejectedWriter, routes);
+
+        // Process data rows
+        String[] row;
+        while ((row = reader.readNext()) != null) {
+            totalRecords++;
+
+            if (routes != null) {
+                String[] routedRow = row;
+                routes.route(row, writer -> writer.writeNext(routedRow));
+            }
+
+            if (validationEngine.validate(row)) {
+                writeFiltered(validWriter, row, projection, false);
+                successRecords++;
+            } else {
+                if (rejectedWriter != null) {
+                    rejectedWriter.writeNext(row);
+                }
+                rejectRecords++;
+            }
+        }
+
+        // Return immutable result with statistics
+        return ProcessingResult.builder()
+                .totalRecords(totalRecords)
+                .successRecords(successRecords)
+                .rejectRecords(rejectRecords)
+                .routeRecords(routes != null ? routes.getCounts() : null)
+                .build();
+    }
+
+    /**
+     * Pipeline mode - the reader thread parses records, validator threads validate them
+     * and writer threads write them to the outputs
+     *
+     * @return Record counters and pipeline stage statistics
+     */
+    private ProcessingResult pipelineRecords(CSVReader reader, FilterConfig config, ValidationEngine validationEngine,
+                                             OutputProjection projection,
+                                             CSVWriter validWriter, CSVWriter rejectedWriter) throws Exception {
+        // Header records are written before any writer thread starts
+        copyHeaderRecords(reader, config.getSkipHeaderLines(), projection, validWriter, rejectedWriter, null);
+
+        try (RecordPipeline<String[]> pipeline = createPipeline(config,
+                () -> validationEngine::validate,
+                row -> writeFiltered(validWriter, row, projection, false),
+                rejectedWriter != null ? rejectedWriter::writeNext : null)) {
+
+            // Process data rows
+            String[] row;
+            while ((row = reader.readNext()) != null) {
+                pipeline.submit(row);
+            }
+
+            return pipeline.finish();
+        }
+    }
+
+    /**
+     * Copy header records to both outputs and to all route outputs
+     */
+    private static void copyHeaderRecords(CSVReader reader, int headerLines, OutputProjection projection,
+                                          CSVWriter validWriter, CSVWriter rejectedWriter,
+                                          RouteOutputs<CSVWriter> routes)
+            throws IOException, CsvValidationException {
+        for (int i = 0; i < headerLines; i++) {
+            String[] headerLine = reader.readNext();
+            if (headerLine != null) {
+                // Write headers to both output files
+                writeFiltered(validWriter, headerLine, projection, true);
+                if (rejectedWriter != null) {
+                    rejectedWriter.writeNext(headerLine);
+                }
+                if (routes != null) {
+                    routes.writeAll(writer -> writer.writeNext(headerLine));
+                }
+            }
+        }
+    }
+
+    /**
+     * Copy header records and validate all data records of a native scanner
+     * Used by both sequential and parallel modes
+     *
+     * @param routes Route outputs, nullable
+     * @return Record counters
+     */
+    private static ProcessingResult scanRecords(CsvRecordScanner scanner, int headerLines,
+                                                ValidationEngine validationEngine, Charset charset,
+                                                OutputProjection projection,
+                                                OutputStream validOut, OutputStream rejectedOut,
+                                                RouteOutputs<OutputStream> routes) throws IOException {
+        // Local variables for thread-safe counter tracking
+        long totalRecords = 0;
+        long successRecords = 0;
+        long rejectRecords = 0;
+
+        // Only columns the rules look at are decoded, on demand
+        RowView row = scanner.rowView(charset);
+        RouteOutputs.RowWriter<OutputStream> routeWriter = out -> writeRecord(scanner, out);
+
+        copyHeaderRecords(scanner, headerLines, charset, projection, validOut, rejectedOut, routes);
+
+        // Process data rows
+        while (scanner.nextRecord()) {
+            totalRecords++;
+
+            if (routes != null) {
+                routes.route(row, routeWriter);
+            }
+
+            if (validationEngine.validate(row)) {
+                writeFiltered(scanner, charset, projection, false, validOut);
+                successRecords++;
+            } else {
+                if (rejectedOut != null) {
+                    writeRecord(scanner, rejectedOut);
+                }
+                rejectRecords++;
+            }
+        }
+
+        // Return immutable result with statistics
+        return ProcessingResult.builder()
+                .totalRecords(totalRecords)
+                .successRecords(successRecords)
+                .rejectRecords(rejectRecords)
+                .routeRecords(routes != null ? routes.getCounts() : null)
+                .build();
+    }
+
+    /**
+     * Pipeline mode with the native parser - the scanner thread copies raw records into batches,
+     * validator threads split and validate them, writer threads copy them to the outputs
+     *
+     * @return Record counters and pipeline stage statistics
+     */
+    private ProcessingResult pipelineScannedRecords(CsvRecordScanner scanner, FilterConfig config,
+                                                    ValidationEngine validationEngine, Charset charset,
+                                                    OutputProjection projection,
+                                                    OutputStream validOut, OutputStream rejectedOut) throws Exception {
+        // Header records are written before any writer thread starts
+        copyHeaderRecords(scanner, config.getSkipHeaderLines(), charset, projection, validOut, rejectedOut, null);
+
+        // The projection splits accepted records again on the filtered writer thread
+        CsvRecordScanner projectionScanner = projection != null ? new CsvRecordScanner(new byte[0]) : null;
+
+        try (RecordPipeline<byte[]> pipeline = createPipeline(config,
+                () -> {
+                    // Each validator thread splits records with its own scanner and row view
+                    CsvRecordScanner recordScanner = new CsvRecordScanner(new byte[0]);
+                    RowView row = recordScanner.rowView(charset);
+                    return record -> {
+                        recordScanner.scanRecord(record);
+                        return validationEngine.validate(row);
+                    };
+                },
+                record -> {
+                    if (projectionScanner != null) {
+                        projectionScanner.scanRecord(record);
+                        writeFiltered(projectionScanner, charset, projection, false, validOut);
+                    } else {
+                        validOut.write(record);
+                        validOut.write(LINE_END);
+                    }
+                },
+                rejectedOut != null
+                        ? record -> {
+                            rejectedOut.write(record);
+                            rejectedOut.write(LINE_END);
+                        }
+                        : null)) {
+
+            // Process data rows
+            while (scanner.nextRecord()) {
+                pipeline.submit(Arrays.copyOfRange(scanner.buffer(), scanner.recordStart(), scanner.recordEnd()));
+            }
+
+            return pipeline.finish();
+        }
+    }
+
+    /**
+     * Copy raw header records to both outputs and to all route outputs
+     */
+    private static void copyHeaderRecords(CsvRecordScanner scanner, int headerLines, Charset charset,
+                                          OutputProjection projection,
+                                          OutputStream validOut, OutputStream rejectedOut,
+                                          RouteOutputs<OutputStream> routes) throws IOException {
+        for (int i = 0; i < headerLines && scanner.nextRecord(); i++) {
+            writeFiltered(scanner, charset, projection, true, validOut);
+            if (rejectedOut != null) {
+                writeRecord(scanner, rejectedOut);
+            }
+            if (routes != null) {
+                routes.writeAll(out -> writeRecord(scanner, out));
+            }
+        }
+    }
+
+    /**
+     * Copy the current raw record plus line end to the output
+     */
+    private static void writeRecord(CsvRecordScanner scanner, OutputStream out) throws IOException {
+        scanner.writeRecord(out);
+        out.write(LINE_END);
+    }
+
+    /**
+     * Write the current record to the filtered output, projected if output columns are configured
+     * Columns without transforms (and all columns of header records) are copied as raw bytes,
+     * transformed values are quoted when they contain a separator, quote or line end
+     */
+    private static void writeFiltered(CsvRecordScanner scanner, Charset charset, OutputProjection projection,
+                                      boolean header, OutputStream out) throws IOException {
+        if (projection == null) {
+            writeRecord(scanner, out);
+            return;
+        }
+
+        int fieldCount = scanner.fieldCount();
+        for (int i = 0; i < projection.size(); i++) {
+            if (i > 0) {
+                out.write(ICSVParser.DEFAULT_SEPARATOR);
+            }
+            int column = projection.column(i);
+            if (header || projection.isPlain(i)) {
+                if (column < fieldCount) {
+                    scanner.writeField(column, out);
+                }
+            } else {
+                String value = projection.apply(i, column < fieldCount ? scanner.field(column, charset) : null);
+                out.write(quoteIfNeeded(value).getBytes(charset));
+            }
+        }
+        out.write(LINE_END);
+    }
+
+    /**
+     * Write a parsed record to the filtered output, projected if output columns are configured
+     */
+    private static void writeFiltered(CSVWriter writer, String[] row, OutputProjection projection, boolean header) {
+        writer.writeNext(projection != null ? projection.project(row, header) : row);
+    }
+
+    /**
+     * Quote a value for RFC 4180 output if it contains a separator, quote or line end
+     */
+    private static String quoteIfNeeded(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ICSVParser.DEFAULT_SEPARATOR || c == ICSVParser.DEFAULT_QUOTE_CHARACTER
+                    || c == '\r' || c == '\n') {
+                return '"' + value.replace("\"", "\"\"") + '"';
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Check whether the native parser is configured and usable for the input encoding
+     */
+    private static boolean isNativeParser(FilterConfig config, boolean byteScanSupported) {
+        if (!"NATIVE".equalsIgnoreCase(config.getCsvParser())) {
+            return false;
+        }
+        if (!byteScanSupported) {
+            log.info("Native CSV parser not available for encoding {}, using OpenCSV", config.getEncoding());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Create CSV reader
+     * Configure reader to NOT treat backslash as escape character (preserve literal backslashes)
+     */
+    private static CSVReader createReader(Reader input) {
+        return new CSVReaderBuilder(input)
+                .withCSVParser(new com.opencsv.CSVParserBuilder()
+                        .withSeparator(ICSVParser.DEFAULT_SEPARATOR)
+                        .withQuoteChar(ICSVParser.DEFAULT_QUOTE_CHARACTER)
+                        .withEscapeChar(ICSVParser.NULL_CHARACTER)  // No escape character - backslash is literal
+                        .build())
+                .build();
+    }
+
+    /**
+     * Create CSV writer with default separator, quoting, escaping and line end
+     */
+    private static CSVWriter createWriter(Writer output) {
+        return new CSVWriter(output,
+                CSVWriter.DEFAULT_SEPARATOR,
+                CSVWriter.DEFAULT_QUOTE_CHARACTER,
+                CSVWriter.DEFAULT_ESCAPE_CHARACTER,
+                CSVWriter.DEFAULT_LINE_END);
+    }
 }
@@ -1,28 +1,49 @@
 package com.filefilter.processor;
 
+import com.filefilter.model.ExcelOutputConfig;
 import com.filefilter.model.FilterConfig;
 import com.filefilter.processor.base.BaseProcessor;
 import com.filefilter.processor.base.ProcessingResult;
+import com.filefilter.processor.excel.CsvSheetOutput;
+import com.filefilter.processor.excel.ExcelRow;
+import com.filefilter.processor.excel.SheetOutput;
+import com.filefilter.processor.excel.SheetSource;
+import com.filefilter.processor.excel.XlsxSheetOutput;
+import com.filefilter.processor.excel.XlsxSheetReader;
+import com.filefilter.processor.pipeline.RecordPipeline;
+import com.filefilter.processor.projection.OutputProjection;
+import com.filefilter.processor.routing.RouteOutputs;
+import com.filefilter.util.Compression;
+import com.filefilter.util.FileNameUtil;
+import com.filefilter.validator.RouteEngine;
 import com.filefilter.validator.ValidationEngine;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.streaming.SXSSFWorkbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
 
 import java.io.*;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Locale;
 
 /**
  * Excel file processor with streaming support
  * Extends BaseProcessor to inherit automatic logging and exception handling
- * Uses Apache POI Streaming API for large file processing
+ *
+ * Input is read with the XSSF SAX event model (XlsxSheetReader) and output is written
+ * with the SXSSF streaming API, so memory stays flat for large files
+ * With output.excel.format CSV, outputs are written as CSV files instead of workbooks
+ * With pipeline mode enabled, parsing, validation and sheet writing run on separate threads
+ * With output columns configured, accepted rows are projected while they are copied to the filtered sheet
+ * With routes configured, every row is also copied to the output of each route it matches (not in pipeline mode)
  */
 @Slf4j
 public class ExcelFileProcessor extends BaseProcessor {
 
+    private static final String FORMAT_XLSX = "XLSX";
+    private static final String FORMAT_CSV = "CSV";
+
     @Override
     protected String getProcessorName() {
         return "excelParser";
@@ -30,152 +51,288 @@ protected String getProcessorName() {
 
     @Override
     protected ProcessingResult doProcess(FilterConfig config, ValidationEngine validationEngine) throws Exception {
-        // Local variables for thread-safe counter tracking
-        long totalRecords = 0;
-        long successRecords = 0;
-        long rejectRecords = 0;
-
-        // Get input stream from resources
-        InputStream inputStream = getClass().getClassLoader()
-                .getResourceAsStream("sourcefile/" + config.getInputFile());
-
-        if (inputStream == null) {
-            throw new FileNotFoundException("Input file not found: sourcefile/" + config.getInputFile());
-        }
-
         // Create output directory if not exists
         Files.createDirectories(Paths.get("output"));
 
         // Prepare output file paths (auto-generated from input filename)
         String outputFilePath = getFilteredOutputPath(config);
         String rejectedFilePath = getRejectedOutputPath(config);
+        OutputProjection projection = OutputProjection.of(config.getOutput());
+        RouteEngine routeEngine = compileRoutes(config);
+        ExcelOutputConfig excel = getExcelOutput(config);
 
-        // Create streaming workbooks for output
-        SXSSFWorkbook validWorkbook = new SXSSFWorkbook(100); // Keep 100 rows in memory
-        SXSSFWorkbook rejectedWorkbook = config.getOutput().getNeedRejectedData()
-                ? new SXSSFWorkbook(100)
-                : null;
+        SheetOutput validOutput = null;
+        SheetOutput rejectedOutput = null;
+        RouteOutputs<SheetOutput> routes = null;
+        try (SheetSource input = openSheet(config)) {
+            // Create streaming outputs
+            validOutput = openSheetOutput(config, excel, "FilteredData", outputFilePath);
+            rejectedOutput = config.getOutput().getNeedRejectedData()
+                    ? openSheetOutput(config, excel, "RejectedData", rejectedFilePath)
+                    : null;
+            routes = routeEngine != null
+                    ? RouteOutputs.open(routeEngine, routeName ->
+                            openSheetOutput(config, excel, routeName, getRouteOutputPath(config, routeName)))
+                    : null;
 
-        try (Workbook inputWorkbook = new XSSFWorkbook(inputStream)) {
+            ProcessingResult result;
+            if (isPipelineEnabled(config)) {
+                result = pipelineRows(input, config, validationEngine, projection, validOutput, rejectedOutput);
+            } else {
+                RowRouter router = new RowRouter(config.getSkipHeaderLines(), validationEngine, projection,
+                        validOutput, rejectedOutput, routes);
 
-            Sheet inputSheet = inputWorkbook.getSheetAt(0);
-            Sheet validSheet = validWorkbook.createSheet("FilteredData");
-            Sheet rejectedSheet = rejectedWorkbook != null ? rejectedWorkbook.createSheet("RejectedData") : null;
+                // Process each row as it is parsed
+                input.read(router);
 
-            int validRowNum = 0;
-            int rejectedRowNum = 0;
-
-            // Process each row
-            for (Row inputRow : inputSheet) {
-                int rowIndex = inputRow.getRowNum();
+                result = ProcessingResult.builder()
+                        .totalRecords(router.totalRecords)
+                        .successRecords(router.successRecords)
+                        .rejectRecords(router.rejectRecords)
+                        .routeRecords(routes != null ? routes.getCounts() : null)
+                        .build();
+            }
 
-                // Handle header rows
-                if (rowIndex < config.getSkipHeaderLines()) {
-                    copyRow(inputRow, validSheet.createRow(validRowNum++));
-                    if (rejectedSheet != null) {
-                        copyRow(inputRow, rejectedSheet.createRow(rejectedRowNum++));
-                    }
-                    continue;
-                }
+            // Write valid output
+            validOutput.finish();
+            log.info("Output written to: {}", outputFilePath);
 
-                // Convert row to string array for validation
-                String[] rowData = rowToStringArray(inputRow);
-                totalRecords++;
+            // Write rejected output if needed
+            if (rejectedOutput != null) {
+                rejectedOutput.finish();
+                log.info("Rejected data written to: {}", rejectedFilePath);
+            }
 
-                if (validationEngine.validate(rowData)) {
-                    copyRow(inputRow, validSheet.createRow(validRowNum++));
-                    successRecords++;
-                } else {
-                    if (rejectedSheet != null) {
-                        copyRow(inputRow, rejectedSheet.createRow(rejectedRowNum++));
-                    }
-                    rejectRecords++;
+            // Write route outputs
+            if (routes != null) {
+                for (SheetOutput routeOutput : routes.writers()) {
+                    routeOutput.finish();
                 }
+                logRouteOutputs(config, routeEngine);
             }
 
-            // Write valid workbook
-            try (FileOutputStream validOut = new FileOutputStream(outputFilePath)) {
-                validWorkbook.write(validOut);
-                log.info("Output written to: {}", outputFilePath);
-            }
+            // Return immutable result with statistics
+            return result;
+
+        } finally {
+            // Releases workbook memory and temporary files, also after failures
+            closeQuietly(validOutput);
+            closeQuietly(rejectedOutput);
+            closeQuietly(routes);
+        }
+    }
+
+    /**
+     * Pipeline mode - the reading thread copies rows into batches, validator threads
+     * validate them and writer threads append them to the output sheets
+     * Header rows are copied by the reading thread before the first row is submitted
+     *
+     * @return Record counters and pipeline stage statistics
+     */
+    private ProcessingResult pipelineRows(SheetSource input, FilterConfig config,
+                                          ValidationEngine validationEngine, OutputProjection projection,
+                                          SheetOutput validOutput, SheetOutput rejectedOutput) throws Exception {
+        int skipHeaderLines = config.getSkipHeaderLines();
+
+        // Header rows are written before the writer threads see any row
+        try (RecordPipeline<ExcelRow> pipeline = createPipeline(config,
+                () -> validationEngine::validate,
+                row -> validOutput.write(row, projection, false),
+                rejectedOutput != null ? rejectedOutput::write : null)) {
 
-            // Write rejected workbook if needed
-            if (rejectedWorkbook != null) {
-                try (FileOutputStream rejectedOut = new FileOutputStream(rejectedFilePath)) {
-                    rejectedWorkbook.write(rejectedOut);
-                    log.info("Rejected data written to: {}", rejectedFilePath);
+            input.read(inputRow -> {
+                if (inputRow.getRowNum() < skipHeaderLines) {
+                    validOutput.write(inputRow, projection, true);
+                    if (rejectedOutput != null) {
+                        rejectedOutput.write(inputRow);
+                    }
+                    return;
                 }
-            }
+                pipeline.submit(inputRow.copy());
+            });
 
-        } finally {
-            validWorkbook.close();
-            if (rejectedWorkbook != null) {
-                rejectedWorkbook.close();
-            }
+            return pipeline.finish();
         }
+    }
 
-        // Return immutable result with statistics
-        return ProcessingResult.builder()
-                .totalRecords(totalRecords)
-                .successRecords(successRecords)
-                .rejectRecords(rejectRecords)
-                .build();
+    /**
+     * XLSX output is not compressed - .xlsx files are zip containers already
+     * CSV output is compressed according to OutputConfig.compression
+     */
+    @Override
+    protected Compression getOutputCompression(FilterConfig config) {
+        return isCsvOutput(config) ? super.getOutputCompression(config) : Compression.NONE;
     }
 
     /**
-     * Convert Excel row to string array
+     * CSV outputs are named after the input with a .csv extension
      */
-    private String[] rowToStringArray(Row row) {
-        List<String> cells = new ArrayList<>();
-        int lastCell = row.getLastCellNum();
+    @Override
+    protected String getOutputNameSource(FilterConfig config) {
+        return isCsvOutput(config)
+                ? FileNameUtil.replaceExtension(config.getInputFile(), ".csv")
+                : super.getOutputNameSource(config);
+    }
 
-        for (int i = 0; i < lastCell; i++) {
-            Cell cell = row.getCell(i);
-            cells.add(getCellValueAsString(cell));
+    /**
+     * Excel output settings with defaults for missing values
+     *
+     * @throws IllegalArgumentException if the format is unknown
+     */
+    private static ExcelOutputConfig getExcelOutput(FilterConfig config) {
+        ExcelOutputConfig configured = config.getOutput().getExcel();
+        ExcelOutputConfig excel = new ExcelOutputConfig();
+        if (configured != null) {
+            if (configured.getFormat() != null) {
+                excel.setFormat(configured.getFormat().trim().toUpperCase(Locale.ROOT));
+            }
+            if (configured.getWindowSize() != null && configured.getWindowSize() > 0) {
+                excel.setWindowSize(configured.getWindowSize());
+            }
+            if (configured.getCompressTempFiles() != null) {
+                excel.setCompressTempFiles(configured.getCompressTempFiles());
+            }
+            if (configured.getSharedStrings() != null) {
+                excel.setSharedStrings(configured.getSharedStrings());
+            }
         }
+        if (!FORMAT_XLSX.equals(excel.getFormat()) && !FORMAT_CSV.equals(excel.getFormat())) {
+            throw new IllegalArgumentException("Unsupported Excel output format: " + excel.getFormat()
+                    + " (expected " + FORMAT_XLSX + " or " + FORMAT_CSV + ")");
+        }
+        return excel;
+    }
 
-        return cells.toArray(new String[0]);
+    /**
+     * @return true if output.excel.format is CSV
+     */
+    protected static boolean isCsvOutput(FilterConfig config) {
+        return FORMAT_CSV.equals(getExcelOutput(config).getFormat());
     }
 
     /**
-     * Get cell value as string
+     * Open one output (streaming workbook or CSV file)
      */
-    private String getCellValueAsString(Cell cell) {
-        if (cell == null) {
-            return "";
+    private SheetOutput openSheetOutput(FilterConfig config, ExcelOutputConfig excel,
+                                        String sheetName, String path) throws IOException {
+        if (FORMAT_CSV.equals(excel.getFormat())) {
+            return new CsvSheetOutput(openOutputWriter(config, path));
         }
+        return new XlsxSheetOutput(sheetName, path, excel.getWindowSize(),
+                excel.getCompressTempFiles(), excel.getSharedStrings());
+    }
 
-        return switch (cell.getCellType()) {
-            case STRING -> cell.getStringCellValue();
-            case NUMERIC -> {
-                if (DateUtil.isCellDateFormatted(cell)) {
-                    yield cell.getDateCellValue().toString();
-                } else {
-                    yield String.valueOf(cell.getNumericCellValue());
-                }
+    /**
+     * Close an output without masking the outcome of processing
+     */
+    private static void closeQuietly(Closeable output) {
+        if (output == null) {
+            return;
+        }
+        try {
+            output.close();
+        } catch (IOException e) {
+            log.warn("Failed to close output: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Open the input for streaming its first sheet
+     * Processors of other spreadsheet formats override this, the output side is shared
+     *
+     * @param config Configuration containing input file name
+     * @return Opened input (caller must close)
+     * @throws Exception if the input cannot be opened
+     */
+    protected SheetSource openSheet(FilterConfig config) throws Exception {
+        OPCPackage inputPackage = openWorkbook(config);
+        return new SheetSource() {
+            @Override
+            public void read(XlsxSheetReader.RowHandler handler) throws Exception {
+                XlsxSheetReader.read(inputPackage, handler);
+            }
+
+            @Override
+            public void close() throws IOException {
+                inputPackage.close();
             }
-            case BOOLEAN -> String.valueOf(cell.getBooleanCellValue());
-            case FORMULA -> cell.getCellFormula();
-            default -> "";
         };
     }
 
     /**
-     * Copy row from source to destination
+     * Open the input workbook package
+     * A regular file is opened read-only with random access, otherwise the resource stream is used
      */
-    private void copyRow(Row sourceRow, Row destRow) {
-        for (int i = 0; i < sourceRow.getLastCellNum(); i++) {
-            Cell sourceCell = sourceRow.getCell(i);
-            Cell destCell = destRow.createCell(i);
-
-            if (sourceCell != null) {
-                switch (sourceCell.getCellType()) {
-                    case STRING -> destCell.setCellValue(sourceCell.getStringCellValue());
-                    case NUMERIC -> destCell.setCellValue(sourceCell.getNumericCellValue());
-                    case BOOLEAN -> destCell.setCellValue(sourceCell.getBooleanCellValue());
-                    case FORMULA -> destCell.setCellFormula(sourceCell.getCellFormula());
-                    default -> destCell.setCellValue("");
+    private OPCPackage openWorkbook(FilterConfig config) throws Exception {
+        Path inputPath = findInputFile(config);
+        if (inputPath != null && !isCompressedInput(config)) {
+            return OPCPackage.open(inputPath.toFile(), PackageAccess.READ);
+        }
+
+        // Classpath resource (e.g. packaged inside a jar) or compressed file
+        try (InputStream input = openInput(config)) {
+            return OPCPackage.open(input);
+        }
+    }
+
+    /**
+     * Receives parsed rows and routes them to the filtered or rejected output
+     * and to the outputs of all matching routes
+     * Rows before skipHeaderLines are copied to all outputs
+     */
+    private static final class RowRouter implements XlsxSheetReader.RowHandler {
+
+        private final int skipHeaderLines;
+        private final ValidationEngine validationEngine;
+        private final OutputProjection projection;
+        private final SheetOutput validOutput;
+        private final SheetOutput rejectedOutput;
+        private final RouteOutputs<SheetOutput> routes;
+
+        // Local counters for this processing call
+        private long totalRecords;
+        private long successRecords;
+        private long rejectRecords;
+
+        RowRouter(int skipHeaderLines, ValidationEngine validationEngine, OutputProjection projection,
+                  SheetOutput validOutput, SheetOutput rejectedOutput, RouteOutputs<SheetOutput> routes) {
+            this.skipHeaderLines = skipHeaderLines;
+            this.validationEngine = validationEngine;
+            this.projection = projection;
+            this.validOutput = validOutput;
+            this.rejectedOutput = rejectedOutput;
+            this.routes = routes;
+        }
+
+        @Override
+        public void handleRow(ExcelRow inputRow) throws IOException {
+            // Handle header rows
+            if (inputRow.getRowNum() < skipHeaderLines) {
+                validOutput.write(inputRow, projection, true);
+                if (rejectedOutput != null) {
+                    rejectedOutput.write(inputRow);
+                }
+                if (routes != null) {
+                    routes.writeAll(routeOutput -> routeOutput.write(inputRow));
+                }
+                return;
+            }
+
+            if (routes != null) {
+                routes.route(inputRow, routeOutput -> routeOutput.write(inputRow));
+            }
+
+            // Cells are converted to strings only when a rule looks at them
+            totalRecords++;
+
+            if (validationEngine.validate(inputRow)) {
+                validOutput.write(inputRow, projection, false);
+                successRecords++;
+            } else {
+                if (rejectedOutput != null) {
+                    rejectedOutput.write(inputRow);
                 }
+                rejectRecords++;
             }
         }
     }
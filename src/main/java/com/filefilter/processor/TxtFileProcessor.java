@@ -3,21 +3,53 @@
 import com.filefilter.model.FilterConfig;
 import com.filefilter.processor.base.BaseProcessor;
 import com.filefilter.processor.base.ProcessingResult;
+import com.filefilter.processor.checkpoint.Checkpoint;
+import com.filefilter.processor.checkpoint.CheckpointSession;
+import com.filefilter.processor.checkpoint.IncrementalSession;
+import com.filefilter.processor.pipeline.RecordPipeline;
+import com.filefilter.processor.projection.OutputProjection;
+import com.filefilter.processor.routing.RouteOutputs;
+import com.filefilter.processor.scanner.DelimitedLineScanner;
+import com.filefilter.validator.RouteEngine;
+import com.filefilter.validator.RowView;
 import com.filefilter.validator.ValidationEngine;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.*;
+import java.nio.charset.Charset;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
 
 /**
  * TXT file processor with custom delimiter support
  * Extends BaseProcessor to inherit automatic logging and exception handling
  * Supports custom delimiters like ",", "|", "/", etc.
+ *
+ * Two reading modes:
+ * - Byte scan (default): scans raw bytes, decodes only referenced columns, copies accepted lines as raw bytes
+ * - Line mode: decodes every line and splits it (used for encodings the byte scanner does not support),
+ *   only the fields rules look at are cut out of the line
+ *
+ * With parallel mode enabled, the byte scan runs on record-aligned chunks across a worker pool.
+ * With pipeline mode enabled, the byte scan reads lines while validation and writing run on separate threads.
+ * With checkpoint mode enabled, the byte scan saves its input offset periodically and resumes from it after a restart.
+ * With incremental mode enabled, the byte scan only reads lines appended since the previous run.
+ * With output columns configured, accepted lines are projected while they are written (see OutputProjection).
+ * With routes configured, every line is also copied to the output of each route it matches (sequential scan only).
  */
 @Slf4j
 public class TxtFileProcessor extends BaseProcessor {
 
+    private static final int BUFFER_SIZE = 65536;
+
+    /**
+     * Encoding, delimiter, line separator and projection used to write lines in byte scan mode
+     */
+    private record LineFormat(Charset charset, byte[] delimiter, byte[] newLine, OutputProjection projection) {
+    }
+
     @Override
     protected String getProcessorName() {
         return "txtParser";
@@ -25,49 +57,377 @@ protected String getProcessorName() {
 
     @Override
     protected ProcessingResult doProcess(FilterConfig config, ValidationEngine validationEngine) throws Exception {
+        // Create output directory if not exists
+        Files.createDirectories(Paths.get("output"));
+
+        Charset charset = Charset.forName(config.getEncoding());
+        OutputProjection projection = OutputProjection.of(config.getOutput());
+        RouteEngine routeEngine = compileRoutes(config);
+        boolean byteScanSupported = DelimitedLineScanner.isSupported(charset, config.getDelimiter());
+
+        // Incremental and checkpoint modes work with byte offsets, so they need the byte scanner
+        if (isIncrementalEnabled(config)) {
+            IncrementalSession session = byteScanSupported ? openIncrementalSession(config, false) : null;
+            if (session != null) {
+                return processIncremental(session, config, validationEngine, lineFormat(config, charset, projection));
+            }
+        }
+
+        if (isCheckpointEnabled(config)) {
+            CheckpointSession session = byteScanSupported ? openCheckpointSession(config) : null;
+            if (session != null) {
+                return processCheckpointed(session, config, validationEngine, lineFormat(config, charset, projection));
+            }
+        }
+
+        // Parallel mode needs random access to the file and byte-level record boundaries
+        if (isParallelEnabled(config)) {
+            Path inputPath = findInputFile(config);
+            if (inputPath != null && byteScanSupported && !isCompressedInput(config)) {
+                return processParallel(inputPath, config, validationEngine, lineFormat(config, charset, projection));
+            }
+            log.info("Parallel mode not available for this input, processing sequentially");
+        }
+
+        // Get input stream (file system path or classpath resource)
+        InputStream inputStream = openInput(config);
+
+        if (Boolean.TRUE.equals(config.getByteScan()) && byteScanSupported) {
+            return processBytes(inputStream, config, validationEngine, lineFormat(config, charset, projection),
+                    routeEngine);
+        }
+
+        log.info("Using line mode for encoding {}", charset.name());
+        return processLines(inputStream, config, validationEngine, projection, routeEngine);
+    }
+
+    private static LineFormat lineFormat(FilterConfig config, Charset charset, OutputProjection projection) {
+        return new LineFormat(charset, config.getDelimiter().getBytes(charset),
+                System.lineSeparator().getBytes(charset), projection);
+    }
+
+    /**
+     * Byte scan mode - no per-line decoding, splitting or re-encoding
+     */
+    private ProcessingResult processBytes(InputStream inputStream, FilterConfig config,
+                                          ValidationEngine validationEngine, LineFormat format,
+                                          RouteEngine routeEngine) throws Exception {
+        // Prepare output file paths (auto-generated from input filename)
+        String outputFilePath = getFilteredOutputPath(config);
+        String rejectedFilePath = getRejectedOutputPath(config);
+        ProcessingResult result;
+
+        try (InputStream input = inputStream;
+             OutputStream validOut = openOutput(config, outputFilePath);
+             OutputStream rejectedOut = config.getOutput().getNeedRejectedData()
+                     ? openOutput(config, rejectedFilePath)
+                     : null;
+             RouteOutputs<OutputStream> routes = routeEngine != null
+                     ? openRouteOutputs(config, routeEngine)
+                     : null) {
+
+            DelimitedLineScanner scanner = new DelimitedLineScanner(input, format.delimiter(), BUFFER_SIZE);
+            result = isPipelineEnabled(config)
+                    ? pipelineRows(scanner, config, validationEngine, format, validOut, rejectedOut)
+                    : scanRows(scanner, config.getSkipHeaderLines(), validationEngine, format,
+                            validOut, rejectedOut, routes);
+
+            log.info("Output written to: {}", outputFilePath);
+            if (rejectedOut != null) {
+                log.info("Rejected data written to: {}", rejectedFilePath);
+            }
+            if (routes != null) {
+                logRouteOutputs(config, routeEngine);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Parallel mode - byte scan of record-aligned chunks on a worker pool, outputs written in order
+     */
+    private ProcessingResult processParallel(Path inputPath, FilterConfig config,
+                                             ValidationEngine validationEngine, LineFormat format) throws Exception {
+        // Prepare output file paths (auto-generated from input filename)
+        String outputFilePath = getFilteredOutputPath(config);
+        String rejectedFilePath = getRejectedOutputPath(config);
+
+        int headerLines = config.getSkipHeaderLines();
+        ProcessingResult result;
+
+        try (OutputStream validOut = openOutput(config, outputFilePath);
+             OutputStream rejectedOut = config.getOutput().getNeedRejectedData()
+                     ? openOutput(config, rejectedFilePath)
+                     : null) {
+
+            result = createChunkRunner(config).run(inputPath, headerLines, false,
+                    (data, firstChunk, out) -> scanRows(new DelimitedLineScanner(data, format.delimiter()),
+                            firstChunk ? headerLines : 0, validationEngine, format,
+                            out.filtered(), out.rejected(), null),
+                    validOut, rejectedOut);
+
+            log.info("Output written to: {}", outputFilePath);
+            if (rejectedOut != null) {
+                log.info("Rejected data written to: {}", rejectedFilePath);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Incremental mode - byte scan of the lines appended since the previous run, appended to the outputs
+     */
+    private ProcessingResult processIncremental(IncrementalSession session, FilterConfig config,
+                                                ValidationEngine validationEngine, LineFormat format) throws Exception {
+        ProcessingResult result;
+
+        try (session; InputStream input = session.openInput()) {
+            // Header lines are only part of the input range in a full run
+            result = scanRows(new DelimitedLineScanner(input, format.delimiter(), BUFFER_SIZE),
+                    session.isFullRun() ? config.getSkipHeaderLines() : 0, validationEngine, format,
+                    session.getFilteredOutput(), session.getRejectedOutput(), null);
+            session.complete();
+
+            log.info("Output written to: {}", getFilteredOutputPath(config));
+            if (session.getRejectedOutput() != null) {
+                log.info("Rejected data written to: {}", getRejectedOutputPath(config));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Checkpoint mode - sequential byte scan that saves the input offset every intervalRecords records
+     * and continues from the last checkpoint after a restart
+     */
+    private ProcessingResult processCheckpointed(CheckpointSession session, FilterConfig config,
+                                                 ValidationEngine validationEngine, LineFormat format) throws Exception {
+        // Counters continue from the checkpoint
+        Checkpoint resumePoint = session.getResumePoint();
+        long startOffset = resumePoint != null ? resumePoint.getInputOffset() : 0;
+        long totalRecords = resumePoint != null ? resumePoint.getTotalRecords() : 0;
+        long successRecords = resumePoint != null ? resumePoint.getSuccessRecords() : 0;
+        long rejectRecords = resumePoint != null ? resumePoint.getRejectRecords() : 0;
+
+        try (session; InputStream input = session.openInput(startOffset)) {
+            OutputStream validOut = session.getFilteredOutput();
+            OutputStream rejectedOut = session.getRejectedOutput();
+
+            DelimitedLineScanner scanner = new DelimitedLineScanner(input, format.delimiter(), BUFFER_SIZE);
+            RowView row = scanner.rowView(format.charset());
+            if (resumePoint == null) {
+                copyHeaderLines(scanner, config.getSkipHeaderLines(), format, validOut, rejectedOut, null);
+            }
+
+            // Process data rows
+            while (scanner.nextLine()) {
+                totalRecords++;
+
+                if (validationEngine.validate(row)) {
+                    writeFiltered(scanner, format, false, validOut);
+                    successRecords++;
+                } else {
+                    if (rejectedOut != null) {
+                        writeLine(scanner, rejectedOut, format.newLine());
+                    }
+                    rejectRecords++;
+                }
+
+                if (session.isDue(totalRecords)) {
+                    session.save(startOffset + scanner.position(), totalRecords, successRecords, rejectRecords);
+                }
+            }
+
+            session.complete();
+
+            log.info("Output written to: {}", getFilteredOutputPath(config));
+            if (rejectedOut != null) {
+                log.info("Rejected data written to: {}", getRejectedOutputPath(config));
+            }
+        }
+
+        // Return immutable result with statistics
+        return ProcessingResult.builder()
+                .totalRecords(totalRecords)
+                .successRecords(successRecords)
+                .rejectRecords(rejectRecords)
+                .build();
+    }
+
+    /**
+     * Copy header lines and validate all data lines of a scanner
+     * Used by both sequential and parallel byte scan modes
+     *
+     * @param routes Route outputs, nullable
+     * @return Record counters
+     */
+    private static ProcessingResult scanRows(DelimitedLineScanner scanner, int headerLines,
+                                             ValidationEngine validationEngine, LineFormat format,
+                                             OutputStream validOut, OutputStream rejectedOut,
+                                             RouteOutputs<OutputStream> routes) throws IOException {
         // Local variables for thread-safe counter tracking
         long totalRecords = 0;
         long successRecords = 0;
         long rejectRecords = 0;
 
-        // Get input stream from resources
-        InputStream inputStream = getClass().getClassLoader()
-                .getResourceAsStream("sourcefile/" + config.getInputFile());
+        // Only columns the rules look at are decoded, on demand
+        RowView row = scanner.rowView(format.charset());
+        RouteOutputs.RowWriter<OutputStream> routeWriter = out -> writeLine(scanner, out, format.newLine());
+
+        copyHeaderLines(scanner, headerLines, format, validOut, rejectedOut, routes);
+
+        // Process data rows
+        while (scanner.nextLine()) {
+            totalRecords++;
+
+            if (routes != null) {
+                routes.route(row, routeWriter);
+            }
 
-        if (inputStream == null) {
-            throw new FileNotFoundException("Input file not found: sourcefile/" + config.getInputFile());
+            if (validationEngine.validate(row)) {
+                writeFiltered(scanner, format, false, validOut);
+                successRecords++;
+            } else {
+                if (rejectedOut != null) {
+                    writeLine(scanner, rejectedOut, format.newLine());
+                }
+                rejectRecords++;
+            }
         }
 
-        // Create output directory if not exists
-        Files.createDirectories(Paths.get("output"));
+        // Return immutable result with statistics
+        return ProcessingResult.builder()
+                .totalRecords(totalRecords)
+                .successRecords(successRecords)
+                .rejectRecords(rejectRecords)
+                .routeRecords(routes != null ? routes.getCounts() : null)
+                .build();
+    }
+
+    /**
+     * Pipeline mode - the scanner thread copies raw lines into batches,
+     * validator threads split and validate them, writer threads copy them to the outputs
+     *
+     * @return Record counters and pipeline stage statistics
+     */
+    private ProcessingResult pipelineRows(DelimitedLineScanner scanner, FilterConfig config,
+                                          ValidationEngine validationEngine, LineFormat format,
+                                          OutputStream validOut, OutputStream rejectedOut) throws Exception {
+        byte[] delimiter = format.delimiter();
+        byte[] newLine = format.newLine();
+
+        // Header lines are written before any writer thread starts
+        copyHeaderLines(scanner, config.getSkipHeaderLines(), format, validOut, rejectedOut, null);
+
+        // The projection splits accepted lines again on the filtered writer thread
+        DelimitedLineScanner projectionScanner = format.projection() != null
+                ? new DelimitedLineScanner(new byte[0], delimiter)
+                : null;
+
+        try (RecordPipeline<byte[]> pipeline = createPipeline(config,
+                () -> {
+                    // Each validator thread splits lines with its own scanner and row view
+                    DelimitedLineScanner lineScanner = new DelimitedLineScanner(new byte[0], delimiter);
+                    RowView row = lineScanner.rowView(format.charset());
+                    return line -> {
+                        lineScanner.scanLine(line);
+                        return validationEngine.validate(row);
+                    };
+                },
+                line -> {
+                    if (projectionScanner != null) {
+                        projectionScanner.scanLine(line);
+                        writeFiltered(projectionScanner, format, false, validOut);
+                    } else {
+                        validOut.write(line);
+                        validOut.write(newLine);
+                    }
+                },
+                rejectedOut != null
+                        ? line -> {
+                            rejectedOut.write(line);
+                            rejectedOut.write(newLine);
+                        }
+                        : null)) {
+
+            // Process data rows
+            while (scanner.nextLine()) {
+                pipeline.submit(Arrays.copyOfRange(scanner.buffer(), scanner.lineStart(), scanner.lineEnd()));
+            }
+
+            return pipeline.finish();
+        }
+    }
+
+    /**
+     * Copy header lines to both outputs and to all route outputs
+     */
+    private static void copyHeaderLines(DelimitedLineScanner scanner, int headerLines, LineFormat format,
+                                        OutputStream validOut, OutputStream rejectedOut,
+                                        RouteOutputs<OutputStream> routes) throws IOException {
+        for (int i = 0; i < headerLines && scanner.nextLine(); i++) {
+            writeFiltered(scanner, format, true, validOut);
+            if (rejectedOut != null) {
+                writeLine(scanner, rejectedOut, format.newLine());
+            }
+            if (routes != null) {
+                routes.writeAll(out -> writeLine(scanner, out, format.newLine()));
+            }
+        }
+    }
+
+    /**
+     * Line mode - decode each line and split by the delimiter
+     */
+    private ProcessingResult processLines(InputStream inputStream, FilterConfig config,
+                                          ValidationEngine validationEngine, OutputProjection projection,
+                                          RouteEngine routeEngine) throws IOException {
+        // Local variables for thread-safe counter tracking
+        long totalRecords = 0;
+        long successRecords = 0;
+        long rejectRecords = 0;
 
         // Prepare output file paths (auto-generated from input filename)
         String outputFilePath = getFilteredOutputPath(config);
         String rejectedFilePath = getRejectedOutputPath(config);
 
-        // Get delimiter (escape special regex characters)
-        String delimiter = config.getDelimiter();
-        String delimiterRegex = java.util.regex.Pattern.quote(delimiter);
+        // Fields are located with indexOf and cut out only when a rule looks at them
+        SplitLine row = new SplitLine(config.getDelimiter());
 
         // Open readers and writers with large buffers for performance
         try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(inputStream, config.getEncoding()), 65536);
+                new InputStreamReader(inputStream, config.getEncoding()), BUFFER_SIZE);
              BufferedWriter validWriter = new BufferedWriter(
-                     new FileWriter(outputFilePath), 65536);
+                     openOutputWriter(config, outputFilePath), BUFFER_SIZE);
              BufferedWriter rejectedWriter = config.getOutput().getNeedRejectedData()
-                     ? new BufferedWriter(new FileWriter(rejectedFilePath), 65536)
+                     ? new BufferedWriter(openOutputWriter(config, rejectedFilePath), BUFFER_SIZE)
+                     : null;
+             RouteOutputs<BufferedWriter> routes = routeEngine != null
+                     ? RouteOutputs.open(routeEngine, name -> new BufferedWriter(
+                             openOutputWriter(config, getRouteOutputPath(config, name)), BUFFER_SIZE))
                      : null) {
 
             // Skip header lines
             for (int i = 0; i < config.getSkipHeaderLines(); i++) {
                 String headerLine = reader.readLine();
                 if (headerLine != null) {
-                    validWriter.write(headerLine);
+                    if (projection != null) {
+                        row.split(headerLine);
+                        validWriter.write(String.join(config.getDelimiter(), projection.project(row, true)));
+                    } else {
+                        validWriter.write(headerLine);
+                    }
                     validWriter.newLine();
                     if (rejectedWriter != null) {
                         rejectedWriter.write(headerLine);
                         rejectedWriter.newLine();
                     }
+                    if (routes != null) {
+                        routes.writeAll(out -> writeLine(out, headerLine));
+                    }
                 }
             }
 
@@ -77,10 +437,17 @@ protected ProcessingResult doProcess(FilterConfig config, ValidationEngine valid
                 totalRecords++;
 
                 // Split by delimiter
-                String[] row = line.split(delimiterRegex, -1); // -1 to preserve trailing empty strings
+                row.split(line);
+
+                if (routes != null) {
+                    String routedLine = line;
+                    routes.route(row, out -> writeLine(out, routedLine));
+                }
 
                 if (validationEngine.validate(row)) {
-                    validWriter.write(line);
+                    validWriter.write(projection != null
+                            ? String.join(config.getDelimiter(), projection.project(row, false))
+                            : line);
                     validWriter.newLine();
                     successRecords++;
                 } else {
@@ -96,13 +463,119 @@ protected ProcessingResult doProcess(FilterConfig config, ValidationEngine valid
             if (rejectedWriter != null) {
                 log.info("Rejected data written to: {}", rejectedFilePath);
             }
+            if (routes != null) {
+                logRouteOutputs(config, routeEngine);
+            }
+
+            // Return immutable result with statistics
+            return ProcessingResult.builder()
+                    .totalRecords(totalRecords)
+                    .successRecords(successRecords)
+                    .rejectRecords(rejectRecords)
+                    .routeRecords(routes != null ? routes.getCounts() : null)
+                    .build();
         }
+    }
 
-        // Return immutable result with statistics
-        return ProcessingResult.builder()
-                .totalRecords(totalRecords)
-                .successRecords(successRecords)
-                .rejectRecords(rejectRecords)
-                .build();
+    /**
+     * Decoded line split at a literal delimiter, fields are only cut out when requested
+     * Same fields as Pattern.compile(Pattern.quote(delimiter)).split(line, -1)
+     */
+    private static final class SplitLine implements RowView {
+
+        private final String delimiter;
+        private String line;
+        private int fieldCount;
+        private int[] fieldStarts = new int[64];
+        private int[] fieldEnds = new int[64];
+
+        /**
+         * @param delimiter Field delimiter (must not be empty)
+         */
+        SplitLine(String delimiter) {
+            if (delimiter == null || delimiter.isEmpty()) {
+                throw new IllegalArgumentException("Delimiter must not be empty");
+            }
+            this.delimiter = delimiter;
+        }
+
+        void split(String line) {
+            this.line = line;
+            fieldCount = 0;
+            int start = 0;
+            int next;
+            while ((next = line.indexOf(delimiter, start)) >= 0) {
+                addField(start, next);
+                start = next + delimiter.length();
+            }
+            addField(start, line.length());
+        }
+
+        private void addField(int start, int end) {
+            if (fieldCount == fieldStarts.length) {
+                fieldStarts = Arrays.copyOf(fieldStarts, fieldCount * 2);
+                fieldEnds = Arrays.copyOf(fieldEnds, fieldCount * 2);
+            }
+            fieldStarts[fieldCount] = start;
+            fieldEnds[fieldCount] = end;
+            fieldCount++;
+        }
+
+        @Override
+        public int fieldCount() {
+            return fieldCount;
+        }
+
+        @Override
+        public CharSequence field(int index) {
+            return line.substring(fieldStarts[index], fieldEnds[index]);
+        }
+    }
+
+    /**
+     * Write a decoded line plus line separator
+     */
+    private static void writeLine(BufferedWriter writer, String line) throws IOException {
+        writer.write(line);
+        writer.newLine();
+    }
+
+    /**
+     * Copy the current raw line plus line separator to the output
+     */
+    private static void writeLine(DelimitedLineScanner scanner, OutputStream out, byte[] newLine) throws IOException {
+        scanner.writeLine(out);
+        out.write(newLine);
+    }
+
+    /**
+     * Write the current line to the filtered output, projected if output columns are configured
+     * Columns without transforms (and all columns of header lines) are copied as raw bytes
+     */
+    private static void writeFiltered(DelimitedLineScanner scanner, LineFormat format, boolean header,
+                                      OutputStream out) throws IOException {
+        OutputProjection projection = format.projection();
+        if (projection == null) {
+            writeLine(scanner, out, format.newLine());
+            return;
+        }
+
+        int fieldCount = scanner.fieldCount();
+        for (int i = 0; i < projection.size(); i++) {
+            if (i > 0) {
+                out.write(format.delimiter());
+            }
+            int column = projection.column(i);
+            if (header || projection.isPlain(i)) {
+                if (column < fieldCount) {
+                    int start = scanner.fieldStart(column);
+                    out.write(scanner.buffer(), start, scanner.fieldEnd(column) - start);
+                }
+            } else {
+                String value = column < fieldCount ? scanner.field(column, format.charset()) : null;
+                out.write(projection.apply(i, value).getBytes(format.charset()));
+            }
+        }
+        out.write(format.newLine());
     }
 }
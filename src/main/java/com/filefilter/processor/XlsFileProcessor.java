@@ -0,0 +1,70 @@
+package com.filefilter.processor;
+
+import com.filefilter.model.FilterConfig;
+import com.filefilter.processor.excel.SheetSource;
+import com.filefilter.processor.excel.XlsSheetReader;
+import com.filefilter.processor.excel.XlsxSheetReader;
+import com.filefilter.util.FileNameUtil;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * Legacy Excel (XLS, BIFF8) file processor with streaming support
+ *
+ * Input is read with the HSSF event API (XlsSheetReader), rows are validated as they are decoded.
+ * Output, header, rejected, pipeline, projection and route handling are those of ExcelFileProcessor.
+ * Workbook outputs are written as XLSX and named accordingly (Book.xls -> Book_Filtered.xlsx).
+ */
+public class XlsFileProcessor extends ExcelFileProcessor {
+
+    @Override
+    protected String getProcessorName() {
+        return "xlsParser";
+    }
+
+    /**
+     * Open the input file system
+     * A regular file is opened read-only without loading it, otherwise the resource stream is
+     * read into memory (classpath resources, compressed files)
+     */
+    @Override
+    protected SheetSource openSheet(FilterConfig config) throws Exception {
+        POIFSFileSystem fileSystem = openFileSystem(config);
+        return new SheetSource() {
+            @Override
+            public void read(XlsxSheetReader.RowHandler handler) throws Exception {
+                XlsSheetReader.read(fileSystem, handler);
+            }
+
+            @Override
+            public void close() throws IOException {
+                fileSystem.close();
+            }
+        };
+    }
+
+    /**
+     * Workbook outputs are XLSX files, CSV outputs keep the naming of ExcelFileProcessor
+     */
+    @Override
+    protected String getOutputNameSource(FilterConfig config) {
+        return isCsvOutput(config)
+                ? super.getOutputNameSource(config)
+                : FileNameUtil.replaceExtension(config.getInputFile(), ".xlsx");
+    }
+
+    private POIFSFileSystem openFileSystem(FilterConfig config) throws IOException {
+        Path inputPath = findInputFile(config);
+        if (inputPath != null && !isCompressedInput(config)) {
+            return new POIFSFileSystem(inputPath.toFile(), true);
+        }
+
+        // Classpath resource (e.g. packaged inside a jar) or compressed file
+        try (InputStream input = openInput(config)) {
+            return new POIFSFileSystem(input);
+        }
+    }
+}
@@ -1,10 +1,30 @@
 package com.filefilter.processor.base;
 
 import com.filefilter.model.FilterConfig;
+import com.filefilter.model.PipelineConfig;
+import com.filefilter.processor.checkpoint.CheckpointSession;
+import com.filefilter.processor.checkpoint.IncrementalSession;
+import com.filefilter.processor.parallel.ParallelChunkRunner;
+import com.filefilter.processor.pipeline.RecordPipeline;
+import com.filefilter.processor.pipeline.StageStats;
+import com.filefilter.processor.routing.RouteOutputs;
+import com.filefilter.util.AsyncCompressedOutputStream;
+import com.filefilter.util.Compression;
+import com.filefilter.util.ConfigCache;
 import com.filefilter.util.FileNameUtil;
+import com.filefilter.util.InputFileUtil;
+import com.filefilter.validator.CheckStats;
+import com.filefilter.validator.RouteEngine;
 import com.filefilter.validator.ValidationEngine;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.function.Supplier;
+
 /**
  * Base processor implementing Template Method Pattern
  * Provides automatic logging and exception handling for all processors
@@ -16,6 +36,8 @@
 @Slf4j
 public abstract class BaseProcessor implements FileProcessor {
 
+    private static final int OUTPUT_BUFFER_SIZE = 65536;
+
     /**
      * Template method - defines the processing algorithm skeleton
      * Child classes should NOT override this method
@@ -25,18 +47,33 @@ public abstract class BaseProcessor implements FileProcessor {
      * - Executes child-specific logic (doProcess)
      * - Handles exceptions
      * - Logs process completion with statistics
+     *
+     * @return Final result including timing information
+     */
+    @Override
+    public final ProcessingResult process(FilterConfig config) {
+        // Validation engine for this processing call, rules are compiled once per rule set and JVM
+        return process(config, ConfigCache.shared().getEngine(config));
+    }
+
+    /**
+     * Template method with a precompiled validation engine
+     * Child classes should NOT override this method
+     *
+     * @return Final result including timing information
      */
     @Override
-    public final void process(FilterConfig config) {
+    public final ProcessingResult process(FilterConfig config, ValidationEngine validationEngine) {
         long startTime = System.currentTimeMillis();
         String processorName = getProcessorName();
 
-        // Create validation engine for this processing call
-        ValidationEngine validationEngine = new ValidationEngine(config);
-
         try {
             // Step 1: Log start
             logProcessStart(processorName);
+            if (hasUniqueRules(config) && (Boolean.TRUE.equals(config.getParallel()) || config.getPipeline() != null
+                    || config.getCheckpoint() != null || isIncrementalRequested(config))) {
+                log.info("Unique rules are processed sequentially, parallel, pipeline, checkpoint and incremental settings are ignored");
+            }
 
             // Step 2: Execute child-specific logic
             ProcessingResult result = doProcess(config, validationEngine);
@@ -49,9 +86,13 @@ public final void process(FilterConfig config) {
                     .rejectRecords(result.getRejectRecords())
                     .processingTimeMs(timeTaken)
                     .success(true)
+                    .stageStats(result.getStageStats())
+                    .validationStats(validationEngine.getStats())
+                    .routeRecords(result.getRouteRecords())
                     .build();
 
             logProcessComplete(processorName, finalResult);
+            return finalResult;
 
         } catch (Exception e) {
             // Step 3 (error case): Log completion with failure
@@ -64,6 +105,9 @@ public final void process(FilterConfig config) {
 
             logProcessComplete(processorName, errorResult);
             throw new RuntimeException("Processing failed in " + processorName, e);
+        } finally {
+            // Keys of unique rules belong to this file only
+            validationEngine.resetRunState();
         }
     }
 
@@ -95,7 +139,7 @@ protected abstract ProcessingResult doProcess(FilterConfig config,
      * @return Full path to filtered output file
      */
     protected String getFilteredOutputPath(FilterConfig config) {
-        return FileNameUtil.getFilteredFilePath(config.getInputFile());
+        return FileNameUtil.getFilteredFilePath(getOutputNameSource(config), getOutputCompression(config));
     }
 
     /**
@@ -106,7 +150,297 @@ protected String getFilteredOutputPath(FilterConfig config) {
      * @return Full path to rejected output file
      */
     protected String getRejectedOutputPath(FilterConfig config) {
-        return FileNameUtil.getRejectedFilePath(config.getInputFile());
+        return FileNameUtil.getRejectedFilePath(getOutputNameSource(config), getOutputCompression(config));
+    }
+
+    /**
+     * Generate the output file name of a route from the input filename
+     * Example: "SampleData.csv", "Active" → "output/SampleData_Active.csv"
+     *
+     * @param config Configuration containing input file name
+     * @param routeName Route name
+     * @return Full path to the route output file
+     */
+    protected String getRouteOutputPath(FilterConfig config, String routeName) {
+        return FileNameUtil.getRouteFilePath(getOutputNameSource(config), routeName, getOutputCompression(config));
+    }
+
+    /**
+     * File name the output file names are derived from
+     * Processors that write a different format than they read may override this to change the extension
+     *
+     * @param config Configuration containing input file name
+     * @return Input file name
+     */
+    protected String getOutputNameSource(FilterConfig config) {
+        return config.getInputFile();
+    }
+
+    /**
+     * Compression of the output files (see OutputConfig.compression)
+     * Processors whose output format is already compressed may override this
+     *
+     * @param config Configuration containing output settings
+     * @return Output compression
+     */
+    protected Compression getOutputCompression(FilterConfig config) {
+        return Compression.fromName(config.getOutput().getCompression());
+    }
+
+    /**
+     * Open an output file as a buffered byte stream
+     * Compressed outputs are compressed on a background thread (see AsyncCompressedOutputStream)
+     *
+     * @param config Configuration containing output settings
+     * @param path Output file path (from getFilteredOutputPath / getRejectedOutputPath)
+     * @return Output stream (caller must close)
+     * @throws IOException if the file cannot be created
+     */
+    protected OutputStream openOutput(FilterConfig config, String path) throws IOException {
+        Compression compression = getOutputCompression(config);
+        if (compression == Compression.NONE) {
+            return new BufferedOutputStream(new FileOutputStream(path), OUTPUT_BUFFER_SIZE);
+        }
+        return new AsyncCompressedOutputStream(Paths.get(path), compression);
+    }
+
+    /**
+     * Open an output file as a character stream in the platform encoding (same as FileWriter)
+     *
+     * @param config Configuration containing output settings
+     * @param path Output file path
+     * @return Writer (caller must close)
+     * @throws IOException if the file cannot be created
+     */
+    protected Writer openOutputWriter(FilterConfig config, String path) throws IOException {
+        return new OutputStreamWriter(openOutput(config, path), Charset.defaultCharset());
+    }
+
+    /**
+     * Check whether the input file is compressed (gzip, zstd)
+     * Compressed input can only be read sequentially
+     *
+     * @param config Configuration containing input file path
+     * @return true if the input is compressed
+     */
+    protected boolean isCompressedInput(FilterConfig config) throws IOException {
+        return InputFileUtil.detectCompression(config.getInputFile()) != Compression.NONE;
+    }
+
+    /**
+     * Resolve the input file as a regular file for random access (e.g. parallel mode)
+     *
+     * @param config Configuration containing input file path
+     * @return Path to the input file, or null if it is not a regular file (e.g. packaged in a jar)
+     */
+    protected Path findInputFile(FilterConfig config) {
+        return InputFileUtil.findFile(config.getInputFile());
+    }
+
+    /**
+     * Open the input file for sequential reading
+     * File system path first, classpath resource under sourcefile/ as fallback,
+     * large files are memory-mapped (see FilterConfig.mmapThresholdMb)
+     *
+     * @param config Configuration containing input file path
+     * @return Input stream (caller must close)
+     * @throws IOException if the file cannot be found or opened
+     */
+    protected InputStream openInput(FilterConfig config) throws IOException {
+        long threshold = config.getMmapThresholdMb() != null && config.getMmapThresholdMb() >= 0
+                ? (long) config.getMmapThresholdMb() * 1024 * 1024
+                : -1;
+        return InputFileUtil.open(config.getInputFile(), threshold);
+    }
+
+    /**
+     * Check whether multi-way routing is configured (see FilterConfig.routes)
+     */
+    protected boolean hasRoutes(FilterConfig config) {
+        return config.getRoutes() != null && !config.getRoutes().isEmpty();
+    }
+
+    /**
+     * Check whether a validation rule requires unique keys (see ValidationRule.unique)
+     * Keys are recorded in input order, so the other processing modes are switched off
+     */
+    protected boolean hasUniqueRules(FilterConfig config) {
+        return config.getValidations() != null
+                && config.getValidations().stream().anyMatch(rule -> Boolean.TRUE.equals(rule.getUnique()));
+    }
+
+    /**
+     * Compile the routes of a configuration
+     * Routed input is processed sequentially, so the other processing modes are switched off
+     *
+     * @param config Configuration containing routes
+     * @return Route engine, or null if no routes are configured
+     * @throws IllegalArgumentException if a route is invalid
+     */
+    protected RouteEngine compileRoutes(FilterConfig config) {
+        RouteEngine engine = RouteEngine.of(config);
+        if (engine != null && (Boolean.TRUE.equals(config.getParallel()) || config.getPipeline() != null
+                || config.getCheckpoint() != null || isIncrementalRequested(config))) {
+            log.info("Routes are processed sequentially, parallel, pipeline, checkpoint and incremental settings are ignored");
+        }
+        return engine;
+    }
+
+    /**
+     * Open the outputs of all routes as buffered byte streams (see openOutput)
+     *
+     * @param config Configuration containing output settings
+     * @param engine Compiled routes
+     * @return Route outputs (caller must close)
+     * @throws IOException if a file cannot be created
+     */
+    protected RouteOutputs<OutputStream> openRouteOutputs(FilterConfig config, RouteEngine engine) throws IOException {
+        return RouteOutputs.open(engine, name -> openOutput(config, getRouteOutputPath(config, name)));
+    }
+
+    /**
+     * Log the output file of every route
+     */
+    protected void logRouteOutputs(FilterConfig config, RouteEngine engine) {
+        for (int i = 0; i < engine.size(); i++) {
+            log.info("Route {} written to: {}", engine.name(i), getRouteOutputPath(config, engine.name(i)));
+        }
+    }
+
+    /**
+     * Check whether parallel mode is configured
+     * Not available together with routes or unique rules
+     */
+    protected boolean isParallelEnabled(FilterConfig config) {
+        return Boolean.TRUE.equals(config.getParallel()) && !hasRoutes(config) && !hasUniqueRules(config);
+    }
+
+    /**
+     * Check whether checkpoint mode is configured
+     * Not available together with routes or unique rules
+     */
+    protected boolean isCheckpointEnabled(FilterConfig config) {
+        return config.getCheckpoint() != null && !hasRoutes(config) && !hasUniqueRules(config);
+    }
+
+    /**
+     * Open the outputs and sidecar file of a resumable run (see CheckpointSession)
+     * Needs an uncompressed input file on the file system (to seek in it) and
+     * uncompressed outputs (to truncate them to the last checkpoint)
+     *
+     * @param config Configuration containing checkpoint settings
+     * @return Open session (caller must close), or null if checkpoints are not available for this input
+     * @throws IOException if the output files cannot be opened
+     */
+    protected CheckpointSession openCheckpointSession(FilterConfig config) throws IOException {
+        Path inputPath = findInputFile(config);
+        if (inputPath == null || isCompressedInput(config) || getOutputCompression(config) != Compression.NONE) {
+            log.info("Checkpoint mode not available for this input or output compression, processing without checkpoints");
+            return null;
+        }
+
+        log.info("Checkpoint mode: progress saved every {} records to {}",
+                config.getCheckpoint().getIntervalRecords(), FileNameUtil.getCheckpointFilePath(config.getInputFile()));
+        return CheckpointSession.open(config, inputPath, getFilteredOutputPath(config),
+                config.getOutput().getNeedRejectedData() ? getRejectedOutputPath(config) : null,
+                FileNameUtil.getCheckpointFilePath(config.getInputFile()));
+    }
+
+    /**
+     * Check whether incremental mode is configured
+     * Not available together with routes or unique rules
+     */
+    protected boolean isIncrementalEnabled(FilterConfig config) {
+        return isIncrementalRequested(config) && !hasRoutes(config) && !hasUniqueRules(config);
+    }
+
+    private static boolean isIncrementalRequested(FilterConfig config) {
+        return Boolean.TRUE.equals(config.getIncremental());
+    }
+
+    /**
+     * Open the new input range, outputs and state file of an incremental run (see IncrementalSession)
+     * Needs an uncompressed input file on the file system (to read only its tail) and
+     * uncompressed outputs (to append to them)
+     *
+     * @param config Configuration containing input and output settings
+     * @param quoteAware true if '\n' inside double quotes does not end a record (CSV)
+     * @return Open session (caller must close), or null if incremental mode is not available for this input
+     * @throws IOException if the input or output files cannot be opened
+     */
+    protected IncrementalSession openIncrementalSession(FilterConfig config, boolean quoteAware) throws IOException {
+        Path inputPath = findInputFile(config);
+        if (inputPath == null || isCompressedInput(config) || getOutputCompression(config) != Compression.NONE) {
+            log.info("Incremental mode not available for this input or output compression, processing the whole file");
+            return null;
+        }
+
+        return IncrementalSession.open(config, inputPath, getFilteredOutputPath(config),
+                config.getOutput().getNeedRejectedData() ? getRejectedOutputPath(config) : null,
+                FileNameUtil.getIncrementalStateFilePath(config.getInputFile()), quoteAware);
+    }
+
+    /**
+     * Create a chunk runner for parallel mode from configuration
+     *
+     * @param config Configuration containing parallel settings
+     * @return Chunk runner
+     */
+    protected ParallelChunkRunner createChunkRunner(FilterConfig config) {
+        int threads = config.getParallelThreads() != null && config.getParallelThreads() > 0
+                ? config.getParallelThreads()
+                : Runtime.getRuntime().availableProcessors();
+        long chunkSize = (long) config.getChunkSizeMb() * 1024 * 1024;
+        return new ParallelChunkRunner(threads, chunkSize);
+    }
+
+    /**
+     * Check whether pipeline mode is configured
+     * Not available together with routes or unique rules
+     */
+    protected boolean isPipelineEnabled(FilterConfig config) {
+        return config.getPipeline() != null && !hasRoutes(config) && !hasUniqueRules(config);
+    }
+
+    /**
+     * Create and start a reader/validator/writer pipeline from configuration
+     * The calling thread acts as reader and submits records, see RecordPipeline
+     *
+     * @param config Configuration containing pipeline settings
+     * @param validatorFactory Creates one validator per validator thread
+     * @param validWriter Writer for accepted records
+     * @param rejectedWriter Writer for rejected records (nullable)
+     * @return Running pipeline (caller must close)
+     */
+    protected <T> RecordPipeline<T> createPipeline(FilterConfig config,
+                                                   Supplier<RecordPipeline.RecordValidator<T>> validatorFactory,
+                                                   RecordPipeline.RecordWriter<T> validWriter,
+                                                   RecordPipeline.RecordWriter<T> rejectedWriter) {
+        PipelineConfig pipeline = config.getPipeline();
+        int validators = pipeline.getValidatorThreads() != null && pipeline.getValidatorThreads() > 0
+                ? pipeline.getValidatorThreads()
+                : Math.max(1, Runtime.getRuntime().availableProcessors() - 2);
+        int batchSize = pipeline.getBatchSize() != null && pipeline.getBatchSize() > 0
+                ? pipeline.getBatchSize()
+                : 1024;
+        int queueCapacity = pipeline.getQueueCapacity() != null && pipeline.getQueueCapacity() > 0
+                ? pipeline.getQueueCapacity()
+                : 64;
+
+        log.info("Pipeline mode: {} validator thread(s), batch size {}, queue capacity {}",
+                validators, batchSize, queueCapacity);
+        return new RecordPipeline<>(validators, batchSize, queueCapacity,
+                validatorFactory, validWriter, rejectedWriter);
+    }
+
+    /**
+     * Log counters of one rule or check type
+     */
+    private void logCheckStats(String label, CheckStats stats) {
+        log.info("{} {}: evaluations={}, failures={} ({}%), avg={}ns, p50<={}ns, p99<={}ns",
+                label, stats.getName(), stats.getEvaluations(), stats.getFailures(),
+                String.format("%.2f", stats.getFailureRate()), stats.getAvgNanos(),
+                stats.getP50Nanos(), stats.getP99Nanos());
     }
 
     /**
@@ -127,6 +461,33 @@ private void logProcessComplete(String processorName, ProcessingResult result) {
             log.info("Valid records: {}", result.getSuccessRecords());
             log.info("Rejected records: {}", result.getRejectRecords());
 
+            // Validation statistics per rule and per check type
+            if (result.getValidationStats() != null) {
+                for (CheckStats rule : result.getValidationStats().getRules()) {
+                    logCheckStats("Validation", rule);
+                }
+                for (CheckStats checkType : result.getValidationStats().getCheckTypes()) {
+                    logCheckStats("Check type", checkType);
+                }
+            }
+
+            // Records per route
+            if (result.getRouteRecords() != null) {
+                for (Map.Entry<String, Long> route : result.getRouteRecords().entrySet()) {
+                    log.info("Route {}: records={}", route.getKey(), route.getValue());
+                }
+            }
+
+            // Pipeline stage statistics
+            if (result.getStageStats() != null) {
+                for (StageStats stage : result.getStageStats()) {
+                    log.info("Stage {}: records={}, batches={}, busy={}ms, wait={}ms, throughput={}/s, queueMax={}, queueAvg={}",
+                            stage.getStage(), stage.getRecords(), stage.getBatches(), stage.getBusyMs(),
+                            stage.getWaitMs(), stage.getThroughput(), stage.getMaxQueueDepth(),
+                            String.format("%.1f", stage.getAvgQueueDepth()));
+                }
+            }
+
             // Overall summary (condensed format)
             log.info("{}, {}ms, totalRecords={}, successRecord={}, rejectRecord={}, success=true",
                     processorName, result.getProcessingTimeMs(), result.getTotalRecords(),
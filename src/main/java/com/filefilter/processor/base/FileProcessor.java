@@ -1,6 +1,7 @@
 package com.filefilter.processor.base;
 
 import com.filefilter.model.FilterConfig;
+import com.filefilter.validator.ValidationEngine;
 
 /**
  * Interface for file processors
@@ -10,8 +11,20 @@ public interface FileProcessor {
 
     /**
      * Process the file - reads, validates, and writes filtered data
+     * Validation rules are compiled once per rule set (see ConfigCache)
      *
      * @param config Filter configuration
+     * @return ProcessingResult with statistics of this run
      */
-    void process(FilterConfig config);
+    ProcessingResult process(FilterConfig config);
+
+    /**
+     * Process the file with an already compiled validation engine
+     * Used by long-running callers that compile the rules of a configuration once (see ValidationEngine.forNextRun())
+     *
+     * @param config Filter configuration
+     * @param validationEngine Engine compiled from the validation rules of config, used for this run only
+     * @return ProcessingResult with statistics of this run
+     */
+    ProcessingResult process(FilterConfig config, ValidationEngine validationEngine);
 }
@@ -1,8 +1,13 @@
 package com.filefilter.processor.base;
 
+import com.filefilter.processor.pipeline.StageStats;
+import com.filefilter.validator.ValidationStats;
 import lombok.Builder;
 import lombok.Getter;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * Immutable result object containing processing statistics
  * Thread-safe by design (all fields are final and immutable)
@@ -19,4 +24,37 @@ public class ProcessingResult {
     private final long processingTimeMs;
     private final boolean success;
     private final Exception error;
+
+    /**
+     * Per-stage statistics of pipeline mode
+     * Nullable - null if the pipeline was not used
+     */
+    private final List<StageStats> stageStats;
+
+    /**
+     * Per-rule and per-check-type validation counters
+     * Nullable - null for partial and failed results
+     */
+    private final ValidationStats validationStats;
+
+    /**
+     * Records written to each route output, by route name in configuration order
+     * Nullable - null if no routes are configured
+     */
+    private final Map<String, Long> routeRecords;
+
+    /**
+     * Combine record counters of two partial results (e.g. per-chunk results)
+     * Timing, error information, stage, validation and route statistics are not merged
+     *
+     * @param other Result to add
+     * @return New result with summed counters
+     */
+    public ProcessingResult merge(ProcessingResult other) {
+        return ProcessingResult.builder()
+                .totalRecords(totalRecords + other.totalRecords)
+                .successRecords(successRecords + other.successRecords)
+                .rejectRecords(rejectRecords + other.rejectRecords)
+                .build();
+    }
 }
@@ -0,0 +1,33 @@
+package com.filefilter.processor.checkpoint;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Immutable progress of a checkpointed run, as stored in the sidecar file
+ * All positions refer to the state after the last processed record
+ */
+@Getter
+@Builder
+public class Checkpoint {
+
+    /**
+     * Byte offset in the input after the last processed record
+     * 0 for processors that resume by record count (CSV)
+     */
+    private final long inputOffset;
+
+    private final long totalRecords;
+    private final long successRecords;
+    private final long rejectRecords;
+
+    /**
+     * Size of the filtered output file at the checkpoint
+     */
+    private final long filteredPosition;
+
+    /**
+     * Size of the rejected output file at the checkpoint (0 if rejected data is not written)
+     */
+    private final long rejectedPosition;
+}
@@ -0,0 +1,254 @@
+package com.filefilter.processor.checkpoint;
+
+import com.filefilter.model.FilterConfig;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Properties;
+
+/**
+ * Output files and sidecar checkpoint file of one resumable run
+ *
+ * A checkpoint flushes both outputs and forces them to disk before the sidecar file is
+ * replaced atomically, so the sidecar never points past data that is not on disk.
+ * On restart, the outputs are truncated to the positions of the last checkpoint (dropping
+ * records written after it) and the processor continues from the saved input position.
+ *
+ * A checkpoint is only used if the input file (path, size, modification time) and the
+ * validation settings are unchanged, otherwise processing starts from the beginning.
+ * The sidecar file is deleted when processing completes.
+ * Not thread-safe - used by the reading thread only.
+ */
+@Slf4j
+public final class CheckpointSession implements Closeable {
+
+    private static final int BUFFER_SIZE = 65536;
+
+    private final Path inputPath;
+    private final Path sidecarPath;
+    private final Properties identity;
+    private final int intervalRecords;
+    private final Checkpoint resumePoint;
+
+    private final FileChannel filteredChannel;
+    private final FileChannel rejectedChannel;
+    private final OutputStream filteredOut;
+    private final OutputStream rejectedOut;
+
+    private CheckpointSession(Path inputPath, Path sidecarPath, Properties identity, int intervalRecords,
+                              Checkpoint resumePoint, FileChannel filteredChannel, FileChannel rejectedChannel) {
+        this.inputPath = inputPath;
+        this.sidecarPath = sidecarPath;
+        this.identity = identity;
+        this.intervalRecords = intervalRecords;
+        this.resumePoint = resumePoint;
+        this.filteredChannel = filteredChannel;
+        this.rejectedChannel = rejectedChannel;
+        this.filteredOut = new BufferedOutputStream(Channels.newOutputStream(filteredChannel), BUFFER_SIZE);
+        this.rejectedOut = rejectedChannel != null
+                ? new BufferedOutputStream(Channels.newOutputStream(rejectedChannel), BUFFER_SIZE)
+                : null;
+    }
+
+    /**
+     * Load the sidecar file (if any) and open the outputs, truncated to the last checkpoint
+     *
+     * @param config Configuration (checkpoint interval, validation settings)
+     * @param inputPath Input file on the file system
+     * @param filteredPath Filtered output file path
+     * @param rejectedPath Rejected output file path (nullable - if null, no rejected output)
+     * @param sidecarPath Checkpoint sidecar file path
+     * @return Open session (caller must close)
+     * @throws IOException if the output files cannot be opened
+     */
+    public static CheckpointSession open(FilterConfig config, Path inputPath, String filteredPath,
+                                         String rejectedPath, String sidecarPath) throws IOException {
+        Integer interval = config.getCheckpoint().getIntervalRecords();
+        Path sidecar = Paths.get(sidecarPath);
+        Path filtered = Paths.get(filteredPath);
+        Path rejected = rejectedPath != null ? Paths.get(rejectedPath) : null;
+        Properties identity = identity(config, inputPath);
+
+        Checkpoint resumePoint = load(sidecar, identity, filtered, rejected);
+        if (resumePoint != null) {
+            log.info("Resuming from checkpoint {}: {} records done, input offset {}",
+                    sidecar, resumePoint.getTotalRecords(), resumePoint.getInputOffset());
+        }
+
+        FileChannel filteredChannel = StateFiles.openOutput(filtered,
+                resumePoint != null ? resumePoint.getFilteredPosition() : 0);
+        FileChannel rejectedChannel = null;
+        try {
+            if (rejected != null) {
+                rejectedChannel = StateFiles.openOutput(rejected,
+                        resumePoint != null ? resumePoint.getRejectedPosition() : 0);
+            }
+        } catch (IOException e) {
+            filteredChannel.close();
+            throw e;
+        }
+
+        return new CheckpointSession(inputPath, sidecar, identity,
+                interval != null && interval > 0 ? interval : 1_000_000,
+                resumePoint, filteredChannel, rejectedChannel);
+    }
+
+    /**
+     * @return Checkpoint to continue from, or null when starting from the beginning
+     */
+    public Checkpoint getResumePoint() {
+        return resumePoint;
+    }
+
+    /**
+     * Open the input file positioned at a byte offset (not memory-mapped, not buffered)
+     *
+     * @param offset Byte offset to start reading at
+     * @return Input stream (caller must close)
+     */
+    public InputStream openInput(long offset) throws IOException {
+        FileChannel channel = FileChannel.open(inputPath, StandardOpenOption.READ);
+        channel.position(offset);
+        return Channels.newInputStream(channel);
+    }
+
+    /**
+     * @return Filtered output, positioned at the end of the last checkpoint
+     */
+    public OutputStream getFilteredOutput() {
+        return filteredOut;
+    }
+
+    /**
+     * @return Rejected output, positioned at the end of the last checkpoint (null if not written)
+     */
+    public OutputStream getRejectedOutput() {
+        return rejectedOut;
+    }
+
+    /**
+     * Check whether a checkpoint is due after the given number of data records
+     */
+    public boolean isDue(long totalRecords) {
+        return totalRecords % intervalRecords == 0;
+    }
+
+    /**
+     * Save a checkpoint
+     * Writers wrapping the output streams must be flushed by the caller before
+     *
+     * @param inputOffset Byte offset in the input after the last processed record (0 for record-based resume)
+     * @param totalRecords Data records processed so far, including those before a resume
+     * @param successRecords Accepted records so far
+     * @param rejectRecords Rejected records so far
+     * @throws IOException if the outputs or the sidecar file cannot be written
+     */
+    public void save(long inputOffset, long totalRecords, long successRecords, long rejectRecords) throws IOException {
+        filteredOut.flush();
+        filteredChannel.force(false);
+        if (rejectedOut != null) {
+            rejectedOut.flush();
+            rejectedChannel.force(false);
+        }
+
+        Properties properties = new Properties();
+        properties.putAll(identity);
+        properties.setProperty("inputOffset", Long.toString(inputOffset));
+        properties.setProperty("totalRecords", Long.toString(totalRecords));
+        properties.setProperty("successRecords", Long.toString(successRecords));
+        properties.setProperty("rejectRecords", Long.toString(rejectRecords));
+        properties.setProperty("filteredPosition", Long.toString(filteredChannel.position()));
+        properties.setProperty("rejectedPosition", Long.toString(rejectedChannel != null ? rejectedChannel.position() : 0));
+
+        StateFiles.write(sidecarPath, properties, "filefilter checkpoint");
+        log.debug("Checkpoint saved: {} records, input offset {}", totalRecords, inputOffset);
+    }
+
+    /**
+     * Flush the outputs and delete the sidecar file after all records were processed
+     * Writers wrapping the output streams must be flushed by the caller before
+     */
+    public void complete() throws IOException {
+        filteredOut.flush();
+        if (rejectedOut != null) {
+            rejectedOut.flush();
+        }
+        Files.deleteIfExists(sidecarPath);
+    }
+
+    /**
+     * Close the outputs - the sidecar file is kept unless complete() was called
+     */
+    @Override
+    public void close() throws IOException {
+        // Data written after the last checkpoint is flushed here, a resume truncates it again
+        try {
+            filteredOut.close();
+        } finally {
+            if (rejectedOut != null) {
+                rejectedOut.close();
+            }
+        }
+    }
+
+    /**
+     * Values that must match for a checkpoint to be reused
+     */
+    private static Properties identity(FilterConfig config, Path inputPath) throws IOException {
+        Properties identity = new Properties();
+        identity.setProperty("inputFile", inputPath.toAbsolutePath().normalize().toString());
+        identity.setProperty("inputSize", Long.toString(Files.size(inputPath)));
+        identity.setProperty("inputModified", Long.toString(Files.getLastModifiedTime(inputPath).toMillis()));
+        identity.setProperty("settings", StateFiles.settingsHash(config));
+        return identity;
+    }
+
+    /**
+     * Read the sidecar file
+     *
+     * @return Checkpoint, or null if there is none or it does not belong to this input and these outputs
+     */
+    private static Checkpoint load(Path sidecar, Properties identity, Path filtered, Path rejected) {
+        try {
+            Properties properties = StateFiles.read(sidecar);
+            if (properties == null) {
+                return null;
+            }
+
+            for (String key : identity.stringPropertyNames()) {
+                if (!identity.getProperty(key).equals(properties.getProperty(key))) {
+                    log.warn("Ignoring checkpoint {}: {} has changed, processing from the beginning", sidecar, key);
+                    return null;
+                }
+            }
+
+            Checkpoint checkpoint = Checkpoint.builder()
+                    .inputOffset(Long.parseLong(properties.getProperty("inputOffset")))
+                    .totalRecords(Long.parseLong(properties.getProperty("totalRecords")))
+                    .successRecords(Long.parseLong(properties.getProperty("successRecords")))
+                    .rejectRecords(Long.parseLong(properties.getProperty("rejectRecords")))
+                    .filteredPosition(Long.parseLong(properties.getProperty("filteredPosition")))
+                    .rejectedPosition(Long.parseLong(properties.getProperty("rejectedPosition")))
+                    .build();
+
+            // Outputs must still contain everything written up to the checkpoint
+            if (!StateFiles.hasOutput(filtered, checkpoint.getFilteredPosition())
+                    || rejected != null && !StateFiles.hasOutput(rejected, checkpoint.getRejectedPosition())) {
+                log.warn("Ignoring checkpoint {}: output files are missing or truncated, processing from the beginning",
+                        sidecar);
+                return null;
+            }
+            return checkpoint;
+
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable checkpoint {}, processing from the beginning", sidecar, e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.filefilter.processor.checkpoint;
+
+import com.filefilter.model.FilterConfig;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Properties;
+import java.util.zip.CRC32;
+
+/**
+ * Input range, output files and state file of one incremental run over a growing file
+ *
+ * The state file remembers, per input path, the offset after the last processed record,
+ * a fingerprint (CRC32) of the head of the file and the sizes of both outputs.
+ * A later run only reads the bytes appended since then and appends to the outputs.
+ * Only complete records (ending with '\n', outside quotes for CSV) are processed, a record
+ * that is still being written is picked up by the next run.
+ *
+ * A full run (from offset 0, outputs recreated) is done if there is no usable state:
+ * the file is shorter than the saved offset (truncated), its head changed (rotated),
+ * the validation settings changed or the outputs are missing.
+ * Outputs are truncated to the saved sizes first, so a crashed run does not leave duplicates.
+ * Not thread-safe - used by the reading thread only.
+ */
+@Slf4j
+public final class IncrementalSession implements Closeable {
+
+    private static final int BUFFER_SIZE = 65536;
+
+    /**
+     * Number of bytes at the start of the file covered by the fingerprint
+     */
+    private static final int HEAD_BYTES = 65536;
+
+    private final Path inputPath;
+    private final Path statePath;
+    private final String settings;
+    private final long startOffset;
+    private final long endOffset;
+
+    private final FileChannel filteredChannel;
+    private final FileChannel rejectedChannel;
+    private final OutputStream filteredOut;
+    private final OutputStream rejectedOut;
+
+    private IncrementalSession(Path inputPath, Path statePath, String settings, long startOffset, long endOffset,
+                               FileChannel filteredChannel, FileChannel rejectedChannel) {
+        this.inputPath = inputPath;
+        this.statePath = statePath;
+        this.settings = settings;
+        this.startOffset = startOffset;
+        this.endOffset = endOffset;
+        this.filteredChannel = filteredChannel;
+        this.rejectedChannel = rejectedChannel;
+        this.filteredOut = new BufferedOutputStream(Channels.newOutputStream(filteredChannel), BUFFER_SIZE);
+        this.rejectedOut = rejectedChannel != null
+                ? new BufferedOutputStream(Channels.newOutputStream(rejectedChannel), BUFFER_SIZE)
+                : null;
+    }
+
+    /**
+     * Load the state file (if any), find the range of new complete records and open the outputs
+     *
+     * @param config Configuration (validation settings)
+     * @param inputPath Input file on the file system
+     * @param filteredPath Filtered output file path
+     * @param rejectedPath Rejected output file path (nullable - if null, no rejected output)
+     * @param statePath State file path
+     * @param quoteAware true if '\n' inside double quotes does not end a record (CSV)
+     * @return Open session (caller must close)
+     * @throws IOException if the input or the output files cannot be opened
+     */
+    public static IncrementalSession open(FilterConfig config, Path inputPath, String filteredPath,
+                                          String rejectedPath, String statePath, boolean quoteAware)
+            throws IOException {
+        Path state = Paths.get(statePath);
+        Path filtered = Paths.get(filteredPath);
+        Path rejected = rejectedPath != null ? Paths.get(rejectedPath) : null;
+        String settings = StateFiles.settingsHash(config);
+
+        long startOffset = 0;
+        long filteredPosition = 0;
+        long rejectedPosition = 0;
+        long endOffset;
+
+        try (FileChannel input = FileChannel.open(inputPath, StandardOpenOption.READ)) {
+            Properties properties = load(state, inputPath, settings, input, filtered, rejected);
+            if (properties != null) {
+                startOffset = Long.parseLong(properties.getProperty("inputOffset"));
+                filteredPosition = Long.parseLong(properties.getProperty("filteredPosition"));
+                rejectedPosition = Long.parseLong(properties.getProperty("rejectedPosition"));
+            }
+            endOffset = findLastRecordEnd(input, startOffset, input.size(), quoteAware);
+        }
+
+        if (startOffset == 0) {
+            log.info("Incremental mode: full run over {} bytes", endOffset);
+        } else {
+            log.info("Incremental mode: {} new bytes after offset {}", endOffset - startOffset, startOffset);
+        }
+
+        FileChannel filteredChannel = StateFiles.openOutput(filtered, filteredPosition);
+        FileChannel rejectedChannel = null;
+        try {
+            if (rejected != null) {
+                rejectedChannel = StateFiles.openOutput(rejected, rejectedPosition);
+            }
+        } catch (IOException e) {
+            filteredChannel.close();
+            throw e;
+        }
+
+        return new IncrementalSession(inputPath, state, settings, startOffset, endOffset,
+                filteredChannel, rejectedChannel);
+    }
+
+    /**
+     * @return true if the file is processed from the beginning (header records must be copied)
+     */
+    public boolean isFullRun() {
+        return startOffset == 0;
+    }
+
+    /**
+     * Open the new complete records of the input: bytes [startOffset, endOffset)
+     *
+     * @return Input stream (caller must close)
+     */
+    public InputStream openInput() throws IOException {
+        return new RangeInputStream(FileChannel.open(inputPath, StandardOpenOption.READ), startOffset, endOffset);
+    }
+
+    /**
+     * @return Filtered output, positioned at the end of the previous run
+     */
+    public OutputStream getFilteredOutput() {
+        return filteredOut;
+    }
+
+    /**
+     * @return Rejected output, positioned at the end of the previous run (null if not written)
+     */
+    public OutputStream getRejectedOutput() {
+        return rejectedOut;
+    }
+
+    /**
+     * Flush the outputs to disk and save the new state
+     * Writers wrapping the output streams must be flushed by the caller before
+     *
+     * @throws IOException if the outputs or the state file cannot be written
+     */
+    public void complete() throws IOException {
+        filteredOut.flush();
+        filteredChannel.force(false);
+        if (rejectedOut != null) {
+            rejectedOut.flush();
+            rejectedChannel.force(false);
+        }
+
+        Properties properties = new Properties();
+        properties.setProperty("inputFile", inputPath.toAbsolutePath().normalize().toString());
+        properties.setProperty("settings", settings);
+        properties.setProperty("inputOffset", Long.toString(endOffset));
+        try (FileChannel input = FileChannel.open(inputPath, StandardOpenOption.READ)) {
+            int headLength = (int) Math.min(HEAD_BYTES, endOffset);
+            properties.setProperty("headLength", Integer.toString(headLength));
+            properties.setProperty("headCrc", Long.toString(headCrc(input, headLength)));
+        }
+        properties.setProperty("filteredPosition", Long.toString(filteredChannel.position()));
+        properties.setProperty("rejectedPosition", Long.toString(rejectedChannel != null ? rejectedChannel.position() : 0));
+
+        StateFiles.write(statePath, properties, "filefilter incremental state");
+    }
+
+    /**
+     * Close the outputs - the state file is only updated by complete()
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            filteredOut.close();
+        } finally {
+            if (rejectedOut != null) {
+                rejectedOut.close();
+            }
+        }
+    }
+
+    /**
+     * Read the state file and check that it still describes this input and these outputs
+     *
+     * @return State properties, or null if a full run is needed
+     */
+    private static Properties load(Path state, Path inputPath, String settings, FileChannel input,
+                                   Path filtered, Path rejected) {
+        try {
+            Properties properties = StateFiles.read(state);
+            if (properties == null) {
+                return null;
+            }
+
+            String reason = null;
+            long offset = Long.parseLong(properties.getProperty("inputOffset"));
+            int headLength = Integer.parseInt(properties.getProperty("headLength"));
+
+            if (!inputPath.toAbsolutePath().normalize().toString().equals(properties.getProperty("inputFile"))) {
+                reason = "input path has changed";
+            } else if (!settings.equals(properties.getProperty("settings"))) {
+                reason = "settings have changed";
+            } else if (input.size() < offset) {
+                reason = "file was truncated";
+            } else if (headCrc(input, headLength) != Long.parseLong(properties.getProperty("headCrc"))) {
+                reason = "file was replaced or rotated";
+            } else if (!StateFiles.hasOutput(filtered, Long.parseLong(properties.getProperty("filteredPosition")))
+                    || rejected != null
+                    && !StateFiles.hasOutput(rejected, Long.parseLong(properties.getProperty("rejectedPosition")))) {
+                reason = "output files are missing or truncated";
+            }
+
+            if (reason != null) {
+                log.warn("Incremental state {} not usable ({}), processing the whole file", state, reason);
+                return null;
+            }
+            return properties;
+
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable incremental state {}, processing the whole file", state, e);
+            return null;
+        }
+    }
+
+    /**
+     * CRC32 of the first length bytes of the file
+     */
+    private static long headCrc(FileChannel input, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (input.read(buffer, buffer.position()) <= 0) {
+                break;
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.flip());
+        return crc.getValue();
+    }
+
+    /**
+     * Find the offset after the last record-terminating '\n' in [from, size)
+     * The scan starts at a record boundary, so the quote state at from is "outside"
+     *
+     * @return Offset after the last complete record, or from if there is none
+     */
+    private static long findLastRecordEnd(FileChannel channel, long from, long size, boolean quoteAware)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        boolean quoted = false;
+        long end = from;
+        long position = from;
+
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            byte[] bytes = buffer.array();
+            for (int i = 0; i < read; i++) {
+                byte b = bytes[i];
+                if (quoteAware && b == '"') {
+                    quoted = !quoted;
+                } else if (b == '\n' && !quoted) {
+                    end = position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return end;
+    }
+
+    /**
+     * Input stream over a byte range of a file channel (closes the channel)
+     */
+    private static final class RangeInputStream extends InputStream {
+        private final FileChannel channel;
+        private final long end;
+        private long position;
+
+        RangeInputStream(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.position = start;
+            this.end = end;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (position >= end) {
+                return -1;
+            }
+            int read = channel.read(ByteBuffer.wrap(b, off, (int) Math.min(len, end - position)), position);
+            if (read > 0) {
+                position += read;
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
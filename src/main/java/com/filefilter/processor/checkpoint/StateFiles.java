@@ -0,0 +1,101 @@
+package com.filefilter.processor.checkpoint;
+
+import com.filefilter.model.FilterConfig;
+import com.filefilter.util.ConfigCache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.Properties;
+
+/**
+ * Shared file handling of checkpoint and incremental state files
+ */
+final class StateFiles {
+
+    private StateFiles() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Hash of the settings that decide which records go to which output and how they are written
+     * Saved state is only reused while this value is unchanged
+     */
+    static String settingsHash(FilterConfig config) {
+        return Integer.toHexString(Objects.hash(
+                config.getFileType(), config.getEncoding(), config.getDelimiter(), config.getCsvParser(),
+                config.getSkipHeaderLines(), config.getExpectedTotalColumn(), String.valueOf(config.getValidations()),
+                ConfigCache.valueFileStamps(config),
+                config.getOutput().getNeedRejectedData(), String.valueOf(config.getOutput().getColumns())));
+    }
+
+    /**
+     * Read a properties file
+     *
+     * @return Properties, or null if the file does not exist
+     */
+    static Properties read(Path path) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (InputStream input = Files.newInputStream(path)) {
+            properties.load(input);
+        }
+        return properties;
+    }
+
+    /**
+     * Write a properties file to disk, replacing the old one atomically
+     * A temporary file is moved over the target, so a crash never leaves a partial file
+     */
+    static void write(Path path, Properties properties, String comment) throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        properties.store(content, comment);
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(content.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Check that an output file still holds at least the given number of bytes
+     */
+    static boolean hasOutput(Path path, long position) throws IOException {
+        return position == 0 || Files.isRegularFile(path) && Files.size(path) >= position;
+    }
+
+    /**
+     * Open an output file for writing at a position, dropping everything after it
+     */
+    static FileChannel openOutput(Path path, long position) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            channel.truncate(position);
+            channel.position(position);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return channel;
+    }
+}
@@ -0,0 +1,50 @@
+package com.filefilter.processor.excel;
+
+import com.filefilter.processor.projection.OutputProjection;
+import com.opencsv.CSVWriter;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * CSV output of an Excel input
+ *
+ * Rows are written straight to the file as the string values validation sees
+ * (see ExcelRow.getValueAsString()), with the CSVWriter settings of CsvFileProcessor -
+ * no workbook, cell objects or temporary files are involved.
+ */
+public final class CsvSheetOutput implements SheetOutput {
+
+    private final CSVWriter writer;
+
+    /**
+     * @param output Output writer (closed by close())
+     */
+    public CsvSheetOutput(Writer output) {
+        this.writer = new CSVWriter(output,
+                CSVWriter.DEFAULT_SEPARATOR,
+                CSVWriter.DEFAULT_QUOTE_CHARACTER,
+                CSVWriter.DEFAULT_ESCAPE_CHARACTER,
+                CSVWriter.DEFAULT_LINE_END);
+    }
+
+    @Override
+    public void write(ExcelRow row) {
+        writer.writeNext(row.toStringArray());
+    }
+
+    @Override
+    public void write(ExcelRow row, OutputProjection projection, boolean header) {
+        writer.writeNext(projection != null ? projection.project(row, header) : row.toStringArray());
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
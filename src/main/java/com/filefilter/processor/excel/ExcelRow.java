@@ -0,0 +1,203 @@
+package com.filefilter.processor.excel;
+
+import com.filefilter.processor.projection.OutputProjection;
+import com.filefilter.validator.RowView;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+
+import java.util.Arrays;
+
+/**
+ * Values of one spreadsheet row as decoded by a streaming reader
+ *
+ * The row is reused by the reader for every row of the sheet, so it is only valid
+ * inside the row callback.
+ * As a RowView, cells are converted to strings only when the validation engine asks for them.
+ * String conversion and output copying keep the semantics of the former
+ * XSSFWorkbook-based implementation (rowToStringArray / copyRow).
+ */
+public final class ExcelRow implements RowView {
+
+    private static final int INITIAL_CAPACITY = 32;
+
+    private int rowNum;
+    private int cellCount;
+
+    private CellType[] types = new CellType[INITIAL_CAPACITY];
+    private String[] texts = new String[INITIAL_CAPACITY];
+    private double[] numbers = new double[INITIAL_CAPACITY];
+    private boolean[] dates = new boolean[INITIAL_CAPACITY];
+
+    /**
+     * Whether the workbook uses the 1904 date system
+     */
+    private final boolean date1904;
+
+    ExcelRow(boolean date1904) {
+        this.date1904 = date1904;
+    }
+
+    /**
+     * @return 0-based row index in the sheet
+     */
+    public int getRowNum() {
+        return rowNum;
+    }
+
+    /**
+     * @return Number of cells up to and including the last present cell (like Row.getLastCellNum())
+     */
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    @Override
+    public int fieldCount() {
+        return cellCount;
+    }
+
+    @Override
+    public CharSequence field(int index) {
+        return getValueAsString(index);
+    }
+
+    /**
+     * Convert row to string array for validation
+     */
+    public String[] toStringArray() {
+        String[] cells = new String[cellCount];
+        for (int i = 0; i < cellCount; i++) {
+            cells[i] = getValueAsString(i);
+        }
+        return cells;
+    }
+
+    /**
+     * Get cell value as string
+     * STRING as is, NUMERIC as Date.toString() for date formats or String.valueOf(double),
+     * BOOLEAN as "true"/"false", FORMULA as the formula text, anything else as ""
+     *
+     * @param index 0-based cell index
+     * @return Cell value as string ("" for missing cells)
+     */
+    public String getValueAsString(int index) {
+        CellType type = types[index];
+        if (type == null) {
+            return "";
+        }
+
+        return switch (type) {
+            case STRING, FORMULA -> texts[index];
+            case NUMERIC -> dates[index]
+                    ? DateUtil.getJavaDate(numbers[index], date1904).toString()
+                    : String.valueOf(numbers[index]);
+            case BOOLEAN -> String.valueOf(numbers[index] != 0);
+            default -> "";
+        };
+    }
+
+    /**
+     * Copy row values to a destination row
+     * Every cell up to getCellCount() is created, typed values are kept
+     */
+    public void copyTo(Row destRow) {
+        for (int i = 0; i < cellCount; i++) {
+            copyCell(i, destRow.createCell(i));
+        }
+    }
+
+    /**
+     * Copy the projected row values to a destination row
+     * Columns without transforms (and all columns of header rows) keep their typed values,
+     * transformed columns are written as string cells
+     *
+     * @param destRow Destination row
+     * @param projection Output projection (null copies the whole row)
+     * @param header true for header rows
+     */
+    public void copyTo(Row destRow, OutputProjection projection, boolean header) {
+        if (projection == null) {
+            copyTo(destRow);
+            return;
+        }
+
+        for (int i = 0; i < projection.size(); i++) {
+            Cell destCell = destRow.createCell(i);
+            int column = projection.column(i);
+            if (header || projection.isPlain(i)) {
+                if (column < cellCount) {
+                    copyCell(column, destCell);
+                }
+            } else {
+                destCell.setCellValue(projection.apply(i, column < cellCount ? getValueAsString(column) : null));
+            }
+        }
+    }
+
+    private void copyCell(int index, Cell destCell) {
+        CellType type = types[index];
+        if (type != null) {
+            switch (type) {
+                case STRING -> destCell.setCellValue(texts[index]);
+                case NUMERIC -> destCell.setCellValue(numbers[index]);
+                case BOOLEAN -> destCell.setCellValue(numbers[index] != 0);
+                case FORMULA -> destCell.setCellFormula(texts[index]);
+                default -> destCell.setCellValue("");
+            }
+        }
+    }
+
+    /**
+     * Create a detached copy that stays valid after the reader moves on (e.g. for pipeline mode)
+     */
+    public ExcelRow copy() {
+        ExcelRow copy = new ExcelRow(date1904);
+        copy.ensureCapacity(cellCount);
+        copy.rowNum = rowNum;
+        copy.cellCount = cellCount;
+        System.arraycopy(types, 0, copy.types, 0, cellCount);
+        System.arraycopy(texts, 0, copy.texts, 0, cellCount);
+        System.arraycopy(numbers, 0, copy.numbers, 0, cellCount);
+        System.arraycopy(dates, 0, copy.dates, 0, cellCount);
+        return copy;
+    }
+
+    /**
+     * Start a new row (called by the reader)
+     */
+    void reset(int rowNum) {
+        Arrays.fill(types, 0, cellCount, null);
+        this.rowNum = rowNum;
+        this.cellCount = 0;
+    }
+
+    /**
+     * Set a cell (called by the reader)
+     *
+     * @param index 0-based column index
+     * @param type Cell type
+     * @param text String value or formula text
+     * @param number Numeric value (1/0 for booleans)
+     * @param date true if the numeric value has a date format
+     */
+    void setCell(int index, CellType type, String text, double number, boolean date) {
+        ensureCapacity(index + 1);
+        types[index] = type;
+        texts[index] = text;
+        numbers[index] = number;
+        dates[index] = date;
+        cellCount = Math.max(cellCount, index + 1);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > types.length) {
+            int newLength = Math.max(capacity, types.length * 2);
+            types = Arrays.copyOf(types, newLength);
+            texts = Arrays.copyOf(texts, newLength);
+            numbers = Arrays.copyOf(numbers, newLength);
+            dates = Arrays.copyOf(dates, newLength);
+        }
+    }
+}
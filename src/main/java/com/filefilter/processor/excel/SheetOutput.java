@@ -0,0 +1,40 @@
+package com.filefilter.processor.excel;
+
+import com.filefilter.processor.projection.OutputProjection;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Destination of the rows of one output (filtered, rejected or a route) of an Excel input
+ * Rows are written from the values the reader already decoded (see ExcelRow)
+ * Not thread-safe - each output is written by one thread at a time
+ */
+public interface SheetOutput extends Closeable {
+
+    /**
+     * Append a complete row
+     */
+    void write(ExcelRow row) throws IOException;
+
+    /**
+     * Append a row projected to the output columns
+     *
+     * @param row Row to write
+     * @param projection Output projection (null writes the whole row)
+     * @param header true for header rows (columns are selected but not transformed)
+     */
+    void write(ExcelRow row, OutputProjection projection, boolean header) throws IOException;
+
+    /**
+     * Complete the output file - workbooks are only written to disk here
+     */
+    void finish() throws IOException;
+
+    /**
+     * Release all resources (including temporary files)
+     * The output file is incomplete unless finish() was called before
+     */
+    @Override
+    void close() throws IOException;
+}
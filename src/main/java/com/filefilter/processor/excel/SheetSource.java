@@ -0,0 +1,18 @@
+package com.filefilter.processor.excel;
+
+import java.io.Closeable;
+
+/**
+ * Opened spreadsheet input whose first sheet is streamed row by row
+ * Implemented per file format (XLSX via XlsxSheetReader, XLS via XlsSheetReader)
+ */
+public interface SheetSource extends Closeable {
+
+    /**
+     * Read all rows of the first sheet
+     *
+     * @param handler Row callback
+     * @throws Exception if reading fails or the handler throws
+     */
+    void read(XlsxSheetReader.RowHandler handler) throws Exception;
+}
@@ -0,0 +1,338 @@
+package com.filefilter.processor.excel;
+
+import org.apache.poi.hssf.eventusermodel.AbortableHSSFListener;
+import org.apache.poi.hssf.eventusermodel.EventWorkbookBuilder;
+import org.apache.poi.hssf.eventusermodel.FormatTrackingHSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFEventFactory;
+import org.apache.poi.hssf.eventusermodel.HSSFRequest;
+import org.apache.poi.hssf.eventusermodel.HSSFUserException;
+import org.apache.poi.hssf.model.HSSFFormulaParser;
+import org.apache.poi.hssf.record.BOFRecord;
+import org.apache.poi.hssf.record.BlankRecord;
+import org.apache.poi.hssf.record.BoolErrRecord;
+import org.apache.poi.hssf.record.CellValueRecordInterface;
+import org.apache.poi.hssf.record.DateWindow1904Record;
+import org.apache.poi.hssf.record.EOFRecord;
+import org.apache.poi.hssf.record.FormulaRecord;
+import org.apache.poi.hssf.record.LabelRecord;
+import org.apache.poi.hssf.record.LabelSSTRecord;
+import org.apache.poi.hssf.record.MulBlankRecord;
+import org.apache.poi.hssf.record.NumberRecord;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.hssf.record.RowRecord;
+import org.apache.poi.hssf.record.SSTRecord;
+import org.apache.poi.hssf.record.StringRecord;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.ss.formula.ptg.ExpPtg;
+import org.apache.poi.ss.formula.ptg.Ptg;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Streaming reader for the first sheet of a legacy XLS (BIFF8) workbook
+ *
+ * Uses the HSSF event API: the records of the workbook stream are decoded one by one
+ * (HSSFEventFactory), no HSSFWorkbook with all cells is built, so memory stays flat
+ * regardless of the number of rows. Reading stops at the end of the first worksheet.
+ * Each row is decoded into a reused ExcelRow and passed to the same RowHandler as XLSX input,
+ * with the same value semantics (typed values, date detection by number format, formula text).
+ *
+ * Rows are emitted for every row record (also rows without cells, like XLSX row elements)
+ * and for every row that has cells.
+ * Limitation: cells of shared and array formulas are reported with their cached value,
+ * as the formula would need to be resolved from the defining cell first.
+ */
+public final class XlsSheetReader {
+
+    private XlsSheetReader() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Read all rows of the first worksheet
+     *
+     * @param fileSystem Opened workbook file
+     * @param handler Row callback
+     * @throws Exception if reading fails or the handler throws
+     */
+    public static void read(POIFSFileSystem fileSystem, XlsxSheetReader.RowHandler handler) throws Exception {
+        RecordHandler recordHandler = new RecordHandler(handler);
+        HSSFRequest request = new HSSFRequest();
+        request.addListenerForAllRecords(recordHandler);
+        try {
+            new HSSFEventFactory().abortableProcessWorkbookEvents(request, fileSystem);
+        } catch (HSSFUserException e) {
+            // Unwrap exceptions thrown by the row handler
+            if (recordHandler.failure != null) {
+                throw recordHandler.failure;
+            }
+            throw e;
+        }
+        if (recordHandler.row == null) {
+            throw new IOException("Workbook contains no sheets");
+        }
+    }
+
+    /**
+     * Record listener: collects workbook globals (formats, shared strings, sheet references)
+     * and decodes the cell records of the first worksheet
+     */
+    private static final class RecordHandler extends AbortableHSSFListener {
+
+        private static final short CONTINUE = 0;
+        private static final short STOP = 1;
+
+        private final XlsxSheetReader.RowHandler handler;
+        private final FormatTrackingHSSFListener formats = new FormatTrackingHSSFListener(null);
+        private final EventWorkbookBuilder.SheetRecordCollectingListener workbookRecords =
+                new EventWorkbookBuilder.SheetRecordCollectingListener(null);
+        private final Map<Integer, Boolean> dateStyles = new HashMap<>();
+
+        private SSTRecord sharedStrings;
+        private HSSFWorkbook stubWorkbook;
+        private boolean date1904;
+
+        /**
+         * Reused row, created at the start of the first worksheet
+         */
+        private ExcelRow row;
+        private boolean inSheet;
+        private int currentRowNum = -1;
+
+        /**
+         * Depth of substreams inside the worksheet (embedded charts have their own BOF/EOF)
+         */
+        private int nestedStreams;
+
+        /**
+         * Column of a formula cell whose cached string value follows in a StringRecord, -1 if none
+         */
+        private int pendingStringColumn = -1;
+
+        /**
+         * Row numbers of row records without emitted row yet (ascending within a row block)
+         */
+        private int[] pendingRows = new int[32];
+        private int pendingStart;
+        private int pendingEnd;
+
+        private Exception failure;
+
+        RecordHandler(XlsxSheetReader.RowHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public short abortableProcessRecord(Record record) throws HSSFUserException {
+            try {
+                return handleRecord(record);
+            } catch (Exception e) {
+                failure = e;
+                throw new HSSFUserException(e);
+            }
+        }
+
+        private short handleRecord(Record record) throws Exception {
+            if (!inSheet) {
+                formats.processRecordInternally(record);
+                workbookRecords.processRecordInternally(record);
+            }
+
+            switch (record.getSid()) {
+                case BOFRecord.sid -> {
+                    if (inSheet) {
+                        nestedStreams++;
+                    } else if (((BOFRecord) record).getType() == BOFRecord.TYPE_WORKSHEET && row == null) {
+                        row = new ExcelRow(date1904);
+                        inSheet = true;
+                    }
+                }
+                case EOFRecord.sid -> {
+                    if (inSheet && nestedStreams > 0) {
+                        nestedStreams--;
+                    } else if (inSheet) {
+                        finishSheet();
+                        return STOP;
+                    }
+                }
+                case DateWindow1904Record.sid -> date1904 = ((DateWindow1904Record) record).getWindowing() == 1;
+                case SSTRecord.sid -> sharedStrings = (SSTRecord) record;
+                default -> {
+                    if (inSheet && nestedStreams == 0) {
+                        processSheetRecord(record);
+                    }
+                }
+            }
+            return CONTINUE;
+        }
+
+        private void processSheetRecord(Record record) throws Exception {
+            switch (record.getSid()) {
+                case RowRecord.sid -> addPendingRow(((RowRecord) record).getRowNumber());
+                case NumberRecord.sid -> {
+                    NumberRecord number = (NumberRecord) record;
+                    setNumber(number, number.getValue());
+                }
+                case LabelSSTRecord.sid -> {
+                    LabelSSTRecord label = (LabelSSTRecord) record;
+                    startCell(label.getRow());
+                    row.setCell(label.getColumn(), CellType.STRING,
+                            sharedStrings.getString(label.getSSTIndex()).getString(), 0, false);
+                }
+                case LabelRecord.sid -> {
+                    LabelRecord label = (LabelRecord) record;
+                    startCell(label.getRow());
+                    row.setCell(label.getColumn(), CellType.STRING, label.getValue(), 0, false);
+                }
+                case BoolErrRecord.sid -> {
+                    BoolErrRecord boolErr = (BoolErrRecord) record;
+                    startCell(boolErr.getRow());
+                    if (boolErr.isBoolean()) {
+                        row.setCell(boolErr.getColumn(), CellType.BOOLEAN, null, boolErr.getBooleanValue() ? 1 : 0, false);
+                    } else {
+                        row.setCell(boolErr.getColumn(), CellType.ERROR, null, 0, false);
+                    }
+                }
+                case BlankRecord.sid -> {
+                    BlankRecord blank = (BlankRecord) record;
+                    startCell(blank.getRow());
+                    row.setCell(blank.getColumn(), CellType.BLANK, null, 0, false);
+                }
+                case MulBlankRecord.sid -> {
+                    MulBlankRecord blanks = (MulBlankRecord) record;
+                    startCell(blanks.getRow());
+                    for (int column = blanks.getFirstColumn(); column <= blanks.getLastColumn(); column++) {
+                        row.setCell(column, CellType.BLANK, null, 0, false);
+                    }
+                }
+                case FormulaRecord.sid -> setFormula((FormulaRecord) record);
+                case StringRecord.sid -> {
+                    if (pendingStringColumn >= 0) {
+                        row.setCell(pendingStringColumn, CellType.STRING, ((StringRecord) record).getString(), 0, false);
+                        pendingStringColumn = -1;
+                    }
+                }
+                default -> {
+                    // Other records are not needed
+                }
+            }
+        }
+
+        private void setNumber(CellValueRecordInterface cell, double number) throws Exception {
+            startCell(cell.getRow());
+            row.setCell(cell.getColumn(), CellType.NUMERIC, null, number, isDate(cell, number));
+        }
+
+        /**
+         * Formula cells carry the formula text, like XLSX formula cells
+         * Shared and array formulas fall back to the cached result
+         */
+        private void setFormula(FormulaRecord formula) throws Exception {
+            Ptg[] tokens = formula.getParsedExpression();
+            if (!formula.isSharedFormula() && (tokens.length == 0 || !(tokens[0] instanceof ExpPtg))) {
+                startCell(formula.getRow());
+                row.setCell(formula.getColumn(), CellType.FORMULA, toFormulaString(tokens), 0, false);
+                return;
+            }
+
+            switch (formula.getCachedResultTypeEnum()) {
+                case NUMERIC -> setNumber(formula, formula.getValue());
+                case STRING -> {
+                    // The value follows in a StringRecord
+                    startCell(formula.getRow());
+                    row.setCell(formula.getColumn(), CellType.STRING, "", 0, false);
+                    pendingStringColumn = formula.getColumn();
+                }
+                case BOOLEAN -> {
+                    startCell(formula.getRow());
+                    row.setCell(formula.getColumn(), CellType.BOOLEAN, null,
+                            formula.getCachedBooleanValue() ? 1 : 0, false);
+                }
+                default -> {
+                    startCell(formula.getRow());
+                    row.setCell(formula.getColumn(), CellType.ERROR, null, 0, false);
+                }
+            }
+        }
+
+        private String toFormulaString(Ptg[] tokens) {
+            if (stubWorkbook == null) {
+                // Sheet names and external references for the formula text, collected from the globals
+                stubWorkbook = workbookRecords.getStubHSSFWorkbook();
+            }
+            return HSSFFormulaParser.toFormulaString(stubWorkbook, tokens);
+        }
+
+        /**
+         * Same check as DateUtil.isCellDateFormatted(): valid Excel date with a date number format
+         */
+        private boolean isDate(CellValueRecordInterface cell, double number) {
+            if (!DateUtil.isValidExcelDate(number)) {
+                return false;
+            }
+            return dateStyles.computeIfAbsent((int) cell.getXFIndex(), index -> {
+                String format = formats.getFormatString(cell);
+                return format != null && DateUtil.isADateFormat(formats.getFormatIndex(cell), format);
+            });
+        }
+
+        /**
+         * Switch to the row of the next cell, emitting the finished row and rows without cells before it
+         */
+        private void startCell(int rowNum) throws Exception {
+            pendingStringColumn = -1;
+            if (rowNum == currentRowNum) {
+                return;
+            }
+            emitCurrentRow();
+            while (pendingStart < pendingEnd && pendingRows[pendingStart] < rowNum) {
+                emitEmptyRow(pendingRows[pendingStart++]);
+            }
+            if (pendingStart < pendingEnd && pendingRows[pendingStart] == rowNum) {
+                pendingStart++;
+            }
+            row.reset(rowNum);
+            currentRowNum = rowNum;
+        }
+
+        private void addPendingRow(int rowNum) throws Exception {
+            if (currentRowNum >= 0) {
+                // Row records of the next block follow the cells of the previous one
+                emitCurrentRow();
+            }
+            if (pendingStart == pendingEnd) {
+                pendingStart = 0;
+                pendingEnd = 0;
+            }
+            if (pendingEnd == pendingRows.length) {
+                pendingRows = Arrays.copyOf(pendingRows, pendingRows.length * 2);
+            }
+            pendingRows[pendingEnd++] = rowNum;
+        }
+
+        private void finishSheet() throws Exception {
+            emitCurrentRow();
+            while (pendingStart < pendingEnd) {
+                emitEmptyRow(pendingRows[pendingStart++]);
+            }
+        }
+
+        private void emitCurrentRow() throws Exception {
+            if (currentRowNum >= 0) {
+                handler.handleRow(row);
+                currentRowNum = -1;
+            }
+        }
+
+        private void emitEmptyRow(int rowNum) throws Exception {
+            row.reset(rowNum);
+            handler.handleRow(row);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.filefilter.processor.excel;
+
+import com.filefilter.processor.projection.OutputProjection;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Single-sheet XLSX output written with the SXSSF streaming API
+ *
+ * Only windowSize rows are kept in memory, older rows are flushed to a temporary sheet file
+ * (optionally gzip-compressed) that is copied into the workbook by finish().
+ * close() deletes the temporary files.
+ */
+public final class XlsxSheetOutput implements SheetOutput {
+
+    private final SXSSFWorkbook workbook;
+    private final Sheet sheet;
+    private final String path;
+    private int nextRowNum;
+
+    /**
+     * @param sheetName Name of the sheet
+     * @param path Output file path
+     * @param windowSize Rows kept in memory
+     * @param compressTempFiles Whether temporary sheet files are gzip-compressed
+     * @param sharedStrings Whether strings go to a shared strings table instead of inline
+     */
+    public XlsxSheetOutput(String sheetName, String path, int windowSize,
+                           boolean compressTempFiles, boolean sharedStrings) {
+        this.workbook = new SXSSFWorkbook(new XSSFWorkbook(), windowSize, compressTempFiles, sharedStrings);
+        this.sheet = workbook.createSheet(sheetName);
+        this.path = path;
+    }
+
+    @Override
+    public void write(ExcelRow row) {
+        row.copyTo(sheet.createRow(nextRowNum++));
+    }
+
+    @Override
+    public void write(ExcelRow row, OutputProjection projection, boolean header) {
+        row.copyTo(sheet.createRow(nextRowNum++), projection, header);
+    }
+
+    @Override
+    public void finish() throws IOException {
+        try (OutputStream out = new FileOutputStream(path)) {
+            workbook.write(out);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            workbook.close();
+        } finally {
+            // close() leaves the temporary sheet files behind
+            workbook.dispose();
+        }
+    }
+}
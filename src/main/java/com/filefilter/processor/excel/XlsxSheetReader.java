@@ -0,0 +1,270 @@
+package com.filefilter.processor.excel;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.ExcelNumberFormat;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Streaming reader for the first sheet of an XLSX workbook
+ *
+ * Uses XSSFReader and a SAX handler over the sheet XML, with a read-only shared strings
+ * table, so memory stays flat regardless of the number of rows (no sheet DOM is built).
+ * Each row is decoded into a reused ExcelRow and passed to a RowHandler.
+ *
+ * A custom handler is used instead of XSSFSheetXMLHandler because the latter formats
+ * values through DataFormatter, while validation relies on the raw cell values.
+ *
+ * Limitation: dependent cells of shared formulas (empty formula text in the XML) are
+ * reported with their cached value, as the formula would need to be shifted first.
+ */
+public final class XlsxSheetReader {
+
+    /**
+     * Callback for decoded rows
+     */
+    @FunctionalInterface
+    public interface RowHandler {
+
+        /**
+         * @param row Decoded row (reused - only valid during this call)
+         */
+        void handleRow(ExcelRow row) throws Exception;
+    }
+
+    private XlsxSheetReader() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Read all rows of the first sheet
+     *
+     * @param pkg Opened workbook package
+     * @param handler Row callback
+     * @throws Exception if reading fails or the handler throws
+     */
+    public static void read(OPCPackage pkg, RowHandler handler) throws Exception {
+        XSSFReader reader = new XSSFReader(pkg);
+        ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(pkg, false);
+        StylesTable styles = reader.getStylesTable();
+        boolean date1904 = isDate1904(reader);
+
+        Iterator<InputStream> sheets = reader.getSheetsData();
+        if (!sheets.hasNext()) {
+            throw new IOException("Workbook contains no sheets");
+        }
+
+        try (InputStream sheet = sheets.next()) {
+            SheetHandler sheetHandler = new SheetHandler(sharedStrings, styles, new ExcelRow(date1904), handler);
+            XMLReader xmlReader = XMLHelper.newXMLReader();
+            xmlReader.setContentHandler(sheetHandler);
+            try {
+                xmlReader.parse(new InputSource(sheet));
+            } catch (SAXException e) {
+                // Unwrap exceptions thrown by the row handler
+                if (e.getException() != null) {
+                    throw e.getException();
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Read the date1904 flag from workbook.xml
+     */
+    private static boolean isDate1904(XSSFReader reader) throws Exception {
+        boolean[] date1904 = {false};
+        try (InputStream workbook = reader.getWorkbookData()) {
+            XMLReader xmlReader = XMLHelper.newXMLReader();
+            xmlReader.setContentHandler(new DefaultHandler() {
+                @Override
+                public void startElement(String uri, String localName, String qName, Attributes attributes) {
+                    if ("workbookPr".equals(localName)) {
+                        String value = attributes.getValue("date1904");
+                        date1904[0] = "1".equals(value) || "true".equalsIgnoreCase(value);
+                    }
+                }
+            });
+            xmlReader.parse(new InputSource(workbook));
+        }
+        return date1904[0];
+    }
+
+    /**
+     * SAX handler for sheet XML: row / c (r, s, t) / f / v / is-t elements
+     */
+    private static final class SheetHandler extends DefaultHandler {
+
+        private final ReadOnlySharedStringsTable sharedStrings;
+        private final StylesTable styles;
+        private final ExcelRow row;
+        private final RowHandler handler;
+        private final Map<Integer, Boolean> dateStyles = new HashMap<>();
+
+        private final StringBuilder value = new StringBuilder();
+        private final StringBuilder formula = new StringBuilder();
+        private final StringBuilder inlineText = new StringBuilder();
+
+        private int nextRowNum;
+        private int nextColumn;
+
+        // Current cell state
+        private int column;
+        private String cellType;
+        private int styleIndex;
+        private boolean hasValue;
+        private boolean hasFormula;
+
+        // Element state
+        private boolean inValue;
+        private boolean inFormula;
+        private boolean inInlineText;
+        private boolean inPhonetic;
+
+        SheetHandler(ReadOnlySharedStringsTable sharedStrings, StylesTable styles, ExcelRow row, RowHandler handler) {
+            this.sharedStrings = sharedStrings;
+            this.styles = styles;
+            this.row = row;
+            this.handler = handler;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+                case "row" -> {
+                    String ref = attributes.getValue("r");
+                    int rowNum = ref != null ? Integer.parseInt(ref) - 1 : nextRowNum;
+                    row.reset(rowNum);
+                    nextRowNum = rowNum + 1;
+                    nextColumn = 0;
+                }
+                case "c" -> {
+                    String ref = attributes.getValue("r");
+                    column = ref != null ? new CellReference(ref).getCol() : nextColumn;
+                    nextColumn = column + 1;
+                    cellType = attributes.getValue("t");
+                    String style = attributes.getValue("s");
+                    styleIndex = style != null ? Integer.parseInt(style) : 0;
+                    value.setLength(0);
+                    formula.setLength(0);
+                    inlineText.setLength(0);
+                    hasValue = false;
+                    hasFormula = false;
+                }
+                case "v" -> {
+                    inValue = true;
+                    hasValue = true;
+                }
+                case "f" -> {
+                    inFormula = true;
+                    hasFormula = true;
+                }
+                case "rPh" -> inPhonetic = true;
+                case "t" -> inInlineText = "inlineStr".equals(cellType) && !inPhonetic;
+                default -> {
+                    // Other elements are not needed
+                }
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) throws SAXException {
+            switch (localName) {
+                case "v" -> inValue = false;
+                case "f" -> inFormula = false;
+                case "rPh" -> inPhonetic = false;
+                case "t" -> inInlineText = false;
+                case "c" -> finishCell();
+                case "row" -> {
+                    try {
+                        handler.handleRow(row);
+                    } catch (Exception e) {
+                        throw new SAXException(e);
+                    }
+                }
+                default -> {
+                    // Other elements are not needed
+                }
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (inValue) {
+                value.append(ch, start, length);
+            } else if (inFormula) {
+                formula.append(ch, start, length);
+            } else if (inInlineText) {
+                inlineText.append(ch, start, length);
+            }
+        }
+
+        /**
+         * Decode the collected cell content into the row
+         */
+        private void finishCell() {
+            if (hasFormula && !formula.isEmpty()) {
+                row.setCell(column, CellType.FORMULA, formula.toString(), 0, false);
+                return;
+            }
+
+            String type = cellType != null ? cellType : "n";
+            switch (type) {
+                case "s" -> {
+                    if (hasValue) {
+                        int index = Integer.parseInt(value.toString().trim());
+                        row.setCell(column, CellType.STRING, sharedStrings.getItemAt(index).getString(), 0, false);
+                    } else {
+                        row.setCell(column, CellType.BLANK, null, 0, false);
+                    }
+                }
+                case "inlineStr", "str" -> row.setCell(column, CellType.STRING,
+                        "inlineStr".equals(type) ? inlineText.toString() : value.toString(), 0, false);
+                case "b" -> row.setCell(column, CellType.BOOLEAN, null,
+                        hasValue && "1".equals(value.toString().trim()) ? 1 : 0, false);
+                case "e" -> row.setCell(column, CellType.ERROR, null, 0, false);
+                default -> {
+                    if (hasValue && !value.isEmpty()) {
+                        double number = Double.parseDouble(value.toString());
+                        row.setCell(column, CellType.NUMERIC, null, number, isDate(number));
+                    } else {
+                        row.setCell(column, CellType.BLANK, null, 0, false);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Same check as DateUtil.isCellDateFormatted(): valid Excel date with a date number format
+         */
+        private boolean isDate(double number) {
+            if (styles == null || !DateUtil.isValidExcelDate(number)) {
+                return false;
+            }
+            return dateStyles.computeIfAbsent(styleIndex, index -> {
+                if (index >= styles.getNumCellStyles()) {
+                    return false;
+                }
+                ExcelNumberFormat format = ExcelNumberFormat.from(styles.getStyleAt(index));
+                return format != null && DateUtil.isADateFormat(format);
+            });
+        }
+    }
+}
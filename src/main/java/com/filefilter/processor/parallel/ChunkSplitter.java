@@ -0,0 +1,177 @@
+package com.filefilter.processor.parallel;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Splits a file into byte ranges aligned to record boundaries
+ *
+ * A range always starts at offset 0 or right after a '\n' that ends a record.
+ * The first range is extended to cover all header records, so header handling stays
+ * in the worker of the first chunk.
+ *
+ * Quote-aware mode (CSV): a '\n' inside a quoted field does not end a record.
+ * Boundaries are resynchronized with a two-pass strategy:
+ * 1. Count quote characters per nominal chunk (in parallel)
+ * 2. The prefix parity of quote counts tells whether a nominal boundary lies inside
+ *    a quoted field - scanning forward from there with the known quote state finds the
+ *    first '\n' outside quotes
+ * This is exact for RFC 4180 data without escape characters, where an embedded quote
+ * is written as "" and therefore never changes the parity.
+ */
+public final class ChunkSplitter {
+
+    private static final int SCAN_BLOCK_SIZE = 65536;
+    private static final byte QUOTE = '"';
+
+    private ChunkSplitter() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Byte range [start, end) of a file
+     */
+    public record ByteRange(long start, long end) {
+        public int length() {
+            return Math.toIntExact(end - start);
+        }
+    }
+
+    /**
+     * Split a file into record-aligned ranges
+     *
+     * @param channel Open file channel (only positional reads are used)
+     * @param chunkSize Nominal chunk size in bytes
+     * @param headerRecords Number of header records that must stay in the first range
+     * @param quoteAware true to treat '\n' inside double quotes as part of the record (CSV)
+     * @param executor Executor used to count quotes in parallel (quote-aware mode only)
+     * @return Ranges in file order, covering the whole file
+     */
+    public static List<ByteRange> split(FileChannel channel, long chunkSize, int headerRecords,
+                                        boolean quoteAware, ExecutorService executor)
+            throws IOException, InterruptedException, ExecutionException {
+        long size = channel.size();
+
+        // Header records always belong to the first range
+        long dataStart = 0;
+        for (int i = 0; i < headerRecords && dataStart < size; i++) {
+            dataStart = findRecordEnd(channel, dataStart, size, false, quoteAware);
+        }
+
+        // Nominal boundaries, evenly spaced after the header
+        List<Long> nominal = new ArrayList<>();
+        for (long boundary = dataStart + chunkSize; boundary < size; boundary += chunkSize) {
+            nominal.add(boundary);
+        }
+
+        boolean[] insideQuotes = quoteAware
+                ? quoteStateAt(channel, dataStart, nominal, size, executor)
+                : new boolean[nominal.size()];
+
+        // Resync each nominal boundary to the next record end
+        List<ByteRange> ranges = new ArrayList<>();
+        long start = 0;
+        for (int k = 0; k < nominal.size(); k++) {
+            long nominalBoundary = nominal.get(k);
+            if (nominalBoundary <= start) {
+                // Previous record spans past this nominal boundary
+                continue;
+            }
+            long end = findRecordEnd(channel, nominalBoundary, size, insideQuotes[k], quoteAware);
+            if (end > start && end < size) {
+                ranges.add(new ByteRange(start, end));
+                start = end;
+            }
+        }
+        ranges.add(new ByteRange(start, size));
+
+        return ranges;
+    }
+
+    /**
+     * Determine for each nominal boundary whether it lies inside a quoted field
+     * Quote counts per segment are computed in parallel, the prefix parity sequentially
+     */
+    private static boolean[] quoteStateAt(FileChannel channel, long dataStart, List<Long> nominal,
+                                          long size, ExecutorService executor)
+            throws InterruptedException, ExecutionException {
+        List<Future<Long>> counts = new ArrayList<>();
+        long segmentStart = dataStart;
+        for (long boundary : nominal) {
+            long from = segmentStart;
+            counts.add(executor.submit(() -> countQuotes(channel, from, boundary)));
+            segmentStart = boundary;
+        }
+
+        boolean[] insideQuotes = new boolean[nominal.size()];
+        long quotes = 0;
+        for (int k = 0; k < counts.size(); k++) {
+            quotes += counts.get(k).get();
+            insideQuotes[k] = (quotes & 1) == 1;
+        }
+        return insideQuotes;
+    }
+
+    /**
+     * Count quote characters in [from, to)
+     */
+    private static long countQuotes(FileChannel channel, long from, long to) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BLOCK_SIZE);
+        long quotes = 0;
+        long position = from;
+
+        while (position < to) {
+            buffer.clear().limit((int) Math.min(SCAN_BLOCK_SIZE, to - position));
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            byte[] bytes = buffer.array();
+            for (int i = 0; i < read; i++) {
+                if (bytes[i] == QUOTE) {
+                    quotes++;
+                }
+            }
+            position += read;
+        }
+        return quotes;
+    }
+
+    /**
+     * Find the offset right after the first record-terminating '\n' at or after a position
+     *
+     * @param insideQuotes Quote state at the start position (quote-aware mode)
+     * @return Offset after the '\n', or size if the file ends first
+     */
+    private static long findRecordEnd(FileChannel channel, long from, long size,
+                                      boolean insideQuotes, boolean quoteAware) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BLOCK_SIZE);
+        boolean quoted = insideQuotes;
+        long position = from;
+
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            byte[] bytes = buffer.array();
+            for (int i = 0; i < read; i++) {
+                byte b = bytes[i];
+                if (quoteAware && b == QUOTE) {
+                    quoted = !quoted;
+                } else if (b == '\n' && !quoted) {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+}
@@ -0,0 +1,163 @@
+package com.filefilter.processor.parallel;
+
+import com.filefilter.processor.base.ProcessingResult;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs chunk tasks over record-aligned byte ranges on a worker pool
+ *
+ * Each chunk is read and validated on a worker thread into in-memory output buffers.
+ * The calling thread writes the buffers to the real outputs strictly in chunk order,
+ * so filtered and rejected outputs keep the original row order.
+ * At most (threads * 2) chunks are in flight to bound memory usage.
+ */
+@Slf4j
+public final class ParallelChunkRunner {
+
+    private final int threads;
+    private final long chunkSize;
+
+    /**
+     * @param threads Number of worker threads
+     * @param chunkSize Nominal chunk size in bytes
+     */
+    public ParallelChunkRunner(int threads, long chunkSize) {
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Processes the bytes of one chunk
+     * Implementations must be thread-safe (called concurrently for different chunks)
+     */
+    @FunctionalInterface
+    public interface ChunkTask {
+
+        /**
+         * @param data Chunk bytes (exactly the chunk length)
+         * @param firstChunk true for the chunk that contains the header records
+         * @param out Buffers to write filtered and rejected records to
+         * @return Record counters of this chunk
+         */
+        ProcessingResult process(byte[] data, boolean firstChunk, ChunkOutput out) throws Exception;
+    }
+
+    /**
+     * In-memory outputs of a single chunk
+     */
+    public static final class ChunkOutput {
+        private final ByteArrayOutputStream filtered = new ByteArrayOutputStream();
+        private final ByteArrayOutputStream rejected;
+
+        ChunkOutput(boolean needRejected) {
+            this.rejected = needRejected ? new ByteArrayOutputStream() : null;
+        }
+
+        public OutputStream filtered() {
+            return filtered;
+        }
+
+        /**
+         * @return Rejected buffer, or null if rejected output is disabled
+         */
+        public OutputStream rejected() {
+            return rejected;
+        }
+    }
+
+    private record ChunkResult(ChunkOutput output, ProcessingResult counts) {}
+
+    /**
+     * Split the file, process all chunks in parallel and write outputs in order
+     *
+     * @param inputPath Input file
+     * @param headerRecords Number of header records (kept in the first chunk)
+     * @param quoteAware true for CSV quote-aware boundary resync
+     * @param task Chunk task
+     * @param validOut Filtered output
+     * @param rejectedOut Rejected output (nullable)
+     * @return Merged record counters
+     */
+    public ProcessingResult run(Path inputPath, int headerRecords, boolean quoteAware, ChunkTask task,
+                                OutputStream validOut, OutputStream rejectedOut) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try (FileChannel channel = FileChannel.open(inputPath, StandardOpenOption.READ)) {
+            List<ChunkSplitter.ByteRange> ranges =
+                    ChunkSplitter.split(channel, chunkSize, headerRecords, quoteAware, executor);
+            log.info("Processing {} chunk(s) on {} thread(s)", ranges.size(), threads);
+
+            ProcessingResult merged = ProcessingResult.builder().build();
+            Deque<Future<ChunkResult>> inFlight = new ArrayDeque<>();
+            int maxInFlight = threads * 2;
+            int next = 0;
+
+            while (next < ranges.size() || !inFlight.isEmpty()) {
+                // Keep the pool busy, bounded by maxInFlight
+                while (next < ranges.size() && inFlight.size() < maxInFlight) {
+                    ChunkSplitter.ByteRange range = ranges.get(next);
+                    boolean firstChunk = next == 0;
+                    inFlight.add(executor.submit(() -> processChunk(channel, range, firstChunk, task,
+                            rejectedOut != null)));
+                    next++;
+                }
+
+                // Write the oldest chunk first to preserve row order
+                ChunkResult result = await(inFlight.poll());
+                result.output().filtered.writeTo(validOut);
+                if (rejectedOut != null) {
+                    result.output().rejected.writeTo(rejectedOut);
+                }
+                merged = merged.merge(result.counts());
+            }
+
+            return merged;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static ChunkResult processChunk(FileChannel channel, ChunkSplitter.ByteRange range, boolean firstChunk,
+                                            ChunkTask task, boolean needRejected) throws Exception {
+        byte[] data = new byte[range.length()];
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        long position = range.start();
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of file at offset " + position);
+            }
+            position += read;
+        }
+
+        ChunkOutput output = new ChunkOutput(needRejected);
+        ProcessingResult counts = task.process(data, firstChunk, output);
+        return new ChunkResult(output, counts);
+    }
+
+    private static ChunkResult await(Future<ChunkResult> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
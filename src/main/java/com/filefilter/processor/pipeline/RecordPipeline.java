@@ -0,0 +1,386 @@
+package com.filefilter.processor.pipeline;
+
+import com.filefilter.processor.base.ProcessingResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Decoupled reader / validator / writer pipeline
+ *
+ * Stages:
+ * - Reader: the calling thread, which parses records and passes them to submit()
+ * - Validators: N threads, each fed round-robin with batches of records
+ * - Writers: one thread per output (filtered, rejected), consuming batches in submit order
+ *
+ * Stages are connected by bounded lock-free SPSC ring buffers carrying batches, so a
+ * slow writer applies back-pressure to the reader instead of sharing its thread.
+ * Writers see batches in the order they were submitted and wait for each batch to be
+ * validated, which preserves the original record order in both outputs.
+ *
+ * Usage: submit() all records, then finish(); close() aborts a pipeline that was not finished.
+ *
+ * @param <T> Record type passed from reader to writers
+ */
+public final class RecordPipeline<T> implements AutoCloseable {
+
+    /**
+     * Validates a record on a validator thread
+     * Each validator thread gets its own instance from the factory, so instances may keep state
+     */
+    @FunctionalInterface
+    public interface RecordValidator<T> {
+        boolean validate(T record) throws Exception;
+    }
+
+    /**
+     * Writes a record on a writer thread
+     */
+    @FunctionalInterface
+    public interface RecordWriter<T> {
+        void write(T record) throws Exception;
+    }
+
+    /**
+     * Batch of records, validated by one validator and read by both writers
+     */
+    private static final class Batch {
+        final Object[] records;
+        final boolean[] accepted;
+        int size;
+        volatile boolean validated;
+
+        Batch(int capacity) {
+            this.records = new Object[capacity];
+            this.accepted = new boolean[capacity];
+        }
+    }
+
+    /**
+     * End-of-stream marker
+     */
+    private static final Batch END = new Batch(0);
+
+    /**
+     * Per-stage counters, each updated by a single thread and read after join()
+     */
+    private static final class StageCounter {
+        final String name;
+        long records;
+        long batches;
+        long waitNanos;
+        long depthSum;
+        long depthSamples;
+        int maxDepth;
+        long startNanos;
+        long endNanos;
+
+        StageCounter(String name) {
+            this.name = name;
+        }
+
+        void sampleDepth(int depth) {
+            depthSum += depth;
+            depthSamples++;
+            maxDepth = Math.max(maxDepth, depth);
+        }
+
+        StageStats toStats() {
+            long wallNanos = Math.max(0, endNanos - startNanos);
+            return StageStats.builder()
+                    .stage(name)
+                    .records(records)
+                    .batches(batches)
+                    .busyMs(Math.max(0, wallNanos - waitNanos) / 1_000_000)
+                    .waitMs(waitNanos / 1_000_000)
+                    .maxQueueDepth(maxDepth)
+                    .avgQueueDepth(depthSamples > 0 ? (double) depthSum / depthSamples : 0)
+                    .build();
+        }
+    }
+
+    private final int batchSize;
+    private final Supplier<RecordValidator<T>> validatorFactory;
+    private final RecordWriter<T> validWriter;
+    private final RecordWriter<T> rejectedWriter;
+
+    private final List<SpscRingBuffer<Batch>> validatorQueues = new ArrayList<>();
+    private final SpscRingBuffer<Batch> validQueue;
+    private final SpscRingBuffer<Batch> rejectedQueue;
+
+    private final StageCounter readerCounter = new StageCounter("reader");
+    private final List<StageCounter> validatorCounters = new ArrayList<>();
+    private final StageCounter validWriterCounter = new StageCounter("writer-filtered");
+    private final StageCounter rejectedWriterCounter = new StageCounter("writer-rejected");
+
+    private final List<Thread> threads = new ArrayList<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private volatile boolean aborted;
+
+    private Batch current;
+    private int nextValidator;
+    private boolean finished;
+
+    /**
+     * Create and start the pipeline threads
+     *
+     * @param validators Number of validator threads
+     * @param batchSize Records per batch
+     * @param queueCapacity Capacity of each queue in batches
+     * @param validatorFactory Creates one validator per validator thread
+     * @param validWriter Writer for accepted records
+     * @param rejectedWriter Writer for rejected records (nullable)
+     */
+    public RecordPipeline(int validators, int batchSize, int queueCapacity,
+                          Supplier<RecordValidator<T>> validatorFactory,
+                          RecordWriter<T> validWriter, RecordWriter<T> rejectedWriter) {
+        this.batchSize = batchSize;
+        this.validatorFactory = validatorFactory;
+        this.validWriter = validWriter;
+        this.rejectedWriter = rejectedWriter;
+        this.validQueue = new SpscRingBuffer<>(queueCapacity, () -> aborted);
+        this.rejectedQueue = rejectedWriter != null ? new SpscRingBuffer<>(queueCapacity, () -> aborted) : null;
+
+        readerCounter.startNanos = System.nanoTime();
+
+        for (int i = 0; i < validators; i++) {
+            SpscRingBuffer<Batch> queue = new SpscRingBuffer<>(queueCapacity, () -> aborted);
+            StageCounter counter = new StageCounter("validator-" + (i + 1));
+            validatorQueues.add(queue);
+            validatorCounters.add(counter);
+            startThread(counter, () -> runValidator(queue, counter));
+        }
+
+        startThread(validWriterCounter, () -> runWriter(validQueue, validWriter, true, validWriterCounter));
+        if (rejectedQueue != null) {
+            startThread(rejectedWriterCounter,
+                    () -> runWriter(rejectedQueue, rejectedWriter, false, rejectedWriterCounter));
+        }
+    }
+
+    /**
+     * Pass a record from the reader stage into the pipeline
+     * Blocks (back-pressure) while downstream queues are full
+     *
+     * @throws Exception if a pipeline stage has failed
+     */
+    public void submit(T record) throws Exception {
+        if (aborted) {
+            throwFailure();
+        }
+        if (current == null) {
+            current = new Batch(batchSize);
+        }
+        current.records[current.size++] = record;
+        if (current.size == batchSize) {
+            dispatch();
+        }
+    }
+
+    /**
+     * Flush the last batch, wait for all stages and collect statistics
+     *
+     * @return Record counters and per-stage statistics
+     * @throws Exception if a pipeline stage has failed
+     */
+    public ProcessingResult finish() throws Exception {
+        if (current != null && current.size > 0) {
+            dispatch();
+        }
+
+        try {
+            for (SpscRingBuffer<Batch> queue : validatorQueues) {
+                queue.put(END);
+            }
+            validQueue.put(END);
+            if (rejectedQueue != null) {
+                rejectedQueue.put(END);
+            }
+        } catch (SpscRingBuffer.PipelineAbortedException e) {
+            // Failure is reported below
+        }
+
+        readerCounter.endNanos = System.nanoTime();
+        joinAll();
+        finished = true;
+
+        if (failure.get() != null) {
+            throwFailure();
+        }
+
+        List<StageStats> stageStats = new ArrayList<>();
+        stageStats.add(readerCounter.toStats());
+        validatorCounters.forEach(counter -> stageStats.add(counter.toStats()));
+        stageStats.add(validWriterCounter.toStats());
+        if (rejectedQueue != null) {
+            stageStats.add(rejectedWriterCounter.toStats());
+        }
+
+        long totalRecords = readerCounter.records;
+        long successRecords = validWriterCounter.records;
+        return ProcessingResult.builder()
+                .totalRecords(totalRecords)
+                .successRecords(successRecords)
+                .rejectRecords(totalRecords - successRecords)
+                .stageStats(stageStats)
+                .build();
+    }
+
+    /**
+     * Abort the pipeline if it was not finished (e.g. the reader failed)
+     */
+    @Override
+    public void close() {
+        if (!finished) {
+            aborted = true;
+            joinAll();
+            finished = true;
+        }
+    }
+
+    /**
+     * Send the current batch to the next validator and to both writers (in submit order)
+     */
+    private void dispatch() throws Exception {
+        Batch batch = current;
+        current = null;
+
+        try {
+            SpscRingBuffer<Batch> validatorQueue = validatorQueues.get(nextValidator);
+            validatorCounters.get(nextValidator).sampleDepth(validatorQueue.size());
+            nextValidator = (nextValidator + 1) % validatorQueues.size();
+
+            readerCounter.waitNanos += validatorQueue.put(batch);
+            validWriterCounter.sampleDepth(validQueue.size());
+            readerCounter.waitNanos += validQueue.put(batch);
+            if (rejectedQueue != null) {
+                rejectedWriterCounter.sampleDepth(rejectedQueue.size());
+                readerCounter.waitNanos += rejectedQueue.put(batch);
+            }
+        } catch (SpscRingBuffer.PipelineAbortedException e) {
+            throwFailure();
+        }
+
+        readerCounter.records += batch.size;
+        readerCounter.batches++;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runValidator(SpscRingBuffer<Batch> queue, StageCounter counter) throws Exception {
+        RecordValidator<T> validator = validatorFactory.get();
+        long[] waitNanos = new long[1];
+
+        while (true) {
+            Batch batch = queue.take(waitNanos);
+            counter.waitNanos += waitNanos[0];
+            if (batch == END) {
+                return;
+            }
+
+            for (int i = 0; i < batch.size; i++) {
+                batch.accepted[i] = validator.validate((T) batch.records[i]);
+            }
+            batch.validated = true;
+
+            counter.records += batch.size;
+            counter.batches++;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runWriter(SpscRingBuffer<Batch> queue, RecordWriter<T> writer, boolean acceptedSide,
+                           StageCounter counter) throws Exception {
+        long[] waitNanos = new long[1];
+
+        while (true) {
+            Batch batch = queue.take(waitNanos);
+            counter.waitNanos += waitNanos[0];
+            if (batch == END) {
+                return;
+            }
+
+            counter.waitNanos += awaitValidated(batch);
+            for (int i = 0; i < batch.size; i++) {
+                if (batch.accepted[i] == acceptedSide) {
+                    writer.write((T) batch.records[i]);
+                    counter.records++;
+                }
+            }
+            counter.batches++;
+        }
+    }
+
+    /**
+     * Wait until the validator has finished the batch
+     *
+     * @return Nanoseconds spent waiting
+     */
+    private long awaitValidated(Batch batch) {
+        if (batch.validated) {
+            return 0;
+        }
+        long waitStart = System.nanoTime();
+        int tries = 0;
+        while (!batch.validated) {
+            tries = SpscRingBuffer.backoff(tries, () -> aborted);
+        }
+        return System.nanoTime() - waitStart;
+    }
+
+    private void startThread(StageCounter counter, StageBody body) {
+        Thread thread = new Thread(() -> {
+            counter.startNanos = System.nanoTime();
+            try {
+                body.run();
+            } catch (SpscRingBuffer.PipelineAbortedException e) {
+                // Another stage failed or the pipeline was closed
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+                aborted = true;
+            } finally {
+                counter.endNanos = System.nanoTime();
+            }
+        }, "pipeline-" + counter.name);
+        thread.setDaemon(true);
+        threads.add(thread);
+        thread.start();
+    }
+
+    private void joinAll() {
+        boolean interrupted = false;
+        for (Thread thread : threads) {
+            while (thread.isAlive()) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    aborted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void throwFailure() throws Exception {
+        aborted = true;
+        joinAll();
+        finished = true;
+        Throwable cause = failure.get();
+        if (cause instanceof Exception exception) {
+            throw exception;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        throw new IllegalStateException("Pipeline aborted");
+    }
+
+    @FunctionalInterface
+    private interface StageBody {
+        void run() throws Exception;
+    }
+}
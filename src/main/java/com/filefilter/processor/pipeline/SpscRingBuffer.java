@@ -0,0 +1,134 @@
+package com.filefilter.processor.pipeline;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Bounded lock-free single-producer/single-consumer ring buffer
+ *
+ * Producer and consumer only publish their own sequence (release store) and read the
+ * other side's sequence (acquire load). When the buffer is full or empty the calling
+ * thread backs off (spin, yield, then park), which provides back-pressure without locks.
+ *
+ * Exactly one producer thread and one consumer thread may use an instance.
+ */
+final class SpscRingBuffer<E> {
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 10;
+    private static final long PARK_NANOS = 50_000;
+
+    private final Object[] buffer;
+    private final int mask;
+    private final int capacity;
+    private final BooleanSupplier aborted;
+
+    /**
+     * Next sequence to read (written by consumer only)
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * Next sequence to write (written by producer only)
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * @param capacity Maximum number of elements (rounded up to a power of two)
+     * @param aborted Checked while waiting - waiting stops with PipelineAbortedException once it returns true
+     */
+    SpscRingBuffer(int capacity, BooleanSupplier aborted) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.buffer = new Object[size];
+        this.mask = size - 1;
+        this.capacity = size;
+        this.aborted = aborted;
+    }
+
+    /**
+     * Add an element, waiting while the buffer is full
+     *
+     * @return Nanoseconds spent waiting (0 if no wait was needed)
+     */
+    long put(E element) {
+        long sequence = tail.get();
+        long waitStart = 0;
+        int tries = 0;
+
+        while (sequence - head.get() >= capacity) {
+            if (waitStart == 0) {
+                waitStart = System.nanoTime();
+            }
+            tries = backoff(tries, aborted);
+        }
+
+        buffer[(int) (sequence & mask)] = element;
+        tail.lazySet(sequence + 1);
+        return waitStart == 0 ? 0 : System.nanoTime() - waitStart;
+    }
+
+    /**
+     * Remove the next element, waiting while the buffer is empty
+     *
+     * @param waitNanos Receives the nanoseconds spent waiting at index 0
+     */
+    @SuppressWarnings("unchecked")
+    E take(long[] waitNanos) {
+        long sequence = head.get();
+        long waitStart = 0;
+        int tries = 0;
+
+        while (sequence >= tail.get()) {
+            if (waitStart == 0) {
+                waitStart = System.nanoTime();
+            }
+            tries = backoff(tries, aborted);
+        }
+
+        int index = (int) (sequence & mask);
+        E element = (E) buffer[index];
+        buffer[index] = null;
+        head.lazySet(sequence + 1);
+        waitNanos[0] = waitStart == 0 ? 0 : System.nanoTime() - waitStart;
+        return element;
+    }
+
+    /**
+     * @return Approximate number of buffered elements
+     */
+    int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    /**
+     * Progressive backoff: busy spin, then yield, then short parks
+     * Shared with other pipeline waits so all stages back off the same way
+     *
+     * @return Updated number of tries
+     */
+    static int backoff(int tries, BooleanSupplier aborted) {
+        if (aborted.getAsBoolean()) {
+            throw new PipelineAbortedException();
+        }
+        if (tries < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if (tries < SPIN_TRIES + YIELD_TRIES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+        return tries + 1;
+    }
+
+    /**
+     * Thrown to a waiting thread when the pipeline has been aborted
+     */
+    static final class PipelineAbortedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        PipelineAbortedException() {
+            super("Pipeline aborted", null, false, false);
+        }
+    }
+}
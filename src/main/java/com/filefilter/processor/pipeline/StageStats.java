@@ -0,0 +1,34 @@
+package com.filefilter.processor.pipeline;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Immutable statistics of a single pipeline stage
+ */
+@Getter
+@Builder
+public class StageStats {
+    private final String stage;
+    private final long records;
+    private final long batches;
+    private final long busyMs;
+    private final long waitMs;
+
+    /**
+     * Largest number of batches seen waiting in the stage's input queue
+     */
+    private final int maxQueueDepth;
+
+    /**
+     * Average number of batches waiting in the stage's input queue (sampled on enqueue)
+     */
+    private final double avgQueueDepth;
+
+    /**
+     * @return Records per second of busy time
+     */
+    public long getThroughput() {
+        return busyMs > 0 ? records * 1000 / busyMs : records;
+    }
+}
@@ -0,0 +1,169 @@
+package com.filefilter.processor.projection;
+
+import com.filefilter.model.OutputColumn;
+import com.filefilter.model.OutputConfig;
+import com.filefilter.validator.RowView;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Compiled projection of the filtered output: selected columns in output order plus per-column transforms
+ *
+ * Built once per run from OutputConfig.columns and applied by the writer of each processor,
+ * so no second pass over the filtered file is needed to drop or clean up columns.
+ * Columns without transforms can be copied in their raw form (bytes, typed cells) by the processors.
+ * A source column missing in a row is written as an empty value.
+ * Immutable and safe to share between threads.
+ */
+public final class OutputProjection {
+
+    private final int[] columns;
+    private final boolean[] trim;
+    private final boolean[] upperCase;
+    private final boolean[] lowerCase;
+    private final int[] substringStart;
+    private final int[] substringLength;
+
+    private OutputProjection(List<OutputColumn> outputColumns) {
+        int size = outputColumns.size();
+        this.columns = new int[size];
+        this.trim = new boolean[size];
+        this.upperCase = new boolean[size];
+        this.lowerCase = new boolean[size];
+        this.substringStart = new int[size];
+        this.substringLength = new int[size];
+
+        for (int i = 0; i < size; i++) {
+            OutputColumn column = outputColumns.get(i);
+            if (column == null || column.getColumn() == null || column.getColumn() < 1) {
+                throw new IllegalArgumentException("Invalid column index in output column #" + (i + 1) + ": "
+                        + (column != null ? column.getColumn() : null));
+            }
+            if (column.getSubstringStart() != null && column.getSubstringStart() < 1
+                    || column.getSubstringLength() != null && column.getSubstringLength() < 0) {
+                throw new IllegalArgumentException("Invalid substring in output column #" + (i + 1)
+                        + ": start=" + column.getSubstringStart() + ", length=" + column.getSubstringLength());
+            }
+            if (Boolean.TRUE.equals(column.getUpperCase()) && Boolean.TRUE.equals(column.getLowerCase())) {
+                throw new IllegalArgumentException("Output column #" + (i + 1)
+                        + " cannot be converted to both upper and lower case");
+            }
+
+            // Convert from 1-based to 0-based index
+            columns[i] = column.getColumn() - 1;
+            trim[i] = Boolean.TRUE.equals(column.getTrim());
+            upperCase[i] = Boolean.TRUE.equals(column.getUpperCase());
+            lowerCase[i] = Boolean.TRUE.equals(column.getLowerCase());
+            substringStart[i] = column.getSubstringStart() != null ? column.getSubstringStart() - 1 : 0;
+            substringLength[i] = column.getSubstringLength() != null ? column.getSubstringLength() : -1;
+        }
+    }
+
+    /**
+     * Compile the projection of an output configuration
+     *
+     * @param output Output configuration
+     * @return Projection, or null if no output columns are configured (records are written unchanged)
+     * @throws IllegalArgumentException if an output column has an invalid index or substring
+     */
+    public static OutputProjection of(OutputConfig output) {
+        if (output == null || output.getColumns() == null || output.getColumns().isEmpty()) {
+            return null;
+        }
+        return new OutputProjection(output.getColumns());
+    }
+
+    /**
+     * @return Number of output columns
+     */
+    public int size() {
+        return columns.length;
+    }
+
+    /**
+     * @param index Output column index (0-based)
+     * @return Source column index (0-based)
+     */
+    public int column(int index) {
+        return columns[index];
+    }
+
+    /**
+     * @param index Output column index (0-based)
+     * @return true if the value is written as read (no transform configured)
+     */
+    public boolean isPlain(int index) {
+        return !trim[index] && !upperCase[index] && !lowerCase[index]
+                && substringStart[index] == 0 && substringLength[index] < 0;
+    }
+
+    /**
+     * Apply the transforms of an output column
+     *
+     * @param index Output column index (0-based)
+     * @param value Source value (null is treated as "")
+     * @return Transformed value
+     */
+    public String apply(int index, CharSequence value) {
+        String result = value != null ? value.toString() : "";
+
+        if (trim[index]) {
+            result = result.trim();
+        }
+
+        int start = substringStart[index];
+        int length = substringLength[index];
+        if (start > 0 || length >= 0) {
+            int from = Math.min(start, result.length());
+            int to = length >= 0 ? (int) Math.min((long) from + length, result.length()) : result.length();
+            result = result.substring(from, to);
+        }
+
+        if (upperCase[index]) {
+            result = result.toUpperCase(Locale.ROOT);
+        } else if (lowerCase[index]) {
+            result = result.toLowerCase(Locale.ROOT);
+        }
+        return result;
+    }
+
+    /**
+     * Project a row into output values
+     *
+     * @param row Source row
+     * @param header true for header rows (columns are selected, values are not transformed)
+     * @return Output values in output order
+     */
+    public String[] project(RowView row, boolean header) {
+        String[] values = new String[columns.length];
+        int fieldCount = row.fieldCount();
+        for (int i = 0; i < columns.length; i++) {
+            int column = columns[i];
+            CharSequence value = column < fieldCount ? row.field(column) : null;
+            values[i] = header || isPlain(i)
+                    ? (value != null ? value.toString() : "")
+                    : apply(i, value);
+        }
+        return values;
+    }
+
+    /**
+     * Project an already materialized row into output values
+     *
+     * @param row Source values
+     * @param header true for header rows (columns are selected, values are not transformed)
+     * @return Output values in output order
+     */
+    public String[] project(String[] row, boolean header) {
+        String[] values = new String[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            int column = columns[i];
+            String value = column < row.length ? row[column] : null;
+            values[i] = header || isPlain(i)
+                    ? (value != null ? value : "")
+                    : apply(i, value);
+        }
+        return values;
+    }
+}
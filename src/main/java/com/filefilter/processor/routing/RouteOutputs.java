@@ -0,0 +1,144 @@
+package com.filefilter.processor.routing;
+
+import com.filefilter.validator.RouteEngine;
+import com.filefilter.validator.RowView;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Output writers of all routes plus the matcher that decides which of them receive a row
+ * The writer type depends on the processor (byte stream, CSVWriter, sheet, ...)
+ * Not thread-safe - routes are written by the processing thread only.
+ *
+ * @param <W> Writer type
+ */
+public final class RouteOutputs<W extends Closeable> implements Closeable {
+
+    /**
+     * Opens the writer of a route
+     */
+    @FunctionalInterface
+    public interface Opener<W> {
+        W open(String routeName) throws IOException;
+    }
+
+    /**
+     * Writes the current row to a route writer
+     */
+    @FunctionalInterface
+    public interface RowWriter<W> {
+        void write(W writer) throws IOException;
+    }
+
+    private final RouteEngine.Matcher matcher;
+    private final List<W> writers;
+
+    private RouteOutputs(RouteEngine.Matcher matcher, List<W> writers) {
+        this.matcher = matcher;
+        this.writers = writers;
+    }
+
+    /**
+     * Open the writers of all routes
+     * Writers opened before a failure are closed again
+     *
+     * @param engine Compiled routes
+     * @param opener Opens the writer of a route by name
+     * @return Open route outputs (caller must close)
+     * @throws IOException if a writer cannot be opened
+     */
+    public static <W extends Closeable> RouteOutputs<W> open(RouteEngine engine, Opener<W> opener)
+            throws IOException {
+        List<W> writers = new ArrayList<>(engine.size());
+        try {
+            for (int i = 0; i < engine.size(); i++) {
+                writers.add(opener.open(engine.name(i)));
+            }
+        } catch (IOException | RuntimeException e) {
+            closeAll(writers, e);
+            throw e;
+        }
+        return new RouteOutputs<>(engine.matcher(), writers);
+    }
+
+    /**
+     * @return Writers in route order
+     */
+    public List<W> writers() {
+        return writers;
+    }
+
+    /**
+     * Write a row to every route it matches
+     *
+     * @param row Row to evaluate
+     * @param writer Writes the row to one route writer
+     */
+    public void route(RowView row, RowWriter<W> writer) throws IOException {
+        write(matcher.match(row), writer);
+    }
+
+    /**
+     * Write an already materialized row to every route it matches
+     */
+    public void route(String[] row, RowWriter<W> writer) throws IOException {
+        write(matcher.match(row), writer);
+    }
+
+    /**
+     * Write a row (e.g. a header row) to all routes without evaluating it
+     */
+    public void writeAll(RowWriter<W> writer) throws IOException {
+        for (W output : writers) {
+            writer.write(output);
+        }
+    }
+
+    /**
+     * @return Number of rows written to each route, by route name in configuration order
+     */
+    public Map<String, Long> getCounts() {
+        return matcher.getCounts();
+    }
+
+    /**
+     * Close all writers, failures of single writers do not prevent closing the others
+     */
+    @Override
+    public void close() throws IOException {
+        IOException failure = closeAll(writers, null);
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static IOException closeAll(List<? extends Closeable> writers, Exception primary) {
+        IOException failure = null;
+        for (Closeable writer : writers) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                if (primary != null) {
+                    primary.addSuppressed(e);
+                } else if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        return failure;
+    }
+
+    private void write(boolean[] matched, RowWriter<W> writer) throws IOException {
+        for (int i = 0; i < matched.length; i++) {
+            if (matched[i]) {
+                writer.write(writers.get(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.filefilter.processor.scanner;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * CharSequence over a field of a byte buffer, reused for every field a scanner hands out
+ *
+ * Fields that only contain ASCII bytes are returned as this view without copying or decoding,
+ * other fields are decoded into a String. This is only exact for encodings in which the bytes
+ * 0x00-0x7F decode to the same ASCII characters (UTF-8, ISO-8859-x, windows-125x, ...),
+ * for other encodings every field is decoded.
+ * Not thread-safe - one instance per scanner.
+ */
+final class AsciiFieldView implements CharSequence {
+
+    private static final byte[] ASCII = new byte[128];
+
+    static {
+        for (int i = 0; i < ASCII.length; i++) {
+            ASCII[i] = (byte) i;
+        }
+    }
+
+    private final Charset charset;
+    private final boolean asciiCompatible;
+
+    private byte[] bytes;
+    private int start;
+    private int length;
+
+    /**
+     * @param charset Encoding of the scanned bytes
+     */
+    AsciiFieldView(Charset charset) {
+        this.charset = charset;
+        this.asciiCompatible = Arrays.equals(ASCII,
+                new String(ASCII, charset).getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * Point the view at bytes [start, end), or decode them if they are not plain ASCII
+     *
+     * @return This view (valid until the next call) or a decoded String
+     */
+    CharSequence wrap(byte[] bytes, int start, int end) {
+        if (asciiCompatible) {
+            int i = start;
+            while (i < end && bytes[i] >= 0) {
+                i++;
+            }
+            if (i == end) {
+                this.bytes = bytes;
+                this.start = start;
+                this.length = end - start;
+                return this;
+            }
+        }
+        return new String(bytes, start, end - start, charset);
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return (char) bytes[start + index];
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    @Override
+    public CharSequence subSequence(int from, int to) {
+        return toString().substring(from, to);
+    }
+
+    @Override
+    public String toString() {
+        return new String(bytes, start, length, StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,46 @@
+package com.filefilter.processor.scanner;
+
+/**
+ * Bitmasks of structural bytes (line ends, delimiters, quotes) over 64-byte blocks, computed with SIMD
+ *
+ * Bit n of a mask is set if byte offset + n equals one of the searched values, so a scanner finds
+ * all structural bytes of a block with Long.numberOfTrailingZeros() instead of testing every byte
+ * (the approach of simdjson/simdcsv).
+ * Only available when the JVM runs with the Vector API - see SimdSupport. Without it the scanners
+ * use their scalar loops.
+ * Implementations are stateless and thread-safe.
+ */
+interface ByteMasks {
+
+    /**
+     * Bytes per mask
+     */
+    int BLOCK = 64;
+
+    /**
+     * @param b Data, offset + BLOCK must not exceed b.length
+     * @param offset Start of the block
+     * @param value Searched byte
+     * @return Bit n set if b[offset + n] == value
+     */
+    long mask(byte[] b, int offset, byte value);
+
+    /**
+     * @param b Data, offset + BLOCK must not exceed b.length
+     * @param offset Start of the block
+     * @return Bit n set if b[offset + n] equals v1, v2 or v3
+     */
+    long mask(byte[] b, int offset, byte v1, byte v2, byte v3);
+
+    /**
+     * Short description for logs
+     */
+    String describe();
+
+    /**
+     * Mask of the first n bits of a block (all bits for n >= BLOCK)
+     */
+    static long firstBits(int n) {
+        return n >= BLOCK ? -1L : (1L << n) - 1;
+    }
+}
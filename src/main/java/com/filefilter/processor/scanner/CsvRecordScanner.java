@@ -0,0 +1,453 @@
+package com.filefilter.processor.scanner;
+
+import com.filefilter.validator.RowView;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Byte-level RFC 4180 record scanner for CSV files (separator ',', quote '"', no escape character)
+ *
+ * Scans raw bytes for separators, quotes and record terminators in a single pass and records
+ * field offsets in reusable arrays - no String, String[] or StringBuilder is created per record.
+ * With SIMD support (see SimdSupport) only the structural bytes of each 64-byte block are visited,
+ * found through a bitmask instead of testing every byte.
+ * Fields are only decoded on request via field() or rowView(), and the raw record bytes can be
+ * copied to an output stream unchanged.
+ *
+ * - Every '"' toggles the quote state when looking for separators and record ends
+ *   (same parity rule ChunkSplitter and IncrementalSession use to find record ends)
+ * - ',' and line ends inside quotes are part of the field, a record may span several lines
+ * - A record ends with "\n" or "\r\n" outside quotes, the last record may have no terminator
+ * - Backslash has no special meaning (same as ICSVParser.NULL_CHARACTER as escape character)
+ * - Field values are the ones CSVReader returns with that parser, see unquote()
+ *
+ * Two inputs still differ from CSVReader: a "\r" outside quotes that is not followed by "\n"
+ * is field content here, while CSVReader ends the record there, and a NUL byte is kept here,
+ * while CSVParser drops it (NULL_CHARACTER is its escape character).
+ *
+ * Only safe for encodings where ',', '"', '\r' and '\n' can never appear inside a multi-byte
+ * character - see DelimitedLineScanner.isSupported().
+ * Not thread-safe - one scanner per input stream.
+ */
+public final class CsvRecordScanner {
+
+    private static final int INITIAL_FIELD_CAPACITY = 64;
+
+    private static final byte SEPARATOR = ',';
+    private static final byte QUOTE = '"';
+    private static final byte NEWLINE = '\n';
+
+    private final InputStream in;
+
+    /**
+     * Nullable - if null, bytes are scanned one by one
+     */
+    private final ByteMasks masks;
+
+    private byte[] buf;
+    private int limit;
+    private int pos;
+    private boolean eof;
+
+    /**
+     * Bytes dropped from the front of the buffer so far
+     */
+    private long discarded;
+
+    private int recordStart;
+    private int recordEnd;
+
+    private int fieldCount;
+    private int[] fieldStarts = new int[INITIAL_FIELD_CAPACITY];
+    private int[] fieldEnds = new int[INITIAL_FIELD_CAPACITY];
+    private boolean[] fieldQuoted = new boolean[INITIAL_FIELD_CAPACITY];
+
+    /**
+     * Reusable buffer for unquoting fields
+     */
+    private byte[] unquoted = new byte[256];
+
+    /**
+     * @param in Input stream (not closed by the scanner)
+     * @param bufferSize Initial buffer size, grows automatically for longer records
+     */
+    public CsvRecordScanner(InputStream in, int bufferSize) {
+        this(in, bufferSize, SimdSupport.MASKS);
+    }
+
+    /**
+     * @param masks Block scanning to use instead of SimdSupport.MASKS (null for the scalar loop only)
+     */
+    CsvRecordScanner(InputStream in, int bufferSize, ByteMasks masks) {
+        this.in = in;
+        this.masks = masks;
+        this.buf = new byte[bufferSize];
+    }
+
+    /**
+     * Scan an in-memory block without copying it
+     *
+     * @param data Complete data (for example one chunk of a file)
+     */
+    public CsvRecordScanner(byte[] data) {
+        this(data, SimdSupport.MASKS);
+    }
+
+    /**
+     * @param masks Block scanning to use instead of SimdSupport.MASKS (null for the scalar loop only)
+     */
+    CsvRecordScanner(byte[] data, ByteMasks masks) {
+        this.in = InputStream.nullInputStream();
+        this.masks = masks;
+        this.buf = data;
+        this.limit = data.length;
+        this.eof = true;
+    }
+
+    /**
+     * Advance to the next record and split it into fields
+     *
+     * @return false at end of input
+     * @throws IOException if reading fails or the input ends inside a quoted field
+     */
+    public boolean nextRecord() throws IOException {
+        recordStart = pos;
+        fieldCount = 0;
+
+        int fieldStart = pos;
+        boolean quoted = false;
+        boolean fieldHasQuote = false;
+        int i = pos;
+
+        while (true) {
+            byte[] b = buf;
+            int end = limit;
+
+            if (masks != null) {
+                // Visit only the structural bytes of each 64-byte block
+                for (; i < end && i + ByteMasks.BLOCK <= b.length; i += ByteMasks.BLOCK) {
+                    long mask = masks.mask(b, i, QUOTE, SEPARATOR, NEWLINE) & ByteMasks.firstBits(end - i);
+                    for (; mask != 0; mask &= mask - 1) {
+                        int found = i + Long.numberOfTrailingZeros(mask);
+                        byte c = b[found];
+                        if (c == QUOTE) {
+                            quoted = !quoted;
+                            fieldHasQuote = true;
+                        } else if (!quoted) {
+                            if (c == SEPARATOR) {
+                                addField(fieldStart, found, fieldHasQuote);
+                                fieldStart = found + 1;
+                                fieldHasQuote = false;
+                            } else {
+                                int contentEnd = found > fieldStart && b[found - 1] == '\r' ? found - 1 : found;
+                                addField(fieldStart, contentEnd, fieldHasQuote);
+                                recordEnd = contentEnd;
+                                pos = found + 1;
+                                return true;
+                            }
+                        }
+                    }
+                }
+                i = Math.min(i, end);
+            }
+
+            for (; i < end; i++) {
+                byte c = b[i];
+                if (c == QUOTE) {
+                    quoted = !quoted;
+                    fieldHasQuote = true;
+                } else if (!quoted) {
+                    if (c == SEPARATOR) {
+                        addField(fieldStart, i, fieldHasQuote);
+                        fieldStart = i + 1;
+                        fieldHasQuote = false;
+                    } else if (c == '\n') {
+                        int contentEnd = i > fieldStart && b[i - 1] == '\r' ? i - 1 : i;
+                        addField(fieldStart, contentEnd, fieldHasQuote);
+                        recordEnd = contentEnd;
+                        pos = i + 1;
+                        return true;
+                    }
+                }
+            }
+
+            if (eof) {
+                if (recordStart >= limit) {
+                    return false;
+                }
+                if (quoted) {
+                    throw new IOException("Unterminated quoted field in record at byte " + (discarded + recordStart));
+                }
+                // Last record without terminator
+                addField(fieldStart, limit, fieldHasQuote);
+                recordEnd = limit;
+                pos = limit;
+                return true;
+            }
+
+            // Offsets of this record move with the buffered data
+            int shift = fill();
+            if (shift > 0) {
+                i -= shift;
+                fieldStart -= shift;
+                recordStart -= shift;
+                for (int f = 0; f < fieldCount; f++) {
+                    fieldStarts[f] -= shift;
+                    fieldEnds[f] -= shift;
+                }
+            }
+        }
+    }
+
+    /**
+     * Use a standalone record as the current record and split it into fields
+     * Replaces the scanner's buffer, so only for scanners over in-memory data
+     *
+     * @param record Raw record bytes (terminator optional)
+     * @throws IOException if the record ends inside a quoted field
+     */
+    public void scanRecord(byte[] record) throws IOException {
+        buf = record;
+        limit = record.length;
+        pos = 0;
+        eof = true;
+        if (!nextRecord()) {
+            // Empty line: one empty field
+            recordStart = 0;
+            recordEnd = 0;
+            fieldCount = 0;
+            addField(0, 0, false);
+        }
+    }
+
+    /**
+     * @return Buffer holding the current record (valid until the next call to nextRecord())
+     */
+    public byte[] buffer() {
+        return buf;
+    }
+
+    /**
+     * @return Number of bytes consumed from the input, up to and including the terminator of the current record
+     */
+    public long position() {
+        return discarded + pos;
+    }
+
+    public int recordStart() {
+        return recordStart;
+    }
+
+    /**
+     * @return Offset after the last byte of the current record in buffer(), terminator excluded
+     */
+    public int recordEnd() {
+        return recordEnd;
+    }
+
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Decode a single field of the current record
+     * Quotes are resolved the way CSVReader does (see unquote())
+     *
+     * @param index 0-based field index
+     * @param charset Input encoding
+     * @return Field value
+     */
+    public String field(int index, Charset charset) {
+        int start = fieldStarts[index];
+        int end = fieldEnds[index];
+        if (!fieldQuoted[index]) {
+            return new String(buf, start, end - start, charset);
+        }
+        // unquote() may replace the buffer, so call it before reading the field
+        int length = unquote(start, end, charset);
+        return new String(unquoted, 0, length, charset);
+    }
+
+    /**
+     * Create a view of the current record for ValidationEngine.validate(RowView)
+     * The view follows the scanner, create it once and reuse it for every record
+     * ASCII-only fields are handed out without copying, other fields are decoded on request
+     *
+     * @param charset Input encoding
+     * @return Row view of the current record
+     */
+    public RowView rowView(Charset charset) {
+        AsciiFieldView fieldView = new AsciiFieldView(charset);
+        return new RowView() {
+            @Override
+            public int fieldCount() {
+                return fieldCount;
+            }
+
+            @Override
+            public CharSequence field(int index) {
+                int start = fieldStarts[index];
+                int end = fieldEnds[index];
+                if (!fieldQuoted[index]) {
+                    return fieldView.wrap(buf, start, end);
+                }
+                int length = unquote(start, end, charset);
+                return fieldView.wrap(unquoted, 0, length);
+            }
+        };
+    }
+
+    /**
+     * Copy the value of a field with quotes into the unquote buffer, the way CSVParser reads it
+     * (default settings, NULL_CHARACTER as escape character):
+     * - A quote toggles the quote state, "" inside quotes or in the middle of a field is one quote
+     * - A toggling quote in the middle of a line (at least 3 characters into it, not next to a
+     *   separator or line end) is kept as well, or drops the field content if that is only whitespace
+     * - A line end inside quotes ("\r\n", "\r" or "\n") becomes "\n"
+     *
+     * @return Number of bytes in the unquote buffer
+     */
+    private int unquote(int start, int end, Charset charset) {
+        if (unquoted.length < end - start) {
+            unquoted = new byte[Math.max(end - start, unquoted.length * 2)];
+        }
+        byte[] b = buf;
+        int length = 0;
+        boolean quoted = false;
+        // CSVParser.inField - set by content, flipped by every quote
+        boolean inField = false;
+        for (int i = start; i < end; i++) {
+            byte c = b[i];
+            if (c == QUOTE) {
+                if ((quoted || inField) && i + 1 < end && b[i + 1] == QUOTE) {
+                    unquoted[length++] = QUOTE;
+                    i++;
+                } else {
+                    quoted = !quoted;
+                    if (i > start && i + 1 < end && isMidLine(b, i, charset)) {
+                        if (length > 0 && isWhitespace(length, charset)) {
+                            length = 0;
+                        } else {
+                            unquoted[length++] = QUOTE;
+                        }
+                    }
+                }
+                inField = !inField;
+            } else if (quoted && (c == '\r' || c == NEWLINE)) {
+                unquoted[length++] = NEWLINE;
+                if (c == '\r' && i + 1 < end && b[i + 1] == NEWLINE) {
+                    i++;
+                }
+            } else {
+                unquoted[length++] = c;
+                inField = true;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Check whether the quote at b[quote] is neither next to a separator or line end
+     * nor within the first 3 characters of its line (CSVParser counts chars, not bytes)
+     */
+    private boolean isMidLine(byte[] b, int quote, Charset charset) {
+        if (isBoundary(b[quote - 1]) || isBoundary(b[quote + 1])) {
+            return false;
+        }
+        boolean utf8 = charset.equals(StandardCharsets.UTF_8);
+        int chars = 0;
+        for (int i = quote - 1; i >= recordStart && chars < 3; i--) {
+            byte c = b[i];
+            if (c == '\r' || c == NEWLINE) {
+                break;
+            }
+            if (!utf8 || (c & 0xC0) != 0x80) {
+                // A 4-byte UTF-8 sequence is a surrogate pair, two chars
+                chars += utf8 && (c & 0xF8) == 0xF0 ? 2 : 1;
+            }
+        }
+        return chars >= 3;
+    }
+
+    private static boolean isBoundary(byte c) {
+        return c == SEPARATOR || c == '\r' || c == NEWLINE;
+    }
+
+    /**
+     * @return true if the first length bytes of the unquote buffer are all whitespace
+     */
+    private boolean isWhitespace(int length, Charset charset) {
+        for (int i = 0; i < length; i++) {
+            if (unquoted[i] < 0) {
+                return new String(unquoted, 0, length, charset).isBlank();
+            }
+            if (!Character.isWhitespace(unquoted[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copy the raw bytes of the current record (without terminator) to an output stream
+     * Quotes and embedded line ends are kept exactly as in the input
+     */
+    public void writeRecord(OutputStream out) throws IOException {
+        out.write(buf, recordStart, recordEnd - recordStart);
+    }
+
+    /**
+     * Copy the raw bytes of a single field of the current record to an output stream
+     * A quoted field keeps its quotes, so it stays a valid CSV field
+     *
+     * @param index 0-based field index
+     */
+    public void writeField(int index, OutputStream out) throws IOException {
+        out.write(buf, fieldStarts[index], fieldEnds[index] - fieldStarts[index]);
+    }
+
+    private void addField(int start, int end, boolean hasQuote) {
+        if (fieldCount == fieldStarts.length) {
+            fieldStarts = Arrays.copyOf(fieldStarts, fieldCount * 2);
+            fieldEnds = Arrays.copyOf(fieldEnds, fieldCount * 2);
+            fieldQuoted = Arrays.copyOf(fieldQuoted, fieldCount * 2);
+        }
+        fieldStarts[fieldCount] = start;
+        fieldEnds[fieldCount] = end;
+        fieldQuoted[fieldCount] = hasQuote;
+        fieldCount++;
+    }
+
+    /**
+     * Compact unread bytes to the front of the buffer (growing it if full) and read more data
+     * Unread bytes start at the current record, so a record that is being scanned stays in the buffer
+     *
+     * @return Number of bytes the buffered data was shifted left by
+     */
+    private int fill() throws IOException {
+        int shift = pos;
+        if (shift > 0) {
+            System.arraycopy(buf, shift, buf, 0, limit - shift);
+            limit -= shift;
+            pos = 0;
+            discarded += shift;
+        }
+
+        if (limit == buf.length) {
+            buf = Arrays.copyOf(buf, buf.length * 2);
+        }
+
+        int read = in.read(buf, limit, buf.length - limit);
+        if (read < 0) {
+            eof = true;
+        } else {
+            limit += read;
+        }
+        return shift;
+    }
+}
@@ -0,0 +1,392 @@
+package com.filefilter.processor.scanner;
+
+import com.filefilter.validator.RowView;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Byte-level line and delimiter scanner for delimited text files
+ *
+ * Scans raw bytes for line terminators and the delimiter, and records field
+ * offsets in reusable int arrays - no String, String[] or regex is created per line.
+ * With SIMD support (see SimdSupport) line ends and single-byte delimiters are located
+ * through 64-byte bitmasks instead of byte by byte.
+ * Fields are only decoded on request via field() or rowView(), and the raw line bytes can be
+ * copied to an output stream without re-encoding.
+ *
+ * Line terminators follow BufferedReader.readLine(): "\n", "\r" or "\r\n".
+ * Field splitting follows String.split(Pattern.quote(delimiter), -1).
+ *
+ * Only safe for encodings where the delimiter and line terminators can never appear
+ * inside a multi-byte character - see isSupported().
+ * Not thread-safe - one scanner per input stream.
+ */
+public final class DelimitedLineScanner {
+
+    private static final int INITIAL_FIELD_CAPACITY = 64;
+
+    private final InputStream in;
+    private final byte[] delimiter;
+
+    /**
+     * Nullable - if null, bytes are scanned one by one
+     */
+    private final ByteMasks masks;
+
+    private byte[] buf;
+    private int limit;
+    private int pos;
+    private boolean eof;
+
+    /**
+     * Bytes dropped from the front of the buffer so far
+     */
+    private long discarded;
+
+    private int lineStart;
+    private int lineEnd;
+
+    private int fieldCount;
+    private int[] fieldStarts = new int[INITIAL_FIELD_CAPACITY];
+    private int[] fieldEnds = new int[INITIAL_FIELD_CAPACITY];
+
+    /**
+     * @param in Input stream (not closed by the scanner)
+     * @param delimiter Encoded delimiter bytes (must not be empty)
+     * @param bufferSize Initial buffer size, grows automatically for longer lines
+     */
+    public DelimitedLineScanner(InputStream in, byte[] delimiter, int bufferSize) {
+        this(in, delimiter, bufferSize, SimdSupport.MASKS);
+    }
+
+    /**
+     * @param masks Block scanning to use instead of SimdSupport.MASKS (null for the scalar loops only)
+     */
+    DelimitedLineScanner(InputStream in, byte[] delimiter, int bufferSize, ByteMasks masks) {
+        if (delimiter.length == 0) {
+            throw new IllegalArgumentException("Delimiter must not be empty");
+        }
+        this.in = in;
+        this.delimiter = delimiter.clone();
+        this.masks = masks;
+        this.buf = new byte[bufferSize];
+    }
+
+    /**
+     * Scan an in-memory block without copying it
+     *
+     * @param data Complete data (for example one chunk of a file)
+     * @param delimiter Encoded delimiter bytes (must not be empty)
+     */
+    public DelimitedLineScanner(byte[] data, byte[] delimiter) {
+        this(data, delimiter, SimdSupport.MASKS);
+    }
+
+    /**
+     * @param masks Block scanning to use instead of SimdSupport.MASKS (null for the scalar loops only)
+     */
+    DelimitedLineScanner(byte[] data, byte[] delimiter, ByteMasks masks) {
+        if (delimiter.length == 0) {
+            throw new IllegalArgumentException("Delimiter must not be empty");
+        }
+        this.in = InputStream.nullInputStream();
+        this.delimiter = delimiter.clone();
+        this.masks = masks;
+        this.buf = data;
+        this.limit = data.length;
+        this.eof = true;
+    }
+
+    /**
+     * Check whether byte scanning is safe for the given encoding and delimiter
+     * True for UTF-8 and ASCII-compatible single-byte encodings (ISO-8859-x, windows-125x, ...)
+     *
+     * @param charset Input encoding
+     * @param delimiter Delimiter string
+     * @return true if the byte scanner produces the same result as decoding first
+     */
+    public static boolean isSupported(Charset charset, String delimiter) {
+        if (delimiter == null || delimiter.isEmpty() || !charset.canEncode()) {
+            return false;
+        }
+
+        boolean byteSafe = charset.equals(StandardCharsets.UTF_8)
+                || charset.newEncoder().maxBytesPerChar() == 1.0f;
+
+        // Terminators must keep their ASCII values (rules out EBCDIC and similar)
+        return byteSafe && Arrays.equals("\r\n".getBytes(charset), new byte[]{'\r', '\n'});
+    }
+
+    /**
+     * Advance to the next line and split it into fields
+     *
+     * @return false at end of input
+     * @throws IOException if reading fails
+     */
+    public boolean nextLine() throws IOException {
+        int scanFrom = pos;
+
+        while (true) {
+            int terminator = findTerminator(scanFrom);
+
+            if (terminator >= 0) {
+                // "\r" at the end of the buffer may be the first half of "\r\n"
+                if (buf[terminator] == '\r' && terminator + 1 == limit && !eof) {
+                    scanFrom = terminator - fill();
+                    continue;
+                }
+
+                lineStart = pos;
+                lineEnd = terminator;
+                pos = terminator + 1;
+                if (buf[terminator] == '\r' && pos < limit && buf[pos] == '\n') {
+                    pos++;
+                }
+                splitFields();
+                return true;
+            }
+
+            if (eof) {
+                if (pos >= limit) {
+                    return false;
+                }
+                // Last line without terminator
+                lineStart = pos;
+                lineEnd = limit;
+                pos = limit;
+                splitFields();
+                return true;
+            }
+
+            scanFrom = limit - fill();
+        }
+    }
+
+    /**
+     * Use a standalone line as the current line and split it into fields
+     * Replaces the scanner's buffer, so only for scanners over in-memory data
+     *
+     * @param line Raw line bytes without terminator
+     */
+    public void scanLine(byte[] line) {
+        buf = line;
+        limit = line.length;
+        pos = limit;
+        lineStart = 0;
+        lineEnd = limit;
+        splitFields();
+    }
+
+    /**
+     * @return Buffer holding the current line (valid until the next call to nextLine())
+     */
+    public byte[] buffer() {
+        return buf;
+    }
+
+    /**
+     * @return Number of bytes consumed from the input, up to and including the terminator of the current line
+     */
+    public long position() {
+        return discarded + pos;
+    }
+
+    public int lineStart() {
+        return lineStart;
+    }
+
+    public int lineEnd() {
+        return lineEnd;
+    }
+
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * @param index 0-based field index
+     * @return Offset of the first byte of the field in buffer()
+     */
+    public int fieldStart(int index) {
+        return fieldStarts[index];
+    }
+
+    /**
+     * @param index 0-based field index
+     * @return Offset after the last byte of the field in buffer()
+     */
+    public int fieldEnd(int index) {
+        return fieldEnds[index];
+    }
+
+    /**
+     * Decode a single field of the current line
+     *
+     * @param index 0-based field index
+     * @param charset Input encoding
+     * @return Field value
+     */
+    public String field(int index, Charset charset) {
+        int start = fieldStarts[index];
+        return new String(buf, start, fieldEnds[index] - start, charset);
+    }
+
+    /**
+     * Create a view of the current line for ValidationEngine.validate(RowView)
+     * The view follows the scanner, create it once and reuse it for every line
+     * ASCII-only fields are handed out without copying, other fields are decoded on request
+     *
+     * @param charset Input encoding
+     * @return Row view of the current line
+     */
+    public RowView rowView(Charset charset) {
+        AsciiFieldView fieldView = new AsciiFieldView(charset);
+        return new RowView() {
+            @Override
+            public int fieldCount() {
+                return fieldCount;
+            }
+
+            @Override
+            public CharSequence field(int index) {
+                return fieldView.wrap(buf, fieldStarts[index], fieldEnds[index]);
+            }
+        };
+    }
+
+    /**
+     * Decode the whole current line (without terminator)
+     */
+    public String line(Charset charset) {
+        return new String(buf, lineStart, lineEnd - lineStart, charset);
+    }
+
+    /**
+     * Copy the raw bytes of the current line (without terminator) to an output stream
+     */
+    public void writeLine(OutputStream out) throws IOException {
+        out.write(buf, lineStart, lineEnd - lineStart);
+    }
+
+    /**
+     * Find the next '\n' or '\r' at or after the given offset
+     *
+     * @return Offset of the terminator, or -1 if none in the buffered data
+     */
+    private int findTerminator(int from) {
+        byte[] b = buf;
+        int i = from;
+        if (masks != null) {
+            for (; i < limit && i + ByteMasks.BLOCK <= b.length; i += ByteMasks.BLOCK) {
+                long mask = masks.mask(b, i, (byte) '\n', (byte) '\r', (byte) '\r')
+                        & ByteMasks.firstBits(limit - i);
+                if (mask != 0) {
+                    return i + Long.numberOfTrailingZeros(mask);
+                }
+            }
+        }
+        for (; i < limit; i++) {
+            byte c = b[i];
+            if (c == '\n' || c == '\r') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Split the current line into field offsets
+     */
+    private void splitFields() {
+        fieldCount = 0;
+        int start = lineStart;
+        byte[] b = buf;
+
+        if (delimiter.length == 1) {
+            byte d = delimiter[0];
+            int i = lineStart;
+            if (masks != null) {
+                for (; i < lineEnd && i + ByteMasks.BLOCK <= b.length; i += ByteMasks.BLOCK) {
+                    long mask = masks.mask(b, i, d) & ByteMasks.firstBits(lineEnd - i);
+                    while (mask != 0) {
+                        int found = i + Long.numberOfTrailingZeros(mask);
+                        addField(start, found);
+                        start = found + 1;
+                        mask &= mask - 1;
+                    }
+                }
+            }
+            for (; i < lineEnd; i++) {
+                if (b[i] == d) {
+                    addField(start, i);
+                    start = i + 1;
+                }
+            }
+        } else {
+            int last = lineEnd - delimiter.length;
+            int i = lineStart;
+            while (i <= last) {
+                if (matchesDelimiter(i)) {
+                    addField(start, i);
+                    i += delimiter.length;
+                    start = i;
+                } else {
+                    i++;
+                }
+            }
+        }
+
+        addField(start, lineEnd);
+    }
+
+    private boolean matchesDelimiter(int offset) {
+        for (int j = 0; j < delimiter.length; j++) {
+            if (buf[offset + j] != delimiter[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void addField(int start, int end) {
+        if (fieldCount == fieldStarts.length) {
+            fieldStarts = Arrays.copyOf(fieldStarts, fieldCount * 2);
+            fieldEnds = Arrays.copyOf(fieldEnds, fieldCount * 2);
+        }
+        fieldStarts[fieldCount] = start;
+        fieldEnds[fieldCount] = end;
+        fieldCount++;
+    }
+
+    /**
+     * Compact unread bytes to the front of the buffer (growing it if full) and read more data
+     *
+     * @return Number of bytes the buffered data was shifted left by
+     */
+    private int fill() throws IOException {
+        int shift = pos;
+        if (shift > 0) {
+            System.arraycopy(buf, shift, buf, 0, limit - shift);
+            limit -= shift;
+            pos = 0;
+            discarded += shift;
+        }
+
+        if (limit == buf.length) {
+            buf = Arrays.copyOf(buf, buf.length * 2);
+        }
+
+        int read = in.read(buf, limit, buf.length - limit);
+        if (read < 0) {
+            eof = true;
+        } else {
+            limit += read;
+        }
+        return shift;
+    }
+}
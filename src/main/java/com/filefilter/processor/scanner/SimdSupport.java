@@ -0,0 +1,49 @@
+package com.filefilter.processor.scanner;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Loads the SIMD ByteMasks shared by all scanners, if the JVM supports it
+ *
+ * SIMD scanning is used when the JVM runs with --add-modules jdk.incubator.vector and the CPU
+ * offers vectors of at least 16 bytes, unless disabled with -Dfilefilter.simd=false.
+ * Otherwise MASKS is null and the scanners use their scalar loops - the results are identical.
+ */
+@Slf4j
+final class SimdSupport {
+
+    private static final String VECTOR_CLASS = "com.filefilter.processor.scanner.VectorByteMasks";
+
+    /**
+     * Nullable - if null, SIMD scanning is not available
+     */
+    static final ByteMasks MASKS = load();
+
+    private SimdSupport() {
+        // Private constructor to prevent instantiation
+    }
+
+    private static ByteMasks load() {
+        if (!Boolean.parseBoolean(System.getProperty("filefilter.simd", "true"))) {
+            log.info("Byte scanning: scalar (disabled by filefilter.simd=false)");
+            return null;
+        }
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            log.debug("Byte scanning: scalar (start with --add-modules jdk.incubator.vector for SIMD)");
+            return null;
+        }
+        try {
+            ByteMasks masks = (ByteMasks) Class.forName(VECTOR_CLASS).getDeclaredConstructor().newInstance();
+            log.info("Byte scanning: {}", masks.describe());
+            return masks;
+        } catch (InvocationTargetException e) {
+            log.info("Byte scanning: scalar ({})", e.getCause().getMessage());
+            return null;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            log.info("Byte scanning: scalar (Vector API unavailable: {})", e.toString());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.filefilter.processor.scanner;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * ByteMasks with the JDK Vector API
+ *
+ * A 64-byte block is one vector compare with AVX-512 and two with AVX2; the lane masks are
+ * converted to bits with VectorMask.toLong().
+ *
+ * Needs the incubator module at runtime (java --add-modules jdk.incubator.vector), so it is only
+ * loaded reflectively by SimdSupport - no other class may reference it directly.
+ */
+final class VectorByteMasks implements ByteMasks {
+
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+
+    /**
+     * Vectors narrower than this are no faster than the scalar loops
+     */
+    private static final int MIN_LANES = 16;
+
+    VectorByteMasks() {
+        if (SPECIES.length() < MIN_LANES || BLOCK % SPECIES.length() != 0) {
+            throw new UnsupportedOperationException("Unsuitable vector width: " + SPECIES.length() + " bytes");
+        }
+    }
+
+    @Override
+    public long mask(byte[] b, int offset, byte value) {
+        long mask = 0;
+        for (int part = 0; part < BLOCK; part += SPECIES.length()) {
+            mask |= ByteVector.fromArray(SPECIES, b, offset + part)
+                    .compare(VectorOperators.EQ, value)
+                    .toLong() << part;
+        }
+        return mask;
+    }
+
+    @Override
+    public long mask(byte[] b, int offset, byte v1, byte v2, byte v3) {
+        long mask = 0;
+        for (int part = 0; part < BLOCK; part += SPECIES.length()) {
+            ByteVector v = ByteVector.fromArray(SPECIES, b, offset + part);
+            mask |= v.compare(VectorOperators.EQ, v1)
+                    .or(v.compare(VectorOperators.EQ, v2))
+                    .or(v.compare(VectorOperators.EQ, v3))
+                    .toLong() << part;
+        }
+        return mask;
+    }
+
+    @Override
+    public String describe() {
+        return "SIMD (" + SPECIES.length() + "-byte vectors)";
+    }
+}
@@ -0,0 +1,345 @@
+package com.filefilter.service;
+
+import com.filefilter.factory.FileProcessorFactory;
+import com.filefilter.model.FilterConfig;
+import com.filefilter.model.ServiceConfig;
+import com.filefilter.processor.base.ProcessingResult;
+import com.filefilter.util.ConfigCache;
+import com.filefilter.validator.ValidationEngine;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Service mode - keeps the JVM running and processes files dropped into a watched directory
+ *
+ * Saves JVM startup and warm-up per file: the validation rules are compiled once, JIT-compiled
+ * code stays hot between files and every file goes through the regular FileProcessorFactory processors.
+ *
+ * - A WatchService reports new and modified files of the input directory
+ * - A file is queued once its size and modification time did not change for settleMillis
+ *   (files that are still being copied are not picked up)
+ * - Worker threads take files from a bounded queue, a full queue holds new files back
+ * - Processed files are moved to the done directory, files that failed to the failed directory
+ *
+ * Files already in the directory at startup are processed as well.
+ * Runs until stop() is called (e.g. by the shutdown hook installed by Main on Ctrl+C / SIGTERM).
+ */
+@Slf4j
+public class FilterService {
+
+    private static final long POLL_MILLIS = 200;
+
+    private final FilterConfig config;
+    private final ServiceConfig service;
+    private final FileProcessorFactory factory = new FileProcessorFactory();
+
+    private final Path inputDirectory;
+    private final Path doneDirectory;
+    private final Path failedDirectory;
+    private final PathMatcher matcher;
+    private final long settleNanos;
+
+    /**
+     * Files waiting for a worker, with the time they were detected
+     */
+    private final BlockingQueue<QueuedFile> queue;
+
+    /**
+     * Files detected but not yet settled - only used by the watching thread
+     */
+    private final Map<Path, PendingFile> pending = new HashMap<>();
+
+    /**
+     * Files queued or being processed, never queued twice
+     */
+    private final Set<Path> inFlight = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Engine of the last processed file, the next file starts from its compiled rules and check order
+     */
+    private final AtomicReference<ValidationEngine> engine;
+
+    private final AtomicLong processedFiles = new AtomicLong();
+    private final AtomicLong failedFiles = new AtomicLong();
+    private final AtomicLong processedRecords = new AtomicLong();
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private volatile boolean running = true;
+
+    private record QueuedFile(Path path, long detectedNanos) {
+    }
+
+    private static final class PendingFile {
+        final long detectedNanos;
+        long size;
+        long modified;
+        long lastChangeNanos;
+
+        PendingFile(long detectedNanos, long size, long modified) {
+            this.detectedNanos = detectedNanos;
+            this.size = size;
+            this.modified = modified;
+            this.lastChangeNanos = detectedNanos;
+        }
+    }
+
+    /**
+     * Compile the validation rules and resolve the service directories
+     *
+     * @param config Filter configuration with service settings (inputFile is ignored)
+     * @throws IllegalArgumentException if a validation rule is invalid
+     */
+    public FilterService(FilterConfig config) {
+        this.config = config;
+        this.service = config.getService();
+        this.inputDirectory = Paths.get(service.getInputDirectory());
+        this.doneDirectory = service.getDoneDirectory() != null
+                ? Paths.get(service.getDoneDirectory())
+                : inputDirectory.resolve("done");
+        this.failedDirectory = service.getFailedDirectory() != null
+                ? Paths.get(service.getFailedDirectory())
+                : inputDirectory.resolve("failed");
+        this.matcher = inputDirectory.getFileSystem().getPathMatcher(
+                "glob:" + (service.getPattern() != null ? service.getPattern() : "*"));
+        this.settleNanos = TimeUnit.MILLISECONDS.toNanos(
+                service.getSettleMillis() != null && service.getSettleMillis() >= 0 ? service.getSettleMillis() : 1000);
+        this.queue = new ArrayBlockingQueue<>(
+                service.getQueueCapacity() != null && service.getQueueCapacity() > 0 ? service.getQueueCapacity() : 100);
+
+        // Compile once - invalid rules fail at startup, not with the first file
+        this.engine = new AtomicReference<>(ConfigCache.shared().getEngine(config));
+    }
+
+    /**
+     * Watch the input directory and process files until stop() is called
+     *
+     * @throws IOException if the directories cannot be created or watched
+     */
+    public void run() throws IOException, InterruptedException {
+        try {
+            watch();
+        } finally {
+            running = false;
+            stopped.countDown();
+        }
+    }
+
+    /**
+     * Stop watching and wait until the files in progress are finished
+     */
+    public void stop() throws InterruptedException {
+        running = false;
+        stopped.await();
+    }
+
+    private void watch() throws IOException, InterruptedException {
+        int threads = service.getWorkerThreads() != null && service.getWorkerThreads() > 0
+                ? service.getWorkerThreads()
+                : 2;
+        Files.createDirectories(doneDirectory);
+        Files.createDirectories(failedDirectory);
+
+        log.info("Service mode: watching {} for '{}', {} worker(s), done: {}, failed: {}",
+                inputDirectory, service.getPattern(), threads, doneDirectory, failedDirectory);
+
+        AtomicLong workerNumber = new AtomicLong();
+        ExecutorService workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "service-worker-" + workerNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < threads; i++) {
+            workers.submit(this::workLoop);
+        }
+
+        try (WatchService watcher = inputDirectory.getFileSystem().newWatchService()) {
+            inputDirectory.register(watcher, ENTRY_CREATE, ENTRY_MODIFY);
+            scanDirectory();
+
+            while (running) {
+                WatchKey key = watcher.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == OVERFLOW) {
+                            // Events were lost - look at the whole directory again
+                            scanDirectory();
+                        } else {
+                            track(inputDirectory.resolve((Path) event.context()));
+                        }
+                    }
+                    if (!key.reset()) {
+                        throw new IOException("Input directory is no longer accessible: " + inputDirectory);
+                    }
+                }
+                queueSettledFiles();
+            }
+        } finally {
+            running = false;
+            workers.shutdown();
+            // Workers finish their current file, queued files stay in the input directory for the next start
+            while (!workers.awaitTermination(1, TimeUnit.SECONDS)) {
+                log.info("Waiting for {} file(s) in progress", inFlight.size() - queue.size());
+            }
+            log.info("Service stopped: files={}, failedFiles={}, totalRecords={}",
+                    processedFiles.get(), failedFiles.get(), processedRecords.get());
+        }
+    }
+
+    /**
+     * Register all matching files of the input directory
+     */
+    private void scanDirectory() throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(inputDirectory)) {
+            for (Path path : stream) {
+                track(path);
+            }
+        }
+    }
+
+    /**
+     * Start or continue watching a file until it has settled
+     */
+    private void track(Path path) {
+        if (!matcher.matches(path.getFileName()) || inFlight.contains(path) || !Files.isRegularFile(path)) {
+            return;
+        }
+        PendingFile file = pending.get(path);
+        if (file != null) {
+            if (!refresh(path, file)) {
+                pending.remove(path);
+            }
+            return;
+        }
+        try {
+            pending.put(path, new PendingFile(System.nanoTime(),
+                    Files.size(path), Files.getLastModifiedTime(path).toMillis()));
+        } catch (IOException e) {
+            log.debug("File disappeared before it could be tracked: {}", path);
+        }
+    }
+
+    /**
+     * Update size and modification time of a tracked file
+     *
+     * @return false if the file no longer exists
+     */
+    private static boolean refresh(Path path, PendingFile file) {
+        try {
+            long size = Files.size(path);
+            long modified = Files.getLastModifiedTime(path).toMillis();
+            if (file.size != size || file.modified != modified) {
+                file.size = size;
+                file.modified = modified;
+                file.lastChangeNanos = System.nanoTime();
+            }
+            return true;
+        } catch (IOException e) {
+            // Deleted or moved in the meantime
+            return false;
+        }
+    }
+
+    /**
+     * Queue files that did not change for settleMillis
+     * Blocks while the queue is full (back-pressure to the watcher)
+     */
+    private void queueSettledFiles() throws InterruptedException {
+        long now = System.nanoTime();
+        Iterator<Map.Entry<Path, PendingFile>> iterator = pending.entrySet().iterator();
+
+        while (iterator.hasNext() && running) {
+            Map.Entry<Path, PendingFile> entry = iterator.next();
+            Path path = entry.getKey();
+            PendingFile file = entry.getValue();
+
+            // Changes are normally reported by the watcher, re-check for file systems that miss some
+            if (!refresh(path, file)) {
+                iterator.remove();
+                continue;
+            }
+            if (now - file.lastChangeNanos < settleNanos) {
+                continue;
+            }
+
+            inFlight.add(path);
+            iterator.remove();
+            while (!queue.offer(new QueuedFile(path, file.detectedNanos), POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (!running) {
+                    inFlight.remove(path);
+                    return;
+                }
+            }
+        }
+    }
+
+    private void workLoop() {
+        while (running) {
+            try {
+                QueuedFile file = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (file != null) {
+                    try {
+                        processFile(file);
+                    } finally {
+                        inFlight.remove(file.path());
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Service worker error: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Process one file and move it to the done or failed directory
+     */
+    private void processFile(QueuedFile file) {
+        Path path = file.path();
+        long startNanos = System.nanoTime();
+        boolean success = false;
+        ProcessingResult result = null;
+
+        try {
+            ValidationEngine fileEngine = engine.get().forNextRun();
+            result = factory.getProcessor(config.getFileType())
+                    .process(config.withInputFile(path.toString()), fileEngine);
+            engine.set(fileEngine);
+            success = true;
+        } catch (Exception e) {
+            log.error("Failed to process {}: {}", path, e.getMessage());
+        }
+
+        Path target = (success ? doneDirectory : failedDirectory).resolve(path.getFileName());
+        try {
+            Files.move(path, target, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.error("Could not move {} to {}: {}", path, target, e.getMessage());
+        }
+
+        long endNanos = System.nanoTime();
+        long processingMs = TimeUnit.NANOSECONDS.toMillis(endNanos - startNanos);
+        long queuedMs = TimeUnit.NANOSECONDS.toMillis(startNanos - file.detectedNanos());
+        long latencyMs = TimeUnit.NANOSECONDS.toMillis(endNanos - file.detectedNanos());
+
+        if (success) {
+            processedFiles.incrementAndGet();
+            processedRecords.addAndGet(result.getTotalRecords());
+            log.info("service, file={}, {}ms, waited={}ms, latency={}ms, totalRecords={}, throughput={}/s, success=true",
+                    path.getFileName(), processingMs, queuedMs, latencyMs, result.getTotalRecords(),
+                    processingMs > 0 ? result.getTotalRecords() * 1000 / processingMs : result.getTotalRecords());
+        } else {
+            failedFiles.incrementAndGet();
+            log.error("service, file={}, {}ms, waited={}ms, latency={}ms, success=false",
+                    path.getFileName(), processingMs, queuedMs, latencyMs);
+        }
+    }
+}
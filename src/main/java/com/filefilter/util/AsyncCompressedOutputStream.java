@@ -0,0 +1,160 @@
+package com.filefilter.util;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Output stream that compresses on a background thread
+ *
+ * The writing thread only copies bytes into fixed-size blocks. Full blocks are handed to a
+ * compressor thread through a bounded queue and recycled afterwards, so the validation loop
+ * is not slowed down by the codec. A full queue blocks the writer (back-pressure).
+ *
+ * flush() does not push partial blocks - all data is written to the file on close().
+ * Errors of the compressor thread are rethrown by the next write() or close().
+ * Not thread-safe - one writing thread per stream.
+ */
+public final class AsyncCompressedOutputStream extends OutputStream {
+
+    private static final int BLOCK_SIZE = 65536;
+    private static final int QUEUE_BLOCKS = 16;
+    private static final long POLL_MILLIS = 100;
+
+    /**
+     * Block of data, length 0 marks the end of the stream
+     */
+    private record Block(byte[] data, int length) {
+    }
+
+    private static final Block END = new Block(new byte[0], 0);
+
+    private final BlockingQueue<Block> filled = new ArrayBlockingQueue<>(QUEUE_BLOCKS);
+    private final BlockingQueue<byte[]> free = new ArrayBlockingQueue<>(QUEUE_BLOCKS + 1);
+    private final Thread compressor;
+
+    private byte[] block = new byte[BLOCK_SIZE];
+    private int count;
+    private boolean closed;
+    private volatile Throwable failure;
+
+    /**
+     * Create the file and start the compressor thread
+     *
+     * @param path Output file
+     * @param compression Compression format
+     * @throws IOException if the file cannot be created
+     */
+    public AsyncCompressedOutputStream(Path path, Compression compression) throws IOException {
+        OutputStream out = compression.compress(new BufferedOutputStream(Files.newOutputStream(path), BLOCK_SIZE));
+        this.compressor = new Thread(() -> compressLoop(out), "compress-" + path.getFileName());
+        compressor.setDaemon(true);
+        compressor.start();
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (count == block.length) {
+            handOff();
+        }
+        block[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            if (count == block.length) {
+                handOff();
+            }
+            int n = Math.min(len, block.length - count);
+            System.arraycopy(b, off, block, count, n);
+            count += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * Does not hand off partial blocks (keeps blocks large), data is written on close()
+     */
+    @Override
+    public void flush() throws IOException {
+        checkFailure();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            if (count > 0) {
+                handOff();
+            }
+            put(END);
+        } finally {
+            try {
+                compressor.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for compressor thread");
+            }
+        }
+        checkFailure();
+    }
+
+    /**
+     * Pass the current block to the compressor thread and continue with a recycled one
+     */
+    private void handOff() throws IOException {
+        checkFailure();
+        put(new Block(block, count));
+        byte[] recycled = free.poll();
+        block = recycled != null ? recycled : new byte[BLOCK_SIZE];
+        count = 0;
+    }
+
+    /**
+     * Enqueue a block, waiting while the queue is full unless the compressor has failed
+     */
+    private void put(Block next) throws IOException {
+        try {
+            while (!filled.offer(next, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                checkFailure();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing compressed output");
+        }
+    }
+
+    private void compressLoop(OutputStream out) {
+        try (OutputStream target = out) {
+            while (true) {
+                Block next = filled.take();
+                if (next == END) {
+                    break;
+                }
+                target.write(next.data(), 0, next.length());
+                free.offer(next.data());
+            }
+        } catch (Throwable t) {
+            failure = t;
+        }
+    }
+
+    private void checkFailure() throws IOException {
+        Throwable cause = failure;
+        if (cause != null) {
+            throw cause instanceof IOException io ? io : new IOException("Compression failed", cause);
+        }
+    }
+}
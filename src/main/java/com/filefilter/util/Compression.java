@@ -0,0 +1,123 @@
+package com.filefilter.util;
+
+import io.airlift.compress.zstd.ZstdInputStream;
+import io.airlift.compress.zstd.ZstdOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Supported stream compression formats
+ * gzip uses the JDK codec, zstd the pure-Java aircompressor codec
+ */
+public enum Compression {
+
+    NONE("", null),
+    GZIP(".gz", new byte[]{(byte) 0x1f, (byte) 0x8b}),
+    ZSTD(".zst", new byte[]{(byte) 0x28, (byte) 0xb5, (byte) 0x2f, (byte) 0xfd});
+
+    /**
+     * Number of leading bytes needed by detect()
+     */
+    public static final int MAGIC_LENGTH = 4;
+
+    private static final int BUFFER_SIZE = 65536;
+
+    private final String extension;
+    private final byte[] magic;
+
+    Compression(String extension, byte[] magic) {
+        this.extension = extension;
+        this.magic = magic;
+    }
+
+    /**
+     * @return File name extension including the dot ("" for NONE)
+     */
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Parse a configuration value: "none", "gzip" or "zstd" (case-insensitive)
+     *
+     * @param name Configuration value (null means NONE)
+     * @throws IllegalArgumentException for unknown values
+     */
+    public static Compression fromName(String name) {
+        if (name == null || name.isBlank()) {
+            return NONE;
+        }
+        return switch (name.trim().toLowerCase()) {
+            case "none" -> NONE;
+            case "gzip", "gz" -> GZIP;
+            case "zstd", "zst" -> ZSTD;
+            default -> throw new IllegalArgumentException("Unsupported compression: " + name);
+        };
+    }
+
+    /**
+     * Detect compression from the file name extension (".gz", ".zst")
+     */
+    public static Compression fromFileName(String fileName) {
+        String lower = fileName.toLowerCase();
+        for (Compression compression : values()) {
+            if (compression != NONE && lower.endsWith(compression.extension)) {
+                return compression;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Detect compression from the leading bytes of a file
+     *
+     * @param header First bytes of the file
+     * @param length Number of valid bytes in header
+     */
+    public static Compression detect(byte[] header, int length) {
+        for (Compression compression : values()) {
+            if (compression.magic != null && startsWith(header, length, compression.magic)) {
+                return compression;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Wrap a compressed stream into a decompressing stream
+     */
+    public InputStream decompress(InputStream in) throws IOException {
+        return switch (this) {
+            case NONE -> in;
+            case GZIP -> new GZIPInputStream(in, BUFFER_SIZE);
+            case ZSTD -> new ZstdInputStream(in);
+        };
+    }
+
+    /**
+     * Wrap an output stream into a compressing stream
+     */
+    public OutputStream compress(OutputStream out) throws IOException {
+        return switch (this) {
+            case NONE -> out;
+            case GZIP -> new GZIPOutputStream(out, BUFFER_SIZE);
+            case ZSTD -> new ZstdOutputStream(out);
+        };
+    }
+
+    private static boolean startsWith(byte[] header, int length, byte[] prefix) {
+        if (length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (header[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,210 @@
+package com.filefilter.util;
+
+import com.filefilter.model.FilterConfig;
+import com.filefilter.model.ValidationRule;
+import com.filefilter.validator.ValidationEngine;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of parsed configurations and compiled validation rules
+ *
+ * Configurations are keyed by the SHA-256 hash of their YAML content, so the same content
+ * is parsed once, whatever file it comes from. A configuration file is only read again when
+ * its modification time changes.
+ * Compiled ValidationEngines are keyed by the rule settings of a configuration (rules,
+ * modification times of value list files, expected column count, adaptive ordering),
+ * so files sharing a rule set compile it once;
+ * every caller gets its own engine with fresh counters (see ValidationEngine.forNextRun()).
+ *
+ * Returned configurations are shared - callers must not modify them (use withInputFile() for per-file copies).
+ * Thread-safe.
+ */
+@Slf4j
+public final class ConfigCache {
+
+    private static final int DEFAULT_MAX_ENTRIES = 32;
+
+    private static final ConfigCache SHARED = new ConfigCache(DEFAULT_MAX_ENTRIES);
+
+    /**
+     * Modification time and content hash of a loaded configuration file
+     */
+    private record FileStamp(long modified, String hash) {
+    }
+
+    private final Map<String, FileStamp> stamps;
+    private final Map<String, FilterConfig> configs;
+    private final Map<String, ValidationEngine> engines;
+
+    private long configHits;
+    private long configMisses;
+    private long engineHits;
+    private long engineMisses;
+
+    /**
+     * @param maxEntries Maximum number of configurations and of compiled rule sets kept
+     */
+    public ConfigCache(int maxEntries) {
+        this.stamps = lruMap(maxEntries);
+        this.configs = lruMap(maxEntries);
+        this.engines = lruMap(maxEntries);
+    }
+
+    /**
+     * @return Cache shared by all processors of this JVM
+     */
+    public static ConfigCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Load a configuration from a YAML file in resources (same lookup as ConfigLoader.load)
+     *
+     * @param resourcePath Path to YAML file in resources (e.g., "filter-config.yaml")
+     * @return Cached or newly parsed FilterConfig (shared, do not modify)
+     * @throws RuntimeException if file not found or parsing fails
+     */
+    public FilterConfig load(String resourcePath) {
+        URL url = ConfigCache.class.getClassLoader().getResource(resourcePath);
+        if (url == null) {
+            throw new RuntimeException("Configuration file not found: " + resourcePath);
+        }
+
+        try {
+            long modified = lastModified(url);
+
+            synchronized (this) {
+                FileStamp stamp = stamps.get(resourcePath);
+                if (stamp != null && stamp.modified() == modified) {
+                    FilterConfig config = configs.get(stamp.hash());
+                    if (config != null) {
+                        configHits++;
+                        return config;
+                    }
+                }
+            }
+
+            byte[] content;
+            try (InputStream inputStream = url.openStream()) {
+                content = inputStream.readAllBytes();
+            }
+            String hash = sha256(content);
+
+            synchronized (this) {
+                stamps.put(resourcePath, new FileStamp(modified, hash));
+                FilterConfig config = configs.get(hash);
+                if (config != null) {
+                    configHits++;
+                    return config;
+                }
+                configMisses++;
+                config = ConfigLoader.parse(new ByteArrayInputStream(content));
+                configs.put(hash, config);
+                return config;
+            }
+
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to load configuration from: " + resourcePath, e);
+        }
+    }
+
+    /**
+     * Get a validation engine for the rules of a configuration, compiling them on first use
+     *
+     * @param config Filter configuration
+     * @return New engine sharing the compiled rules, with counters for one run
+     * @throws IllegalArgumentException if a rule has an invalid column index or regex
+     */
+    public synchronized ValidationEngine getEngine(FilterConfig config) {
+        String key = rulesKey(config);
+        ValidationEngine engine = engines.get(key);
+        if (engine != null) {
+            engineHits++;
+        } else {
+            engineMisses++;
+            engine = new ValidationEngine(config);
+            engines.put(key, engine);
+        }
+        return engine.forNextRun();
+    }
+
+    /**
+     * Log hit and miss counters
+     */
+    public synchronized void logStats() {
+        log.info("Config cache: configs hits={}, misses={} ({}% hits), rule sets hits={}, misses={} ({}% hits)",
+                configHits, configMisses, hitRate(configHits, configMisses),
+                engineHits, engineMisses, hitRate(engineHits, engineMisses));
+    }
+
+    private static String hitRate(long hits, long misses) {
+        return String.format("%.1f", hits + misses > 0 ? hits * 100.0 / (hits + misses) : 0.0);
+    }
+
+    /**
+     * Modification time of a configuration file on the file system or inside a jar
+     */
+    private static long lastModified(URL url) throws IOException, URISyntaxException {
+        if ("file".equals(url.getProtocol())) {
+            return Files.getLastModifiedTime(Paths.get(url.toURI())).toMillis();
+        }
+        return url.openConnection().getLastModified();
+    }
+
+    /**
+     * Settings a compiled ValidationEngine depends on
+     */
+    private static String rulesKey(FilterConfig config) {
+        return "validations=" + config.getValidations()
+                + ";valueFiles=" + valueFileStamps(config)
+                + ";expectedTotalColumn=" + config.getExpectedTotalColumn()
+                + ";uniqueKeys=" + config.getUniqueKeys()
+                + ";adaptiveOrder=" + config.getAdaptiveOrder();
+    }
+
+    /**
+     * Modification times of the value list files of a configuration
+     * Part of the keys of compiled rules and saved processing state, so that a changed list is loaded again
+     */
+    public static String valueFileStamps(FilterConfig config) {
+        StringBuilder stamps = new StringBuilder();
+        if (config.getValidations() != null) {
+            for (ValidationRule rule : config.getValidations()) {
+                if (rule.getValueInListFile() != null && !rule.getValueInListFile().isEmpty()) {
+                    stamps.append(InputFileUtil.lastModified(rule.getValueInListFile())).append(',');
+                }
+            }
+        }
+        return stamps.toString();
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static <V> Map<String, V> lruMap(int maxEntries) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+}
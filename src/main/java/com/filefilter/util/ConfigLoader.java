@@ -28,15 +28,25 @@ public static FilterConfig load(String resourcePath) {
                 throw new RuntimeException("Configuration file not found: " + resourcePath);
             }
 
-            // SnakeYAML 2.x requires LoaderOptions for security
-            LoaderOptions loaderOptions = new LoaderOptions();
-            Constructor constructor = new Constructor(FilterConfig.class, loaderOptions);
-            Yaml yaml = new Yaml(constructor);
-
-            return yaml.load(inputStream);
+            return parse(inputStream);
 
         } catch (Exception e) {
             throw new RuntimeException("Failed to load configuration from: " + resourcePath, e);
         }
     }
+
+    /**
+     * Parse FilterConfig from YAML content
+     *
+     * @param inputStream YAML content (not closed)
+     * @return Parsed FilterConfig object
+     */
+    static FilterConfig parse(InputStream inputStream) {
+        // SnakeYAML 2.x requires LoaderOptions for security
+        LoaderOptions loaderOptions = new LoaderOptions();
+        Constructor constructor = new Constructor(FilterConfig.class, loaderOptions);
+        Yaml yaml = new Yaml(constructor);
+
+        return yaml.load(inputStream);
+    }
 }
@@ -6,10 +6,21 @@
  */
 public class FileNameUtil {
 
+    private static final String OUTPUT_DIR = "output/";
+
     private FileNameUtil() {
         // Private constructor to prevent instantiation
     }
 
+    /**
+     * Get the file name part of a path
+     * Example: "/data/landing/SampleData.csv" -> "SampleData.csv"
+     */
+    public static String getBaseName(String path) {
+        int lastSeparator = Math.max(path.lastIndexOf('/'), path.lastIndexOf('\\'));
+        return lastSeparator >= 0 ? path.substring(lastSeparator + 1) : path;
+    }
+
     /**
      * Get file name without extension
      * Example: "SampleData.csv" -> "data"
@@ -28,14 +39,29 @@ public static String getFileExtension(String fileName) {
         return lastDotIndex > 0 ? fileName.substring(lastDotIndex) : "";
     }
 
+    /**
+     * Remove a compression extension (".gz", ".zst") from a file name
+     * Example: "SampleData.csv.gz" -> "SampleData.csv"
+     */
+    public static String stripCompressionExtension(String fileName) {
+        Compression compression = Compression.fromFileName(fileName);
+        return fileName.substring(0, fileName.length() - compression.getExtension().length());
+    }
+
+    /**
+     * Replace the extension of a file name, dropping any compression extension
+     * Example: "/data/Book.xlsx.gz", ".csv" -> "Book.csv"
+     */
+    public static String replaceExtension(String path, String extension) {
+        return getFileNameWithoutExtension(stripCompressionExtension(getBaseName(path))) + extension;
+    }
+
     /**
      * Generate filtered output file name
      * Example: "SampleData.csv" -> "data_Filtered.csv"
      */
     public static String getFilteredFileName(String inputFileName) {
-        String baseName = getFileNameWithoutExtension(inputFileName);
-        String extension = getFileExtension(inputFileName);
-        return baseName + "_Filtered" + extension;
+        return getOutputFileName(inputFileName, "_Filtered", Compression.NONE);
     }
 
     /**
@@ -43,9 +69,7 @@ public static String getFilteredFileName(String inputFileName) {
      * Example: "SampleData.csv" -> "data_Rejected.csv"
      */
     public static String getRejectedFileName(String inputFileName) {
-        String baseName = getFileNameWithoutExtension(inputFileName);
-        String extension = getFileExtension(inputFileName);
-        return baseName + "_Rejected" + extension;
+        return getOutputFileName(inputFileName, "_Rejected", Compression.NONE);
     }
 
     /**
@@ -53,7 +77,7 @@ public static String getRejectedFileName(String inputFileName) {
      * Example: "SampleData.csv" -> "output/data_Filtered.csv"
      */
     public static String getFilteredFilePath(String inputFileName) {
-        return "output/" + getFilteredFileName(inputFileName);
+        return getFilteredFilePath(inputFileName, Compression.NONE);
     }
 
     /**
@@ -61,6 +85,57 @@ public static String getFilteredFilePath(String inputFileName) {
      * Example: "SampleData.csv" -> "output/data_Rejected.csv"
      */
     public static String getRejectedFilePath(String inputFileName) {
-        return "output/" + getRejectedFileName(inputFileName);
+        return getRejectedFilePath(inputFileName, Compression.NONE);
+    }
+
+    /**
+     * Generate filtered output file path for compressed output
+     * Example: "SampleData.csv.gz", GZIP -> "output/data_Filtered.csv.gz"
+     */
+    public static String getFilteredFilePath(String inputFileName, Compression compression) {
+        return OUTPUT_DIR + getOutputFileName(inputFileName, "_Filtered", compression);
+    }
+
+    /**
+     * Generate rejected output file path for compressed output
+     * Example: "SampleData.csv.gz", NONE -> "output/data_Rejected.csv"
+     */
+    public static String getRejectedFilePath(String inputFileName, Compression compression) {
+        return OUTPUT_DIR + getOutputFileName(inputFileName, "_Rejected", compression);
+    }
+
+    /**
+     * Generate the output file path of a route (see FilterConfig.routes)
+     * Example: "SampleData.csv", "Active", NONE -> "output/SampleData_Active.csv"
+     */
+    public static String getRouteFilePath(String inputFileName, String routeName, Compression compression) {
+        return OUTPUT_DIR + getOutputFileName(inputFileName, "_" + routeName, compression);
+    }
+
+    /**
+     * Generate checkpoint sidecar file path with output directory
+     * Example: "SampleData.csv" -> "output/SampleData.csv.checkpoint"
+     */
+    public static String getCheckpointFilePath(String inputFileName) {
+        return OUTPUT_DIR + getBaseName(inputFileName) + ".checkpoint";
+    }
+
+    /**
+     * Generate incremental state file path with output directory
+     * Example: "SampleData.csv" -> "output/SampleData.csv.incremental"
+     */
+    public static String getIncrementalStateFilePath(String inputFileName) {
+        return OUTPUT_DIR + getBaseName(inputFileName) + ".incremental";
+    }
+
+    /**
+     * Build an output name: base name + suffix + original extension + compression extension
+     * A compression extension of the input is not carried over
+     */
+    private static String getOutputFileName(String inputFileName, String suffix, Compression compression) {
+        String fileName = stripCompressionExtension(getBaseName(inputFileName));
+        String baseName = getFileNameWithoutExtension(fileName);
+        String extension = getFileExtension(fileName);
+        return baseName + suffix + extension + compression.getExtension();
     }
 }
@@ -0,0 +1,168 @@
+package com.filefilter.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Utility class for locating and opening input files
+ *
+ * The input file is looked up in this order:
+ * 1. File system path (absolute, or relative to the working directory)
+ * 2. Classpath resource under sourcefile/ (fallback, e.g. src/main/resources/sourcefile/)
+ *
+ * gzip and zstd compressed files are detected by their magic bytes and decompressed while reading.
+ */
+@Slf4j
+public class InputFileUtil {
+
+    private static final String RESOURCE_DIR = "sourcefile/";
+    private static final int BUFFER_SIZE = 65536;
+
+    private InputFileUtil() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Resolve the input file as a regular file on the file system
+     *
+     * @param inputFile File system path or resource name under sourcefile/
+     * @return Path to the file, or null if it only exists inside a jar (or not at all)
+     */
+    public static Path findFile(String inputFile) {
+        try {
+            Path path = Paths.get(inputFile);
+            if (Files.isRegularFile(path)) {
+                return path;
+            }
+        } catch (InvalidPathException e) {
+            log.debug("Not a valid file system path: {}", inputFile);
+        }
+
+        URL url = InputFileUtil.class.getClassLoader().getResource(RESOURCE_DIR + inputFile);
+        if (url == null || !"file".equals(url.getProtocol())) {
+            return null;
+        }
+
+        try {
+            Path path = Paths.get(url.toURI());
+            return Files.isRegularFile(path) ? path : null;
+        } catch (Exception e) {
+            log.debug("Input resource is not on the file system: {}", url, e);
+            return null;
+        }
+    }
+
+    /**
+     * Open the input file for sequential reading
+     * Files of at least mmapThresholdBytes are read through memory-mapped segments,
+     * compressed files are decompressed as a stream
+     *
+     * @param inputFile File system path or resource name under sourcefile/
+     * @param mmapThresholdBytes Minimum file size for memory mapping (negative to disable)
+     * @return Input stream (caller must close)
+     * @throws FileNotFoundException if the file is neither on the file system nor on the classpath
+     */
+    public static InputStream open(String inputFile, long mmapThresholdBytes) throws IOException {
+        Path path = findFile(inputFile);
+        if (path != null) {
+            Compression compression = detectCompression(path);
+            if (compression != Compression.NONE) {
+                log.info("Decompressing {} input {}", compression, path);
+            }
+            if (mmapThresholdBytes >= 0 && Files.size(path) >= mmapThresholdBytes) {
+                log.info("Reading {} through memory-mapped segments", path);
+                return compression.decompress(new MappedFileInputStream(path));
+            }
+            return compression.decompress(new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE));
+        }
+
+        // Fall back to classpath (e.g. packaged inside a jar)
+        InputStream inputStream = InputFileUtil.class.getClassLoader()
+                .getResourceAsStream(RESOURCE_DIR + inputFile);
+
+        if (inputStream == null) {
+            throw new FileNotFoundException("Input file not found: " + inputFile
+                    + " (also looked for classpath resource " + RESOURCE_DIR + inputFile + ")");
+        }
+
+        // Peek at the magic bytes of the resource
+        InputStream buffered = new BufferedInputStream(inputStream, BUFFER_SIZE);
+        buffered.mark(Compression.MAGIC_LENGTH);
+        byte[] header = buffered.readNBytes(Compression.MAGIC_LENGTH);
+        buffered.reset();
+        return Compression.detect(header, header.length).decompress(buffered);
+    }
+
+    /**
+     * Detect the compression of the input file from its magic bytes
+     *
+     * @param inputFile File system path or resource name under sourcefile/
+     * @return Compression format (NONE for plain files and files that cannot be inspected)
+     */
+    public static Compression detectCompression(String inputFile) throws IOException {
+        Path path = findFile(inputFile);
+        if (path != null) {
+            return detectCompression(path);
+        }
+        try (InputStream inputStream = InputFileUtil.class.getClassLoader()
+                .getResourceAsStream(RESOURCE_DIR + inputFile)) {
+            if (inputStream == null) {
+                return Compression.fromFileName(inputFile);
+            }
+            byte[] header = inputStream.readNBytes(Compression.MAGIC_LENGTH);
+            return Compression.detect(header, header.length);
+        }
+    }
+
+    private static Compression detectCompression(Path path) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            byte[] header = inputStream.readNBytes(Compression.MAGIC_LENGTH);
+            return Compression.detect(header, header.length);
+        }
+    }
+
+    /**
+     * Modification time of the file, used to detect changed files between runs
+     *
+     * @param inputFile File system path or resource name under sourcefile/
+     * @return Modification time in milliseconds, or 0 if the file is not on the file system
+     */
+    public static long lastModified(String inputFile) {
+        Path path = findFile(inputFile);
+        if (path == null) {
+            return 0;
+        }
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            log.debug("Cannot read modification time of {}", path, e);
+            return 0;
+        }
+    }
+
+    /**
+     * Describe where the input file is read from (for logging)
+     *
+     * @param inputFile File system path or resource name under sourcefile/
+     * @return Absolute path, classpath location, or "not found" note
+     */
+    public static String describe(String inputFile) {
+        Path path = findFile(inputFile);
+        if (path != null) {
+            return path.toAbsolutePath().normalize().toString();
+        }
+        if (InputFileUtil.class.getClassLoader().getResource(RESOURCE_DIR + inputFile) != null) {
+            return "classpath:" + RESOURCE_DIR + inputFile;
+        }
+        return inputFile + " (not found)";
+    }
+}
@@ -0,0 +1,105 @@
+package com.filefilter.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * InputStream over a file read through memory-mapped segments
+ *
+ * The file is mapped segment by segment with FileChannel.map, so reads are served
+ * from the OS page cache without read() system calls. Segments are released by the
+ * garbage collector once the stream moves past them.
+ */
+public class MappedFileInputStream extends InputStream {
+
+    /**
+     * Size of a single mapped segment (MappedByteBuffer is limited to 2 GB)
+     */
+    private static final long SEGMENT_SIZE = 256L * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long size;
+
+    private MappedByteBuffer segment;
+    private long segmentStart;
+
+    /**
+     * @param path File to read
+     * @throws IOException if the file cannot be opened
+     */
+    public MappedFileInputStream(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.segmentStart = 0;
+        mapSegment(0);
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureAvailable()) {
+            return -1;
+        }
+        return segment.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!ensureAvailable()) {
+            return -1;
+        }
+        int count = Math.min(len, segment.remaining());
+        segment.get(b, off, count);
+        return count;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long position = segmentStart + segment.position();
+        long target = Math.min(size, position + Math.max(0, n));
+        if (target < segmentStart + segment.limit()) {
+            segment.position((int) (target - segmentStart));
+        } else {
+            mapSegment(target);
+        }
+        return target - position;
+    }
+
+    @Override
+    public int available() {
+        return segment.remaining();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Map the next segment if the current one is exhausted
+     *
+     * @return false at end of file
+     */
+    private boolean ensureAvailable() throws IOException {
+        if (segment.hasRemaining()) {
+            return true;
+        }
+        long next = segmentStart + segment.limit();
+        if (next >= size) {
+            return false;
+        }
+        mapSegment(next);
+        return true;
+    }
+
+    private void mapSegment(long start) throws IOException {
+        segmentStart = start;
+        segment = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(SEGMENT_SIZE, size - start));
+    }
+}
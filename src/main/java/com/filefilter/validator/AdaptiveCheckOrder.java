@@ -0,0 +1,178 @@
+package com.filefilter.validator;
+
+import com.filefilter.model.AdaptiveOrderConfig;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cost-based ordering of compiled checks
+ *
+ * For independent checks evaluated until the first failure, the expected cost per row is
+ * minimal when checks are sorted by cost / failure probability (ascending): cheap and
+ * selective checks first, expensive checks that rarely fail last.
+ * Cost comes from the sampled timings of CheckMetrics, the failure rate from its counters.
+ *
+ * Called from validate() on sampled rows only. One thread computes the new order while the
+ * others keep validating with the current array, which is then swapped in by the engine.
+ */
+@Slf4j
+final class AdaptiveCheckOrder {
+
+    /**
+     * Failure rate used for checks that never failed, keeps them behind all failing checks
+     */
+    private static final double MIN_FAILURE_RATE = 1e-9;
+
+    /**
+     * Minimum relative reduction of the expected cost per row before the order is changed
+     * Avoids flipping between near-equal orders on measurement noise
+     */
+    private static final double MIN_IMPROVEMENT = 0.05;
+
+    /**
+     * Sampled rows between reorders
+     */
+    private final long samplesPerRound;
+    private final boolean continuous;
+
+    private final AtomicLong sampledRows = new AtomicLong();
+    private final AtomicBoolean reordering = new AtomicBoolean();
+    private volatile boolean done;
+
+    /**
+     * Counter values at the previous reorder (continuous mode uses deltas)
+     */
+    private final Map<CompiledCheck, long[]> previousTotals = new IdentityHashMap<>();
+
+    /**
+     * @param config Adaptive ordering configuration
+     * @param sampleRate Rows per sampled row in validate()
+     */
+    AdaptiveCheckOrder(AdaptiveOrderConfig config, int sampleRate) {
+        int sampleRows = config.getSampleRows() != null && config.getSampleRows() > 0
+                ? config.getSampleRows()
+                : 10000;
+        this.samplesPerRound = Math.max(1, sampleRows / sampleRate);
+        this.continuous = Boolean.TRUE.equals(config.getContinuous());
+    }
+
+    /**
+     * Register a sampled row and compute a new order when a round is complete
+     *
+     * @param current Checks in their current order
+     * @return New order, or null if the order stays unchanged
+     */
+    CompiledCheck[] onSampledRow(CompiledCheck[] current) {
+        if (done || sampledRows.incrementAndGet() % samplesPerRound != 0) {
+            return null;
+        }
+        // Another thread is already reordering - skip this round
+        if (!reordering.compareAndSet(false, true)) {
+            return null;
+        }
+
+        try {
+            if (!continuous) {
+                done = true;
+            }
+            return reorder(current);
+        } finally {
+            reordering.set(false);
+        }
+    }
+
+    private CompiledCheck[] reorder(CompiledCheck[] current) {
+        int count = current.length;
+        double[] costs = new double[count];
+        double[] failureRates = new double[count];
+        boolean[] measured = new boolean[count];
+        double knownCostSum = 0;
+        int knownCosts = 0;
+
+        for (int i = 0; i < count; i++) {
+            long[] totals = new long[CheckMetrics.TOTALS_LENGTH];
+            current[i].metrics.addTo(totals);
+            long[] delta = totals.clone();
+            long[] previous = previousTotals.put(current[i], totals);
+            if (previous != null) {
+                for (int j = 0; j < delta.length; j++) {
+                    delta[j] -= previous[j];
+                }
+            }
+
+            long evaluations = delta[CheckMetrics.EVALUATIONS];
+            long samples = delta[CheckMetrics.SAMPLES];
+            if (evaluations > 0) {
+                failureRates[i] = Math.max(MIN_FAILURE_RATE, (double) delta[CheckMetrics.FAILURES] / evaluations);
+            }
+            if (samples > 0) {
+                costs[i] = (double) delta[CheckMetrics.SAMPLED_NANOS] / samples;
+                measured[i] = true;
+                knownCostSum += costs[i];
+                knownCosts++;
+            }
+        }
+
+        // Checks without timing samples are assumed to cost the average
+        double defaultCost = knownCosts > 0 ? knownCostSum / knownCosts : 1;
+        double[] ranks = new double[count];
+        for (int i = 0; i < count; i++) {
+            double cost = measured[i] ? costs[i] : defaultCost;
+            costs[i] = cost;
+            // Never evaluated (earlier checks always failed): no evidence, keep behind evaluated checks
+            ranks[i] = failureRates[i] > 0 ? cost / failureRates[i] : Double.MAX_VALUE;
+        }
+
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        // Stable sort - equal ranks keep their current order
+        Arrays.sort(order, Comparator.comparingDouble(i -> ranks[i]));
+
+        Integer[] currentOrder = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            currentOrder[i] = i;
+        }
+        double currentCost = expectedCost(currentOrder, costs, failureRates);
+        double newCost = expectedCost(order, costs, failureRates);
+        if (newCost >= currentCost * (1 - MIN_IMPROVEMENT)) {
+            return null;
+        }
+
+        CompiledCheck[] reordered = new CompiledCheck[count];
+        for (int i = 0; i < count; i++) {
+            reordered[i] = current[order[i]];
+        }
+
+        if (log.isInfoEnabled()) {
+            StringJoiner description = new StringJoiner(", ");
+            for (CompiledCheck check : reordered) {
+                description.add("rule #" + (check.ruleIndex + 1) + " " + check.type());
+            }
+            log.info("Adaptive rule order: {} (estimated cost per row {}ns -> {}ns)", description,
+                    Math.round(currentCost), Math.round(newCost));
+        }
+        return reordered;
+    }
+
+    /**
+     * Expected cost per row: each check runs only if all checks before it passed
+     */
+    private static double expectedCost(Integer[] order, double[] costs, double[] failureRates) {
+        double cost = 0;
+        double reachProbability = 1;
+        for (int index : order) {
+            cost += reachProbability * costs[index];
+            reachProbability *= 1 - failureRates[index];
+        }
+        return cost;
+    }
+}
@@ -0,0 +1,83 @@
+package com.filefilter.validator;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Blocked Bloom filter over 128-bit key fingerprints, stored off-heap
+ *
+ * All bits of a key lie in one 64-byte block (one cache line), so a lookup costs a single
+ * memory access instead of one per hash function. No false negatives: mightContain() is true
+ * for every key that was put. Limited to 2 GB of bits.
+ * Not thread-safe.
+ */
+final class BloomFilter {
+
+    private static final int BLOCK_BYTES = 64;
+    private static final int BITS_PER_CHUNK = 9;
+    private static final int CHUNKS_PER_WORD = 7;
+    private static final int MAX_HASHES = 2 * CHUNKS_PER_WORD;
+    private static final long MAX_BYTES = Integer.MAX_VALUE / BLOCK_BYTES * (long) BLOCK_BYTES;
+
+    /**
+     * Extra bits compensating the higher false positive rate of blocked filters
+     */
+    private static final double BLOCKING_OVERHEAD = 1.2;
+
+    private final ByteBuffer bits;
+    private final int blocks;
+    private final int hashes;
+
+    /**
+     * @param expectedKeys Number of keys the filter is sized for
+     * @param falsePositiveRate Target false positive rate at expectedKeys keys (0 < rate < 1)
+     */
+    BloomFilter(long expectedKeys, double falsePositiveRate) {
+        double bitsPerKey = -Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        long bytes = (long) Math.ceil(Math.max(expectedKeys, 1) * bitsPerKey * BLOCKING_OVERHEAD / 8);
+        bytes = Math.min(MAX_BYTES, Math.max(BLOCK_BYTES, (bytes + BLOCK_BYTES - 1) / BLOCK_BYTES * BLOCK_BYTES));
+        this.bits = ByteBuffer.allocateDirect((int) bytes);
+        this.blocks = (int) (bytes / BLOCK_BYTES);
+        this.hashes = (int) Math.max(1, Math.min(MAX_HASHES, Math.round(bitsPerKey * Math.log(2))));
+    }
+
+    void put(long high, long low) {
+        long x = KeyHasher.fmix(high ^ KeyHasher.fmix(low));
+        int blockOffset = block(x) * BLOCK_BYTES;
+        long word = KeyHasher.fmix(x);
+        for (int i = 0; i < hashes; i++) {
+            if (i == CHUNKS_PER_WORD) {
+                word = KeyHasher.fmix(word);
+            }
+            int bit = (int) (word >>> (BITS_PER_CHUNK * (i % CHUNKS_PER_WORD))) & (BLOCK_BYTES * 8 - 1);
+            int offset = blockOffset + (bit >>> 6) * Long.BYTES;
+            bits.putLong(offset, bits.getLong(offset) | 1L << bit);
+        }
+    }
+
+    boolean mightContain(long high, long low) {
+        long x = KeyHasher.fmix(high ^ KeyHasher.fmix(low));
+        int blockOffset = block(x) * BLOCK_BYTES;
+        long word = KeyHasher.fmix(x);
+        for (int i = 0; i < hashes; i++) {
+            if (i == CHUNKS_PER_WORD) {
+                word = KeyHasher.fmix(word);
+            }
+            int bit = (int) (word >>> (BITS_PER_CHUNK * (i % CHUNKS_PER_WORD))) & (BLOCK_BYTES * 8 - 1);
+            if ((bits.getLong(blockOffset + (bit >>> 6) * Long.BYTES) & 1L << bit) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return Off-heap bytes in use
+     */
+    long memoryBytes() {
+        return bits.capacity();
+    }
+
+    private int block(long x) {
+        return (int) (((x >>> 32) * blocks) >>> 32);
+    }
+}
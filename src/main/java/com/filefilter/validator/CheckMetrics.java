@@ -0,0 +1,73 @@
+package com.filefilter.validator;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runtime counters of a single check (or the column count check)
+ *
+ * Striped LongAdders keep the counters cheap under contention (parallel, pipeline and batch mode).
+ * Evaluations and failures are always counted, execution time only for sampled rows
+ * and recorded in a log2 latency histogram.
+ */
+final class CheckMetrics {
+
+    /**
+     * Histogram bucket b counts samples in [2^(b-1), 2^b) nanoseconds, the last bucket is open-ended
+     */
+    static final int HISTOGRAM_BUCKETS = 32;
+
+    /**
+     * Layout of the totals array used to aggregate metrics of several checks
+     */
+    static final int EVALUATIONS = 0;
+    static final int FAILURES = 1;
+    static final int SAMPLES = 2;
+    static final int SAMPLED_NANOS = 3;
+    static final int HISTOGRAM = 4;
+    static final int TOTALS_LENGTH = HISTOGRAM + HISTOGRAM_BUCKETS;
+
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder samples = new LongAdder();
+    private final LongAdder sampledNanos = new LongAdder();
+    private final LongAdder[] histogram = new LongAdder[HISTOGRAM_BUCKETS];
+
+    CheckMetrics() {
+        for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+            histogram[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Count an evaluation without timing
+     */
+    void record(boolean passed) {
+        evaluations.increment();
+        if (!passed) {
+            failures.increment();
+        }
+    }
+
+    /**
+     * Count a timed evaluation
+     */
+    void recordSampled(boolean passed, long nanos) {
+        record(passed);
+        samples.increment();
+        sampledNanos.add(nanos);
+        histogram[Math.min(HISTOGRAM_BUCKETS - 1, 64 - Long.numberOfLeadingZeros(Math.max(0, nanos)))].increment();
+    }
+
+    /**
+     * Add the current counter values to a totals array (see TOTALS_LENGTH)
+     */
+    void addTo(long[] totals) {
+        totals[EVALUATIONS] += evaluations.sum();
+        totals[FAILURES] += failures.sum();
+        totals[SAMPLES] += samples.sum();
+        totals[SAMPLED_NANOS] += sampledNanos.sum();
+        for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+            totals[HISTOGRAM + i] += histogram[i].sum();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.filefilter.validator;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Immutable statistics of a validation rule or check type
+ * Latency values are estimated from sampled rows (upper bounds of log2 histogram buckets)
+ */
+@Getter
+@Builder
+public class CheckStats {
+
+    /**
+     * Rule or check type name, e.g. "rule #1 (column 1)" or "regex"
+     */
+    private final String name;
+
+    private final long evaluations;
+    private final long failures;
+
+    /**
+     * Number of timed evaluations
+     */
+    private final long samples;
+
+    private final long avgNanos;
+    private final long p50Nanos;
+    private final long p99Nanos;
+
+    /**
+     * @return Share of evaluations that failed, in percent
+     */
+    public double getFailureRate() {
+        return evaluations > 0 ? failures * 100.0 / evaluations : 0;
+    }
+
+    /**
+     * Build statistics from aggregated counters (see CheckMetrics.addTo)
+     */
+    static CheckStats from(String name, long[] totals) {
+        return from(name, totals, totals[CheckMetrics.EVALUATIONS], totals[CheckMetrics.SAMPLES]);
+    }
+
+    /**
+     * Build statistics of a group of checks that run one after another (e.g. the conditions of a rule)
+     *
+     * @param totals Summed counters of all checks of the group
+     * @param evaluations Number of times the group was evaluated
+     * @param evaluationSamples Number of timed group evaluations (divisor of the average)
+     */
+    static CheckStats from(String name, long[] totals, long evaluations, long evaluationSamples) {
+        long samples = totals[CheckMetrics.SAMPLES];
+        return CheckStats.builder()
+                .name(name)
+                .evaluations(evaluations)
+                .failures(totals[CheckMetrics.FAILURES])
+                .samples(evaluationSamples)
+                .avgNanos(evaluationSamples > 0 ? totals[CheckMetrics.SAMPLED_NANOS] / evaluationSamples : 0)
+                .p50Nanos(percentile(totals, samples, 0.50))
+                .p99Nanos(percentile(totals, samples, 0.99))
+                .build();
+    }
+
+    private static long percentile(long[] totals, long samples, double quantile) {
+        if (samples == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(samples * quantile);
+        long seen = 0;
+        for (int bucket = 0; bucket < CheckMetrics.HISTOGRAM_BUCKETS; bucket++) {
+            seen += totals[CheckMetrics.HISTOGRAM + bucket];
+            if (seen >= rank) {
+                return 1L << bucket;
+            }
+        }
+        return 1L << (CheckMetrics.HISTOGRAM_BUCKETS - 1);
+    }
+}
@@ -0,0 +1,168 @@
+package com.filefilter.validator;
+
+import com.filefilter.util.InputFileUtil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Memory-compact value set for large whitelists (ValidationRule.valueInListFile)
+ *
+ * Canonical non-negative integers ("0" or up to 18 digits without leading zeros) are kept as
+ * primitive longs, all other values as UTF-8 bytes off-heap. Membership is plain string equality,
+ * like the HashSet of valueInList - "007" or "+7" is not the number 7.
+ * Lookups do not allocate for ASCII values.
+ * Immutable once loaded and safe to share between threads.
+ */
+final class CompactValueSet {
+
+    private static final int MAX_NUMBER_DIGITS = 18;
+    private static final int BUFFER_SIZE = 65536;
+
+    private final LongHashSet numbers = new LongHashSet();
+    private final OffHeapStringSet strings = new OffHeapStringSet();
+
+    private CompactValueSet() {
+    }
+
+    /**
+     * Load a value file (UTF-8, one value per line) plus additional inline values
+     * Line endings (\n or \r\n) and a leading byte order mark are stripped, empty lines are ignored.
+     * The file is located like input files (file system path, then classpath resource under sourcefile/)
+     * and may be gzip or zstd compressed.
+     *
+     * @param file Value file
+     * @param inlineValues Additional values (null entries are ignored)
+     * @return Loaded set
+     * @throws IOException if the file cannot be read
+     */
+    static CompactValueSet load(String file, List<String> inlineValues) throws IOException {
+        CompactValueSet set = new CompactValueSet();
+        try (InputStream in = InputFileUtil.open(file, -1)) {
+            set.addLines(in);
+        }
+        for (String value : inlineValues) {
+            if (value != null) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                set.add(bytes, bytes.length);
+            }
+        }
+        return set;
+    }
+
+    /**
+     * @param value Column value (null is never a member)
+     */
+    boolean contains(CharSequence value) {
+        if (value == null) {
+            return false;
+        }
+        long number = parseNumber(value);
+        if (number >= 0) {
+            return numbers.contains(number);
+        }
+        return strings.contains(value);
+    }
+
+    /**
+     * @return Number of distinct values
+     */
+    int size() {
+        return numbers.size() + strings.size();
+    }
+
+    /**
+     * @return Short summary for logs
+     */
+    String summary() {
+        return size() + " values (" + numbers.size() + " numeric, " + strings.size() + " other in "
+                + strings.memoryBytes() / 1024 + " KB off-heap)";
+    }
+
+    private void addLines(InputStream in) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        byte[] line = new byte[256];
+        int lineLength = 0;
+        boolean firstLine = true;
+        int read;
+        while ((read = in.read(buffer)) > 0) {
+            for (int i = 0; i < read; i++) {
+                byte b = buffer[i];
+                if (b == '\n') {
+                    firstLine = addLine(line, lineLength, firstLine);
+                    lineLength = 0;
+                } else {
+                    if (lineLength == line.length) {
+                        line = Arrays.copyOf(line, line.length * 2);
+                    }
+                    line[lineLength++] = b;
+                }
+            }
+        }
+        addLine(line, lineLength, firstLine);
+    }
+
+    /**
+     * @return false (the next line is no longer the first one)
+     */
+    private boolean addLine(byte[] line, int length, boolean firstLine) {
+        int start = 0;
+        if (firstLine && length >= 3 && line[0] == (byte) 0xEF && line[1] == (byte) 0xBB && line[2] == (byte) 0xBF) {
+            start = 3;
+        }
+        int end = length > start && line[length - 1] == '\r' ? length - 1 : length;
+        if (end > start) {
+            if (start > 0) {
+                System.arraycopy(line, start, line, 0, end - start);
+            }
+            add(line, end - start);
+        }
+        return false;
+    }
+
+    private void add(byte[] bytes, int length) {
+        long number = parseNumber(bytes, length);
+        if (number >= 0) {
+            numbers.add(number);
+        } else {
+            strings.add(bytes, 0, length);
+        }
+    }
+
+    /**
+     * @return Value of a canonical non-negative integer, -1 for anything else
+     */
+    static long parseNumber(CharSequence value) {
+        int length = value.length();
+        if (length == 0 || length > MAX_NUMBER_DIGITS || (value.charAt(0) == '0' && length > 1)) {
+            return -1;
+        }
+        long number = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            number = number * 10 + (c - '0');
+        }
+        return number;
+    }
+
+    private static long parseNumber(byte[] bytes, int length) {
+        if (length == 0 || length > MAX_NUMBER_DIGITS || (bytes[0] == '0' && length > 1)) {
+            return -1;
+        }
+        long number = 0;
+        for (int i = 0; i < length; i++) {
+            byte b = bytes[i];
+            if (b < '0' || b > '9') {
+                return -1;
+            }
+            number = number * 10 + (b - '0');
+        }
+        return number;
+    }
+}
@@ -0,0 +1,314 @@
+package com.filefilter.validator;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A single precompiled column check produced from a ValidationRule
+ * One rule compiles into one check per configured condition (notEmpty, valueInList/valueInListFile, regex)
+ *
+ * Instances are immutable (apart from thread-safe counters) and safe to share between threads
+ */
+abstract class CompiledCheck {
+
+    /**
+     * Index of the source rule in FilterConfig.getValidations()
+     */
+    final int ruleIndex;
+
+    /**
+     * Column index (0-based)
+     */
+    final int columnIndex;
+
+    /**
+     * Evaluation counters of this check
+     */
+    final CheckMetrics metrics = new CheckMetrics();
+
+    CompiledCheck(int ruleIndex, int columnIndex) {
+        this.ruleIndex = ruleIndex;
+        this.columnIndex = columnIndex;
+    }
+
+    /**
+     * Test a single column value
+     *
+     * @param value Column value (may be null, only valid during the call - see RowView)
+     * @return true if the check passes
+     */
+    abstract boolean test(CharSequence value);
+
+    /**
+     * Short description used in debug logs
+     */
+    abstract String describe();
+
+    /**
+     * Check type name used in statistics
+     */
+    abstract String type();
+
+    /**
+     * Create a check sharing the compiled state (patterns, value sets) with fresh counters
+     */
+    abstract CompiledCheck copy();
+
+    /**
+     * Key of the condition - checks with equal keys give the same result for the same row
+     * Used to evaluate a condition shared by several rule groups only once (see RouteEngine)
+     */
+    abstract Object sharingKey();
+
+    /**
+     * Passes when the column exists in the row
+     * Used for rules that only reference a column without any condition
+     */
+    static final class ColumnPresent extends CompiledCheck {
+
+        ColumnPresent(int ruleIndex, int columnIndex) {
+            super(ruleIndex, columnIndex);
+        }
+
+        @Override
+        boolean test(CharSequence value) {
+            return true;
+        }
+
+        @Override
+        String describe() {
+            return "columnPresent";
+        }
+
+        @Override
+        String type() {
+            return "columnPresent";
+        }
+
+        @Override
+        CompiledCheck copy() {
+            return new ColumnPresent(ruleIndex, columnIndex);
+        }
+
+        @Override
+        Object sharingKey() {
+            return List.of(type(), columnIndex);
+        }
+    }
+
+    /**
+     * Passes when the value is not null and not blank (same semantics as trim().isEmpty())
+     */
+    static final class NotEmpty extends CompiledCheck {
+
+        NotEmpty(int ruleIndex, int columnIndex) {
+            super(ruleIndex, columnIndex);
+        }
+
+        @Override
+        boolean test(CharSequence value) {
+            if (value == null) {
+                return false;
+            }
+            // Avoid trim() allocation - String.trim() strips chars <= ' '
+            for (int i = 0, len = value.length(); i < len; i++) {
+                if (value.charAt(i) > ' ') {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        String describe() {
+            return "notEmpty";
+        }
+
+        @Override
+        String type() {
+            return "notEmpty";
+        }
+
+        @Override
+        CompiledCheck copy() {
+            return new NotEmpty(ruleIndex, columnIndex);
+        }
+
+        @Override
+        Object sharingKey() {
+            return List.of(type(), columnIndex);
+        }
+    }
+
+    /**
+     * Passes when the value is a member of the configured list (hash lookup)
+     * Values that are views rather than Strings are only copied into a String for the lookup
+     * when their length matches the length of a list entry
+     */
+    static final class ValueInList extends CompiledCheck {
+
+        private final Set<String> values;
+
+        /**
+         * Bit n set if the list holds a value of length n (lengths above 63 share bit 63)
+         */
+        private final long lengths;
+
+        ValueInList(int ruleIndex, int columnIndex, List<String> values) {
+            // HashSet (not Set.copyOf) so that a null entry in the YAML list keeps working
+            this(ruleIndex, columnIndex, new HashSet<>(values));
+        }
+
+        private ValueInList(int ruleIndex, int columnIndex, Set<String> values) {
+            super(ruleIndex, columnIndex);
+            this.values = values;
+            long bits = 0;
+            for (String value : values) {
+                if (value != null) {
+                    bits |= 1L << Math.min(value.length(), 63);
+                }
+            }
+            this.lengths = bits;
+        }
+
+        @Override
+        boolean test(CharSequence value) {
+            if (value == null || value instanceof String) {
+                return values.contains(value);
+            }
+            if ((lengths & 1L << Math.min(value.length(), 63)) == 0) {
+                return false;
+            }
+            return values.contains(value.toString());
+        }
+
+        @Override
+        String describe() {
+            return "valueInList" + values;
+        }
+
+        @Override
+        String type() {
+            return "valueInList";
+        }
+
+        @Override
+        CompiledCheck copy() {
+            return new ValueInList(ruleIndex, columnIndex, values);
+        }
+
+        @Override
+        Object sharingKey() {
+            return List.of(type(), columnIndex, values);
+        }
+    }
+
+    /**
+     * Passes when the value is a member of a large value list loaded from a file (valueInListFile)
+     * The values live in a CompactValueSet (primitive longs and off-heap bytes), so lookups of
+     * views do not create a String
+     */
+    static final class ValueInSet extends CompiledCheck {
+
+        private final CompactValueSet values;
+
+        /**
+         * Value file and inline values the set was loaded from
+         */
+        private final String source;
+
+        ValueInSet(int ruleIndex, int columnIndex, CompactValueSet values, String source) {
+            super(ruleIndex, columnIndex);
+            this.values = values;
+            this.source = source;
+        }
+
+        @Override
+        boolean test(CharSequence value) {
+            return values.contains(value);
+        }
+
+        @Override
+        String describe() {
+            return "valueInList[" + source + ": " + values.size() + " values]";
+        }
+
+        @Override
+        String type() {
+            return "valueInList";
+        }
+
+        @Override
+        CompiledCheck copy() {
+            return new ValueInSet(ruleIndex, columnIndex, values, source);
+        }
+
+        @Override
+        Object sharingKey() {
+            return List.of("valueInListFile", columnIndex, source);
+        }
+    }
+
+    /**
+     * Passes when the whole value matches the precompiled pattern
+     * Simple patterns (literal prefixes, character classes, length bounds) are matched by a
+     * RegexFastPath, the Pattern is only used for other patterns and undecided values.
+     * Matchers are not thread-safe, so each thread reuses its own Matcher via reset()
+     */
+    static final class Regex extends CompiledCheck {
+
+        private final Pattern pattern;
+        private final ThreadLocal<Matcher> matchers;
+
+        /**
+         * Nullable - if null, every value is matched by the Pattern
+         */
+        private final RegexFastPath fastPath;
+
+        Regex(int ruleIndex, int columnIndex, Pattern pattern) {
+            this(ruleIndex, columnIndex, pattern, RegexFastPath.analyze(pattern.pattern()));
+        }
+
+        private Regex(int ruleIndex, int columnIndex, Pattern pattern, RegexFastPath fastPath) {
+            super(ruleIndex, columnIndex);
+            this.pattern = pattern;
+            this.matchers = ThreadLocal.withInitial(() -> pattern.matcher(""));
+            this.fastPath = fastPath;
+        }
+
+        @Override
+        boolean test(CharSequence value) {
+            CharSequence input = value != null ? value : "";
+            if (fastPath != null) {
+                int result = fastPath.match(input);
+                if (result != RegexFastPath.UNDECIDED) {
+                    return result == 1;
+                }
+            }
+            return matchers.get().reset(input).matches();
+        }
+
+        @Override
+        String describe() {
+            return "regex '" + pattern.pattern() + "'";
+        }
+
+        @Override
+        String type() {
+            return "regex";
+        }
+
+        @Override
+        CompiledCheck copy() {
+            return new Regex(ruleIndex, columnIndex, pattern, fastPath);
+        }
+
+        @Override
+        Object sharingKey() {
+            return List.of(type(), columnIndex, pattern.pattern());
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.filefilter.validator;
+
+/**
+ * 128-bit hash of one or more column values, used as fingerprint of unique keys
+ *
+ * MurmurHash3 (x64, 128 bit) over the UTF-16 chars of the values, each value prefixed with its
+ * length so that ("ab", "c") and ("a", "bc") differ. Chars are hashed as they are read from the
+ * CharSequence - no String or byte array is created.
+ * With 128 bits, the chance of two different keys colliding stays below 1e-20 even for billions
+ * of keys.
+ * Not thread-safe - reused for every row by its owner.
+ */
+final class KeyHasher {
+
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+    private static final long SEED = 0x9368e53c2f6af274L;
+
+    private long h1;
+    private long h2;
+
+    /**
+     * Pending block of 8 chars (4 per lane)
+     */
+    private long k1;
+    private long k2;
+    private int pendingChars;
+    private long totalChars;
+
+    /**
+     * Start a new key
+     */
+    void reset() {
+        h1 = SEED;
+        h2 = SEED;
+        k1 = 0;
+        k2 = 0;
+        pendingChars = 0;
+        totalChars = 0;
+    }
+
+    /**
+     * Append a column value to the key
+     *
+     * @param value Column value (null differs from "")
+     */
+    void add(CharSequence value) {
+        int length = value != null ? value.length() : -1;
+        addChar((char) (length >>> 16));
+        addChar((char) length);
+        for (int i = 0; i < length; i++) {
+            addChar(value.charAt(i));
+        }
+    }
+
+    /**
+     * Complete the key
+     *
+     * @return High 64 bits of the hash, the low bits follow from low()
+     */
+    long finish() {
+        if (pendingChars > 0) {
+            h1 ^= mixK1(k1);
+            h2 ^= mixK2(k2);
+        }
+        long length = totalChars * 2;
+        h1 ^= length;
+        h2 ^= length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix(h1);
+        h2 = fmix(h2);
+        h1 += h2;
+        h2 += h1;
+        return h1;
+    }
+
+    /**
+     * @return Low 64 bits of the hash of the last finished key
+     */
+    long low() {
+        return h2;
+    }
+
+    /**
+     * Spread all bits of a 64-bit value (murmur3 finalizer)
+     */
+    static long fmix(long value) {
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private void addChar(char c) {
+        if (pendingChars < 4) {
+            k1 |= (long) c << (16 * pendingChars);
+        } else {
+            k2 |= (long) c << (16 * (pendingChars - 4));
+        }
+        totalChars++;
+        if (++pendingChars == 8) {
+            h1 ^= mixK1(k1);
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+            h2 ^= mixK2(k2);
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+            k1 = 0;
+            k2 = 0;
+            pendingChars = 0;
+        }
+    }
+
+    private static long mixK1(long k) {
+        return Long.rotateLeft(k * C1, 31) * C2;
+    }
+
+    private static long mixK2(long k) {
+        return Long.rotateLeft(k * C2, 33) * C1;
+    }
+}
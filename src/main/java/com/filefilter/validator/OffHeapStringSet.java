@@ -0,0 +1,199 @@
+package com.filefilter.validator;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Open-addressing hash set of UTF-8 byte strings stored outside the Java heap
+ *
+ * Values are appended to a direct data buffer as [int length][bytes], the hash table is a
+ * direct buffer of (int hash, int offset + 1) slots with linear probing - no object per value,
+ * so millions of entries cost neither heap nor GC time (limited by -XX:MaxDirectMemorySize).
+ * Lookups of ASCII values compare the chars of the CharSequence with the stored bytes directly,
+ * without creating a String.
+ * Not thread-safe while adding, safe to share for lookups once filled (absolute buffer access only).
+ */
+final class OffHeapStringSet {
+
+    private static final int SLOT_BYTES = 8;
+
+    private static final int FNV_OFFSET = 0x811c9dc5;
+    private static final int FNV_PRIME = 0x01000193;
+
+    private ByteBuffer table;
+    private int mask;
+    private int size;
+
+    private ByteBuffer data;
+    private int dataSize;
+
+    OffHeapStringSet() {
+        this.table = ByteBuffer.allocateDirect(16 * SLOT_BYTES);
+        this.mask = 15;
+        this.data = ByteBuffer.allocateDirect(4096);
+    }
+
+    /**
+     * Add the UTF-8 bytes of a value
+     *
+     * @param bytes Buffer holding the value
+     * @param offset Start of the value
+     * @param length Length in bytes
+     */
+    void add(byte[] bytes, int offset, int length) {
+        int hash = hash(bytes, offset, length);
+        int slot = hash & mask;
+        int stored;
+        while ((stored = table.getInt(slot * SLOT_BYTES + 4)) != 0) {
+            if (table.getInt(slot * SLOT_BYTES) == hash && equalsBytes(stored - 1, bytes, offset, length)) {
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if ((long) dataSize + 4 + length >= Integer.MAX_VALUE) {
+            throw new IllegalStateException("Value set exceeds 2 GB");
+        }
+        ensureData(4 + length);
+        int position = dataSize;
+        data.putInt(position, length);
+        data.put(position + 4, bytes, offset, length);
+        dataSize += 4 + length;
+
+        table.putInt(slot * SLOT_BYTES, hash);
+        table.putInt(slot * SLOT_BYTES + 4, position + 1);
+        if (++size * 2 > mask + 1) {
+            grow();
+        }
+    }
+
+    /**
+     * @param value Value to look up (not null)
+     * @return true if the UTF-8 encoding of the value is in the set
+     */
+    boolean contains(CharSequence value) {
+        int length = value.length();
+        int hash = FNV_OFFSET;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                // Rare - encode non-ASCII values like String.getBytes() does (incl. malformed surrogates)
+                byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+                return contains(bytes, hash(bytes, 0, bytes.length));
+            }
+            hash = (hash ^ c) * FNV_PRIME;
+        }
+        hash = finish(hash);
+
+        int slot = hash & mask;
+        int stored;
+        while ((stored = table.getInt(slot * SLOT_BYTES + 4)) != 0) {
+            if (table.getInt(slot * SLOT_BYTES) == hash && equalsChars(stored - 1, value)) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return Off-heap bytes in use (table and data buffers)
+     */
+    long memoryBytes() {
+        return (long) table.capacity() + data.capacity();
+    }
+
+    private boolean contains(byte[] bytes, int hash) {
+        int slot = hash & mask;
+        int stored;
+        while ((stored = table.getInt(slot * SLOT_BYTES + 4)) != 0) {
+            if (table.getInt(slot * SLOT_BYTES) == hash && equalsBytes(stored - 1, bytes, 0, bytes.length)) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    private boolean equalsChars(int position, CharSequence value) {
+        int length = value.length();
+        if (data.getInt(position) != length) {
+            return false;
+        }
+        int start = position + 4;
+        for (int i = 0; i < length; i++) {
+            if (data.get(start + i) != (byte) value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean equalsBytes(int position, byte[] bytes, int offset, int length) {
+        if (data.getInt(position) != length) {
+            return false;
+        }
+        int start = position + 4;
+        for (int i = 0; i < length; i++) {
+            if (data.get(start + i) != bytes[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void ensureData(int additional) {
+        if (dataSize + additional > data.capacity()) {
+            long newCapacity = Math.max((long) dataSize + additional, (long) data.capacity() * 2);
+            ByteBuffer grown = ByteBuffer.allocateDirect((int) Math.min(newCapacity, Integer.MAX_VALUE - 8));
+            grown.put(0, data, 0, dataSize);
+            data = grown;
+        }
+    }
+
+    private void grow() {
+        ByteBuffer old = table;
+        int capacity = (mask + 1) * 2;
+        table = ByteBuffer.allocateDirect(capacity * SLOT_BYTES);
+        mask = capacity - 1;
+        for (int position = 0; position < old.capacity(); position += SLOT_BYTES) {
+            int stored = old.getInt(position + 4);
+            if (stored != 0) {
+                int hash = old.getInt(position);
+                int slot = hash & mask;
+                while (table.getInt(slot * SLOT_BYTES + 4) != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                table.putInt(slot * SLOT_BYTES, hash);
+                table.putInt(slot * SLOT_BYTES + 4, stored);
+            }
+        }
+    }
+
+    /**
+     * FNV-1a over the bytes, for ASCII equal to the char-based hash in contains()
+     */
+    private static int hash(byte[] bytes, int offset, int length) {
+        int hash = FNV_OFFSET;
+        for (int i = offset; i < offset + length; i++) {
+            hash = (hash ^ (bytes[i] & 0xff)) * FNV_PRIME;
+        }
+        return finish(hash);
+    }
+
+    /**
+     * Spread the low bits used for the slot index (murmur3 finalizer)
+     */
+    private static int finish(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+}
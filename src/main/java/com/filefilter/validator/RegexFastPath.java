@@ -0,0 +1,420 @@
+package com.filefilter.validator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hand-rolled matcher for the common subset of validation regexes
+ *
+ * Supported: a sequence of literals, '.', \d \D \w \W \s \S and simple character classes
+ * ([a-z0-9_], [^,]) with optional quantifiers ({n}, {n,m}, {n,}, ?, *, +), optionally wrapped
+ * in ^...$. At most one element may have a variable count - the value length then fixes how many
+ * characters every element consumes, so matching is one pass over the chars without backtracking.
+ * Examples: ^99\d{5}$ (literal prefix + digit class), .{12,13} (length range), [A-Z]{2}-\d+
+ *
+ * Everything else (groups, alternation, lazy/possessive quantifiers, anchors inside the pattern,
+ * several variable elements, ...) is left to java.util.regex - analyze() returns null.
+ * Results are identical to Pattern.matcher(value).matches() (no flags): values containing
+ * surrogate pairs are reported as undecided, because Pattern matches them as one code point.
+ * Immutable and safe to share between threads.
+ */
+final class RegexFastPath {
+
+    /**
+     * Result of match() for values the fast path cannot decide
+     */
+    static final int UNDECIDED = -1;
+
+    private static final int UNBOUNDED = Integer.MAX_VALUE;
+
+    /**
+     * Larger fixed counts are left to Pattern (keeps the length sums far from overflow)
+     */
+    private static final int MAX_COUNT = 10_000;
+
+    private final CharClass[] classes;
+    private final int[] minCounts;
+
+    /**
+     * Index of the element with a variable count, -1 if the length is fixed
+     */
+    private final int variableIndex;
+    private final int variableMax;
+
+    /**
+     * Sum of the minimum counts of all elements
+     */
+    private final int minLength;
+
+    private RegexFastPath(List<CharClass> classes, List<int[]> counts) {
+        this.classes = classes.toArray(new CharClass[0]);
+        this.minCounts = new int[classes.size()];
+        int variable = -1;
+        int max = 0;
+        int length = 0;
+        for (int i = 0; i < minCounts.length; i++) {
+            int[] count = counts.get(i);
+            minCounts[i] = count[0];
+            length += count[0];
+            if (count[0] != count[1]) {
+                variable = i;
+                max = count[1];
+            }
+        }
+        this.variableIndex = variable;
+        this.variableMax = max;
+        this.minLength = length;
+    }
+
+    /**
+     * Compile a pattern into a fast matcher if it belongs to the supported subset
+     *
+     * @param regex Regex that already compiled successfully with Pattern.compile()
+     * @return Fast matcher, or null if the pattern needs java.util.regex
+     */
+    static RegexFastPath analyze(String regex) {
+        return new Parser(regex).parse();
+    }
+
+    /**
+     * Match the whole value (same result as Pattern.matcher(value).matches())
+     *
+     * @param value Value to test (not null)
+     * @return 1 for a match, 0 for no match, UNDECIDED if the caller has to use the Pattern
+     */
+    int match(CharSequence value) {
+        int length = value.length();
+        int extra = length - minLength;
+        if (extra < 0 || (variableIndex < 0 ? extra != 0 : extra > variableMax - minCounts[variableIndex])) {
+            // A surrogate pair counts as one char for Pattern, so the length alone does not decide
+            return hasSurrogate(value) ? UNDECIDED : 0;
+        }
+
+        int position = 0;
+        for (int i = 0; i < classes.length; i++) {
+            CharClass charClass = classes[i];
+            int end = position + minCounts[i] + (i == variableIndex ? extra : 0);
+            for (; position < end; position++) {
+                char c = value.charAt(position);
+                if (Character.isSurrogate(c)) {
+                    return UNDECIDED;
+                }
+                if (!charClass.matches(c)) {
+                    return hasSurrogate(value) ? UNDECIDED : 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static boolean hasSurrogate(CharSequence value) {
+        for (int i = 0, len = value.length(); i < len; i++) {
+            if (Character.isSurrogate(value.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Set of chars: bitmap for ASCII, sorted ranges above
+     */
+    private static final class CharClass {
+
+        private long low;
+        private long high;
+        private final List<char[]> ranges = new ArrayList<>();
+        private int[] rangeBounds = new int[0];
+        private boolean negated;
+
+        boolean matches(char c) {
+            boolean member;
+            if (c < 64) {
+                member = (low & 1L << c) != 0;
+            } else if (c < 128) {
+                member = (high & 1L << (c - 64)) != 0;
+            } else {
+                member = false;
+                for (int i = 0; i < rangeBounds.length; i += 2) {
+                    if (c >= rangeBounds[i] && c <= rangeBounds[i + 1]) {
+                        member = true;
+                        break;
+                    }
+                }
+            }
+            return member != negated;
+        }
+
+        void add(char from, char to) {
+            for (int c = from; c <= Math.min(to, 127); c++) {
+                if (c < 64) {
+                    low |= 1L << c;
+                } else {
+                    high |= 1L << (c - 64);
+                }
+            }
+            if (to >= 128) {
+                ranges.add(new char[]{(char) Math.max(from, 128), to});
+            }
+        }
+
+        void add(CharClass other) {
+            low |= other.low;
+            high |= other.high;
+            ranges.addAll(other.ranges);
+        }
+
+        CharClass done() {
+            rangeBounds = new int[ranges.size() * 2];
+            for (int i = 0; i < ranges.size(); i++) {
+                rangeBounds[2 * i] = ranges.get(i)[0];
+                rangeBounds[2 * i + 1] = ranges.get(i)[1];
+            }
+            return this;
+        }
+
+        static CharClass of(char from, char to) {
+            CharClass charClass = new CharClass();
+            charClass.add(from, to);
+            return charClass;
+        }
+
+        /**
+         * Predefined class of \d \w \s (lower case) or its complement (upper case), null if unknown
+         */
+        static CharClass predefined(char name) {
+            CharClass charClass = new CharClass();
+            switch (Character.toLowerCase(name)) {
+                case 'd' -> charClass.add('0', '9');
+                case 'w' -> {
+                    charClass.add('a', 'z');
+                    charClass.add('A', 'Z');
+                    charClass.add('0', '9');
+                    charClass.add('_', '_');
+                }
+                case 's' -> {
+                    charClass.add('\t', '\r');
+                    charClass.add(' ', ' ');
+                }
+                default -> {
+                    return null;
+                }
+            }
+            charClass.negated = Character.isUpperCase(name);
+            return charClass;
+        }
+
+        /**
+         * '.' - any char except line terminators
+         */
+        static CharClass dot() {
+            CharClass charClass = new CharClass();
+            charClass.add('\n', '\n');
+            charClass.add('\r', '\r');
+            charClass.add('\u0085', '\u0085');
+            charClass.add('\u2028', '\u2029');
+            charClass.negated = true;
+            return charClass;
+        }
+    }
+
+    /**
+     * Recursive-descent parser of the supported subset, fails (null) on anything else
+     */
+    private static final class Parser {
+
+        private final String regex;
+        private int position;
+
+        Parser(String regex) {
+            this.regex = regex;
+        }
+
+        RegexFastPath parse() {
+            int end = regex.length();
+            if (regex.startsWith("^")) {
+                position = 1;
+            }
+            if (end > position && regex.charAt(end - 1) == '$' && !isEscaped(end - 1)) {
+                end--;
+            }
+            for (int i = 0; i < regex.length(); i++) {
+                if (Character.isSurrogate(regex.charAt(i))) {
+                    return null;
+                }
+            }
+
+            List<CharClass> classes = new ArrayList<>();
+            List<int[]> counts = new ArrayList<>();
+            int variableElements = 0;
+            while (position < end) {
+                CharClass element = parseElement(end);
+                if (element == null) {
+                    return null;
+                }
+                int[] count = parseQuantifier(end);
+                if (count == null) {
+                    return null;
+                }
+                if (count[0] != count[1] && ++variableElements > 1) {
+                    return null;
+                }
+                classes.add(element.done());
+                counts.add(count);
+            }
+            return new RegexFastPath(classes, counts);
+        }
+
+        private boolean isEscaped(int index) {
+            int backslashes = 0;
+            for (int i = index - 1; i >= 0 && regex.charAt(i) == '\\'; i--) {
+                backslashes++;
+            }
+            return backslashes % 2 == 1;
+        }
+
+        private CharClass parseElement(int end) {
+            char c = regex.charAt(position++);
+            return switch (c) {
+                case '.' -> CharClass.dot();
+                case '\\' -> parseEscape(end, false);
+                case '[' -> parseClass(end);
+                // Meta characters outside the subset
+                case '^', '$', '(', ')', '|', '*', '+', '?', '{' -> null;
+                default -> CharClass.of(c, c);
+            };
+        }
+
+        /**
+         * @param inClass true inside [...]
+         */
+        private CharClass parseEscape(int end, boolean inClass) {
+            if (position >= end) {
+                return null;
+            }
+            char c = regex.charAt(position++);
+            CharClass predefined = CharClass.predefined(c);
+            if (predefined != null) {
+                // Negated predefined classes inside [...] would need class union with complements
+                return inClass && predefined.negated ? null : predefined;
+            }
+            return switch (c) {
+                case 't' -> CharClass.of('\t', '\t');
+                case 'n' -> CharClass.of('\n', '\n');
+                case 'r' -> CharClass.of('\r', '\r');
+                case 'f' -> CharClass.of('\f', '\f');
+                default -> {
+                    // Escaped punctuation is a literal, letters and digits have special meanings
+                    if (c < 128 && !Character.isLetterOrDigit(c)) {
+                        yield CharClass.of(c, c);
+                    }
+                    yield null;
+                }
+            };
+        }
+
+        private CharClass parseClass(int end) {
+            CharClass charClass = new CharClass();
+            if (position < end && regex.charAt(position) == '^') {
+                charClass.negated = true;
+                position++;
+            }
+            boolean first = true;
+            while (position < end) {
+                char c = regex.charAt(position++);
+                if (c == ']' && !first) {
+                    return charClass;
+                }
+                first = false;
+                char from;
+                if (c == '\\') {
+                    CharClass escaped = parseEscape(end, true);
+                    if (escaped == null) {
+                        return null;
+                    }
+                    if (escaped.negated || Long.bitCount(escaped.low) + Long.bitCount(escaped.high) != 1
+                            || !escaped.ranges.isEmpty()) {
+                        // Predefined class: no range may start here
+                        if (position < end && regex.charAt(position) == '-') {
+                            return null;
+                        }
+                        charClass.add(escaped);
+                        continue;
+                    }
+                    from = (char) (escaped.low != 0
+                            ? Long.numberOfTrailingZeros(escaped.low)
+                            : 64 + Long.numberOfTrailingZeros(escaped.high));
+                } else if (c == '[' || c == ']' || c == '&' || c >= 128) {
+                    // Nested classes, intersections, leading ']' and non-ASCII members are left to Pattern
+                    return null;
+                } else {
+                    from = c;
+                }
+
+                if (position + 1 < end && regex.charAt(position) == '-' && regex.charAt(position + 1) != ']') {
+                    char to = regex.charAt(position + 1);
+                    if (to == '\\' || to == '[' || to == '&' || to >= 128 || to < from) {
+                        return null;
+                    }
+                    position += 2;
+                    charClass.add(from, to);
+                } else {
+                    charClass.add(from, from);
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @return {min, max} count of the preceding element, null if unsupported
+         */
+        private int[] parseQuantifier(int end) {
+            if (position >= end) {
+                return new int[]{1, 1};
+            }
+            char c = regex.charAt(position);
+            int[] count;
+            switch (c) {
+                case '?' -> count = new int[]{0, 1};
+                case '*' -> count = new int[]{0, UNBOUNDED};
+                case '+' -> count = new int[]{1, UNBOUNDED};
+                case '{' -> {
+                    int close = regex.indexOf('}', position);
+                    if (close < 0 || close >= end) {
+                        return null;
+                    }
+                    count = parseBounds(regex.substring(position + 1, close));
+                    if (count == null) {
+                        return null;
+                    }
+                    position = close;
+                }
+                default -> {
+                    return new int[]{1, 1};
+                }
+            }
+            position++;
+            // Lazy and possessive modifiers
+            if (position < end && (regex.charAt(position) == '?' || regex.charAt(position) == '+')) {
+                return null;
+            }
+            return count;
+        }
+
+        private static int[] parseBounds(String bounds) {
+            try {
+                int comma = bounds.indexOf(',');
+                if (comma < 0) {
+                    int n = Integer.parseInt(bounds);
+                    return n < MAX_COUNT ? new int[]{n, n} : null;
+                }
+                int min = Integer.parseInt(bounds.substring(0, comma));
+                String maxText = bounds.substring(comma + 1);
+                int max = maxText.isEmpty() ? UNBOUNDED : Integer.parseInt(maxText);
+                return min <= max && min < MAX_COUNT ? new int[]{min, max} : null;
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+}
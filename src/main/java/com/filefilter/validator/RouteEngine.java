@@ -0,0 +1,226 @@
+package com.filefilter.validator;
+
+import com.filefilter.model.FilterConfig;
+import com.filefilter.model.RouteConfig;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Evaluates the rule groups of multi-way routing (FilterConfig.routes) against a row in one pass
+ *
+ * The rules of all routes are compiled into one table of distinct checks: a condition used by
+ * several routes (same check on the same column) is evaluated at most once per row and its result
+ * is reused by the other routes. Each route stops at its first failing check, so a shared check
+ * is only evaluated if some route reaches it.
+ * Routes are independent of the main validation rules and of each other - a row may match any number of routes.
+ *
+ * The compiled engine is immutable and can be shared between threads,
+ * per-row state and counters live in a Matcher (one per thread).
+ */
+@Slf4j
+public final class RouteEngine {
+
+    /**
+     * Marker for "no column count check"
+     */
+    private static final int NO_COLUMN_LIMIT = -1;
+
+    /**
+     * Route names are used in file names
+     */
+    private static final Pattern NAME_PATTERN = Pattern.compile("[A-Za-z0-9_-]+");
+
+    private static final byte UNKNOWN = 0;
+    private static final byte PASSED = 1;
+    private static final byte FAILED = 2;
+
+    private final String[] names;
+    private final int[] expectedTotalColumns;
+
+    /**
+     * Per route, indexes into checks in rule order
+     */
+    private final int[][] routeChecks;
+
+    /**
+     * Distinct checks of all routes
+     */
+    private final CompiledCheck[] checks;
+
+    /**
+     * Compile the rules of all routes
+     *
+     * @param routes Route configurations
+     * @throws IllegalArgumentException if a route name is missing, invalid or used twice,
+     *                                  or a rule has an invalid column index or regex
+     */
+    public RouteEngine(List<RouteConfig> routes) {
+        int routeCount = routes.size();
+        this.names = new String[routeCount];
+        this.expectedTotalColumns = new int[routeCount];
+        this.routeChecks = new int[routeCount][];
+
+        Map<Object, Integer> checkIndexes = new LinkedHashMap<>();
+        List<CompiledCheck> distinctChecks = new ArrayList<>();
+        Set<String> usedNames = new HashSet<>();
+        int totalChecks = 0;
+
+        for (int r = 0; r < routeCount; r++) {
+            RouteConfig route = routes.get(r);
+            String name = route.getName();
+            if (name == null || !NAME_PATTERN.matcher(name).matches()) {
+                throw new IllegalArgumentException("Invalid name of route #" + (r + 1) + ": " + name
+                        + " (letters, digits, '_' and '-' only)");
+            }
+            // Output file names must not collide, also on case-insensitive file systems
+            String lowerCaseName = name.toLowerCase(Locale.ROOT);
+            if (lowerCaseName.equals("filtered") || lowerCaseName.equals("rejected") || !usedNames.add(lowerCaseName)) {
+                throw new IllegalArgumentException("Route name is reserved or used twice: " + name);
+            }
+
+            CompiledCheck[] compiled;
+            try {
+                compiled = ValidationEngine.compile(route.getValidations());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid rule in route " + name + ": " + e.getMessage(), e);
+            }
+
+            int[] indexes = new int[compiled.length];
+            for (int i = 0; i < compiled.length; i++) {
+                CompiledCheck check = compiled[i];
+                indexes[i] = checkIndexes.computeIfAbsent(check.sharingKey(), key -> {
+                    distinctChecks.add(check);
+                    return distinctChecks.size() - 1;
+                });
+            }
+            totalChecks += compiled.length;
+
+            names[r] = name;
+            expectedTotalColumns[r] = route.getExpectedTotalColumn() != null
+                    ? route.getExpectedTotalColumn()
+                    : NO_COLUMN_LIMIT;
+            routeChecks[r] = indexes;
+        }
+
+        this.checks = distinctChecks.toArray(new CompiledCheck[0]);
+        log.info("Routes: {} route(s), {} check(s), {} distinct", routeCount, totalChecks, checks.length);
+    }
+
+    /**
+     * Compile the routes of a configuration
+     *
+     * @param config Filter configuration
+     * @return Route engine, or null if no routes are configured
+     */
+    public static RouteEngine of(FilterConfig config) {
+        if (config.getRoutes() == null || config.getRoutes().isEmpty()) {
+            return null;
+        }
+        return new RouteEngine(config.getRoutes());
+    }
+
+    /**
+     * @return Number of routes
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * @param index Route index (configuration order)
+     * @return Route name
+     */
+    public String name(int index) {
+        return names[index];
+    }
+
+    /**
+     * Create a matcher holding the per-row state and counters of one thread
+     */
+    public Matcher matcher() {
+        return new Matcher();
+    }
+
+    /**
+     * Evaluates rows against all routes and counts the matches of each route
+     * Not thread-safe - one matcher per thread
+     */
+    public final class Matcher {
+
+        /**
+         * Result of each distinct check for the current row
+         */
+        private final byte[] results = new byte[checks.length];
+
+        private final boolean[] matched = new boolean[names.length];
+        private final long[] counts = new long[names.length];
+
+        private Matcher() {
+        }
+
+        /**
+         * Evaluate all routes for a row
+         *
+         * @param row Row to evaluate
+         * @return Match flag per route index (reused, valid until the next call)
+         */
+        public boolean[] match(RowView row) {
+            Arrays.fill(results, UNKNOWN);
+            int columnCount = row.fieldCount();
+
+            for (int r = 0; r < matched.length; r++) {
+                boolean passed = expectedTotalColumns[r] == NO_COLUMN_LIMIT || expectedTotalColumns[r] == columnCount;
+                int[] indexes = routeChecks[r];
+                for (int i = 0; passed && i < indexes.length; i++) {
+                    passed = test(indexes[i], row, columnCount);
+                }
+                matched[r] = passed;
+                if (passed) {
+                    counts[r]++;
+                }
+            }
+            return matched;
+        }
+
+        /**
+         * Evaluate all routes for an already materialized row
+         *
+         * @param row Column values
+         * @return Match flag per route index (reused, valid until the next call)
+         */
+        public boolean[] match(String[] row) {
+            return match(new ValidationEngine.ArrayRow(row, row.length));
+        }
+
+        /**
+         * @return Number of matched rows per route name, in configuration order
+         */
+        public Map<String, Long> getCounts() {
+            Map<String, Long> result = new LinkedHashMap<>();
+            for (int r = 0; r < names.length; r++) {
+                result.put(names[r], counts[r]);
+            }
+            return result;
+        }
+
+        private boolean test(int index, RowView row, int columnCount) {
+            byte result = results[index];
+            if (result == UNKNOWN) {
+                CompiledCheck check = checks[index];
+                boolean passed = check.columnIndex < columnCount && check.test(row.field(check.columnIndex));
+                result = passed ? PASSED : FAILED;
+                results[index] = result;
+            }
+            return result == PASSED;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.filefilter.validator;
+
+/**
+ * Read access to the columns of one row, see ValidationEngine.validate(RowView)
+ *
+ * Implementations decode a column only when it is requested, so columns that no rule
+ * refers to are never materialized, and the column count is known without decoding any column.
+ * A returned value is only valid until the next call to field() or until the row changes -
+ * callers that keep it must call toString().
+ */
+public interface RowView {
+
+    /**
+     * @return Number of columns of the row
+     */
+    int fieldCount();
+
+    /**
+     * @param index 0-based column index, below fieldCount()
+     * @return Column value (may be null for missing values)
+     */
+    CharSequence field(int index);
+}
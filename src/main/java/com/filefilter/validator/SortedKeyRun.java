@@ -0,0 +1,296 @@
+package com.filefilter.validator;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Spill file of a UniqueKeySet: 128-bit key fingerprints sorted by (high, low), 16 bytes each
+ *
+ * The first key of every INDEX_INTERVAL keys is kept in memory (sparse index), so a lookup
+ * reads one block of at most 8 KB with a positional read - usually from the page cache.
+ * Runs are merged sequentially (see merge()), the file is deleted by close().
+ * Not thread-safe.
+ */
+final class SortedKeyRun implements Closeable {
+
+    static final int ENTRY_BYTES = 16;
+
+    private static final int INDEX_INTERVAL = 512;
+    private static final int MERGE_BUFFER_BYTES = 1 << 16;
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+    private static final String FILE_PREFIX = "filefilter-unique-";
+    private static final String FILE_SUFFIX = ".keys";
+
+    private final Path file;
+    private final FileChannel channel;
+    private final long size;
+    private final int tier;
+
+    /**
+     * First key of every block of INDEX_INTERVAL keys
+     */
+    private final long[] indexHigh;
+    private final long[] indexLow;
+
+    private final ByteBuffer block = ByteBuffer.allocate(INDEX_INTERVAL * ENTRY_BYTES);
+
+    private SortedKeyRun(Path file, FileChannel channel, long size, int tier, long[] indexHigh, long[] indexLow) {
+        this.file = file;
+        this.channel = channel;
+        this.size = size;
+        this.tier = tier;
+        this.indexHigh = indexHigh;
+        this.indexLow = indexLow;
+    }
+
+    /**
+     * Write sorted keys to a new run file
+     *
+     * @param directory Spill directory
+     * @param entries Buffer holding the sorted keys from position 0
+     * @param count Number of keys
+     * @param tier Merge tier (0 for keys spilled from memory)
+     * @return Open run
+     * @throws IOException if the file cannot be written
+     */
+    static SortedKeyRun write(Path directory, ByteBuffer entries, int count, int tier) throws IOException {
+        Path file = createFile(directory);
+        FileChannel channel = open(file);
+        try {
+            ByteBuffer data = entries.duplicate().position(0).limit(count * ENTRY_BYTES);
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+
+            int blocks = blockCount(count);
+            long[] indexHigh = new long[blocks];
+            long[] indexLow = new long[blocks];
+            for (int i = 0; i < blocks; i++) {
+                int offset = i * INDEX_INTERVAL * ENTRY_BYTES;
+                indexHigh[i] = entries.getLong(offset);
+                indexLow[i] = entries.getLong(offset + Long.BYTES);
+            }
+            return new SortedKeyRun(file, channel, count, tier, indexHigh, indexLow);
+        } catch (IOException | RuntimeException e) {
+            closeAndDelete(file, channel, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Merge runs into one run of the next tier (the input runs stay open)
+     *
+     * @param directory Spill directory
+     * @param runs Runs to merge
+     * @param tier Tier of the merged run
+     * @return Open merged run
+     * @throws IOException if a file cannot be read or written
+     */
+    static SortedKeyRun merge(Path directory, List<SortedKeyRun> runs, int tier) throws IOException {
+        long total = 0;
+        for (SortedKeyRun run : runs) {
+            total += run.size;
+        }
+
+        Path file = createFile(directory);
+        FileChannel channel = open(file);
+        try {
+            int blocks = blockCount(total);
+            long[] indexHigh = new long[blocks];
+            long[] indexLow = new long[blocks];
+
+            RunReader[] readers = new RunReader[runs.size()];
+            for (int i = 0; i < readers.length; i++) {
+                readers[i] = new RunReader(runs.get(i));
+            }
+            ByteBuffer out = ByteBuffer.allocate(WRITE_BUFFER_BYTES);
+            for (long written = 0; written < total; written++) {
+                // Few runs per merge - a linear scan for the smallest head is enough
+                RunReader smallest = null;
+                for (RunReader reader : readers) {
+                    if (reader.hasCurrent() && (smallest == null
+                            || compare(reader.high, reader.low, smallest.high, smallest.low) < 0)) {
+                        smallest = reader;
+                    }
+                }
+                if (written % INDEX_INTERVAL == 0) {
+                    indexHigh[(int) (written / INDEX_INTERVAL)] = smallest.high;
+                    indexLow[(int) (written / INDEX_INTERVAL)] = smallest.low;
+                }
+                if (!out.hasRemaining()) {
+                    flush(channel, out);
+                }
+                out.putLong(smallest.high).putLong(smallest.low);
+                smallest.advance();
+            }
+            flush(channel, out);
+            return new SortedKeyRun(file, channel, total, tier, indexHigh, indexLow);
+        } catch (IOException | RuntimeException e) {
+            closeAndDelete(file, channel, e);
+            throw e;
+        }
+    }
+
+    /**
+     * @return true if the run holds the key
+     * @throws IOException if the file cannot be read
+     */
+    boolean contains(long high, long low) throws IOException {
+        // Last block whose first key is <= the key
+        int lo = 0;
+        int hi = indexHigh.length - 1;
+        if (hi < 0 || compare(high, low, indexHigh[0], indexLow[0]) < 0) {
+            return false;
+        }
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (compare(high, low, indexHigh[mid], indexLow[mid]) < 0) {
+                hi = mid - 1;
+            } else {
+                lo = mid;
+            }
+        }
+
+        long first = (long) lo * INDEX_INTERVAL;
+        int count = (int) Math.min(INDEX_INTERVAL, size - first);
+        readFully(channel, block.clear().limit(count * ENTRY_BYTES), first * ENTRY_BYTES);
+
+        int left = 0;
+        int right = count - 1;
+        while (left <= right) {
+            int mid = (left + right) >>> 1;
+            int offset = mid * ENTRY_BYTES;
+            int cmp = compare(block.getLong(offset), block.getLong(offset + Long.BYTES), high, low);
+            if (cmp < 0) {
+                left = mid + 1;
+            } else if (cmp > 0) {
+                right = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    long size() {
+        return size;
+    }
+
+    int tier() {
+        return tier;
+    }
+
+    /**
+     * Close and delete the run file
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            channel.close();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Key order of the run files
+     */
+    static int compare(long high1, long low1, long high2, long low2) {
+        int cmp = Long.compare(high1, high2);
+        return cmp != 0 ? cmp : Long.compare(low1, low2);
+    }
+
+    private static int blockCount(long keys) {
+        return (int) ((keys + INDEX_INTERVAL - 1) / INDEX_INTERVAL);
+    }
+
+    private static Path createFile(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Path file = Files.createTempFile(directory, FILE_PREFIX, FILE_SUFFIX);
+        // Safety net if the run is not closed (e.g. the JVM is stopped during processing)
+        file.toFile().deleteOnExit();
+        return file;
+    }
+
+    private static FileChannel open(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, offset);
+            if (read < 0) {
+                throw new EOFException("Unexpected end of key run file");
+            }
+            offset += read;
+        }
+    }
+
+    private static void closeAndDelete(Path file, FileChannel channel, Exception primary) {
+        try {
+            channel.close();
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            primary.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Sequential reader of a run for merging
+     */
+    private static final class RunReader {
+
+        private final SortedKeyRun run;
+        private final ByteBuffer buffer = ByteBuffer.allocate(MERGE_BUFFER_BYTES).limit(0);
+        private long position;
+        private long remaining;
+
+        long high;
+        long low;
+
+        RunReader(SortedKeyRun run) throws IOException {
+            this.run = run;
+            this.remaining = run.size;
+            advance();
+        }
+
+        boolean hasCurrent() {
+            return remaining >= 0;
+        }
+
+        /**
+         * Move to the next key, hasCurrent() turns false after the last one
+         */
+        void advance() throws IOException {
+            if (remaining == 0) {
+                remaining = -1;
+                return;
+            }
+            if (!buffer.hasRemaining()) {
+                long bytes = Math.min(MERGE_BUFFER_BYTES, remaining * ENTRY_BYTES);
+                readFully(run.channel, buffer.clear().limit((int) bytes), position);
+                position += bytes;
+                buffer.flip();
+            }
+            high = buffer.getLong();
+            low = buffer.getLong();
+            remaining--;
+        }
+    }
+}
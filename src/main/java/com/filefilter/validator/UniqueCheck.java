@@ -0,0 +1,151 @@
+package com.filefilter.validator;
+
+import com.filefilter.model.UniqueConfig;
+
+import java.util.Arrays;
+
+/**
+ * Precompiled unique rule (ValidationRule.unique): passes when the key of the row - one or more
+ * columns - was not seen before in the run
+ *
+ * Unlike a CompiledCheck it tests whole rows and keeps state: ValidationEngine holds unique checks
+ * separately and evaluates them after all column checks passed. The keys live in a
+ * memory-bounded UniqueKeySet that spills to disk.
+ * Canonical non-negative integers of single-column keys are stored as their value, other keys
+ * as 128-bit hash (see KeyHasher) - the low bits keep both kinds apart.
+ *
+ * Not thread-safe - copy() creates an independent check with an empty key set.
+ */
+final class UniqueCheck {
+
+    /**
+     * Fingerprint low bits of numeric keys - hashed keys always have the lowest bit set
+     */
+    static final long NUMBER_KEY = 2;
+
+    /**
+     * Index of the source rule in FilterConfig.getValidations()
+     */
+    final int ruleIndex;
+
+    /**
+     * Key columns (0-based), starting with the column of the rule
+     */
+    final int[] keyColumns;
+
+    /**
+     * Highest key column, rows with fewer columns fail the check
+     */
+    final int lastKeyColumn;
+
+    /**
+     * Evaluation counters of this check
+     */
+    final CheckMetrics metrics = new CheckMetrics();
+
+    private final UniqueConfig settings;
+    private final UniqueKeySet keys;
+    private final KeyHasher hasher = new KeyHasher();
+
+    /**
+     * Fingerprint of the last key computed by testRow() / isNew()
+     */
+    private long keyHigh;
+    private long keyLow;
+
+    /**
+     * @param ruleIndex Index of the source rule
+     * @param keyColumns Key columns (0-based, at least one)
+     * @param settings Memory budget, spill directory and Bloom filter settings
+     */
+    UniqueCheck(int ruleIndex, int[] keyColumns, UniqueConfig settings) {
+        this.ruleIndex = ruleIndex;
+        this.keyColumns = keyColumns.clone();
+        this.lastKeyColumn = Arrays.stream(keyColumns).max().orElseThrow();
+        this.settings = settings;
+        this.keys = new UniqueKeySet("columns " + describeColumns(keyColumns), settings);
+    }
+
+    /**
+     * Column of the rule (first key column)
+     */
+    int columnIndex() {
+        return keyColumns[0];
+    }
+
+    /**
+     * Add the key of the row
+     *
+     * @param row Row with at least lastKeyColumn + 1 columns
+     * @return true if the key is new
+     */
+    boolean testRow(RowView row) {
+        fingerprint(row);
+        return keys.add(keyHigh, keyLow);
+    }
+
+    /**
+     * Check the key of the row without adding it, addKey() adds it afterwards
+     * Used when a row has several unique keys, so that a row rejected by one of them
+     * does not register its other keys
+     *
+     * @param row Row with at least lastKeyColumn + 1 columns
+     * @return true if the key is new
+     */
+    boolean isNew(RowView row) {
+        fingerprint(row);
+        return !keys.contains(keyHigh, keyLow);
+    }
+
+    /**
+     * Add the key of the last isNew() call
+     */
+    void addKey() {
+        keys.add(keyHigh, keyLow);
+    }
+
+    /**
+     * Forget the keys of the run, delete spill files and release memory
+     */
+    void reset() {
+        keys.clear();
+    }
+
+    /**
+     * Create a check with the same rule and settings, fresh counters and an empty key set
+     */
+    UniqueCheck copy() {
+        return new UniqueCheck(ruleIndex, keyColumns, settings);
+    }
+
+    /**
+     * Short description used in debug logs
+     */
+    String describe() {
+        return "unique" + describeColumns(keyColumns);
+    }
+
+    private void fingerprint(RowView row) {
+        if (keyColumns.length == 1) {
+            CharSequence value = row.field(keyColumns[0]);
+            long number = value != null ? CompactValueSet.parseNumber(value) : -1;
+            if (number >= 0) {
+                keyHigh = number;
+                keyLow = NUMBER_KEY;
+                return;
+            }
+        }
+        hasher.reset();
+        for (int column : keyColumns) {
+            // Missing values are written as empty columns, so they match empty values
+            CharSequence value = row.field(column);
+            hasher.add(value != null ? value : "");
+        }
+        keyHigh = hasher.finish();
+        keyLow = hasher.low() | 1;
+    }
+
+    private static String describeColumns(int[] keyColumns) {
+        return Arrays.toString(Arrays.stream(keyColumns).map(column -> column + 1).toArray());
+    }
+}
@@ -0,0 +1,361 @@
+package com.filefilter.validator;
+
+import com.filefilter.model.UniqueConfig;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Memory-bounded set of the keys seen by a unique rule (128-bit fingerprints, see KeyHasher)
+ *
+ * Keys are inserted into an off-heap open-addressing table of 16-byte slots sized by the memory
+ * budget. When the table is 70% full, its keys are sorted in place and spilled to a run file
+ * (SortedKeyRun) and the table starts over - the run files are searched for keys not in memory.
+ * To keep the number of files small, MERGE_FANOUT runs of the same tier are merged into one
+ * run of the next tier (each key is rewritten about log8(keys / table size) times).
+ * An optional Bloom filter over all keys answers "never seen" without touching the run files,
+ * which makes mostly unique keys almost as cheap as in memory.
+ *
+ * Memory is allocated on the first key and released (run files deleted) by clear().
+ * Not thread-safe - unique rules force sequential processing.
+ */
+@Slf4j
+final class UniqueKeySet {
+
+    private static final int SLOT_BYTES = SortedKeyRun.ENTRY_BYTES;
+    private static final double MAX_LOAD = 0.7;
+    private static final int MERGE_FANOUT = 8;
+    private static final int MIN_SLOTS = 1024;
+    private static final int MAX_SLOTS = Integer.MAX_VALUE / SLOT_BYTES;
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private final String name;
+    private final int capacity;
+    private final Path spillDirectory;
+    private final boolean useBloomFilter;
+    private final long expectedKeys;
+    private final double falsePositiveRate;
+
+    /**
+     * Slots of [high][low], low == 0 marks an empty slot - null until the first key
+     */
+    private ByteBuffer table;
+    private int size;
+    private final int maxSize;
+
+    /**
+     * Spilled keys, oldest first
+     */
+    private final List<SortedKeyRun> runs = new ArrayList<>();
+    private BloomFilter bloomFilter;
+    private long totalKeys;
+    private boolean bloomHintLogged;
+
+    /**
+     * @param name Description for logs (e.g. "columns [1, 2]")
+     * @param settings Memory budget, spill directory and Bloom filter settings (null for defaults)
+     */
+    UniqueKeySet(String name, UniqueConfig settings) {
+        this(name, settings, slots(settings));
+    }
+
+    /**
+     * @param capacity Number of table slots (instead of memoryMb, e.g. to spill after a few keys)
+     */
+    UniqueKeySet(String name, UniqueConfig settings, int capacity) {
+        UniqueConfig config = settings != null ? settings : new UniqueConfig();
+        this.name = name;
+        this.capacity = capacity;
+        this.maxSize = (int) (capacity * MAX_LOAD);
+        this.spillDirectory = Paths.get(config.getSpillDirectory() != null && !config.getSpillDirectory().isEmpty()
+                ? config.getSpillDirectory()
+                : System.getProperty("java.io.tmpdir"));
+        this.useBloomFilter = Boolean.TRUE.equals(config.getBloomFilter());
+        this.expectedKeys = config.getExpectedKeys() != null && config.getExpectedKeys() > 0
+                ? config.getExpectedKeys()
+                : 100_000_000L;
+        this.falsePositiveRate = config.getFalsePositiveRate() != null
+                && config.getFalsePositiveRate() > 0 && config.getFalsePositiveRate() < 1
+                ? config.getFalsePositiveRate()
+                : 0.01;
+    }
+
+    /**
+     * Add a key
+     *
+     * @param high High 64 bits of the fingerprint
+     * @param low Low 64 bits of the fingerprint (must not be 0)
+     * @return true if the key is new, false if it was added before
+     * @throws UncheckedIOException if a run file cannot be read or written
+     */
+    boolean add(long high, long low) {
+        if (table == null) {
+            table = ByteBuffer.allocateDirect(capacity * SLOT_BYTES);
+            if (useBloomFilter) {
+                bloomFilter = new BloomFilter(expectedKeys, falsePositiveRate);
+            }
+        }
+
+        int slot = findSlot(high, low);
+        if (table.getLong(slot * SLOT_BYTES + Long.BYTES) != 0 || spilled(high, low)) {
+            return false;
+        }
+
+        table.putLong(slot * SLOT_BYTES, high);
+        table.putLong(slot * SLOT_BYTES + Long.BYTES, low);
+        if (bloomFilter != null) {
+            bloomFilter.put(high, low);
+        }
+        totalKeys++;
+        if (++size >= maxSize) {
+            try {
+                spill();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot write unique key spill file in " + spillDirectory, e);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check a key without adding it
+     *
+     * @return true if the key was added before
+     * @throws UncheckedIOException if a run file cannot be read
+     */
+    boolean contains(long high, long low) {
+        if (table == null) {
+            return false;
+        }
+        return table.getLong(findSlot(high, low) * SLOT_BYTES + Long.BYTES) != 0 || spilled(high, low);
+    }
+
+    /**
+     * Forget all keys, delete the run files and release the memory
+     */
+    void clear() {
+        IOException failure = null;
+        for (SortedKeyRun run : runs) {
+            try {
+                run.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            log.warn("Failed to delete unique key spill file: {}", failure.getMessage());
+        }
+        if (!runs.isEmpty()) {
+            log.info("Unique keys of {}: {} distinct keys, {} in memory, spill files deleted", name, totalKeys, size);
+        }
+        runs.clear();
+        table = null;
+        bloomFilter = null;
+        size = 0;
+        totalKeys = 0;
+    }
+
+    /**
+     * @return Number of distinct keys added since the last clear()
+     */
+    long size() {
+        return totalKeys;
+    }
+
+    private static int slots(UniqueConfig settings) {
+        Integer memoryMb = settings != null ? settings.getMemoryMb() : null;
+        long bytes = (memoryMb != null && memoryMb > 0 ? memoryMb : 256) * 1024L * 1024L;
+        return (int) Math.max(MIN_SLOTS, Math.min(MAX_SLOTS, bytes / SLOT_BYTES));
+    }
+
+    private int findSlot(long high, long low) {
+        long hash = KeyHasher.fmix(high ^ Long.rotateLeft(low, 32));
+        int slot = (int) (((hash >>> 32) * capacity) >>> 32);
+        while (true) {
+            long storedLow = table.getLong(slot * SLOT_BYTES + Long.BYTES);
+            if (storedLow == 0 || (storedLow == low && table.getLong(slot * SLOT_BYTES) == high)) {
+                return slot;
+            }
+            if (++slot == capacity) {
+                slot = 0;
+            }
+        }
+    }
+
+    private boolean spilled(long high, long low) {
+        if (runs.isEmpty() || (bloomFilter != null && !bloomFilter.mightContain(high, low))) {
+            return false;
+        }
+        try {
+            // Newest runs first - recently seen keys are the most likely duplicates
+            for (int i = runs.size() - 1; i >= 0; i--) {
+                if (runs.get(i).contains(high, low)) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read unique key spill file in " + spillDirectory, e);
+        }
+    }
+
+    /**
+     * Sort the keys of the table into a run file and empty the table
+     */
+    private void spill() throws IOException {
+        long start = System.nanoTime();
+
+        // Move the keys to the front of the table, then sort them there
+        int count = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            long low = table.getLong(slot * SLOT_BYTES + Long.BYTES);
+            if (low != 0) {
+                if (slot != count) {
+                    table.putLong(count * SLOT_BYTES, table.getLong(slot * SLOT_BYTES));
+                    table.putLong(count * SLOT_BYTES + Long.BYTES, low);
+                }
+                count++;
+            }
+        }
+        sort(0, count - 1);
+        runs.add(SortedKeyRun.write(spillDirectory, table, count, 0));
+
+        for (int offset = 0; offset < capacity * SLOT_BYTES; offset += Long.BYTES) {
+            table.putLong(offset, 0);
+        }
+        size = 0;
+        mergeRuns();
+
+        log.info("Unique keys of {}: spilled {} keys in {} ms ({} distinct keys, {} run file(s) in {})", name, count,
+                (System.nanoTime() - start) / 1_000_000, totalKeys, runs.size(), spillDirectory);
+        if (bloomFilter == null && !bloomHintLogged) {
+            bloomHintLogged = true;
+            log.info("Unique keys of {}: new keys are looked up in the spill files, "
+                    + "uniqueKeys.bloomFilter avoids that for keys that were never seen", name);
+        }
+    }
+
+    /**
+     * Merge MERGE_FANOUT runs of the same tier into one run of the next tier, repeatedly
+     */
+    private void mergeRuns() throws IOException {
+        for (int tier = 0; ; tier++) {
+            List<SortedKeyRun> sameTier = new ArrayList<>();
+            for (SortedKeyRun run : runs) {
+                if (run.tier() == tier) {
+                    sameTier.add(run);
+                }
+            }
+            if (sameTier.size() < MERGE_FANOUT) {
+                return;
+            }
+
+            SortedKeyRun merged = SortedKeyRun.merge(spillDirectory, sameTier, tier + 1);
+            runs.removeAll(sameTier);
+            // Older tiers hold older keys - keep the list ordered by age
+            runs.add(runs.size() - countNewerThan(tier), merged);
+            for (SortedKeyRun run : sameTier) {
+                run.close();
+            }
+        }
+    }
+
+    /**
+     * Number of runs in tiers below the given tier (they hold keys newer than the merged run)
+     */
+    private int countNewerThan(int tier) {
+        int count = 0;
+        for (SortedKeyRun run : runs) {
+            if (run.tier() < tier) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * In-place quicksort of table slots [from, to] by (high, low)
+     */
+    private void sort(int from, int to) {
+        int left = from;
+        int right = to;
+        while (right - left > INSERTION_SORT_THRESHOLD) {
+            // Median of three as pivot
+            int mid = (left + right) >>> 1;
+            if (compareSlots(mid, left) < 0) {
+                swap(mid, left);
+            }
+            if (compareSlots(right, left) < 0) {
+                swap(right, left);
+            }
+            if (compareSlots(right, mid) < 0) {
+                swap(right, mid);
+            }
+            long pivotHigh = high(mid);
+            long pivotLow = low(mid);
+
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (SortedKeyRun.compare(high(i), low(i), pivotHigh, pivotLow) < 0) {
+                    i++;
+                }
+                while (SortedKeyRun.compare(high(j), low(j), pivotHigh, pivotLow) > 0) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            }
+
+            // Recurse into the smaller part, loop on the larger one (bounded stack depth)
+            if (j - left < right - i) {
+                sort(left, j);
+                left = i;
+            } else {
+                sort(i, right);
+                right = j;
+            }
+        }
+
+        for (int i = left + 1; i <= right; i++) {
+            long keyHigh = high(i);
+            long keyLow = low(i);
+            int j = i - 1;
+            while (j >= left && SortedKeyRun.compare(high(j), low(j), keyHigh, keyLow) > 0) {
+                table.putLong((j + 1) * SLOT_BYTES, high(j));
+                table.putLong((j + 1) * SLOT_BYTES + Long.BYTES, low(j));
+                j--;
+            }
+            table.putLong((j + 1) * SLOT_BYTES, keyHigh);
+            table.putLong((j + 1) * SLOT_BYTES + Long.BYTES, keyLow);
+        }
+    }
+
+    private long high(int slot) {
+        return table.getLong(slot * SLOT_BYTES);
+    }
+
+    private long low(int slot) {
+        return table.getLong(slot * SLOT_BYTES + Long.BYTES);
+    }
+
+    private int compareSlots(int a, int b) {
+        return SortedKeyRun.compare(high(a), low(a), high(b), low(b));
+    }
+
+    private void swap(int a, int b) {
+        long high = high(a);
+        long low = low(a);
+        table.putLong(a * SLOT_BYTES, high(b));
+        table.putLong(a * SLOT_BYTES + Long.BYTES, low(b));
+        table.putLong(b * SLOT_BYTES, high);
+        table.putLong(b * SLOT_BYTES + Long.BYTES, low);
+    }
+}
@@ -1,105 +1,532 @@
 package com.filefilter.validator;
 
+import com.filefilter.model.AdaptiveOrderConfig;
 import com.filefilter.model.FilterConfig;
+import com.filefilter.model.UniqueConfig;
 import com.filefilter.model.ValidationRule;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
 /**
  * Validation engine that applies validation rules to data rows
- * Supports: notEmpty, valueInList, and regex validation
+ * Supports: notEmpty, valueInList, regex and unique validation
+ *
+ * All rules are compiled once at construction into an immutable array of checks
+ * (precompiled patterns, hash sets, primitive column indexes), so validate() does
+ * no per-row parsing of the configuration. Value list files are loaded at that point into
+ * compact sets (see CompactValueSet).
+ * The configuration is immutable after construction and the engine can be shared between threads.
+ * Unique rules are the exception: they record the keys of the run (see UniqueCheck),
+ * so an engine with unique rules must validate the rows of one file, in order, on one thread.
+ *
+ * Every check counts evaluations and failures in striped counters, and execution time
+ * is measured for a random sample of rows (see getStats()).
+ * With adaptive ordering enabled these measurements are used to reorder the checks
+ * (see AdaptiveCheckOrder) - the array is swapped atomically, validate() never blocks.
  */
 @Slf4j
 public class ValidationEngine {
 
-    private final FilterConfig config;
+    /**
+     * Marker for "no column count check"
+     */
+    private static final int NO_COLUMN_LIMIT = -1;
+
+    /**
+     * Rows are timed with a probability of 1 / (SAMPLE_MASK + 1)
+     */
+    private static final int SAMPLE_MASK = 63;
+
+    private final int expectedTotalColumn;
+    private final int[] referencedColumns;
+
+    /**
+     * Checks in configuration order (used for statistics)
+     */
+    private final CompiledCheck[] configuredChecks;
+
+    /**
+     * Checks in evaluation order (replaced as a whole by adaptive ordering)
+     */
+    private volatile CompiledCheck[] checks;
+
+    /**
+     * Unique rules in configuration order, evaluated on the whole row after all checks passed
+     */
+    private final UniqueCheck[] uniqueChecks;
+
+    /**
+     * Adaptive ordering - null if checks run in configuration order
+     */
+    private final AdaptiveOrderConfig adaptiveOrderConfig;
+    private final AdaptiveCheckOrder adaptiveOrder;
+    private final int ruleCount;
+
+    /**
+     * Counters of the column count check
+     */
+    private final CheckMetrics columnCountMetrics = new CheckMetrics();
 
+    /**
+     * Compile validation rules from configuration
+     *
+     * @param config Filter configuration
+     * @throws IllegalArgumentException if a rule has an invalid column index or regex,
+     *                                  or a value list file cannot be read
+     */
     public ValidationEngine(FilterConfig config) {
-        this.config = config;
+        this.expectedTotalColumn = config.getExpectedTotalColumn() != null
+                ? config.getExpectedTotalColumn()
+                : NO_COLUMN_LIMIT;
+        this.configuredChecks = compile(config.getValidations(), true);
+        this.checks = configuredChecks;
+        this.uniqueChecks = compileUnique(config.getValidations(),
+                config.getUniqueKeys() != null ? config.getUniqueKeys() : new UniqueConfig());
+        this.referencedColumns = collectReferencedColumns(configuredChecks, uniqueChecks);
+        this.ruleCount = config.getValidations() != null ? config.getValidations().size() : 0;
+        this.adaptiveOrderConfig = config.getAdaptiveOrder();
+        this.adaptiveOrder = adaptiveOrderConfig != null
+                ? new AdaptiveCheckOrder(adaptiveOrderConfig, SAMPLE_MASK + 1)
+                : null;
+    }
+
+    /**
+     * Copy compiled rules and the current check order of another engine, with fresh counters
+     */
+    private ValidationEngine(ValidationEngine previous) {
+        this.expectedTotalColumn = previous.expectedTotalColumn;
+        this.referencedColumns = previous.referencedColumns;
+        this.ruleCount = previous.ruleCount;
+        this.adaptiveOrderConfig = previous.adaptiveOrderConfig;
+        this.adaptiveOrder = adaptiveOrderConfig != null
+                ? new AdaptiveCheckOrder(adaptiveOrderConfig, SAMPLE_MASK + 1)
+                : null;
+
+        this.configuredChecks = new CompiledCheck[previous.configuredChecks.length];
+        for (int i = 0; i < configuredChecks.length; i++) {
+            configuredChecks[i] = previous.configuredChecks[i].copy();
+        }
+
+        // Keep the evaluation order (e.g. learned by adaptive ordering)
+        CompiledCheck[] previousOrder = previous.checks;
+        CompiledCheck[] order = new CompiledCheck[previousOrder.length];
+        for (int i = 0; i < order.length; i++) {
+            for (int j = 0; j < configuredChecks.length; j++) {
+                if (previous.configuredChecks[j] == previousOrder[i]) {
+                    order[i] = configuredChecks[j];
+                    break;
+                }
+            }
+        }
+        this.checks = order;
+
+        this.uniqueChecks = new UniqueCheck[previous.uniqueChecks.length];
+        for (int i = 0; i < uniqueChecks.length; i++) {
+            uniqueChecks[i] = previous.uniqueChecks[i].copy();
+        }
+    }
+
+    /**
+     * Create an engine for another run with the same rules, without compiling them again
+     * Compiled checks are shared, counters start at zero and this engine's check order is kept
+     * An order learned by adaptive ordering carries over only when called on the engine that learned it
+     * (FilterService keeps the last file's engine, engines from ConfigCache start in configuration order)
+     * Unique checks start with an empty key set
+     *
+     * @return New engine, independent of this one apart from the shared immutable rules
+     */
+    public ValidationEngine forNextRun() {
+        return new ValidationEngine(this);
+    }
+
+    /**
+     * Release the keys recorded by unique rules (memory and spill files)
+     * The engine starts over with empty key sets, e.g. for the next file
+     */
+    public void resetRunState() {
+        for (UniqueCheck unique : uniqueChecks) {
+            unique.reset();
+        }
+    }
+
+    /**
+     * Get the distinct columns referenced by validation rules
+     * Readers can use this to materialize only the columns the engine will look at
+     *
+     * @return Sorted 0-based column indexes (a copy)
+     */
+    public int[] getReferencedColumns() {
+        return referencedColumns.clone();
     }
 
     /**
      * Validate a row of data against all configured validation rules
      * Uses AND logic - ALL rules must pass for the row to be valid
+     * With unique rules, a valid row registers its keys (later rows with the same keys fail)
      *
      * @param rowData Array of column values
      * @return true if all validations pass, false otherwise
      */
     public boolean validate(String[] rowData) {
+        return validate(rowData, rowData.length);
+    }
+
+    /**
+     * Validate a sparsely populated row
+     * Only the referenced columns (see getReferencedColumns()) below columnCount are read,
+     * so the array may be reused between rows and other slots may hold stale values
+     *
+     * @param rowData Array holding at least the referenced column values
+     * @param columnCount Actual number of columns in the row
+     * @return true if all validations pass, false otherwise
+     */
+    public boolean validate(String[] rowData, int columnCount) {
+        return validate(new ArrayRow(rowData, columnCount));
+    }
+
+    /**
+     * Validate a row that decodes its columns on demand
+     * The column count check only uses fieldCount(), and only the columns referenced by
+     * checks are requested - in check order, stopping at the first failing check
+     *
+     * @param row Row to validate
+     * @return true if all validations pass, false otherwise
+     */
+    public boolean validate(RowView row) {
+        int columnCount = row.fieldCount();
+        // Time a random sample of rows only, nanoTime() per check would dominate cheap checks
+        boolean sampled = (ThreadLocalRandom.current().nextInt() & SAMPLE_MASK) == 0;
+        CompiledCheck[] currentChecks = checks;
+
+        if (sampled && adaptiveOrder != null) {
+            CompiledCheck[] reordered = adaptiveOrder.onSampledRow(currentChecks);
+            if (reordered != null) {
+                // Takes effect for the next rows, this row finishes with the current order
+                checks = reordered;
+            }
+        }
+
         // Check total column count if specified
-        if (config.getExpectedTotalColumn() != null) {
-            if (rowData.length != config.getExpectedTotalColumn()) {
-                log.debug("Column count mismatch: expected={}, actual={}",
-                        config.getExpectedTotalColumn(), rowData.length);
+        if (expectedTotalColumn != NO_COLUMN_LIMIT) {
+            boolean columnCountMatches = columnCount == expectedTotalColumn;
+            columnCountMetrics.record(columnCountMatches);
+            if (!columnCountMatches) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Column count mismatch: expected={}, actual={}", expectedTotalColumn, columnCount);
+                }
                 return false;
             }
         }
 
-        // Apply all validation rules (AND logic)
-        if (config.getValidations() != null) {
-            for (ValidationRule rule : config.getValidations()) {
-                if (!validateRule(rowData, rule)) {
-                    return false;
+        // Apply all compiled checks (AND logic)
+        for (CompiledCheck check : currentChecks) {
+            int columnIndex = check.columnIndex;
+
+            if (columnIndex >= columnCount) {
+                check.metrics.record(false);
+                if (log.isDebugEnabled()) {
+                    log.debug("Column {} not present in row with {} column(s)", columnIndex + 1, columnCount);
+                }
+                return false;
+            }
+
+            CharSequence columnValue = row.field(columnIndex);
+            boolean passed;
+            if (sampled) {
+                long startNanos = System.nanoTime();
+                passed = check.test(columnValue);
+                check.metrics.recordSampled(passed, System.nanoTime() - startNanos);
+            } else {
+                passed = check.test(columnValue);
+                check.metrics.record(passed);
+            }
+
+            if (!passed) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Column {} failed {} check: value='{}'", columnIndex + 1, check.describe(), columnValue);
                 }
+                return false;
             }
         }
 
+        return uniqueChecks.length == 0 || validateUnique(row, columnCount, sampled);
+    }
+
+    /**
+     * Apply the unique rules to a row that passed all checks
+     * With several unique rules, the keys are only added once all of them are new
+     */
+    private boolean validateUnique(RowView row, int columnCount, boolean sampled) {
+        boolean single = uniqueChecks.length == 1;
+        for (UniqueCheck unique : uniqueChecks) {
+            if (unique.lastKeyColumn >= columnCount) {
+                unique.metrics.record(false);
+                if (log.isDebugEnabled()) {
+                    log.debug("Column {} not present in row with {} column(s)", unique.lastKeyColumn + 1, columnCount);
+                }
+                return false;
+            }
+
+            boolean passed;
+            if (sampled) {
+                long startNanos = System.nanoTime();
+                passed = single ? unique.testRow(row) : unique.isNew(row);
+                unique.metrics.recordSampled(passed, System.nanoTime() - startNanos);
+            } else {
+                passed = single ? unique.testRow(row) : unique.isNew(row);
+                unique.metrics.record(passed);
+            }
+
+            if (!passed) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Column {} failed {} check: duplicate key", unique.columnIndex() + 1, unique.describe());
+                }
+                return false;
+            }
+        }
+
+        if (!single) {
+            for (UniqueCheck unique : uniqueChecks) {
+                unique.addKey();
+            }
+        }
         return true;
     }
 
     /**
-     * Validate a single rule against the row data
+     * Snapshot of the per-rule and per-check-type counters collected so far
      *
-     * @param rowData Array of column values
-     * @param rule Validation rule to apply
-     * @return true if rule passes, false otherwise
+     * Rule statistics: evaluations count rows that reached the rule (its most evaluated condition),
+     * failures rows rejected by it, the average cost covers all conditions of the rule,
+     * percentiles are per condition.
+     *
+     * @return Statistics (counters keep running after the snapshot)
      */
-    private boolean validateRule(String[] rowData, ValidationRule rule) {
-        Integer columnIndex = rule.getColumn();
+    public ValidationStats getStats() {
+        // Per rule, in configuration order
+        long[][] ruleTotals = new long[ruleCount][CheckMetrics.TOTALS_LENGTH];
+        long[] ruleEvaluations = new long[ruleCount];
+        long[] ruleSamples = new long[ruleCount];
+        boolean[] ruleSeen = new boolean[ruleCount];
+        int[] ruleColumns = new int[ruleCount];
+        // Per check type, in order of first appearance
+        Map<String, long[]> typeTotals = new LinkedHashMap<>();
 
-        // Validate column index
-        if (columnIndex == null || columnIndex < 1 || columnIndex > rowData.length) {
-            log.warn("Invalid column index: {}", columnIndex);
-            return false;
+        if (expectedTotalColumn != NO_COLUMN_LIMIT) {
+            long[] totals = new long[CheckMetrics.TOTALS_LENGTH];
+            columnCountMetrics.addTo(totals);
+            typeTotals.put("columnCount", totals);
         }
 
-        // Get column value (convert from 1-based to 0-based index)
-        String columnValue = rowData[columnIndex - 1];
+        for (CompiledCheck check : configuredChecks) {
+            long[] checkTotals = new long[CheckMetrics.TOTALS_LENGTH];
+            check.metrics.addTo(checkTotals);
 
-        // Apply notEmpty check
-        if (rule.getNotEmpty() != null && rule.getNotEmpty()) {
-            if (columnValue == null || columnValue.trim().isEmpty()) {
-                log.debug("Column {} failed notEmpty check", columnIndex);
-                return false;
+            // The condition evaluated first runs whenever the rule is reached
+            ruleSeen[check.ruleIndex] = true;
+            if (checkTotals[CheckMetrics.EVALUATIONS] > ruleEvaluations[check.ruleIndex]) {
+                ruleEvaluations[check.ruleIndex] = checkTotals[CheckMetrics.EVALUATIONS];
+                ruleSamples[check.ruleIndex] = checkTotals[CheckMetrics.SAMPLES];
             }
+            ruleColumns[check.ruleIndex] = check.columnIndex;
+            addTotals(ruleTotals[check.ruleIndex], checkTotals);
+            addTotals(typeTotals.computeIfAbsent(check.type(), type -> new long[CheckMetrics.TOTALS_LENGTH]),
+                    checkTotals);
         }
 
-        // Apply valueInList check
-        if (rule.getValueInList() != null && !rule.getValueInList().isEmpty()) {
-            if (!rule.getValueInList().contains(columnValue)) {
-                log.debug("Column {} failed valueInList check: value='{}', expectedValues={}",
-                        columnIndex, columnValue, rule.getValueInList());
-                return false;
+        // Unique rules run after all checks, so they are reached by the fewest rows
+        for (UniqueCheck unique : uniqueChecks) {
+            long[] checkTotals = new long[CheckMetrics.TOTALS_LENGTH];
+            unique.metrics.addTo(checkTotals);
+            if (!ruleSeen[unique.ruleIndex]) {
+                ruleSeen[unique.ruleIndex] = true;
+                ruleEvaluations[unique.ruleIndex] = checkTotals[CheckMetrics.EVALUATIONS];
+                ruleSamples[unique.ruleIndex] = checkTotals[CheckMetrics.SAMPLES];
+            }
+            ruleColumns[unique.ruleIndex] = unique.columnIndex();
+            addTotals(ruleTotals[unique.ruleIndex], checkTotals);
+            addTotals(typeTotals.computeIfAbsent("unique", type -> new long[CheckMetrics.TOTALS_LENGTH]),
+                    checkTotals);
+        }
+
+        List<CheckStats> rules = new ArrayList<>();
+        for (int ruleIndex = 0; ruleIndex < ruleCount; ruleIndex++) {
+            if (ruleSeen[ruleIndex]) {
+                rules.add(CheckStats.from("rule #" + (ruleIndex + 1) + " (column " + (ruleColumns[ruleIndex] + 1) + ")",
+                        ruleTotals[ruleIndex], ruleEvaluations[ruleIndex], ruleSamples[ruleIndex]));
             }
         }
 
-        // Apply regex check
-        if (rule.getRegex() != null && !rule.getRegex().isEmpty()) {
-            try {
-                Pattern pattern = Pattern.compile(rule.getRegex());
-                if (!pattern.matcher(columnValue != null ? columnValue : "").matches()) {
-                    log.debug("Column {} failed regex check: value='{}', pattern='{}'",
-                            columnIndex, columnValue, rule.getRegex());
-                    return false;
+        List<CheckStats> checkTypes = new ArrayList<>();
+        typeTotals.forEach((type, totals) -> checkTypes.add(CheckStats.from(type, totals)));
+
+        return ValidationStats.builder()
+                .rules(rules)
+                .checkTypes(checkTypes)
+                .build();
+    }
+
+    /**
+     * Row over an already materialized array
+     */
+    record ArrayRow(String[] values, int fieldCount) implements RowView {
+        @Override
+        public CharSequence field(int index) {
+            return values[index];
+        }
+    }
+
+    private static void addTotals(long[] target, long[] source) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] += source[i];
+        }
+    }
+
+    /**
+     * Compile validation rules that must not use unique (e.g. route rules)
+     *
+     * @throws IllegalArgumentException if a rule is invalid or uses unique
+     */
+    static CompiledCheck[] compile(List<ValidationRule> rules) {
+        return compile(rules, false);
+    }
+
+    /**
+     * Compile validation rules into a flat array of column checks
+     * Check order within a rule follows the original evaluation order: notEmpty, valueInList, regex
+     * Unique rules are compiled separately (see compileUnique())
+     *
+     * @param uniqueAllowed false to reject rules that use unique
+     */
+    static CompiledCheck[] compile(List<ValidationRule> rules, boolean uniqueAllowed) {
+        if (rules == null) {
+            return new CompiledCheck[0];
+        }
+
+        List<CompiledCheck> compiled = new ArrayList<>();
+        for (int ruleIndex = 0; ruleIndex < rules.size(); ruleIndex++) {
+            ValidationRule rule = rules.get(ruleIndex);
+            Integer column = rule.getColumn();
+
+            if (column == null || column < 1) {
+                throw new IllegalArgumentException(
+                        "Invalid column index in validation rule #" + (ruleIndex + 1) + ": " + column);
+            }
+
+            // Convert from 1-based to 0-based index
+            int columnIndex = column - 1;
+            int before = compiled.size();
+
+            if (Boolean.TRUE.equals(rule.getNotEmpty())) {
+                compiled.add(new CompiledCheck.NotEmpty(ruleIndex, columnIndex));
+            }
+
+            boolean hasValueList = rule.getValueInList() != null && !rule.getValueInList().isEmpty();
+            if (rule.getValueInListFile() != null && !rule.getValueInListFile().isEmpty()) {
+                compiled.add(compileValueFile(ruleIndex, columnIndex, rule, hasValueList));
+            } else if (hasValueList) {
+                compiled.add(new CompiledCheck.ValueInList(ruleIndex, columnIndex, rule.getValueInList()));
+            }
+
+            if (rule.getRegex() != null && !rule.getRegex().isEmpty()) {
+                try {
+                    compiled.add(new CompiledCheck.Regex(ruleIndex, columnIndex, Pattern.compile(rule.getRegex())));
+                } catch (PatternSyntaxException e) {
+                    throw new IllegalArgumentException(
+                            "Invalid regex pattern for column " + column + ": " + rule.getRegex(), e);
                 }
-            } catch (PatternSyntaxException e) {
-                log.error("Invalid regex pattern for column {}: {}", columnIndex, rule.getRegex(), e);
-                return false;
+            }
+
+            boolean unique = Boolean.TRUE.equals(rule.getUnique());
+            if (unique && !uniqueAllowed) {
+                throw new IllegalArgumentException("unique is only supported in validations (column " + column + ")");
+            }
+
+            // A rule without conditions still requires the column to exist (unique rules check their columns)
+            if (compiled.size() == before && !unique) {
+                compiled.add(new CompiledCheck.ColumnPresent(ruleIndex, columnIndex));
             }
         }
 
-        return true;
+        return compiled.toArray(new CompiledCheck[0]);
+    }
+
+    /**
+     * Load the value file of a rule (merged with its inline valueInList) into a compact set
+     */
+    private static CompiledCheck compileValueFile(int ruleIndex, int columnIndex, ValidationRule rule,
+                                                  boolean hasValueList) {
+        List<String> inlineValues = hasValueList ? rule.getValueInList() : List.of();
+        String source = rule.getValueInListFile() + (hasValueList ? " + " + inlineValues : "");
+        try {
+            long start = System.nanoTime();
+            CompactValueSet values = CompactValueSet.load(rule.getValueInListFile(), inlineValues);
+            log.info("Loaded value list {} for column {}: {} in {} ms", rule.getValueInListFile(),
+                    rule.getColumn(), values.summary(), (System.nanoTime() - start) / 1_000_000);
+            return new CompiledCheck.ValueInSet(ruleIndex, columnIndex, values, source);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read value list file for column " + rule.getColumn()
+                    + ": " + rule.getValueInListFile() + " (" + e.getMessage() + ")", e);
+        }
+    }
+
+    /**
+     * Compile the unique rules, the key of a rule is its column followed by uniqueWith
+     *
+     * @param uniqueSettings Memory budget, spill directory and Bloom filter of the key sets
+     * @throws IllegalArgumentException if a uniqueWith column is invalid
+     */
+    static UniqueCheck[] compileUnique(List<ValidationRule> rules, UniqueConfig uniqueSettings) {
+        if (rules == null) {
+            return new UniqueCheck[0];
+        }
+
+        List<UniqueCheck> compiled = new ArrayList<>();
+        for (int ruleIndex = 0; ruleIndex < rules.size(); ruleIndex++) {
+            ValidationRule rule = rules.get(ruleIndex);
+            if (!Boolean.TRUE.equals(rule.getUnique())) {
+                continue;
+            }
+
+            List<Integer> with = rule.getUniqueWith() != null ? rule.getUniqueWith() : List.of();
+            int[] keyColumns = new int[with.size() + 1];
+            // The column itself was validated by compile()
+            keyColumns[0] = rule.getColumn() - 1;
+            for (int i = 0; i < with.size(); i++) {
+                Integer column = with.get(i);
+                if (column == null || column < 1) {
+                    throw new IllegalArgumentException(
+                            "Invalid uniqueWith column in validation rule #" + (ruleIndex + 1) + ": " + column);
+                }
+                keyColumns[i + 1] = column - 1;
+            }
+            compiled.add(new UniqueCheck(ruleIndex, keyColumns, uniqueSettings));
+        }
+        return compiled.toArray(new UniqueCheck[0]);
+    }
+
+    /**
+     * Collect distinct column indexes used by the compiled checks and unique keys
+     */
+    private static int[] collectReferencedColumns(CompiledCheck[] checks, UniqueCheck[] uniqueChecks) {
+        TreeSet<Integer> columns = new TreeSet<>();
+        for (CompiledCheck check : checks) {
+            columns.add(check.columnIndex);
+        }
+        for (UniqueCheck unique : uniqueChecks) {
+            for (int column : unique.keyColumns) {
+                columns.add(column);
+            }
+        }
+        return columns.stream().mapToInt(Integer::intValue).toArray();
     }
 }
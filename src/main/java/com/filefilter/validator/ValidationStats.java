@@ -0,0 +1,27 @@
+package com.filefilter.validator;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Immutable snapshot of ValidationEngine counters
+ * Used to find the rules responsible for rejects and expensive checks (e.g. pathological regexes)
+ */
+@Getter
+@Builder
+public class ValidationStats {
+
+    /**
+     * Statistics per configured rule, in configuration order
+     * A rule counts as evaluated when at least one of its checks ran
+     */
+    private final List<CheckStats> rules;
+
+    /**
+     * Statistics per check type: columnCount, notEmpty, valueInList, regex, columnPresent
+     * The column count check is counted but not timed
+     */
+    private final List<CheckStats> checkTypes;
+}
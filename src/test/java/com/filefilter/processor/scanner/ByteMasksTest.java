@@ -0,0 +1,180 @@
+package com.filefilter.processor.scanner;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Differential tests of the block scanning paths (ByteMasks) against the inline scalar loops
+ * DelimitedLineScanner and CsvRecordScanner must give the same lines, records and fields with and
+ * without masks. VectorByteMasks is covered when the JVM runs with the Vector API (see the surefire
+ * argLine in pom.xml) and the CPU has wide enough vectors, ScalarMasks always.
+ */
+class ByteMasksTest {
+
+    private static final long SEED = 20_261_017L;
+    private static final int DOCUMENTS = 3_000;
+
+    /**
+     * Small sizes make the buffer grow and move while scanning, 0 uses the in-memory constructor
+     */
+    private static final int[] BUFFER_SIZES = {0, 7, 64, 100, 4096};
+
+    /**
+     * Document bytes - plain content is the most likely, so that lines span several 64-byte blocks
+     */
+    private static final byte[] ALPHABET = {
+            'a', 'a', 'a', 'a', 'a', 'a', 'b', ' ', ',', ',', '|', '|', '"', '"', '\n', '\r', (byte) 0xC3, (byte) 0xA9
+    };
+
+    static Stream<Arguments> masks() {
+        Stream.Builder<Arguments> masks = Stream.builder();
+        masks.add(Arguments.of("scalar", new ScalarMasks()));
+        if (SimdSupport.MASKS != null) {
+            masks.add(Arguments.of(SimdSupport.MASKS.describe(), SimdSupport.MASKS));
+        }
+        return masks.build();
+    }
+
+    @Test
+    void vectorMasksMatchScalarMasks() {
+        assumeTrue(SimdSupport.MASKS != null, "Vector API not available");
+        ByteMasks vector = SimdSupport.MASKS;
+        ByteMasks scalar = new ScalarMasks();
+        Random random = new Random(SEED);
+        byte[] b = randomBytes(random, 4 * ByteMasks.BLOCK);
+
+        for (int n = 0; n < DOCUMENTS; n++) {
+            int offset = random.nextInt(b.length - ByteMasks.BLOCK + 1);
+            byte v1 = ALPHABET[random.nextInt(ALPHABET.length)];
+            byte v2 = ALPHABET[random.nextInt(ALPHABET.length)];
+            byte v3 = ALPHABET[random.nextInt(ALPHABET.length)];
+            assertEquals(scalar.mask(b, offset, v1), vector.mask(b, offset, v1));
+            assertEquals(scalar.mask(b, offset, v1, v2, v3), vector.mask(b, offset, v1, v2, v3));
+            if (n % 100 == 0) {
+                b = randomBytes(random, b.length);
+            }
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("masks")
+    void delimitedLineScannerMatchesScalarLoops(String name, ByteMasks masks) throws IOException {
+        Random random = new Random(SEED);
+        for (int n = 0; n < DOCUMENTS; n++) {
+            byte[] data = randomBytes(random, random.nextInt(300));
+            for (byte[] delimiter : new byte[][]{{','}, {'|', '|'}}) {
+                for (int bufferSize : BUFFER_SIZES) {
+                    assertEquals(lines(data, delimiter, bufferSize, null), lines(data, delimiter, bufferSize, masks),
+                            () -> "document " + new String(data, StandardCharsets.ISO_8859_1));
+                }
+            }
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("masks")
+    void csvRecordScannerMatchesScalarLoop(String name, ByteMasks masks) {
+        Random random = new Random(SEED);
+        for (int n = 0; n < DOCUMENTS; n++) {
+            byte[] data = randomBytes(random, random.nextInt(300));
+            for (int bufferSize : BUFFER_SIZES) {
+                assertEquals(records(data, bufferSize, null), records(data, bufferSize, masks),
+                        () -> "document " + new String(data, StandardCharsets.ISO_8859_1));
+            }
+        }
+    }
+
+    private static byte[] randomBytes(Random random, int length) {
+        byte[] b = new byte[length];
+        for (int i = 0; i < length; i++) {
+            b[i] = ALPHABET[random.nextInt(ALPHABET.length)];
+        }
+        return b;
+    }
+
+    /**
+     * Position, field offsets and raw bytes of every line
+     */
+    private static List<String> lines(byte[] data, byte[] delimiter, int bufferSize, ByteMasks masks)
+            throws IOException {
+        DelimitedLineScanner scanner = bufferSize == 0
+                ? new DelimitedLineScanner(data, delimiter, masks)
+                : new DelimitedLineScanner(new ByteArrayInputStream(data), delimiter, bufferSize, masks);
+        List<String> lines = new ArrayList<>();
+        while (scanner.nextLine()) {
+            StringBuilder line = new StringBuilder().append(scanner.position()).append(':');
+            for (int i = 0; i < scanner.fieldCount(); i++) {
+                line.append(scanner.fieldStart(i) - scanner.lineStart()).append('-')
+                        .append(scanner.fieldEnd(i) - scanner.lineStart()).append(' ');
+            }
+            lines.add(line.append(scanner.line(StandardCharsets.ISO_8859_1)).toString());
+        }
+        return lines;
+    }
+
+    /**
+     * Position, field values and raw bytes of every record, and the error for unterminated quotes
+     */
+    private static List<String> records(byte[] data, int bufferSize, ByteMasks masks) {
+        CsvRecordScanner scanner = bufferSize == 0
+                ? new CsvRecordScanner(data, masks)
+                : new CsvRecordScanner(new ByteArrayInputStream(data), bufferSize, masks);
+        List<String> records = new ArrayList<>();
+        try {
+            while (scanner.nextRecord()) {
+                StringBuilder record = new StringBuilder().append(scanner.position()).append(':');
+                for (int i = 0; i < scanner.fieldCount(); i++) {
+                    record.append('[').append(scanner.field(i, StandardCharsets.ISO_8859_1)).append(']');
+                }
+                ByteArrayOutputStream raw = new ByteArrayOutputStream();
+                scanner.writeRecord(raw);
+                records.add(record.append(raw.toString(StandardCharsets.ISO_8859_1)).toString());
+            }
+        } catch (IOException e) {
+            records.add(e.getMessage());
+        }
+        return records;
+    }
+
+    /**
+     * Byte-by-byte ByteMasks, to run the block paths without the Vector API
+     */
+    private static final class ScalarMasks implements ByteMasks {
+
+        @Override
+        public long mask(byte[] b, int offset, byte value) {
+            return mask(b, offset, value, value, value);
+        }
+
+        @Override
+        public long mask(byte[] b, int offset, byte v1, byte v2, byte v3) {
+            long mask = 0;
+            for (int i = 0; i < BLOCK; i++) {
+                byte c = b[offset + i];
+                if (c == v1 || c == v2 || c == v3) {
+                    mask |= 1L << i;
+                }
+            }
+            return mask;
+        }
+
+        @Override
+        public String describe() {
+            return "scalar";
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.filefilter.processor.scanner;
+
+import com.filefilter.validator.RowView;
+import com.opencsv.CSVParserBuilder;
+import com.opencsv.CSVReader;
+import com.opencsv.CSVReaderBuilder;
+import com.opencsv.ICSVParser;
+import com.opencsv.exceptions.CsvValidationException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Differential tests of CsvRecordScanner against CSVReader as CsvFileProcessor configures it
+ * (NULL_CHARACTER as escape character) - records and field values must be the same
+ */
+class CsvRecordScannerTest {
+
+    private static final long SEED = 20_261_017L;
+    private static final int DOCUMENTS = 20_000;
+
+    /**
+     * Document pieces - "\r" on its own is only used inside quotes (see CsvRecordScanner)
+     */
+    private static final String[] TOKENS = {
+            "a", "b", "\u00e9", "\ud83d\ude00", " ", "\t", ",", ",", "\"", "\"", "\"\"", "\n", "\r\n", "\r"
+    };
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "a,b,c\r\nd,e,f\r\n",
+            "a,b\nc,d",
+            "\n\r\n,\n",
+            "\"a\rb\",c\n\"d\r\ne\",\"f\ng\"\n",
+            "\"\r\",\"\r\n\",\"\n\"\r\n",
+            "\"a\"\"b\",\"\"\"\",\"\"\n",
+            "a\"a\"a\n",
+            "\",\"\"\"aaa\n",
+            "x, \"a\",  \"b\" \n",
+            "  \"a\"\n",
+            "ab\"\"c,\"a\"b\"c\"\n",
+            "\u00e9\u00e9\"x\"y,\ud83d\ude00\"x\"y\n",
+            "\"a\nbcd\"e\"f\"\n",
+            "\"a\"  ,b\"\n\"\n"
+    })
+    void matchesCsvReaderOnEdgeCases(String csv) throws Exception {
+        assertSameRecords(csv);
+    }
+
+    @Test
+    void matchesCsvReaderOnRandomDocuments() throws Exception {
+        Random random = new Random(SEED);
+        for (int n = 0; n < DOCUMENTS; n++) {
+            assertSameRecords(randomDocument(random));
+        }
+    }
+
+    @Test
+    void rejectsUnterminatedQuotes() {
+        assertThrows(IOException.class, () -> readAll(new CsvRecordScanner("a,\"b\nc".getBytes(StandardCharsets.UTF_8))));
+    }
+
+    private static String randomDocument(Random random) {
+        StringBuilder csv = new StringBuilder();
+        boolean quoted = false;
+        int tokens = random.nextInt(40);
+        for (int i = 0; i < tokens; i++) {
+            String token = TOKENS[random.nextInt(TOKENS.length)];
+            if (token.equals("\r") && !quoted) {
+                continue;
+            }
+            if (token.equals("\"")) {
+                quoted = !quoted;
+            }
+            csv.append(token);
+        }
+        if (quoted) {
+            csv.append('"');
+        }
+        return csv.toString();
+    }
+
+    private static void assertSameRecords(String csv) throws IOException, CsvValidationException {
+        List<String[]> expected = new ArrayList<>();
+        try (CSVReader reader = new CSVReaderBuilder(new StringReader(csv))
+                .withCSVParser(new CSVParserBuilder().withEscapeChar(ICSVParser.NULL_CHARACTER).build())
+                .build()) {
+            String[] record;
+            while ((record = reader.readNext()) != null) {
+                expected.add(record);
+            }
+        }
+
+        byte[] bytes = csv.getBytes(StandardCharsets.UTF_8);
+        String message = "CSV " + csv.replace("\r", "\\r").replace("\n", "\\n");
+        // A small buffer, so that records are moved and the buffer grows while scanning
+        assertRecords(expected, readAll(new CsvRecordScanner(new ByteArrayInputStream(bytes), 8)), message);
+        assertRecords(expected, readAll(new CsvRecordScanner(bytes)), message);
+    }
+
+    private static void assertRecords(List<String[]> expected, List<String[]> actual, String message) {
+        assertEquals(expected.size(), actual.size(), message);
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(expected.get(i), actual.get(i), message + ", record " + i);
+        }
+    }
+
+    /**
+     * All records, with field() and rowView() checked to give the same values
+     */
+    private static List<String[]> readAll(CsvRecordScanner scanner) throws IOException {
+        List<String[]> records = new ArrayList<>();
+        RowView row = scanner.rowView(StandardCharsets.UTF_8);
+        while (scanner.nextRecord()) {
+            String[] fields = new String[scanner.fieldCount()];
+            for (int i = 0; i < fields.length; i++) {
+                fields[i] = scanner.field(i, StandardCharsets.UTF_8);
+                assertEquals(fields[i], row.field(i).toString());
+            }
+            records.add(fields);
+        }
+        assertFalse(scanner.nextRecord());
+        return records;
+    }
+}
@@ -0,0 +1,53 @@
+package com.filefilter.validator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    private static final int KEYS = 200_000;
+
+    @Test
+    void hasNoFalseNegativesAndKeepsTheTargetRate() {
+        BloomFilter filter = new BloomFilter(KEYS, 0.01);
+        Random random = new Random(11);
+        long[] keys = new long[KEYS * 2];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+        }
+
+        for (int i = 0; i < KEYS; i++) {
+            filter.put(keys[2 * i], keys[2 * i + 1] | 1);
+        }
+        for (int i = 0; i < KEYS; i++) {
+            assertTrue(filter.mightContain(keys[2 * i], keys[2 * i + 1] | 1), "false negative");
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < KEYS; i++) {
+            if (filter.mightContain(random.nextLong(), random.nextLong() | 1)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < KEYS * 0.01, "false positive rate " + (double) falsePositives / KEYS);
+    }
+
+    @Test
+    void sequentialNumericKeysSpreadOverTheFilter() {
+        // Numeric unique keys are (value, NUMBER_KEY) - dense values must not cluster in a few blocks
+        BloomFilter filter = new BloomFilter(KEYS, 0.01);
+        for (long value = 0; value < KEYS; value++) {
+            filter.put(value, UniqueCheck.NUMBER_KEY);
+        }
+        int falsePositives = 0;
+        for (long value = KEYS; value < 2L * KEYS; value++) {
+            if (filter.mightContain(value, UniqueCheck.NUMBER_KEY)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < KEYS * 0.01, "false positive rate " + (double) falsePositives / KEYS);
+    }
+}
@@ -0,0 +1,223 @@
+package com.filefilter.validator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Differential tests of RegexFastPath against java.util.regex
+ * For every pattern the fast path accepts, match() must agree with Pattern.matcher(value).matches(),
+ * or be UNDECIDED for values containing surrogates
+ */
+class RegexFastPathTest {
+
+    private static final long SEED = 20_260_417L;
+    private static final int PATTERNS = 20_000;
+    private static final int VALUES_PER_PATTERN = 60;
+
+    /**
+     * Pattern elements, including escapes, anchors look-alikes and unsupported syntax
+     */
+    private static final String[] ATOMS = {
+            "a", "b", "z", "0", "9", "-", ",", "_", " ", "\u00e9", "\u2028", ".",
+            "\\d", "\\D", "\\w", "\\W", "\\s", "\\S", "\\t", "\\n",
+            "\\.", "\\$", "\\^", "\\\\", "\\-", "\\[", "\\]", "\\{", "\\|",
+            "(", ")", "a|b", "\\b", "\\p{L}", "$", "^"
+    };
+
+    /**
+     * Members of [...] classes - ranges, leading/trailing '-', escaped members, predefined classes
+     */
+    private static final String[] CLASS_MEMBERS = {
+            "a", "z", "0", "_", ",", ".", "$", "^", "-", "]", "a-z", "A-F", "0-9", "9-0", "a-", "-z",
+            "\\]", "\\[", "\\-", "\\\\", "\\^", "\\d", "\\w", "\\s", "\\D", "\\t", "\\n-\\r",
+            "\u00e9", "\u00e4-\u00fc", "&&", "[a]", " "
+    };
+
+    private static final String[] QUANTIFIERS = {
+            "", "", "", "?", "*", "+", "{2}", "{0}", "{1,3}", "{0,2}", "{2,}", "{3,3}",
+            "??", "*+", "+?", "{2}?", "{2,1}", "{,2}", "{x}", "{10000}"
+    };
+
+    /**
+     * Value chars: pattern alphabet plus line terminators, non-ASCII and surrogates
+     */
+    private static final String VALUE_CHARS = "ab z09-,_. $^\\[]{|}\t\n\r\u000bAF\u00e9\u00e4\u00fc\u0085\u2028\u2029";
+    private static final String SURROGATE_PAIR = "\uD83D\uDE00";
+
+    @Test
+    void agreesWithPatternOnGeneratedPatterns() {
+        Random random = new Random(SEED);
+        int analyzed = 0;
+        int matches = 0;
+
+        for (int p = 0; p < PATTERNS; p++) {
+            String regex = randomPattern(random);
+            Pattern pattern;
+            try {
+                pattern = Pattern.compile(regex);
+            } catch (PatternSyntaxException e) {
+                continue;
+            }
+            RegexFastPath fastPath = RegexFastPath.analyze(regex);
+            if (fastPath == null) {
+                continue;
+            }
+            analyzed++;
+
+            for (int v = 0; v < VALUES_PER_PATTERN; v++) {
+                String value = randomValue(random, regex);
+                boolean expected = pattern.matcher(value).matches();
+                int actual = fastPath.match(value);
+                assertAgrees(regex, value, expected, actual);
+                if (expected) {
+                    matches++;
+                }
+            }
+        }
+
+        // The generators must exercise both the fast path and matching values
+        assertTrue(analyzed > PATTERNS / 10, "analyzed patterns: " + analyzed);
+        assertTrue(matches > analyzed, "matching values: " + matches);
+    }
+
+    @Test
+    void trimsOnlyUnescapedAnchors() {
+        assertAgreesOn("^99\\d{5}$", "9912345", "991234", "^9912345", "9912345$");
+        assertAgreesOn("a\\$", "a$", "a");
+        assertAgreesOn("a\\\\$", "a\\", "a\\$", "a");
+        assertAgreesOn("\\^a", "^a", "a");
+        assertAgreesOn("^\\$$", "$", "");
+        assertNull(RegexFastPath.analyze("a$b"));
+        assertNull(RegexFastPath.analyze("a^"));
+    }
+
+    @Test
+    void parsesClassRanges() {
+        assertAgreesOn("[-a]", "-", "a", "b");
+        assertAgreesOn("[a-]", "-", "a", "b");
+        assertAgreesOn("[a\\-z]", "-", "a", "z", "b");
+        assertAgreesOn("[\\]\\\\x]+", "]", "\\", "x]\\", "[");
+        assertAgreesOn("[^,]*", "", "abc", "a,b");
+        assertAgreesOn("[A-Z0-9_]{2,4}", "A1", "AB_9", "ab", "ABCDE");
+        assertAgreesOn("[\\d\\s]", "5", " ", "\t", "a");
+        assertAgreesOn("[^\\w]", "a", "-", "\u00e9");
+        assertAgreesOn("[\\t- ]", "\t", "\n", " ", "!");
+        // Escaped upper bounds and ranges from predefined classes are left to Pattern
+        assertNull(RegexFastPath.analyze("[\\t-\\r]"));
+        assertNull(RegexFastPath.analyze("[\\d-z]"));
+        assertNull(RegexFastPath.analyze("[a-z&&[^b]]"));
+    }
+
+    @Test
+    void usesTheValueLengthForTheVariableElement() {
+        assertAgreesOn(".{12,13}", "123456789012", "1234567890123", "12345678901", "12345678901234");
+        assertAgreesOn("[A-Z]{2}-\\d+", "AB-1", "AB-12345", "AB-", "A-1", "AB-1a");
+        assertAgreesOn("a*b", "b", "ab", "aaab", "aaa", "ba");
+        assertAgreesOn("x?\\d{3}", "123", "x123", "x12", "xx123");
+        assertAgreesOn("\\d{2,}z", "12z", "12345z", "1z");
+        assertNull(RegexFastPath.analyze("a*b*"));
+        assertNull(RegexFastPath.analyze("a{1,2}b?"));
+    }
+
+    @Test
+    void leavesSurrogatesToPattern() {
+        RegexFastPath fastPath = RegexFastPath.analyze(".");
+        assertNotNull(fastPath);
+        // One code point, two chars: Pattern matches, a char-based match would not
+        assertEquals(RegexFastPath.UNDECIDED, fastPath.match(SURROGATE_PAIR));
+        assertEquals(RegexFastPath.UNDECIDED, fastPath.match("\uD800"));
+        assertAgreesOn("\\D{3}", "a" + SURROGATE_PAIR, "ab" + SURROGATE_PAIR, "abc");
+        assertAgreesOn("[^a]", SURROGATE_PAIR, "\uDE00", "b");
+        assertNull(RegexFastPath.analyze(SURROGATE_PAIR));
+    }
+
+    private static void assertAgreesOn(String regex, String... values) {
+        RegexFastPath fastPath = RegexFastPath.analyze(regex);
+        assertNotNull(fastPath, "fast path expected for " + regex);
+        Pattern pattern = Pattern.compile(regex);
+        for (String value : values) {
+            assertAgrees(regex, value, pattern.matcher(value).matches(), fastPath.match(value));
+        }
+    }
+
+    private static void assertAgrees(String regex, String value, boolean expected, int actual) {
+        String message = "pattern '" + escape(regex) + "', value '" + escape(value) + "'";
+        if (actual == RegexFastPath.UNDECIDED) {
+            assertTrue(hasSurrogate(value), "undecided without surrogate: " + message);
+        } else {
+            assertEquals(expected ? 1 : 0, actual, message);
+        }
+    }
+
+    private static String randomPattern(Random random) {
+        StringBuilder regex = new StringBuilder();
+        if (random.nextInt(3) == 0) {
+            regex.append('^');
+        }
+        int elements = 1 + random.nextInt(4);
+        for (int i = 0; i < elements; i++) {
+            if (random.nextInt(4) == 0) {
+                regex.append('[');
+                if (random.nextInt(3) == 0) {
+                    regex.append('^');
+                }
+                int members = 1 + random.nextInt(3);
+                for (int m = 0; m < members; m++) {
+                    regex.append(pick(random, CLASS_MEMBERS));
+                }
+                regex.append(']');
+            } else {
+                regex.append(pick(random, ATOMS));
+            }
+            // Mostly fixed counts, so that several elements still leave one variable element
+            regex.append(random.nextInt(3) == 0 ? pick(random, QUANTIFIERS) : "");
+        }
+        if (random.nextInt(3) == 0) {
+            regex.append('$');
+        }
+        return regex.toString();
+    }
+
+    /**
+     * Random value over the pattern's own chars and VALUE_CHARS, sometimes with a surrogate
+     */
+    private static String randomValue(Random random, String regex) {
+        int length = random.nextInt(8);
+        StringBuilder value = new StringBuilder(length + 2);
+        for (int i = 0; i < length; i++) {
+            int kind = random.nextInt(10);
+            if (kind < 5) {
+                value.append(regex.charAt(random.nextInt(regex.length())));
+            } else if (kind < 9) {
+                value.append(VALUE_CHARS.charAt(random.nextInt(VALUE_CHARS.length())));
+            } else {
+                value.append(random.nextBoolean() ? SURROGATE_PAIR : "\uDC00");
+            }
+        }
+        return value.toString();
+    }
+
+    private static String pick(Random random, String[] choices) {
+        return choices[random.nextInt(choices.length)];
+    }
+
+    private static boolean hasSurrogate(String value) {
+        return value.chars().anyMatch(c -> Character.isSurrogate((char) c));
+    }
+
+    private static String escape(String text) {
+        StringBuilder escaped = new StringBuilder();
+        for (char c : text.toCharArray()) {
+            escaped.append(c < 32 || c > 126 ? String.format("\\u%04x", (int) c) : String.valueOf(c));
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,90 @@
+package com.filefilter.validator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SortedKeyRunTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void findsKeysInEveryIndexBlock() throws IOException {
+        // Even highs from -3000 to 2998, over several blocks of 512 keys
+        try (SortedKeyRun run = write(-3000, 3000, 2, 0)) {
+            assertEquals(3000, run.size());
+            for (long high = -3000; high < 3000; high++) {
+                assertEquals(high % 2 == 0, run.contains(high, 1), "high " + high);
+            }
+            assertFalse(run.contains(-3002, 1));
+            assertFalse(run.contains(3000, 1));
+            assertFalse(run.contains(0, 3));
+        }
+    }
+
+    @Test
+    void mergesRunsInKeyOrder() throws IOException {
+        SortedKeyRun even = write(-1000, 1000, 2, 0);
+        SortedKeyRun odd = write(-999, 1000, 2, 0);
+        SortedKeyRun small = write(5, 6, 1, 0);
+
+        try (SortedKeyRun merged = SortedKeyRun.merge(directory, List.of(even, odd, small), 1)) {
+            even.close();
+            odd.close();
+            small.close();
+
+            assertEquals(2001, merged.size());
+            assertEquals(1, merged.tier());
+            for (long high = -1000; high < 1000; high++) {
+                assertTrue(merged.contains(high, 1), "high " + high);
+            }
+            assertFalse(merged.contains(1000, 1));
+            assertEquals(1, countFiles());
+        }
+    }
+
+    @Test
+    void closeDeletesTheFile() throws IOException {
+        SortedKeyRun run = write(0, 10, 1, 0);
+        assertEquals(1, countFiles());
+        run.close();
+        assertEquals(0, countFiles());
+    }
+
+    @Test
+    void ordersBySignedHighThenLow() {
+        assertTrue(SortedKeyRun.compare(-1, 5, 0, 1) < 0);
+        assertTrue(SortedKeyRun.compare(Long.MIN_VALUE, 1, Long.MAX_VALUE, 1) < 0);
+        assertTrue(SortedKeyRun.compare(3, -1, 3, 1) < 0);
+        assertEquals(0, SortedKeyRun.compare(3, 1, 3, 1));
+    }
+
+    /**
+     * Run of the keys (high, 1) for high = from, from + step, ... below to
+     */
+    private SortedKeyRun write(long from, long to, int step, int tier) throws IOException {
+        int count = (int) ((to - from + step - 1) / step);
+        ByteBuffer entries = ByteBuffer.allocate(count * SortedKeyRun.ENTRY_BYTES);
+        for (long high = from; high < to; high += step) {
+            entries.putLong(high).putLong(1);
+        }
+        return SortedKeyRun.write(directory, entries, count, tier);
+    }
+
+    private long countFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.filefilter.validator;
+
+import com.filefilter.model.UniqueConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UniqueCheckTest {
+
+    @TempDir
+    Path spillDirectory;
+
+    private UniqueCheck check;
+
+    @AfterEach
+    void releaseKeys() {
+        if (check != null) {
+            check.reset();
+        }
+    }
+
+    @Test
+    void comparesSingleColumnKeysAsExactText() {
+        check = new UniqueCheck(0, new int[]{0}, settings());
+        assertTrue(check.testRow(row("7")));
+        assertFalse(check.testRow(row("7")));
+        // Numeric keys are stored as numbers, other text is hashed - both kinds stay apart
+        assertTrue(check.testRow(row("07")));
+        assertTrue(check.testRow(row("7 ")));
+        assertTrue(check.testRow(row("-7")));
+        assertTrue(check.testRow(row("99999999999999999999")));
+        assertFalse(check.testRow(row("07")));
+        assertFalse(check.testRow(row("99999999999999999999")));
+        // Missing values are written as empty columns
+        assertTrue(check.testRow(row((String) null)));
+        assertFalse(check.testRow(row("")));
+    }
+
+    @Test
+    void separatesTheColumnsOfCompositeKeys() {
+        check = new UniqueCheck(0, new int[]{1, 0}, settings());
+        assertEquals(1, check.columnIndex());
+        assertEquals(1, check.lastKeyColumn);
+        assertTrue(check.testRow(row("c", "ab")));
+        assertTrue(check.testRow(row("bc", "a")));
+        assertTrue(check.testRow(row("ab", "c")));
+        assertFalse(check.testRow(row("c", "ab")));
+        // Views (not Strings) hash like Strings
+        assertFalse(check.testRow(row(new StringBuilder("bc"), new StringBuilder("a"))));
+    }
+
+    @Test
+    void addsCheckedKeysOnlyOnRequest() {
+        check = new UniqueCheck(0, new int[]{0}, settings());
+        assertTrue(check.isNew(row("x")));
+        assertTrue(check.isNew(row("x")));
+        check.addKey();
+        assertFalse(check.isNew(row("x")));
+    }
+
+    @Test
+    void copyStartsWithAnEmptyKeySet() {
+        check = new UniqueCheck(0, new int[]{0}, settings());
+        assertTrue(check.testRow(row("x")));
+        UniqueCheck copy = check.copy();
+        assertTrue(copy.testRow(row("x")));
+        copy.reset();
+    }
+
+    @Test
+    void hashesValuesWithTheirLength() {
+        KeyHasher hasher = new KeyHasher();
+        long[] abC = hash(hasher, "ab", "c");
+        long[] aBc = hash(hasher, "a", "bc");
+        assertNotEquals(abC[0], aBc[0]);
+        assertNotEquals(abC[1], aBc[1]);
+        assertEquals(abC[0], hash(hasher, "ab", "c")[0]);
+        assertEquals(abC[1], hash(hasher, new StringBuilder("ab"), "c")[1]);
+        assertNotEquals(hash(hasher, (CharSequence) null)[0], hash(hasher, "")[0]);
+        // Longer than one 8-char block
+        assertNotEquals(hash(hasher, "0123456789abcdef0")[0], hash(hasher, "0123456789abcdef1")[0]);
+    }
+
+    private UniqueConfig settings() {
+        UniqueConfig settings = new UniqueConfig();
+        settings.setMemoryMb(1);
+        settings.setSpillDirectory(spillDirectory.toString());
+        return settings;
+    }
+
+    private static long[] hash(KeyHasher hasher, CharSequence... values) {
+        hasher.reset();
+        for (CharSequence value : values) {
+            hasher.add(value);
+        }
+        long high = hasher.finish();
+        return new long[]{high, hasher.low()};
+    }
+
+    private static RowView row(CharSequence... values) {
+        return new RowView() {
+            @Override
+            public int fieldCount() {
+                return values.length;
+            }
+
+            @Override
+            public CharSequence field(int index) {
+                return values[index];
+            }
+        };
+    }
+}
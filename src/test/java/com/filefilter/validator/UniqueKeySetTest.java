@@ -0,0 +1,113 @@
+package com.filefilter.validator;
+
+import com.filefilter.model.UniqueConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * UniqueKeySet with a tiny table, so that keys spill to run files and runs are merged
+ */
+class UniqueKeySetTest {
+
+    /**
+     * Spills every 716 keys, 8 runs of a tier are merged into the next tier
+     */
+    private static final int CAPACITY = 1024;
+
+    @TempDir
+    Path spillDirectory;
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void findsDuplicatesAcrossSpilledAndMergedRuns(boolean bloomFilter) throws IOException {
+        UniqueKeySet keys = new UniqueKeySet("test", settings(bloomFilter), CAPACITY);
+        Set<List<Long>> expected = new HashSet<>();
+        Random random = new Random(7);
+        int maxRuns = 0;
+
+        // About 60 000 distinct keys: more than 64 spills, so tier 0 and tier 1 runs are merged
+        for (int i = 0; i < 120_000; i++) {
+            long high = random.nextInt(90_000) - 45_000L;
+            long low = (high * 31) | 1;
+            boolean isNew = expected.add(List.of(high, low));
+
+            if (i % 5 == 0) {
+                assertEquals(!isNew, keys.contains(high, low), "contains " + high);
+            }
+            assertEquals(isNew, keys.add(high, low), "add " + high);
+            maxRuns = Math.max(maxRuns, countSpillFiles());
+        }
+
+        assertEquals(expected.size(), keys.size());
+        assertTrue(maxRuns > 1, "keys were not spilled");
+        assertTrue(maxRuns < 3 * 8, "runs were not merged: " + maxRuns);
+
+        // Every key is found again, whether in memory or in a run
+        for (List<Long> key : expected) {
+            assertFalse(keys.add(key.get(0), key.get(1)));
+        }
+    }
+
+    @Test
+    void clearDeletesSpillFilesAndForgetsKeys() throws IOException {
+        UniqueKeySet keys = new UniqueKeySet("test", settings(false), CAPACITY);
+        for (long key = 0; key < 5_000; key++) {
+            assertTrue(keys.add(key, 3));
+        }
+        assertTrue(countSpillFiles() > 0);
+
+        keys.clear();
+        assertEquals(0, countSpillFiles());
+        assertEquals(0, keys.size());
+        assertFalse(keys.contains(1, 3));
+
+        // Usable again after clear()
+        assertTrue(keys.add(1, 3));
+        assertFalse(keys.add(1, 3));
+        keys.clear();
+    }
+
+    @Test
+    void keysDifferingInOneHalfAreDistinct() {
+        UniqueKeySet keys = new UniqueKeySet("test", settings(false), CAPACITY);
+        // Numeric keys (low = NUMBER_KEY) never collide with hashed keys (odd low)
+        assertTrue(keys.add(42, UniqueCheck.NUMBER_KEY));
+        assertTrue(keys.add(42, UniqueCheck.NUMBER_KEY | 1));
+        assertTrue(keys.add(-42, UniqueCheck.NUMBER_KEY));
+        assertTrue(keys.add(Long.MIN_VALUE, 1));
+        assertTrue(keys.add(Long.MAX_VALUE, 1));
+        assertFalse(keys.add(42, UniqueCheck.NUMBER_KEY));
+        assertFalse(keys.add(Long.MIN_VALUE, 1));
+        assertEquals(5, keys.size());
+        keys.clear();
+    }
+
+    private UniqueConfig settings(boolean bloomFilter) {
+        UniqueConfig settings = new UniqueConfig();
+        settings.setSpillDirectory(spillDirectory.toString());
+        settings.setBloomFilter(bloomFilter);
+        settings.setExpectedKeys(100_000L);
+        return settings;
+    }
+
+    private int countSpillFiles() throws IOException {
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            return (int) files.count();
+        }
+    }
+}